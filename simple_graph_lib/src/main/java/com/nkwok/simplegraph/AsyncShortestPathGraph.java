@@ -0,0 +1,237 @@
+/**
+ * Name: AsyncShortestPathGraph
+ * Description: Asynchronous query facade over ShortestPathGraph.  Queries run on a configurable executor and
+ * 				identical in-flight queries share one computation.  The number of distinct pending queries is
+ * 				bounded; once the bound is reached new queries are rejected instead of queued (backpressure).
+ */
+package com.nkwok.simplegraph;
+
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AsyncShortestPathGraph implements AutoCloseable {
+
+	private final ShortestPathGraph graph;
+	private final Executor executor;
+	private final ExecutorService ownedExecutor;
+	private final int maxPending;
+	private final Semaphore pendingPermits;
+	// it is used to hold the shared computation of every in-flight (from, dest) query
+	private final ConcurrentMap<QueryKey, CompletableFuture<LinkedList<Map<Vertex, Integer>>>> inFlight =
+			new ConcurrentHashMap<>();
+
+	private final AtomicLong submittedCount = new AtomicLong();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+	/**
+	 * Constructor with a caller supplied executor.  The executor is not shut down by close().
+	 *
+	 * @param graph - graph to query
+	 * @param executor - executor running the searches
+	 * @param maxPending - maximum number of distinct queries queued or running at the same time
+	 */
+	public AsyncShortestPathGraph(ShortestPathGraph graph, Executor executor, int maxPending) {
+		this(graph, executor, null, maxPending);
+	}
+
+	/**
+	 * Constructor with an owned fixed thread pool of daemon threads.  The pool is shut down by close().
+	 *
+	 * @param graph - graph to query
+	 * @param threads - number of worker threads
+	 * @param maxPending - maximum number of distinct queries queued or running at the same time
+	 */
+	public AsyncShortestPathGraph(ShortestPathGraph graph, int threads, int maxPending) {
+		this(graph, null, newDaemonPool(threads), maxPending);
+	}
+
+	private AsyncShortestPathGraph(ShortestPathGraph graph, Executor executor, ExecutorService ownedExecutor,
+			int maxPending) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		if (executor == null && ownedExecutor == null) {
+			throw new IllegalArgumentException("null executor");
+		}
+		if (maxPending <= 0) {
+			throw new IllegalArgumentException("maxPending must be positive: " + maxPending);
+		}
+		this.graph = graph;
+		this.executor = executor != null ? executor : ownedExecutor;
+		this.ownedExecutor = ownedExecutor;
+		this.maxPending = maxPending;
+		this.pendingPermits = new Semaphore(maxPending);
+	}
+
+	private static ExecutorService newDaemonPool(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("threads must be positive: " + threads);
+		}
+		return Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "shortest-path-query");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * findShortestPath - asynchronous version of ShortestPathGraph.findShortestPath.  If the same query is
+	 * 						already in flight the caller joins it instead of starting a new search.  If the
+	 * 						pending bound is reached the returned future fails with RejectedExecutionException.
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return future of the path; the path is null if not found.  Each caller receives its own copy of the list.
+	 */
+	public CompletableFuture<LinkedList<Map<Vertex, Integer>>> findShortestPath(String fromName, String destName) {
+
+		QueryKey key = new QueryKey(fromName, destName);
+		CompletableFuture<LinkedList<Map<Vertex, Integer>>> created = new CompletableFuture<>();
+		CompletableFuture<LinkedList<Map<Vertex, Integer>>> existing = inFlight.putIfAbsent(key, created);
+
+		if (existing != null) {
+			coalescedCount.incrementAndGet();
+			return copyOf(existing);
+		}
+
+		if (! pendingPermits.tryAcquire()) {
+			rejectedCount.incrementAndGet();
+			inFlight.remove(key, created);
+			created.completeExceptionally(
+					new RejectedExecutionException("too many pending shortest path queries: " + maxPending));
+			return copyOf(created);
+		}
+
+		submittedCount.incrementAndGet();
+		try {
+			executor.execute(() -> {
+				try {
+					LinkedList<Map<Vertex, Integer>> path = graph.findShortestPath(fromName, destName);
+					// Leave the in-flight table first so late callers start a fresh search on a changed graph
+					inFlight.remove(key, created);
+					created.complete(path);
+				} catch (Throwable t) {
+					inFlight.remove(key, created);
+					created.completeExceptionally(t);
+				} finally {
+					pendingPermits.release();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejectedCount.incrementAndGet();
+			pendingPermits.release();
+			inFlight.remove(key, created);
+			created.completeExceptionally(e);
+		}
+		return copyOf(created);
+	}
+
+	/**
+	 * copyOf - give every caller its own list so that one caller cannot modify the result seen by another
+	 *
+	 * @param shared - the shared computation
+	 * @return future of a private copy of the shared result
+	 */
+	private static CompletableFuture<LinkedList<Map<Vertex, Integer>>> copyOf(
+			CompletableFuture<LinkedList<Map<Vertex, Integer>>> shared) {
+		return shared.thenApply(path -> path == null ? null : new LinkedList<>(path));
+	}
+
+	/**
+	 * @return the graph
+	 */
+	public ShortestPathGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the maximum number of distinct pending queries
+	 */
+	public int getMaxPending() {
+		return maxPending;
+	}
+
+	/**
+	 * @return the number of distinct queries currently queued or running
+	 */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+	/**
+	 * @return the number of searches handed to the executor
+	 */
+	public long getSubmittedCount() {
+		return submittedCount.get();
+	}
+
+	/**
+	 * @return the number of calls that joined an in-flight search
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	/**
+	 * @return the number of calls rejected because of backpressure
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/**
+	 * close - shut down the executor if it is owned by this instance
+	 */
+	@Override
+	public void close() {
+		if (ownedExecutor != null) {
+			ownedExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * QueryKey - key of the in-flight table
+	 */
+	private static final class QueryKey {
+		private final String fromName;
+		private final String destName;
+
+		QueryKey(String fromName, String destName) {
+			this.fromName = fromName;
+			this.destName = destName;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((fromName == null) ? 0 : fromName.hashCode());
+			result = prime * result + ((destName == null) ? 0 : destName.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof QueryKey))
+				return false;
+			QueryKey other = (QueryKey) obj;
+			if (fromName == null ? other.fromName != null : !fromName.equals(other.fromName))
+				return false;
+			if (destName == null ? other.destName != null : !destName.equals(other.destName))
+				return false;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,318 @@
+/**
+ * Name: BreadthFirstSearch
+ * Description: Direction-optimizing breadth first search for unweighted hop counts over an IndexedGraph.
+ * 				Each level is expanded either
+ * 				  top-down - every frontier vertex visits its outgoing edges, vertices are claimed with a
+ * 				             compare-and-set on the visited bitmap
+ * 				  bottom-up - every unvisited vertex looks for a parent in the frontier bitmap through its
+ * 				              incoming edges and stops at the first one found
+ * 				Top-down is used while the frontier is small; bottom-up once the edges leaving the frontier exceed
+ * 				1/ALPHA of the edges left unexplored, and back to top-down when the frontier shrinks under
+ * 				1/BETA of the vertices (Beamer, Asanovic and Patterson).  Large levels are split into chunks
+ * 				expanded in parallel on the common fork join pool.
+ * 				Without the parallel flag, hopDistance is a plain top-down search which keeps its levels and queue
+ * 				in the SearchWorkspace of the calling thread, so a point query allocates no arrays.
+ *
+ * 				An instance keeps statistics of its last search and is not meant to be shared between threads.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+public final class BreadthFirstSearch {
+
+	/**
+	 * hop count of a vertex not reached
+	 */
+	public static final int UNREACHED = -1;
+
+	private static final int ALPHA = 14;
+	private static final int BETA = 24;
+	// frontier vertices per top-down chunk and bitmap words per bottom-up chunk
+	private static final int TOP_DOWN_CHUNK = 1024;
+	private static final int BOTTOM_UP_CHUNK = 64;
+
+	private final IndexedGraph graph;
+	private final boolean parallel;
+	private int topDownLevels;
+	private int bottomUpLevels;
+
+	/**
+	 * Constructor with the graph and the parallel flag
+	 *
+	 * @param graph - graph to search
+	 * @param parallel - true to expand large levels on all cores
+	 */
+	public BreadthFirstSearch(IndexedGraph graph, boolean parallel) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		this.graph = graph;
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Constructor with the graph, expanding large levels in parallel
+	 *
+	 * @param graph - graph to search
+	 */
+	public BreadthFirstSearch(IndexedGraph graph) {
+		this(graph, true);
+	}
+
+	/**
+	 * hopDistances - minimum number of edges from the source to every vertex
+	 *
+	 * @param source - source vertex id
+	 * @return hop count of every vertex, UNREACHED if not reachable
+	 */
+	public int[] hopDistances(int source) {
+		return search(source, -1);
+	}
+
+	/**
+	 * hopDistance - minimum number of edges from the source to the target; the search stops at the target level.
+	 * 					Without the parallel flag it is expanded top-down only, in the workspace of the calling thread.
+	 *
+	 * @param source - source vertex id
+	 * @param target - target vertex id
+	 * @return hop count, UNREACHED if not reachable
+	 */
+	public int hopDistance(int source, int target) {
+		if (parallel) {
+			return search(source, target)[target];
+		}
+		topDownLevels = 0;
+		bottomUpLevels = 0;
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(graph)) {
+			int[] queue = workspace.queue;
+			int head = 0;
+			int tail = 0;
+			workspace.reach(source, 0L, -1);
+			queue[tail++] = source;
+			while (head < tail && ! workspace.reached(target)) {
+				int node = queue[head++];
+				long hops = workspace.distance(node) + 1;
+				if (hops > topDownLevels) {
+					topDownLevels = (int) hops;
+				}
+				for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+					int neighbor = graph.target(slot);
+					if (! workspace.reached(neighbor)) {
+						workspace.reach(neighbor, hops, -1);
+						queue[tail++] = neighbor;
+					}
+				}
+			}
+			return workspace.reached(target) ? (int) workspace.distance(target) : UNREACHED;
+		}
+	}
+
+	/**
+	 * @return the number of levels expanded top-down by the last search
+	 */
+	public int getTopDownLevels() {
+		return topDownLevels;
+	}
+
+	/**
+	 * @return the number of levels expanded bottom-up by the last search
+	 */
+	public int getBottomUpLevels() {
+		return bottomUpLevels;
+	}
+
+	private int[] search(int source, int target) {
+		int n = graph.getNumbersOfVertices();
+		int words = (n + 63) >>> 6;
+		int[] levels = new int[n];
+		Arrays.fill(levels, UNREACHED);
+		AtomicLongArray visited = new AtomicLongArray(words);
+		topDownLevels = 0;
+		bottomUpLevels = 0;
+
+		levels[source] = 0;
+		visited.set(source >>> 6, 1L << source);
+		int[] frontier = {source};
+		long[] frontierBits = null;
+		int frontierSize = 1;
+		long frontierEdges = graph.outDegree(source);
+		long unexploredEdges = graph.getNumbersOfEdges() - frontierEdges;
+		boolean bottomUp = false;
+		int level = 0;
+
+		while (frontierSize > 0 && (target < 0 || levels[target] == UNREACHED)) {
+			if (! bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+				bottomUp = true;
+				frontierBits = toBits(frontier, frontierSize, words);
+			} else if (bottomUp && frontierSize < n / BETA) {
+				bottomUp = false;
+				frontier = toList(frontierBits, frontierSize);
+			}
+
+			level++;
+			long[] counts;
+			if (bottomUp) {
+				long[] next = new long[words];
+				counts = bottomUpStep(frontierBits, next, visited, levels, level);
+				frontierBits = next;
+				bottomUpLevels++;
+			} else {
+				int[][] next = new int[1][];
+				counts = topDownStep(frontier, frontierSize, next, visited, levels, level);
+				frontier = next[0];
+				topDownLevels++;
+			}
+			frontierSize = (int) counts[0];
+			frontierEdges = counts[1];
+			unexploredEdges -= frontierEdges;
+		}
+		return levels;
+	}
+
+	/**
+	 * topDownStep - expand the frontier list over the outgoing edges
+	 *
+	 * @return {vertices in next frontier, edges leaving them}
+	 */
+	private long[] topDownStep(int[] frontier, int frontierSize, int[][] next, AtomicLongArray visited, int[] levels,
+			int level) {
+		int chunks = (frontierSize + TOP_DOWN_CHUNK - 1) / TOP_DOWN_CHUNK;
+		int[][] found = new int[chunks][];
+		IntStream range = IntStream.range(0, chunks);
+		(parallel && chunks > 1 ? range.parallel() : range).forEach(chunk -> {
+			int begin = chunk * TOP_DOWN_CHUNK;
+			int end = Math.min(frontierSize, begin + TOP_DOWN_CHUNK);
+			int[] claimed = new int[64];
+			int size = 0;
+			for(int i = begin; i < end; i++) {
+				int node = frontier[i];
+				for(int slot = graph.firstEdge(node), last = graph.endEdge(node); slot < last; slot++) {
+					int neighbor = graph.target(slot);
+					if (claim(visited, neighbor)) {
+						levels[neighbor] = level;
+						if (size == claimed.length) {
+							claimed = Arrays.copyOf(claimed, size * 2);
+						}
+						claimed[size++] = neighbor;
+					}
+				}
+			}
+			found[chunk] = Arrays.copyOf(claimed, size);
+		});
+
+		int total = 0;
+		for(int[] part: found) {
+			total += part.length;
+		}
+		int[] merged = new int[total];
+		long edges = 0;
+		int position = 0;
+		for(int[] part: found) {
+			for(int node: part) {
+				merged[position++] = node;
+				edges += graph.outDegree(node);
+			}
+		}
+		next[0] = merged;
+		return new long[] {total, edges};
+	}
+
+	/**
+	 * claim - set the visited bit of a vertex
+	 *
+	 * @return true if this call set it
+	 */
+	private static boolean claim(AtomicLongArray visited, int node) {
+		int word = node >>> 6;
+		long bit = 1L << node;
+		while (true) {
+			long old = visited.get(word);
+			if ((old & bit) != 0) {
+				return false;
+			}
+			if (visited.compareAndSet(word, old, old | bit)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * bottomUpStep - every unvisited vertex looks for a parent in the frontier bitmap.  A chunk owns whole
+	 * 					bitmap words, so the next frontier and visited words are only written by one thread.
+	 *
+	 * @return {vertices in next frontier, edges leaving them}
+	 */
+	private long[] bottomUpStep(long[] frontierBits, long[] next, AtomicLongArray visited, int[] levels, int level) {
+		int words = next.length;
+		int n = levels.length;
+		int chunks = (words + BOTTOM_UP_CHUNK - 1) / BOTTOM_UP_CHUNK;
+		long[] vertexCounts = new long[chunks];
+		long[] edgeCounts = new long[chunks];
+		IntStream range = IntStream.range(0, chunks);
+		(parallel && chunks > 1 ? range.parallel() : range).forEach(chunk -> {
+			int beginWord = chunk * BOTTOM_UP_CHUNK;
+			int endWord = Math.min(words, beginWord + BOTTOM_UP_CHUNK);
+			long vertices = 0;
+			long edges = 0;
+			for(int word = beginWord; word < endWord; word++) {
+				long seen = visited.get(word);
+				long added = 0;
+				int base = word << 6;
+				for(int bit = 0; bit < 64 && base + bit < n; bit++) {
+					if ((seen & (1L << bit)) != 0) {
+						continue;
+					}
+					int node = base + bit;
+					for(int pos = graph.firstInEdge(node), last = graph.endInEdge(node); pos < last; pos++) {
+						int parent = graph.source(pos);
+						if ((frontierBits[parent >>> 6] & (1L << parent)) != 0) {
+							levels[node] = level;
+							added |= 1L << bit;
+							vertices++;
+							edges += graph.outDegree(node);
+							break;
+						}
+					}
+				}
+				if (added != 0) {
+					next[word] = added;
+					visited.set(word, seen | added);
+				}
+			}
+			vertexCounts[chunk] = vertices;
+			edgeCounts[chunk] = edges;
+		});
+
+		long vertices = 0;
+		long edges = 0;
+		for(int chunk = 0; chunk < chunks; chunk++) {
+			vertices += vertexCounts[chunk];
+			edges += edgeCounts[chunk];
+		}
+		return new long[] {vertices, edges};
+	}
+
+	private static long[] toBits(int[] frontier, int frontierSize, int words) {
+		long[] bits = new long[words];
+		for(int i = 0; i < frontierSize; i++) {
+			bits[frontier[i] >>> 6] |= 1L << frontier[i];
+		}
+		return bits;
+	}
+
+	private static int[] toList(long[] bits, int size) {
+		int[] list = new int[size];
+		int position = 0;
+		for(int word = 0; word < bits.length; word++) {
+			long value = bits[word];
+			while (value != 0) {
+				list[position++] = (word << 6) + Long.numberOfTrailingZeros(value);
+				value &= value - 1;
+			}
+		}
+		return list;
+	}
+}
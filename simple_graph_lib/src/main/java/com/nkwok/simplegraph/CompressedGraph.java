@@ -0,0 +1,656 @@
+/**
+ * Name: CompressedGraph
+ * Description: Read-only compressed copy of an IndexedGraph for graphs too large to keep as int arrays.  The
+ * 				outgoing edges of every vertex are sorted by target and written to a byte stream in the WebGraph
+ * 				style:
+ * 				  degree     - varint
+ * 				  targets    - the first as the zigzag varint of target - vertex, then the varint gap to the
+ * 				               previous target, so neighbors with close ids take one byte
+ * 				  weights    - after each target, a zigzag varint for int and long weights or the 8 raw bytes of
+ * 				               a double weight
+ * 				The start of every vertex list is kept in an offset index for random access and a Cursor decodes
+ * 				a list sequentially.  The stream is cut into pages of at most 2^30 bytes, a list never crossing
+ * 				a page, so billions of edges fit.  Vertex names are looked up by binary search over the ids in
+ * 				name order instead of a hash map.  Edge names and incoming edges are not kept.
+ *
+ * 				Hop distances (breadth first, top-down) and shortest paths (Dijkstra's Algorithm, with the
+ * 				SearchWorkspace of the calling thread) run directly on the compressed lists.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public final class CompressedGraph {
+
+	private static final int DEFAULT_PAGE_SIZE = 1 << 30;
+
+	private final String[] names;
+	// vertex ids in name order, null when the ids are in name order already
+	private final int[] byName;
+	private final int edgeCount;
+	private final Edge.WeightType weightType;
+	// position of every vertex list in its page
+	private final int[] offsets;
+	private final byte[][] pages;
+	// first vertex of every page
+	private final int[] pageStarts;
+
+	/**
+	 * Constructor with a graph, compressed from its current snapshot.  Once built, the compressed graph does not
+	 * need the snapshot, which can be dropped.
+	 *
+	 * @param graph
+	 */
+	public CompressedGraph(Graph graph) {
+		this(graph == null ? null : graph.getIndexedGraph());
+	}
+
+	/**
+	 * Constructor with a compiled graph
+	 *
+	 * @param graph
+	 */
+	public CompressedGraph(IndexedGraph graph) {
+		this(graph, DEFAULT_PAGE_SIZE);
+	}
+
+	/**
+	 * Constructor with a compiled graph and the page size of the byte stream
+	 *
+	 * @param graph
+	 * @param pageSize - bytes per page; a list larger than a page gets a page of its own
+	 */
+	CompressedGraph(IndexedGraph graph, int pageSize) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		int n = graph.getNumbersOfVertices();
+		this.names = new String[n];
+		for(int id = 0; id < n; id++) {
+			names[id] = graph.getName(id);
+		}
+		boolean sorted = true;
+		for(int id = 1; id < n && sorted; id++) {
+			sorted = names[id - 1].compareTo(names[id]) < 0;
+		}
+		this.byName = sorted ? null : IntStream.range(0, n).boxed()
+				.sorted(Comparator.comparing(id -> names[id]))
+				.mapToInt(Integer::intValue)
+				.toArray();
+		this.edgeCount = graph.getNumbersOfEdges();
+		this.weightType = graph.getWeightType();
+		this.offsets = new int[n];
+
+		List<byte[]> written = new ArrayList<>();
+		List<Integer> starts = new ArrayList<>();
+		starts.add(0);
+		ByteWriter page = new ByteWriter(pageSize);
+		ByteWriter list = new ByteWriter(64);
+		long[] order = new long[0];
+		for(int id = 0; id < n; id++) {
+			int first = graph.firstEdge(id);
+			int degree = graph.outDegree(id);
+			if (order.length < degree) {
+				order = new long[Math.max(degree, order.length * 2)];
+			}
+			// slots sorted by target, the slot offset in the low bits
+			for(int i = 0; i < degree; i++) {
+				order[i] = (long) graph.target(first + i) << Integer.SIZE | i;
+			}
+			Arrays.sort(order, 0, degree);
+
+			list.reset();
+			list.writeVarint(degree);
+			int previous = id;
+			for(int i = 0; i < degree; i++) {
+				int slot = first + (int) order[i];
+				int target = graph.target(slot);
+				if (i == 0) {
+					list.writeVarint(zigzag(target - (long) id));
+				} else {
+					list.writeVarint(target - previous);
+				}
+				previous = target;
+				switch (weightType) {
+				case DOUBLE:
+					list.writeLong(Double.doubleToRawLongBits(graph.doubleWeight(slot)));
+					break;
+				default:
+					list.writeVarint(zigzag(graph.longWeight(slot)));
+					break;
+				}
+			}
+
+			if (page.size() + list.size() > pageSize && page.size() > 0) {
+				written.add(page.toArray());
+				starts.add(id);
+				page.reset();
+			}
+			offsets[id] = page.size();
+			page.write(list);
+		}
+		written.add(page.toArray());
+		this.pages = written.toArray(new byte[written.size()][]);
+		this.pageStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * @return the number of vertices
+	 */
+	public int getNumbersOfVertices() {
+		return names.length;
+	}
+
+	/**
+	 * @return the number of edges
+	 */
+	public int getNumbersOfEdges() {
+		return edgeCount;
+	}
+
+	/**
+	 * @return the narrowest primitive type holding every edge weight
+	 */
+	public Edge.WeightType getWeightType() {
+		return weightType;
+	}
+
+	/**
+	 * getId - return the vertex id of a vertex name
+	 *
+	 * @param name
+	 * @return vertex id, -1 if there is no such vertex
+	 */
+	public int getId(String name) {
+		if (name == null) {
+			return -1;
+		}
+		int low = 0;
+		int high = names.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int id = byName == null ? middle : byName[middle];
+			int compare = names[id].compareTo(name);
+			if (compare < 0) {
+				low = middle + 1;
+			} else if (compare > 0) {
+				high = middle - 1;
+			} else {
+				return id;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param id
+	 * @return the vertex name of a vertex id
+	 */
+	public String getName(int id) {
+		return names[id];
+	}
+
+	/**
+	 * @param id
+	 * @return the number of outgoing edges of a vertex
+	 */
+	public int outDegree(int id) {
+		byte[] page = pageOf(id);
+		int position = offsets[id];
+		int degree = 0;
+		for(int shift = 0; ; shift += 7) {
+			byte b = page[position++];
+			degree |= (b & 0x7f) << shift;
+			if (b >= 0) {
+				return degree;
+			}
+		}
+	}
+
+	/**
+	 * pageOf - return the page holding the list of a vertex
+	 */
+	private byte[] pageOf(int id) {
+		if (pages.length == 1) {
+			return pages[0];
+		}
+		int page = Arrays.binarySearch(pageStarts, id);
+		// the insertion point is one past the page of the vertex
+		return pages[page >= 0 ? page : -page - 2];
+	}
+
+	/**
+	 * @return the number of bytes of the edge stream and the indexes
+	 */
+	public long getSizeInBytes() {
+		long size = (long) offsets.length * Integer.BYTES + (long) pageStarts.length * Integer.BYTES;
+		if (byName != null) {
+			size += (long) byName.length * Integer.BYTES;
+		}
+		for(byte[] page: pages) {
+			size += page.length;
+		}
+		return size;
+	}
+
+	/**
+	 * @return a new cursor over the outgoing edges of the vertices
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Sequential decoder of the outgoing edges of a vertex, in target order.  A cursor is reset to a vertex and
+	 * moved with next; it is not meant to be shared between threads.
+	 */
+	public final class Cursor {
+
+		private byte[] page;
+		private int position;
+		private int remaining;
+		private boolean first;
+		private int target;
+		private long weight;
+		private double doubleWeight;
+
+		private Cursor() {
+		}
+
+		/**
+		 * reset - move the cursor before the first outgoing edge of a vertex
+		 *
+		 * @param id - vertex id
+		 * @return this
+		 */
+		public Cursor reset(int id) {
+			page = pageOf(id);
+			position = offsets[id];
+			remaining = (int) readVarint();
+			first = true;
+			target = id;
+			return this;
+		}
+
+		/**
+		 * next - move to the next edge
+		 *
+		 * @return true if there is one; false at the end of the list
+		 */
+		public boolean next() {
+			if (remaining == 0) {
+				return false;
+			}
+			remaining--;
+			if (first) {
+				first = false;
+				target += (int) unzigzag(readVarint());
+			} else {
+				target += (int) readVarint();
+			}
+			if (weightType == Edge.WeightType.DOUBLE) {
+				long bits = 0;
+				for(int i = 0; i < Long.BYTES; i++) {
+					bits |= (page[position++] & 0xffL) << (i << 3);
+				}
+				doubleWeight = Double.longBitsToDouble(bits);
+			} else {
+				weight = unzigzag(readVarint());
+			}
+			return true;
+		}
+
+		/**
+		 * @return the number of edges left after the current one
+		 */
+		public int remaining() {
+			return remaining;
+		}
+
+		/**
+		 * @return the vertex id the current edge goes to
+		 */
+		public int target() {
+			return target;
+		}
+
+		/**
+		 * @return the weight of the current edge; int and long weight graphs only
+		 */
+		public long weight() {
+			return weight;
+		}
+
+		/**
+		 * @return the weight of the current edge
+		 */
+		public double doubleWeight() {
+			return weightType == Edge.WeightType.DOUBLE ? doubleWeight : weight;
+		}
+
+		private long readVarint() {
+			long value = 0;
+			for(int shift = 0; ; shift += 7) {
+				byte b = page[position++];
+				value |= (long) (b & 0x7f) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+		}
+	}
+
+	/**
+	 * hopDistances - minimum number of edges from the source to every vertex, see BreadthFirstSearch
+	 *
+	 * @param source - source vertex id
+	 * @return hop count of every vertex, BreadthFirstSearch.UNREACHED if not reachable
+	 */
+	public int[] hopDistances(int source) {
+		checkId(source);
+		int[] levels = new int[names.length];
+		Arrays.fill(levels, BreadthFirstSearch.UNREACHED);
+		int[] queue = new int[names.length];
+		int head = 0;
+		int tail = 0;
+		levels[source] = 0;
+		queue[tail++] = source;
+		Cursor cursor = new Cursor();
+		while (head < tail) {
+			int node = queue[head++];
+			cursor.reset(node);
+			while (cursor.next()) {
+				int neighbor = cursor.target();
+				if (levels[neighbor] == BreadthFirstSearch.UNREACHED) {
+					levels[neighbor] = levels[node] + 1;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return levels;
+	}
+
+	/**
+	 * hopDistance - minimum number of edges from the source to the target
+	 *
+	 * @param source - source vertex id
+	 * @param target - target vertex id
+	 * @return hop count, BreadthFirstSearch.UNREACHED if not reachable
+	 */
+	public int hopDistance(int source, int target) {
+		checkId(source);
+		checkId(target);
+		// the levels are kept in the workspace of the calling thread, so a query allocates no arrays
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(names.length)) {
+			int[] queue = workspace.queue;
+			int head = 0;
+			int tail = 0;
+			workspace.reach(source, 0L, -1);
+			queue[tail++] = source;
+			Cursor cursor = new Cursor();
+			// it stops once the target is reached
+			while (head < tail && ! workspace.reached(target)) {
+				int node = queue[head++];
+				long hops = workspace.distance(node) + 1;
+				cursor.reset(node);
+				while (cursor.next()) {
+					int neighbor = cursor.target();
+					if (! workspace.reached(neighbor)) {
+						workspace.reach(neighbor, hops, -1);
+						queue[tail++] = neighbor;
+					}
+				}
+			}
+			return workspace.reached(target) ? (int) workspace.distance(target) : BreadthFirstSearch.UNREACHED;
+		}
+	}
+
+	/**
+	 * findPath - Find the shortest path using Dijkstra's Algorithm over the compressed lists, see
+	 * 				ShortestPathGraph.findPath
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return the path if found; otherwise, it is null
+	 * @throws ArithmeticException - if the destination is only reached by paths whose weight overflows a long
+	 */
+	public Route findPath(String fromName, String destName) {
+		int from = getId(fromName);
+		int dest = getId(destName);
+		if (from < 0 || dest < 0) {
+			return null;
+		}
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(names.length)) {
+			return weightType == Edge.WeightType.DOUBLE
+					? findDoublePath(from, dest, workspace)
+					: findLongPath(from, dest, workspace);
+		}
+	}
+
+	private Route findLongPath(int from, int dest, SearchWorkspace workspace) {
+		DistanceHeap unsettled = workspace.heap;
+		Cursor cursor = new Cursor();
+		boolean overflow = false;
+
+		workspace.reach(from, 0L, -1);
+		unsettled.add(0, from);
+		while (! unsettled.isEmpty()) {
+			int node = unsettled.poll();
+			long nodeDistance = unsettled.lastKey();
+			if (nodeDistance > workspace.distance(node)) {
+				continue;
+			}
+			if (node == dest) {
+				break;
+			}
+			cursor.reset(node);
+			while (cursor.next()) {
+				long weight = cursor.weight();
+				if (weight >= Long.MAX_VALUE - nodeDistance) {
+					overflow = true;
+					continue;
+				}
+				long calcweight = nodeDistance + weight;
+				if (calcweight < workspace.distance(cursor.target())) {
+					workspace.reach(cursor.target(), calcweight, node);
+					unsettled.add(calcweight, cursor.target());
+				}
+			}
+		}
+
+		if (! workspace.reached(dest)) {
+			if (overflow) {
+				throw new ArithmeticException("path weight overflows long");
+			}
+			return null;
+		}
+		int[] vertexIds = parents(workspace.previous, dest);
+		long[] distances = new long[vertexIds.length];
+		for(int i = 0; i < vertexIds.length; i++) {
+			distances[i] = workspace.distance[vertexIds[i]];
+		}
+		return new Route(vertexIds, distances, null);
+	}
+
+	private Route findDoublePath(int from, int dest, SearchWorkspace workspace) {
+		DistanceHeap unsettled = workspace.heap;
+		Cursor cursor = new Cursor();
+
+		workspace.reach(from, 0.0, -1);
+		unsettled.add(Double.doubleToRawLongBits(0.0), from);
+		while (! unsettled.isEmpty()) {
+			int node = unsettled.poll();
+			double nodeDistance = Double.longBitsToDouble(unsettled.lastKey());
+			if (nodeDistance > workspace.doubleDistance(node)) {
+				continue;
+			}
+			if (node == dest) {
+				break;
+			}
+			cursor.reset(node);
+			while (cursor.next()) {
+				double calcweight = nodeDistance + cursor.doubleWeight();
+				if (calcweight < workspace.doubleDistance(cursor.target())) {
+					workspace.reach(cursor.target(), calcweight, node);
+					unsettled.add(Double.doubleToRawLongBits(calcweight), cursor.target());
+				}
+			}
+		}
+
+		if (! workspace.reached(dest)) {
+			return null;
+		}
+		int[] vertexIds = parents(workspace.previous, dest);
+		double[] distances = new double[vertexIds.length];
+		for(int i = 0; i < vertexIds.length; i++) {
+			distances[i] = workspace.doubleDistance[vertexIds[i]];
+		}
+		return new Route(vertexIds, null, distances);
+	}
+
+	private static int[] parents(int[] parents, int dest) {
+		int length = 1;
+		for(int node = dest; parents[node] >= 0; node = parents[node]) {
+			length++;
+		}
+		int[] vertexIds = new int[length];
+		for(int node = dest, i = length - 1; i >= 0; node = parents[node], i--) {
+			vertexIds[i] = node;
+		}
+		return vertexIds;
+	}
+
+	private void checkId(int id) {
+		if (id < 0 || id >= names.length) {
+			throw new IllegalArgumentException("no vertex with id " + id);
+		}
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Shortest path found in a compressed graph: the vertices from the source to the destination with their
+	 * distances from the source.  Edge names are not kept by the compressed graph.
+	 */
+	public final class Route {
+
+		private final int[] vertexIds;
+		private final long[] distances;
+		private final double[] doubleDistances;
+
+		private Route(int[] vertexIds, long[] distances, double[] doubleDistances) {
+			this.vertexIds = vertexIds;
+			this.distances = distances;
+			this.doubleDistances = doubleDistances;
+		}
+
+		/**
+		 * @return the number of vertices on the route
+		 */
+		public int size() {
+			return vertexIds.length;
+		}
+
+		/**
+		 * @param index - position on the route, 0 for the source
+		 * @return the vertex id
+		 */
+		public int getVertexId(int index) {
+			return vertexIds[index];
+		}
+
+		/**
+		 * @return the vertex names from the source to the destination
+		 */
+		public List<String> getVertexNames() {
+			List<String> result = new ArrayList<>(vertexIds.length);
+			for(int id: vertexIds) {
+				result.add(names[id]);
+			}
+			return result;
+		}
+
+		/**
+		 * @return the total weight, rounded to the nearest long for double weights as Path.getTotalWeight
+		 */
+		public long getTotalWeight() {
+			return distances != null ? distances[distances.length - 1]
+					: Math.round(doubleDistances[doubleDistances.length - 1]);
+		}
+
+		/**
+		 * @return the total weight
+		 */
+		public double getTotalDoubleWeight() {
+			return distances != null ? distances[distances.length - 1] : doubleDistances[doubleDistances.length - 1];
+		}
+
+		@Override
+		public String toString() {
+			return getVertexNames() + " (" + (distances != null ? getTotalWeight() : getTotalDoubleWeight()) + ")";
+		}
+	}
+
+	/**
+	 * Growing byte buffer of the encoder
+	 */
+	private static final class ByteWriter {
+
+		private byte[] bytes;
+		private int size;
+
+		ByteWriter(int capacity) {
+			bytes = new byte[Math.max(16, Math.min(capacity, 1 << 16))];
+		}
+
+		int size() {
+			return size;
+		}
+
+		void reset() {
+			size = 0;
+		}
+
+		private void ensure(int extra) {
+			if (size + extra > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length * 2));
+			}
+		}
+
+		void writeVarint(long value) {
+			ensure(10);
+			while ((value & ~0x7fL) != 0) {
+				bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+				value >>>= 7;
+			}
+			bytes[size++] = (byte) value;
+		}
+
+		void writeLong(long value) {
+			ensure(Long.BYTES);
+			for(int i = 0; i < Long.BYTES; i++) {
+				bytes[size++] = (byte) (value >>> (i << 3));
+			}
+		}
+
+		void write(ByteWriter other) {
+			ensure(other.size);
+			System.arraycopy(other.bytes, 0, bytes, size, other.size);
+			size += other.size;
+		}
+
+		byte[] toArray() {
+			return Arrays.copyOf(bytes, size);
+		}
+	}
+}
@@ -0,0 +1,259 @@
+/**
+ * Name: DepthFirstTraversal
+ * Description: Depth first traversal engine over an IndexedGraph which keeps its stack in preallocated arrays
+ * 				instead of the call stack, so the depth is only limited by the number of vertices.  Each stack
+ * 				frame is the vertex and a cursor on its next outgoing edge slot, so a step costs one array read
+ * 				and no neighbor list is built.  A walk either visits every vertex once, or enumerates simple
+ * 				paths, where a vertex is only excluded while it is on the current path.  A Visitor decides at
+ * 				every vertex whether the walk goes deeper, backtracks or stops.  The arrays are reused by the
+ * 				next walk; an instance must not be shared by threads.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+public final class DepthFirstTraversal {
+
+	/**
+	 * What the walk does after a vertex is entered
+	 */
+	public enum Action {
+		// go on to the neighbors of the vertex
+		CONTINUE,
+		// do not go further than the vertex
+		PRUNE,
+		// end the walk
+		STOP
+	}
+
+	/**
+	 * Callback of a walk
+	 */
+	public interface Visitor {
+
+		/**
+		 * enter - called when the walk steps onto a vertex; the vertices from the start are available from
+		 * 			DepthFirstTraversal.getPath
+		 *
+		 * @param id - vertex id
+		 * @param depth - number of edges from the start vertex
+		 * @return what the walk does next
+		 */
+		Action enter(int id, int depth);
+
+		/**
+		 * leave - called when the walk backtracks from a vertex it entered
+		 *
+		 * @param id - vertex id
+		 * @param depth - number of edges from the start vertex
+		 */
+		default void leave(int id, int depth) {
+		}
+	}
+
+	private final IndexedGraph graph;
+	// stack frames, the vertex on the path at every depth and its next edge slot
+	private final int[] path;
+	private final int[] cursor;
+	private final boolean[] marked;
+	// it is used to hold the marked vertices of a visit once walk, cleared at its end
+	private final int[] touched;
+	private int depth = -1;
+	private long steps;
+	// it is used to hold the test of the edge slots the walks may follow, null for all
+	private IntPredicate edgeFilter;
+
+	/**
+	 * Constructor with a compiled graph
+	 *
+	 * @param graph
+	 */
+	public DepthFirstTraversal(IndexedGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		int n = graph.getNumbersOfVertices();
+		this.graph = graph;
+		this.path = new int[n];
+		this.cursor = new int[n];
+		this.marked = new boolean[n];
+		this.touched = new int[n];
+	}
+
+	/**
+	 * setEdgeFilter - restrict the walks to the edges passing a test, such as SubgraphView::includesEdge
+	 *
+	 * @param edgeFilter - test of the edge slots to follow, null for all
+	 * @return this
+	 */
+	public DepthFirstTraversal setEdgeFilter(IntPredicate edgeFilter) {
+		this.edgeFilter = edgeFilter;
+		return this;
+	}
+
+	/**
+	 * @return the graph traversed
+	 */
+	public IndexedGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * walk - traverse the graph depth first from a vertex, neighbors in edge slot order
+	 *
+	 * @param from - start vertex id
+	 * @param simplePaths - true to enumerate simple paths, a vertex is entered again once it is off the current
+	 * 						path; false to enter every vertex at most once
+	 * @param visitor
+	 * @return true if the walk ended because the visitor returned STOP
+	 */
+	public boolean walk(int from, boolean simplePaths, Visitor visitor) {
+		if (from < 0 || from >= path.length) {
+			throw new IllegalArgumentException("vertex id out of range: " + from);
+		}
+		if (visitor == null) {
+			throw new IllegalArgumentException("null visitor");
+		}
+		int touchedCount = 0;
+		try {
+			marked[from] = true;
+			if (! simplePaths) {
+				touched[touchedCount++] = from;
+			}
+			depth = 0;
+			path[0] = from;
+			steps++;
+			Action action = visitor.enter(from, 0);
+			if (action == Action.STOP) {
+				return true;
+			}
+			if (action == Action.PRUNE) {
+				visitor.leave(from, 0);
+				return false;
+			}
+			cursor[0] = graph.firstEdge(from);
+
+			while (depth >= 0) {
+				int node = path[depth];
+				if (cursor[depth] == graph.endEdge(node)) {
+					visitor.leave(node, depth);
+					if (simplePaths) {
+						marked[node] = false;
+					}
+					depth--;
+					continue;
+				}
+				int slot = cursor[depth]++;
+				int next = graph.target(slot);
+				if (marked[next] || edgeFilter != null && ! edgeFilter.test(slot)) {
+					continue;
+				}
+				marked[next] = true;
+				if (! simplePaths) {
+					touched[touchedCount++] = next;
+				}
+				path[++depth] = next;
+				steps++;
+				action = visitor.enter(next, depth);
+				if (action == Action.STOP) {
+					return true;
+				}
+				if (action == Action.PRUNE) {
+					visitor.leave(next, depth);
+					if (simplePaths) {
+						marked[next] = false;
+					}
+					depth--;
+					continue;
+				}
+				cursor[depth] = graph.firstEdge(next);
+			}
+			return false;
+		} finally {
+			// a stopped walk leaves the vertices of the current path marked
+			if (simplePaths) {
+				for(int i = 0; i <= depth; i++) {
+					marked[path[i]] = false;
+				}
+			} else {
+				for(int i = 0; i < touchedCount; i++) {
+					marked[touched[i]] = false;
+				}
+			}
+			depth = -1;
+		}
+	}
+
+	/**
+	 * @return the depth of the current vertex of the walk, -1 outside a walk
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * getPath - return the vertices from the start vertex to the current vertex of the walk
+	 *
+	 * @return vertex ids, empty outside a walk
+	 */
+	public int[] getPath() {
+		return Arrays.copyOf(path, depth + 1);
+	}
+
+	/**
+	 * @return the number of vertices entered by all the walks of this traversal
+	 */
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * preorder - return the vertices reachable from a vertex in the order a depth first search enters them
+	 *
+	 * @param from - start vertex id
+	 * @return vertex ids, starting with the start vertex
+	 */
+	public int[] preorder(int from) {
+		int[] order = new int[path.length];
+		int[] size = new int[1];
+		walk(from, false, (id, level) -> {
+			order[size[0]++] = id;
+			return Action.CONTINUE;
+		});
+		return Arrays.copyOf(order, size[0]);
+	}
+
+	/**
+	 * simplePaths - enumerate the paths without repeated vertices from a vertex to the end vertices.  A path
+	 * 				ends at the first end vertex on it.  A vertex with n edges from its parent is on n paths.
+	 *
+	 * @param from - start vertex id
+	 * @param isEnd - test of the end vertices
+	 * @param allowed - test of the vertices the paths may go through, null for all
+	 * @param limit - maximum number of paths, 0 for no limit
+	 * @return the paths as vertex ids in depth first order
+	 */
+	public List<int[]> simplePaths(int from, IntPredicate isEnd, IntPredicate allowed, int limit) {
+		if (isEnd == null) {
+			throw new IllegalArgumentException("null end test");
+		}
+		if (limit < 0) {
+			throw new IllegalArgumentException("limit must not be negative: " + limit);
+		}
+		List<int[]> paths = new ArrayList<>();
+		walk(from, true, (id, level) -> {
+			if (level > 0 && allowed != null && ! allowed.test(id)) {
+				return Action.PRUNE;
+			}
+			if (isEnd.test(id)) {
+				paths.add(getPath());
+				return limit > 0 && paths.size() >= limit ? Action.STOP : Action.PRUNE;
+			}
+			return Action.CONTINUE;
+		});
+		return paths;
+	}
+}
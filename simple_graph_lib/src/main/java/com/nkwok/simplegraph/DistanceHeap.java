@@ -0,0 +1,104 @@
+/**
+ * Name: DistanceHeap
+ * Description: Binary min heap of (distance, vertex id) pairs kept in primitive arrays for the searches.
+ * 				Entries are not updated in place; a vertex is added again with its shorter distance and the
+ * 				search skips the stale entry when it is polled.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.Arrays;
+
+final class DistanceHeap {
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+	private long lastKey;
+
+	DistanceHeap(int capacity) {
+		capacity = Math.max(capacity, 16);
+		keys = new long[capacity];
+		values = new int[capacity];
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	/**
+	 * add - add a vertex with its distance
+	 * 
+	 * @param key - distance
+	 * @param value - vertex id
+	 */
+	void add(long key, int value) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			values = Arrays.copyOf(values, size * 2);
+		}
+		int i = size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (keys[parent] <= key) {
+				break;
+			}
+			keys[i] = keys[parent];
+			values[i] = values[parent];
+			i = parent;
+		}
+		keys[i] = key;
+		values[i] = value;
+	}
+
+	/**
+	 * @return the smallest distance in the heap
+	 */
+	long peekKey() {
+		return keys[0];
+	}
+
+	/**
+	 * poll - remove the vertex with the smallest distance; the distance is then available from lastKey()
+	 * 
+	 * @return vertex id
+	 */
+	int poll() {
+		int result = values[0];
+		lastKey = keys[0];
+		long key = keys[--size];
+		int value = values[size];
+		int i = 0;
+		int half = size >>> 1;
+		while (i < half) {
+			int child = (i << 1) + 1;
+			int right = child + 1;
+			if (right < size && keys[right] < keys[child]) {
+				child = right;
+			}
+			if (key <= keys[child]) {
+				break;
+			}
+			keys[i] = keys[child];
+			values[i] = values[child];
+			i = child;
+		}
+		keys[i] = key;
+		values[i] = value;
+		return result;
+	}
+
+	/**
+	 * @return the distance of the vertex returned by the last poll()
+	 */
+	long lastKey() {
+		return lastKey;
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * Name: DoubleEdge
+ * Description: Edge with a double weight, for fractional costs such as travel times.  A graph holding any
+ * 				DoubleEdge is compiled with double weights.
+ */
+package com.nkwok.simplegraph;
+
+public final class DoubleEdge extends Edge {
+
+	private static final long serialVersionUID = 1L;
+	private final double weight;
+
+	/**
+	 * Constructor with the edge name, the end vertices and a weight which must be finite and not negative
+	 *
+	 * @param name
+	 * @param fromVertex
+	 * @param toVertex
+	 * @param weight
+	 */
+	public DoubleEdge(String name, String fromVertex, String toVertex, double weight) {
+		super(name, fromVertex, toVertex, 0);
+		if (! (weight >= 0) || Double.isInfinite(weight)) {
+			throw new IllegalArgumentException("weight must be finite and not negative: " + weight);
+		}
+		// -0.0 would not be equal to 0.0 in equals
+		this.weight = weight + 0.0;
+	}
+
+	/**
+	 * @return the weight rounded to the nearest int
+	 * @throws ArithmeticException - if the weight does not fit an int
+	 */
+	@Override
+	public int getWeight() {
+		return Math.toIntExact(getLongWeight());
+	}
+
+	/**
+	 * @return the weight rounded to the nearest long
+	 * @throws ArithmeticException - if the weight does not fit a long
+	 */
+	@Override
+	public long getLongWeight() {
+		if (weight >= 0x1p63) {
+			throw new ArithmeticException("long overflow");
+		}
+		return Math.round(weight);
+	}
+
+	/**
+	 * @return the weight
+	 */
+	@Override
+	public double getDoubleWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return DOUBLE
+	 */
+	@Override
+	public WeightType getWeightType() {
+		return WeightType.DOUBLE;
+	}
+
+	@Override
+	Edge copy(String name, String fromVertex, String toVertex) {
+		return new DoubleEdge(name, fromVertex, toVertex, weight);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return
+			"DoubleEdge [name=" + getName() + ", from=" + getFromVertex() + ", to=" + getToVertex() + ", weight=" + weight + "]";
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + Double.hashCode(weight);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && Double.compare(weight, ((DoubleEdge) obj).weight) == 0;
+	}
+}
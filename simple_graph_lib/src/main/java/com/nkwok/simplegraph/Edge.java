@@ -1,6 +1,7 @@
 /**
  * Name: Edge
  * Description: Edge Class for graph and also implemented Serializable for storage or transmission.
+ * 				The weight is an int; LongEdge and DoubleEdge carry long and double weights.
  * 
  * Author: Norman Kwok
  * Date: 2016-10-31
@@ -18,6 +19,15 @@ import java.io.Serializable;
  */
 public class Edge implements Serializable {
 
+	/**
+	 * Primitive type of an edge weight, in widening order
+	 */
+	public enum WeightType {
+		INT,
+		LONG,
+		DOUBLE
+	}
+
 	private static final long serialVersionUID = 1L;
 	private final String name;
 	private final String fromVertex;
@@ -59,6 +69,39 @@ public class Edge implements Serializable {
 		return weight;
 	}
 
+	/**
+	 * @return the weight as a long
+	 */
+	public long getLongWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return the weight as a double
+	 */
+	public double getDoubleWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return the primitive type of the weight
+	 */
+	public WeightType getWeightType() {
+		return WeightType.INT;
+	}
+
+	/**
+	 * copy - return an edge of the same weight and weight type with another name and end vertices
+	 * 
+	 * @param name
+	 * @param fromVertex
+	 * @param toVertex
+	 * @return the edge
+	 */
+	Edge copy(String name, String fromVertex, String toVertex) {
+		return new Edge(name, fromVertex, toVertex, weight);
+	}
+
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -0,0 +1,287 @@
+/**
+ * Name: ExternalRadixHeap
+ * Description: Monotone min heap of (key, vertex id) pairs which keeps at most a fixed number of entries in memory
+ * 				and spills the rest to run files on local disk.
+ * 				It is a radix heap: bucket 0 holds the keys equal to the last key polled and bucket i > 0 the keys
+ * 				whose highest bit differing from it is bit i - 1.  When bucket 0 is empty the lowest non-empty
+ * 				bucket is emptied, its minimum becomes the last key and its entries move to lower buckets.  Keys
+ * 				only ever move down, so every entry is read and written a bounded number of times, and a bucket
+ * 				is only ever appended to or read through from start to end, which is what run files do well.
+ * 				When the memory limit is passed the highest bucket in memory, the one needed last, is appended
+ * 				to its run file.
+ * 				Keys added must not be smaller than the last key polled, which holds for Dijkstra's search.
+ */
+package com.nkwok.simplegraph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+final class ExternalRadixHeap implements AutoCloseable {
+
+	/**
+	 * bytes of one entry in memory and on disk
+	 */
+	static final int ENTRY_BYTES = 12;
+
+	private static final int BUCKETS = 65;
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final File directory;
+	private final int memoryLimit;
+
+	// in memory part of every bucket
+	private final long[][] keys = new long[BUCKETS][];
+	private final int[][] values = new int[BUCKETS][];
+	private final int[] sizes = new int[BUCKETS];
+	private final long[] minKeys = new long[BUCKETS];
+
+	// spilled part of every bucket
+	private final File[] runFiles = new File[BUCKETS];
+	private final DataOutputStream[] runWriters = new DataOutputStream[BUCKETS];
+	private final long[] runSizes = new long[BUCKETS];
+
+	// spilled part of bucket 0 being read back
+	private File zeroFile;
+	private DataInputStream zeroReader;
+	private long zeroRemaining;
+
+	private long last;
+	private long size;
+	private int inMemory;
+	private long spilled;
+	private int runs;
+
+	/**
+	 * Constructor with the directory of the run files and the number of entries kept in memory
+	 *
+	 * @param directory
+	 * @param memoryLimit
+	 */
+	ExternalRadixHeap(File directory, int memoryLimit) {
+		this.directory = directory;
+		this.memoryLimit = Math.max(memoryLimit, 1);
+		for(int b = 0; b < BUCKETS; b++) {
+			keys[b] = new long[INITIAL_CAPACITY];
+			values[b] = new int[INITIAL_CAPACITY];
+		}
+		Arrays.fill(minKeys, Long.MAX_VALUE);
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	long size() {
+		return size;
+	}
+
+	/**
+	 * @return the key of the entry returned by the last poll
+	 */
+	long lastKey() {
+		return last;
+	}
+
+	/**
+	 * @return the number of entries written to run files so far
+	 */
+	long getSpilledCount() {
+		return spilled;
+	}
+
+	/**
+	 * add - add a vertex with its key
+	 *
+	 * @param key - not smaller than the last key polled
+	 * @param value - vertex id
+	 * @throws IOException - if a bucket cannot be spilled
+	 */
+	void add(long key, int value) throws IOException {
+		if (key < last) {
+			throw new IllegalArgumentException("key " + key + " is below the last key polled " + last);
+		}
+		put(bucket(key), key, value);
+		size++;
+	}
+
+	/**
+	 * poll - remove an entry with the minimum key, see lastKey for its key
+	 *
+	 * @return vertex id
+	 * @throws IOException - if a run file cannot be read
+	 */
+	int poll() throws IOException {
+		if (size == 0) {
+			throw new IllegalStateException("heap is empty");
+		}
+		while (true) {
+			if (sizes[0] > 0) {
+				size--;
+				inMemory--;
+				return values[0][--sizes[0]];
+			}
+			if (zeroRemaining > 0) {
+				size--;
+				zeroRemaining--;
+				zeroReader.readLong();
+				int value = zeroReader.readInt();
+				if (zeroRemaining == 0) {
+					zeroReader.close();
+					zeroReader = null;
+					delete(zeroFile);
+				}
+				return value;
+			}
+			if (runSizes[0] > 0) {
+				zeroRemaining = runSizes[0];
+				zeroFile = detach(0);
+				zeroReader = new DataInputStream(new BufferedInputStream(new FileInputStream(zeroFile), BUFFER_SIZE));
+				continue;
+			}
+			redistribute();
+		}
+	}
+
+	private int bucket(long key) {
+		return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+	}
+
+	private void put(int b, long key, int value) throws IOException {
+		if (sizes[b] == keys[b].length) {
+			keys[b] = Arrays.copyOf(keys[b], sizes[b] * 2);
+			values[b] = Arrays.copyOf(values[b], sizes[b] * 2);
+		}
+		keys[b][sizes[b]] = key;
+		values[b][sizes[b]] = value;
+		sizes[b]++;
+		if (key < minKeys[b]) {
+			minKeys[b] = key;
+		}
+		if (++inMemory > memoryLimit) {
+			spill();
+		}
+	}
+
+	/**
+	 * spill - append the highest bucket in memory to its run file
+	 */
+	private void spill() throws IOException {
+		int b = BUCKETS - 1;
+		while (sizes[b] == 0) {
+			b--;
+		}
+		if (runWriters[b] == null) {
+			runFiles[b] = new File(directory, "radix-" + runs++ + ".run");
+			runWriters[b] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(runFiles[b]), BUFFER_SIZE));
+		}
+		DataOutputStream out = runWriters[b];
+		for(int i = 0; i < sizes[b]; i++) {
+			out.writeLong(keys[b][i]);
+			out.writeInt(values[b][i]);
+		}
+		runSizes[b] += sizes[b];
+		spilled += sizes[b];
+		inMemory -= sizes[b];
+		sizes[b] = 0;
+		release(b);
+	}
+
+	/**
+	 * redistribute - empty the lowest non-empty bucket into the lower buckets, taking its minimum as the last key
+	 */
+	private void redistribute() throws IOException {
+		int b = 1;
+		while (sizes[b] == 0 && runSizes[b] == 0) {
+			b++;
+		}
+		last = minKeys[b];
+		minKeys[b] = Long.MAX_VALUE;
+
+		long[] bucketKeys = keys[b];
+		int[] bucketValues = values[b];
+		int count = sizes[b];
+		sizes[b] = 0;
+		inMemory -= count;
+		release(b);
+		for(int i = 0; i < count; i++) {
+			put(bucket(bucketKeys[i]), bucketKeys[i], bucketValues[i]);
+		}
+
+		if (runSizes[b] > 0) {
+			long remaining = runSizes[b];
+			File file = detach(b);
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+				for(; remaining > 0; remaining--) {
+					long key = in.readLong();
+					put(bucket(key), key, in.readInt());
+				}
+			}
+			delete(file);
+		}
+	}
+
+	/**
+	 * detach - close the run file of a bucket so that it can be read; later spills start a new one
+	 */
+	private File detach(int b) throws IOException {
+		runWriters[b].close();
+		runWriters[b] = null;
+		runSizes[b] = 0;
+		File file = runFiles[b];
+		runFiles[b] = null;
+		return file;
+	}
+
+	/**
+	 * release - drop the grown arrays of an empty bucket
+	 */
+	private void release(int b) {
+		if (keys[b].length > INITIAL_CAPACITY) {
+			keys[b] = new long[INITIAL_CAPACITY];
+			values[b] = new int[INITIAL_CAPACITY];
+		}
+	}
+
+	private static void delete(File file) {
+		if (! file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.AutoCloseable#close()
+	 *
+	 * Remove the run files
+	 */
+	@Override
+	public void close() throws IOException {
+		IOException failure = null;
+		for(int b = 0; b < BUCKETS; b++) {
+			if (runWriters[b] != null) {
+				try {
+					runWriters[b].close();
+				} catch (IOException e) {
+					failure = e;
+				}
+				runWriters[b] = null;
+				delete(runFiles[b]);
+			}
+		}
+		if (zeroReader != null) {
+			zeroReader.close();
+			zeroReader = null;
+			delete(zeroFile);
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/**
+ * Name: ExternalShortestPaths
+ * Description: One-to-all Dijkstra's search within a fixed memory budget, for graphs whose search state does not
+ * 				fit the Java heap.
+ * 				- the priority queue is an ExternalRadixHeap which keeps at most budget / 12 entries in memory and
+ * 				  spills the rest to run files in the spill directory
+ * 				- the distance and parent of every vertex are MappedArray files in the spill directory, paged by
+ * 				  the operating system; a stored 0 means not reached, so the files need no initial fill
+ * 				Only the graph itself has to be in memory.  The distances are the distance keys of
+ * 				IndexedGraph.extend, so graphs of every weight type are searched: double distances are kept
+ * 				as their raw bits, which the radix heap orders like the distances.  A long distance which
+ * 				would pass Long.MAX_VALUE - 2 is treated as not reached.
+ *
+ * 				The results stay readable until the next search or close, which deletes the files.
+ */
+package com.nkwok.simplegraph;
+
+import java.io.File;
+import java.io.IOException;
+
+public final class ExternalShortestPaths implements AutoCloseable {
+
+	/**
+	 * distance of a vertex not reached
+	 */
+	public static final long UNREACHABLE = Long.MAX_VALUE;
+
+	private final IndexedGraph graph;
+	private final File directory;
+	private final long memoryBudget;
+
+	private MappedArray distances;
+	private MappedArray parents;
+	private int source = -1;
+	private long settledCount;
+	private long spilledCount;
+
+	/**
+	 * Constructor with the graph, the spill directory and the memory budget of the priority queue
+	 *
+	 * @param graph - graph to search
+	 * @param directory - directory of the spill files, created if needed
+	 * @param memoryBudget - bytes of priority queue entries kept in memory
+	 */
+	public ExternalShortestPaths(IndexedGraph graph, File directory, long memoryBudget) {
+		if (graph == null || directory == null) {
+			throw new IllegalArgumentException("null graph or directory");
+		}
+		if (memoryBudget < ExternalRadixHeap.ENTRY_BYTES) {
+			throw new IllegalArgumentException("memory budget too small: " + memoryBudget);
+		}
+		this.graph = graph;
+		this.directory = directory;
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * search - compute the distance and parent of every vertex reachable from the source
+	 *
+	 * @param source - source vertex id
+	 * @throws IOException - if a spill file cannot be written or read
+	 */
+	public void search(int source) throws IOException {
+		closeArrays();
+		if (! directory.isDirectory() && ! directory.mkdirs()) {
+			throw new IOException("cannot create " + directory);
+		}
+		int n = graph.getNumbersOfVertices();
+		distances = new MappedArray(File.createTempFile("distance-", ".bin", directory), n, 8);
+		parents = new MappedArray(File.createTempFile("parent-", ".bin", directory), n, 4);
+		this.source = source;
+		settledCount = 0;
+
+		int memoryLimit = (int) Math.min(Integer.MAX_VALUE, memoryBudget / ExternalRadixHeap.ENTRY_BYTES);
+		try (ExternalRadixHeap unsettled = new ExternalRadixHeap(directory, memoryLimit)) {
+			// the raw bits of 0.0 are 0
+			distances.putLong(source, 1);
+			unsettled.add(0, source);
+			while (! unsettled.isEmpty()) {
+				int node = unsettled.poll();
+				long nodeDistance = unsettled.lastKey();
+				if (nodeDistance > key(node)) {
+					// already settled with a shorter distance
+					continue;
+				}
+				settledCount++;
+				for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+					long calcweight = graph.extend(nodeDistance, slot);
+					if (calcweight >= UNREACHABLE - 2) {
+						continue;
+					}
+					int neighbor = graph.target(slot);
+					if (calcweight < key(neighbor)) {
+						distances.putLong(neighbor, calcweight + 1);
+						parents.putInt(neighbor, node + 1);
+						unsettled.add(calcweight, neighbor);
+					}
+				}
+			}
+			spilledCount = unsettled.getSpilledCount();
+		}
+	}
+
+	private void checkSearched() {
+		if (distances == null) {
+			throw new IllegalStateException("no search results");
+		}
+	}
+
+	/**
+	 * @return the graph searched
+	 */
+	public IndexedGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the source vertex id of the last search, -1 if none
+	 */
+	public int getSource() {
+		return source;
+	}
+
+	/**
+	 * key - the distance key from the source of the last search
+	 */
+	private long key(int id) {
+		checkSearched();
+		long stored = distances.getLong(id);
+		return stored == 0 ? UNREACHABLE : stored - 1;
+	}
+
+	/**
+	 * distance - return the distance from the source of the last search, rounded to the nearest long for double
+	 * 				weights
+	 *
+	 * @param id - vertex id
+	 * @return the distance, UNREACHABLE if not reached
+	 */
+	public long distance(int id) {
+		long key = key(id);
+		if (key == UNREACHABLE || graph.getWeightType() != Edge.WeightType.DOUBLE) {
+			return key;
+		}
+		return Math.round(Double.longBitsToDouble(key));
+	}
+
+	/**
+	 * doubleDistance - return the distance from the source of the last search
+	 *
+	 * @param id - vertex id
+	 * @return the distance, positive infinity if not reached
+	 */
+	public double doubleDistance(int id) {
+		return IndexedGraph.keyValue(graph.getWeightType(), key(id));
+	}
+
+	/**
+	 * parent - return the vertex before a vertex on its shortest path
+	 *
+	 * @param id - vertex id
+	 * @return parent vertex id, -1 for the source or a vertex not reached
+	 */
+	public int parent(int id) {
+		checkSearched();
+		return parents.getInt(id) - 1;
+	}
+
+	/**
+	 * pathTo - return the shortest path from the source of the last search to a vertex
+	 *
+	 * @param dest - destination vertex id
+	 * @return the path, null if the destination was not reached
+	 */
+	public Path pathTo(int dest) {
+		if (key(dest) == UNREACHABLE) {
+			return null;
+		}
+		int length = 1;
+		for(int node = dest; parent(node) >= 0; node = parent(node)) {
+			length++;
+		}
+		int[] vertexIds = new int[length];
+		long[] weights = new long[length];
+		for(int node = dest, i = length - 1; i >= 0; node = parent(node), i--) {
+			vertexIds[i] = node;
+			weights[i] = key(node);
+		}
+		return Path.fromKeys(graph, vertexIds, weights);
+	}
+
+	/**
+	 * @return the number of vertices settled by the last search
+	 */
+	public long getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * @return the number of priority queue entries the last search wrote to disk
+	 */
+	public long getSpilledCount() {
+		return spilledCount;
+	}
+
+	private void closeArrays() {
+		if (distances != null) {
+			distances.close();
+			parents.close();
+			distances = null;
+			parents = null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.AutoCloseable#close()
+	 *
+	 * Delete the result files
+	 */
+	@Override
+	public void close() {
+		closeArrays();
+	}
+}
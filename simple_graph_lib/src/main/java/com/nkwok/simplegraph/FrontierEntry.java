@@ -0,0 +1,51 @@
+/**
+ * Name: FrontierEntry
+ * Description: Tentative distance of a vertex exchanged between graph shards during a sharded search.
+ * 				It is Serializable so that shards can later run in other processes.
+ */
+package com.nkwok.simplegraph;
+
+import java.io.Serializable;
+
+public final class FrontierEntry implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private final String vertex;
+	private final long distance;
+	private final String parent;
+
+	public FrontierEntry(String vertex, long distance, String parent) {
+		this.vertex = vertex;
+		this.distance = distance;
+		this.parent = parent;
+	}
+
+	/**
+	 * @return the vertex
+	 */
+	public String getVertex() {
+		return vertex;
+	}
+
+	/**
+	 * @return the distance from the source
+	 */
+	public long getDistance() {
+		return distance;
+	}
+
+	/**
+	 * @return the previous vertex on the path, null for the source
+	 */
+	public String getParent() {
+		return parent;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "FrontierEntry [" + vertex + " (" + distance + ") from " + parent + "]";
+	}
+}
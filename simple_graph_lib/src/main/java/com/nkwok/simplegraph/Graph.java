@@ -11,13 +11,16 @@ package com.nkwok.simplegraph;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * 
@@ -33,6 +36,12 @@ public class Graph implements Serializable {
 	final private Set<Vertex> vertices;
 	final private Set<Edge> edges;
 	final private boolean biDirection;
+	// it is used to hold the change listeners, they are not part of the stored graph
+	private transient volatile List<GraphChangeListener> changeListeners;
+	// it is used to hold the compiled form of the graph for the searches, dropped on every change
+	private transient IndexedGraph indexedGraph;
+	// it is used to hold the vertex numbering of the compiled form, null for name order
+	private transient VertexOrdering.Strategy vertexOrder;
 
 	/**
 	 * Constructor with edges and direction flag.  This assume the caller will create all the edges according.
@@ -51,13 +60,10 @@ public class Graph implements Serializable {
 			this.edges = new HashSet<>(edges);
 			this.biDirection = biDirection;
 			
+			// vertices are equal by name, so adding one twice keeps the first
 			for(Edge edge: edges) {
-				if (getVertex(edge.getFromVertex()) == null) {
-					vertices.add(new Vertex(edge.getFromVertex()));
-				}
-				if (getVertex(edge.getToVertex()) == null) {
-					vertices.add(new Vertex(edge.getToVertex()));
-				}
+				vertices.add(new Vertex(edge.getFromVertex()));
+				vertices.add(new Vertex(edge.getToVertex()));
 			}
 		}
 	}
@@ -127,6 +133,112 @@ public class Graph implements Serializable {
 		return new HashSet<Edge>(edges);
 	}
 	
+	/**
+	 * getIndexedGraph - return the compiled snapshot of the graph.  The snapshot is built on first use after
+	 * 						a change and shared until the next change.
+	 * 
+	 * @return the indexed graph
+	 */
+	public synchronized IndexedGraph getIndexedGraph() {
+		if (indexedGraph == null) {
+			indexedGraph = new IndexedGraph(vertices, edges, getVertexOrder());
+		}
+		return indexedGraph;
+	}
+
+	/**
+	 * getStrongComponents - return the strongly connected components and condensation DAG of the compiled
+	 * 						snapshot, see StrongComponents.  The searches use them to skip the parts of the
+	 * 						graph which cannot lead to the destination.
+	 * 
+	 * @return the components of the current snapshot
+	 */
+	public StrongComponents getStrongComponents() {
+		return getIndexedGraph().getStrongComponents();
+	}
+
+	/**
+	 * isReachable - return true if there is a path from the source node to the destination node
+	 * 
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return true if both nodes are in the graph and the destination can be reached
+	 */
+	public boolean isReachable(String fromName, String destName) {
+		IndexedGraph graph = getIndexedGraph();
+		int from = graph.getId(fromName);
+		int dest = graph.getId(destName);
+		return from >= 0 && dest >= 0 && graph.getStrongComponents().canReach(from, dest);
+	}
+
+	/**
+	 * getVertexOrder - return the vertex numbering strategy of the compiled snapshot
+	 * 
+	 * @return the strategy, NAME unless it was changed
+	 */
+	public synchronized VertexOrdering.Strategy getVertexOrder() {
+		return vertexOrder == null ? VertexOrdering.Strategy.NAME : vertexOrder;
+	}
+
+	/**
+	 * setVertexOrder - set the vertex numbering strategy of the compiled snapshot, see VertexOrdering.  The
+	 * 					snapshot is rebuilt on its next use.  The setting is not part of the stored graph.
+	 * 
+	 * @param strategy
+	 */
+	public synchronized void setVertexOrder(VertexOrdering.Strategy strategy) {
+		if (strategy == null) {
+			throw new IllegalArgumentException("null strategy");
+		}
+		if (strategy != getVertexOrder()) {
+			vertexOrder = strategy;
+			indexedGraph = null;
+		}
+	}
+
+	/**
+	 * getHopDistance - return the minimum number of edges from the source node to the destination node,
+	 * 					ignoring the weights.  It runs a sequential BreadthFirstSearch in the workspace of the
+	 * 					calling thread.
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return number of edges; -1 if either node is not in the graph or the destination cannot be reached
+	 */
+	public int getHopDistance(String fromName, String destName) {
+		IndexedGraph graph = getIndexedGraph();
+		int from = graph.getId(fromName);
+		int dest = graph.getId(destName);
+		if (from < 0 || dest < 0 || ! graph.getStrongComponents().canReach(from, dest)) {
+			return BreadthFirstSearch.UNREACHED;
+		}
+		return new BreadthFirstSearch(graph, false).hopDistance(from, dest);
+	}
+
+	/**
+	 * getHopDistances - return the minimum number of edges from the source node to every node it reaches,
+	 * 					ignoring the weights.  It uses the direction-optimizing search of BreadthFirstSearch.
+	 *
+	 * @param fromName - source node name
+	 * @return map of reachable node name and number of edges, including the source with 0; empty if the source
+	 * 			is not in the graph
+	 */
+	public Map<String, Integer> getHopDistances(String fromName) {
+		IndexedGraph graph = getIndexedGraph();
+		Map<String, Integer> result = new HashMap<>();
+		int from = graph.getId(fromName);
+		if (from < 0) {
+			return result;
+		}
+		int[] levels = new BreadthFirstSearch(graph).hopDistances(from);
+		for(int id = 0; id < levels.length; id++) {
+			if (levels[id] != BreadthFirstSearch.UNREACHED) {
+				result.put(graph.getName(id), levels[id]);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * isBiDirection - return true/false of the biDirection flag
 	 * @return the biDirection
@@ -139,11 +251,9 @@ public class Graph implements Serializable {
 	 * addVertex - add a vertex in graph
 	 * @param vertex
 	 */
-	private void addVertex(Vertex vertex) {
-		if (vertex != null && ! vertices.contains(vertex)) {
-			synchronized(this) {
-				vertices.add(vertex);
-			}
+	private synchronized void addVertex(Vertex vertex) {
+		if (vertex != null) {
+			vertices.add(vertex);
 		}
 	}
 
@@ -160,25 +270,27 @@ public class Graph implements Serializable {
 	/**
 	 * addEdges - Add the edge in graph.  The implementation will check if the vertex exist.  It will create
 	 * 				the vertex if it is not in the graph.  If biDirection is defined, the implementation will
-	 * 				create the reverse edge with the same weight.
+	 * 				create the reverse edge with the same weight.  The check and the change are made under the
+	 * 				graph lock, so a concurrent add of the same edge is only applied once.
 	 * @param edge
 	 */
 	public void addEdge(Edge edge) {
 
-		if (edge != null && ! edges.contains(edge)) {
+		if (edge != null) {
 			synchronized(this) {
-				if (getVertex(edge.getFromVertex()) == null) {
-					vertices.add(new Vertex(edge.getFromVertex()));
-				}
-				if (getVertex(edge.getToVertex()) == null) {
-					vertices.add(new Vertex(edge.getToVertex()));
+				if (edges.contains(edge)) {
+					return;
 				}
-				edges.add(new Edge(edge.getName(), edge.getFromVertex(), edge.getToVertex(), edge.getWeight()));
+				fireBeforeEdgeAdded(edge);
+				addVertex(new Vertex(edge.getFromVertex()));
+				addVertex(new Vertex(edge.getToVertex()));
+				edges.add(edge.copy(edge.getName(), edge.getFromVertex(), edge.getToVertex()));
 				
 				if (biDirection) {
-					edges.add(new Edge(biDirectionEdgeName(edge),
-							edge.getToVertex(), edge.getFromVertex(), edge.getWeight()));
+					edges.add(edge.copy(biDirectionEdgeName(edge), edge.getToVertex(), edge.getFromVertex()));
 				}
+				indexedGraph = null;
+				fireEdgeAdded(edge);
 			}
 		}
 	}
@@ -189,51 +301,120 @@ public class Graph implements Serializable {
 	 * @param vertex
 	 * @return true - remove success, false if not
 	 */
-	private boolean removeVertex(Vertex vertex) {
-		if (vertex!= null && vertices.contains(vertex)) {
-			synchronized(this) {
-				return vertices.remove(vertex);
-			}
+	private synchronized boolean removeVertex(Vertex vertex) {
+		if (vertex != null && vertices.contains(vertex)) {
+			return vertices.remove(vertex);
 		}
 		return true;
 	}
 	
 	/**
 	 * removeEdge - Remove an edge in graph.It will remove the reverse edge if biDirection flag is set.
-	 * 				This implementation will remove vertex if there is no edge is connected to it
+	 * 				This implementation will remove vertex if there is no edge is connected to it.  Only the
+	 * 				end vertices of the removed edges can be left without edges, so only they are checked.
 	 * 
 	 * @param edge
 	 * @return true - remove success, false if not
 	 */
 	public boolean removeEdge(Edge edge) {
 		
-		if (edge != null && edges.contains(edge)) {
-			boolean found = false;
-			
+		if (edge != null) {
 			synchronized(this) {
+				if (! edges.contains(edge)) {
+					return true;
+				}
+				fireBeforeEdgeRemoved(edge);
 				boolean result = edges.remove(edge);
+				indexedGraph = null;
+				if (result) {
+					fireEdgeRemoved(edge);
+				}
 				if (biDirection) {
-					Edge biEdge = new Edge(biDirectionEdgeName(edge), edge.getToVertex(), edge.getFromVertex(), edge.getWeight());
+					Edge biEdge = edge.copy(biDirectionEdgeName(edge), edge.getToVertex(), edge.getFromVertex());
 					result &= edges.remove(biEdge);
 				}
-				for(Vertex vertex: vertices) {
-					for(Edge aEdge: edges) {
-						if ((vertex.getName().compareTo(aEdge.getFromVertex()) == 0)
-								|| (vertex.getName().compareTo(aEdge.getToVertex()) == 0)) {
-							found = true;
-							break;
-						}
-					}
-					if (! found) {
-						removeVertex(vertex);
+				Set<String> orphans = new HashSet<>();
+				orphans.add(edge.getFromVertex());
+				orphans.add(edge.getToVertex());
+				for(Edge aEdge: edges) {
+					orphans.remove(aEdge.getFromVertex());
+					orphans.remove(aEdge.getToVertex());
+					if (orphans.isEmpty()) {
+						break;
 					}
 				}
+				for(String orphan: orphans) {
+					removeVertex(new Vertex(orphan));
+				}
 				return result;
 			}
 		}
 		return true;
 	}
 	
+	/**
+	 * addChangeListener - register a listener to be told about every edge added to or removed from the graph.
+	 * 						The listener is called while the graph is locked, in the order of the changes, once
+	 * 						before a change is applied and once after.
+	 * 
+	 * @param listener
+	 */
+	public synchronized void addChangeListener(GraphChangeListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("null listener");
+		}
+		if (changeListeners == null) {
+			changeListeners = new CopyOnWriteArrayList<>();
+		}
+		changeListeners.add(listener);
+	}
+
+	/**
+	 * removeChangeListener - unregister a change listener
+	 * 
+	 * @param listener
+	 * @return true - listener removed, false if it was not registered
+	 */
+	public synchronized boolean removeChangeListener(GraphChangeListener listener) {
+		return changeListeners != null && changeListeners.remove(listener);
+	}
+
+	private void fireBeforeEdgeAdded(Edge edge) {
+		List<GraphChangeListener> listeners = changeListeners;
+		if (listeners != null) {
+			for(GraphChangeListener listener: listeners) {
+				listener.beforeEdgeAdded(edge);
+			}
+		}
+	}
+
+	private void fireBeforeEdgeRemoved(Edge edge) {
+		List<GraphChangeListener> listeners = changeListeners;
+		if (listeners != null) {
+			for(GraphChangeListener listener: listeners) {
+				listener.beforeEdgeRemoved(edge);
+			}
+		}
+	}
+
+	private void fireEdgeAdded(Edge edge) {
+		List<GraphChangeListener> listeners = changeListeners;
+		if (listeners != null) {
+			for(GraphChangeListener listener: listeners) {
+				listener.edgeAdded(edge);
+			}
+		}
+	}
+
+	private void fireEdgeRemoved(Edge edge) {
+		List<GraphChangeListener> listeners = changeListeners;
+		if (listeners != null) {
+			for(GraphChangeListener listener: listeners) {
+				listener.edgeRemoved(edge);
+			}
+		}
+	}
+
 	/**
 	 * getVertex - return a vertex object with the given vertex name
 	 * 
@@ -244,11 +425,9 @@ public class Graph implements Serializable {
 		if (nodeName == null) {
 			return null;
 		}
-		return vertices
-			.stream()
-			.filter(k -> k.getName().equals(nodeName))
-			.findAny()
-			.orElse(null);
+		// vertices are equal by name
+		Vertex vertex = new Vertex(nodeName);
+		return vertices.contains(vertex) ? vertex : null;
 	}
 	
 	/**
@@ -257,7 +436,7 @@ public class Graph implements Serializable {
 	 * @param sourceNode
 	 * @return list of neighbors' vertices from the source node
 	 */
-	public List<Vertex> getAdjacencyList(String sourceNode) {	
+	public synchronized List<Vertex> getAdjacencyList(String sourceNode) {	
 		if (sourceNode == null) {
 			return new ArrayList<>();
 		}
@@ -271,12 +450,13 @@ public class Graph implements Serializable {
 	}
 	
 	/**
-	 * getAdjacencyListWithWeight - return a list of neighbors' vertices connected to the vertex with weight
+	 * getAdjacencyListWithWeight - return a list of neighbors' vertices connected to the vertex with weight.
+	 * 								The weights are ints, see Edge.getWeight for long and double weights.
 	 * 
 	 * @param sourceNode
 	 * @return list of map of neighbors' vertices with its weight
 	 */
-	public List<Map<Vertex, Integer>> getAdjacencyListWithWeight(String sourceNode) {
+	public synchronized List<Map<Vertex, Integer>> getAdjacencyListWithWeight(String sourceNode) {
 		List<Map<Vertex, Integer>> adjacencyList = new ArrayList<>();
 		
 		if (sourceNode == null) {
@@ -295,57 +475,133 @@ public class Graph implements Serializable {
 	
 	/**
 	 * showConnectivity - walk the path from starting Node to ending Node and collect all the reachable nodes
-	 * 						in a list
+	 * 						in a list.  The end node is matched ignoring case.  The walk runs on the indexed
+	 * 						snapshot with the explicit stack of DepthFirstTraversal, so long chains do not overflow
+	 * 						the thread stack, and it only enters the strongly connected components which lead to
+	 * 						the end node.
 	 * 
 	 * @param startNode
 	 * @param endNode
 	 * @return list of List of nodes name
 	 */
 	public List<List<String>> showConnectivity(String startNode, String endNode) {
+		return showConnectivity(startNode, endNode, null, Integer.MAX_VALUE, null);
+	}
+
+	/**
+	 * showConnectivity - collect the paths from starting Node to ending Node within the limits of the options,
+	 * 						see showConnectivity.  Every node entered by the walk counts against the budget, and
+	 * 						the walk stops once the maximum number of paths is found.
+	 *
+	 * @param startNode
+	 * @param endNode
+	 * @param options - limits of the walk
+	 * @return list of List of nodes name found, partial if a limit was hit, with the status of the walk
+	 */
+	public QueryResult<List<List<String>>> showConnectivity(String startNode, String endNode,
+			QueryOptions options) {
+		if (options == null) {
+			throw new IllegalArgumentException("null options");
+		}
+		QueryBudget budget = options.start();
+		return budget.result(showConnectivity(startNode, endNode, budget, options.getMaxResults(), null));
+	}
+
+	/**
+	 * showConnectivity - collect the paths from starting Node to ending Node which only use the vertices and
+	 * 						edges of a subgraph view, see showConnectivity.  The view is walked in place, without
+	 * 						copying the graph.
+	 *
+	 * @param startNode
+	 * @param endNode
+	 * @param view - subgraph view of the current snapshot of the graph
+	 * @return list of List of nodes name
+	 * @throws IllegalStateException - if the view was made for a different snapshot of the graph
+	 */
+	public List<List<String>> showConnectivity(String startNode, String endNode, SubgraphView view) {
+		if (view == null) {
+			throw new IllegalArgumentException("null view");
+		}
+		return showConnectivity(startNode, endNode, null, Integer.MAX_VALUE, view);
+	}
+
+	/**
+	 * showConnectivity - walk the simple paths with an optional budget and an optional subgraph view
+	 */
+	private List<List<String>> showConnectivity(String startNode, String endNode, QueryBudget budget,
+			int maxResults, SubgraphView view) {
 		
 		List<List<String>> resultList = new LinkedList<>();
-		if (startNode == null || getVertex(endNode) == null) {
+		if (startNode == null || endNode == null) {
 			return resultList;
 		}
-		if (endNode == null || getVertex(startNode) == null) {
+		IndexedGraph graph = getIndexedGraph();
+		if (view != null) {
+			view.checkGraph(graph);
+		}
+		int from = graph.getId(startNode);
+		if (from < 0 || graph.getId(endNode) < 0 || view != null && ! view.includesVertex(from)) {
 			return resultList;
 		}
 
-		List<String> pathList = new LinkedList<>();
-		
-		showConnectivity(startNode, endNode, pathList, resultList);
+		int n = graph.getNumbersOfVertices();
+		boolean[] isEnd = new boolean[n];
+		int[] dests = IntStream.range(0, n)
+				.filter(id -> graph.getName(id).equalsIgnoreCase(endNode))
+				.toArray();
+		for(int id: dests) {
+			isEnd[id] = true;
+		}
+		// only the strongly connected components between the two nodes can be on a path
+		StrongComponents components = graph.getStrongComponents();
+		boolean[] keep = components.between(from, dests);
+		if (keep == null) {
+			return resultList;
+		}
+
+		DepthFirstTraversal traversal = new DepthFirstTraversal(graph)
+				.setEdgeFilter(view == null ? null : view::includesEdge);
+		traversal.walk(from, true, (id, level) -> {
+			if (budget != null && ! budget.settle()) {
+				return DepthFirstTraversal.Action.STOP;
+			}
+			if (level > 0 && ! keep[components.getComponent(id)]) {
+				return DepthFirstTraversal.Action.PRUNE;
+			}
+			if (! isEnd[id]) {
+				return DepthFirstTraversal.Action.CONTINUE;
+			}
+			List<String> pathList = new LinkedList<>();
+			for(int node: traversal.getPath()) {
+				pathList.add(graph.getName(node));
+			}
+			resultList.add(pathList);
+			if (resultList.size() >= maxResults) {
+				if (budget != null) {
+					budget.limitResults();
+				}
+				return DepthFirstTraversal.Action.STOP;
+			}
+			return DepthFirstTraversal.Action.PRUNE;
+		});
 		return resultList;
 	}
 
 	/**
-	 * show Connectivity - Recursive Helper method to walk the node neighbor's nodes until the end node has
-	 * 						reached or does not have any neighbors.
+	 * getDepthFirstOrder - return the nodes reachable from the source node in the order a depth first search
+	 * 						enters them, see DepthFirstTraversal
 	 * 
-	 * @param startNode - source node
-	 * @param endNode - destination node
-	 * @param pathList - walking paths
-	 * @param connList - List of List of nodes from start to end
+	 * @param fromName - source node name
+	 * @return list of node names starting with the source; empty if the source is not in the graph
 	 */
-	private void showConnectivity(String startNode, String endNode, List<String> pathList, List<List<String>> connList) {
-
-		pathList.add(startNode);
-		
-		if (startNode.compareToIgnoreCase(endNode) == 0) {
-			List<String> findPathList = new LinkedList<>(pathList);
-			connList.add(findPathList);
-
-			pathList.remove(endNode);
-			return;
+	public List<String> getDepthFirstOrder(String fromName) {
+		IndexedGraph graph = getIndexedGraph();
+		int from = graph.getId(fromName);
+		if (from < 0) {
+			return new ArrayList<>();
 		}
-		
-		List<Vertex> startNodeNeigbhors = getAdjacencyList(startNode);
-		
-		for(Vertex v : startNodeNeigbhors) {
-			if (pathList.contains(v.getName())) {
-				continue;
-			}
-			showConnectivity(v.getName(), endNode, pathList, connList);
-			pathList.remove(v.getName());
-		}		
+		return Arrays.stream(new DepthFirstTraversal(graph).preorder(from))
+				.mapToObj(graph::getName)
+				.collect(Collectors.toList());
 	}
 }
@@ -0,0 +1,161 @@
+/**
+ * Name: GraphChange
+ * Description: One numbered mutation of a Graph, with a compact binary encoding used by the change log.
+ * 				The first byte holds the change type in its low four bits and the edge weight type in the high
+ * 				four bits (0 for int, so records written before long and double weights still read back).
+ */
+package com.nkwok.simplegraph;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public final class GraphChange {
+
+	public enum Type {
+		ADD_EDGE(1),
+		REMOVE_EDGE(2);
+
+		private final int code;
+
+		Type(int code) {
+			this.code = code;
+		}
+
+		static Type fromCode(int code) throws IOException {
+			for(Type type: values()) {
+				if (type.code == code) {
+					return type;
+				}
+			}
+			throw new IOException("unknown change type " + code);
+		}
+	}
+
+	private final Type type;
+	private final long sequence;
+	private final Edge edge;
+
+	public GraphChange(Type type, long sequence, Edge edge) {
+		if (type == null || edge == null) {
+			throw new IllegalArgumentException("null type or edge");
+		}
+		this.type = type;
+		this.sequence = sequence;
+		this.edge = edge;
+	}
+
+	/**
+	 * @return the type
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the sequence
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the edge
+	 */
+	public Edge getEdge() {
+		return edge;
+	}
+
+	/**
+	 * applyTo - replay the change on a graph
+	 * 
+	 * @param graph
+	 */
+	public void applyTo(Graph graph) {
+		if (type == Type.ADD_EDGE) {
+			graph.addEdge(edge);
+		} else {
+			graph.removeEdge(edge);
+		}
+	}
+
+	/**
+	 * writeTo - encode the change
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		Edge.WeightType weightType = edge.getWeightType();
+		out.writeByte(type.code | weightType.ordinal() << 4);
+		out.writeLong(sequence);
+		writeString(out, edge.getName());
+		writeString(out, edge.getFromVertex());
+		writeString(out, edge.getToVertex());
+		switch (weightType) {
+		case LONG:
+			out.writeLong(edge.getLongWeight());
+			break;
+		case DOUBLE:
+			out.writeDouble(edge.getDoubleWeight());
+			break;
+		default:
+			out.writeInt(edge.getWeight());
+		}
+	}
+
+	/**
+	 * readFrom - decode a change written by writeTo
+	 * 
+	 * @param in
+	 * @return the change
+	 * @throws IOException
+	 */
+	public static GraphChange readFrom(DataInput in) throws IOException {
+		int code = in.readUnsignedByte();
+		Type type = Type.fromCode(code & 0x0f);
+		int weightType = code >>> 4;
+		long sequence = in.readLong();
+		String name = readString(in);
+		String from = readString(in);
+		String to = readString(in);
+		Edge edge;
+		try {
+			switch (weightType) {
+			case 0:
+				edge = new Edge(name, from, to, in.readInt());
+				break;
+			case 1:
+				edge = new LongEdge(name, from, to, in.readLong());
+				break;
+			case 2:
+				edge = new DoubleEdge(name, from, to, in.readDouble());
+				break;
+			default:
+				throw new IOException("unknown weight type " + weightType);
+			}
+		} catch (IllegalArgumentException e) {
+			throw new IOException("invalid edge weight", e);
+		}
+		return new GraphChange(type, sequence, edge);
+	}
+
+	private static void writeString(DataOutput out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "GraphChange [" + sequence + " " + type + " " + edge + "]";
+	}
+}
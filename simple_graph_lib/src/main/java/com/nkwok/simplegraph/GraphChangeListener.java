@@ -0,0 +1,41 @@
+/**
+ * Name: GraphChangeListener
+ * Description: Listener Interface to be told about every edge added to or removed from a Graph.
+ */
+package com.nkwok.simplegraph;
+
+public interface GraphChangeListener {
+
+	/**
+	 * beforeEdgeAdded - called before the edge is added; the graph is locked by the caller.  If it throws, the
+	 * 					edge is not added and the exception is thrown to the caller of Graph.addEdge, so a
+	 * 					write-ahead log can refuse a change it could not record.
+	 * 
+	 * @param edge - the edge given to Graph.addEdge
+	 */
+	default void beforeEdgeAdded(Edge edge) {
+	}
+
+	/**
+	 * beforeEdgeRemoved - called before the edge is removed; the graph is locked by the caller.  If it throws, the
+	 * 						edge is not removed and the exception is thrown to the caller of Graph.removeEdge.
+	 * 
+	 * @param edge - the edge given to Graph.removeEdge
+	 */
+	default void beforeEdgeRemoved(Edge edge) {
+	}
+
+	/**
+	 * edgeAdded - called after the edge has been added; the graph is still locked by the caller
+	 * 
+	 * @param edge - the edge given to Graph.addEdge
+	 */
+	void edgeAdded(Edge edge);
+
+	/**
+	 * edgeRemoved - called after the edge has been removed; the graph is still locked by the caller
+	 * 
+	 * @param edge - the edge given to Graph.removeEdge
+	 */
+	void edgeRemoved(Edge edge);
+}
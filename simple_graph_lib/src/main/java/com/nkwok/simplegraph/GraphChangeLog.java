@@ -0,0 +1,589 @@
+/**
+ * Name: GraphChangeLog
+ * Description: Write-ahead change log for a Graph.  Every addEdge/removeEdge is appended to a log segment
+ * 				through a FileChannel, batched in memory and group committed according to the fsync policy.
+ * 				A checkpoint writes a snapshot of the whole graph and drops the log segments it covers, so
+ * 				recovery only loads the latest snapshot and replays the tail of the log.
+ *
+ * 				A change is appended before the graph applies it, so a change the log failed to write with
+ * 				EVERY_CHANGE is not applied; once the log has failed it refuses every further change.
+ *
+ * 				Directory layout:
+ * 					snapshot.bin			- magic, sequence of the last change included, serialized graph
+ * 					changes-<first>.log		- records [int length][int crc32][GraphChange]
+ */
+package com.nkwok.simplegraph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+public class GraphChangeLog implements GraphChangeListener, AutoCloseable {
+
+	/**
+	 * FsyncPolicy - when the appended changes are forced to disk
+	 * 	EVERY_CHANGE - each change is forced before addEdge/removeEdge returns
+	 * 	GROUP - changes are written and forced together every commit interval, or by sync()
+	 * 	NEVER - changes are written every commit interval and left to the operating system
+	 */
+	public enum FsyncPolicy {
+		EVERY_CHANGE,
+		GROUP,
+		NEVER
+	}
+
+	private static final String SNAPSHOT_FILE = "snapshot.bin";
+	private static final String SEGMENT_PREFIX = "changes-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final int SNAPSHOT_MAGIC = 0x53475331;
+	private static final int RECORD_HEADER = 8;
+	private static final int MAX_RECORD = 1 << 24;
+	private static final int INITIAL_BUFFER = 1 << 16;
+
+	private final File directory;
+	private final FsyncPolicy policy;
+	private final long commitIntervalMillis;
+
+	// Lock order: graph monitor -> writeLock -> appendLock
+	private final Object appendLock = new Object();
+	private final Object writeLock = new Object();
+
+	// guarded by appendLock
+	private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER);
+	private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER);
+	private final RecordBuffer scratch = new RecordBuffer();
+	private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+	private final CRC32 crc = new CRC32();
+	private long lastSequence;
+
+	// opens the segment channels, replaced by tests to inject failures
+	SegmentOpener segmentOpener = path -> FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING);
+
+	// guarded by writeLock
+	private FileChannel channel;
+
+	private volatile long writtenSequence;
+	private volatile long durableSequence;
+	private volatile long snapshotSequence;
+	private volatile long checkpointInterval;
+	private volatile int replayedCount;
+	private volatile Graph graph;
+	private volatile IOException failure;
+	private volatile boolean closed;
+	private Thread committer;
+
+	/**
+	 * Constructor with log directory and fsync policy.  The log is not usable until recover() is called.
+	 *
+	 * @param directory - directory holding the snapshot and the log segments, created if missing
+	 * @param policy - fsync policy
+	 * @param commitIntervalMillis - how often the background committer writes batched changes
+	 * @throws IOException
+	 */
+	public GraphChangeLog(File directory, FsyncPolicy policy, long commitIntervalMillis) throws IOException {
+		if (directory == null || policy == null) {
+			throw new IllegalArgumentException("null directory or policy");
+		}
+		if (commitIntervalMillis <= 0) {
+			throw new IllegalArgumentException("commitIntervalMillis must be positive: " + commitIntervalMillis);
+		}
+		Files.createDirectories(directory.toPath());
+		this.directory = directory;
+		this.policy = policy;
+		this.commitIntervalMillis = commitIntervalMillis;
+	}
+
+	/**
+	 * Constructor with log directory, fsync policy and a 10 ms commit interval
+	 *
+	 * @param directory - directory holding the snapshot and the log segments, created if missing
+	 * @param policy - fsync policy
+	 * @throws IOException
+	 */
+	public GraphChangeLog(File directory, FsyncPolicy policy) throws IOException {
+		this(directory, policy, 10);
+	}
+
+	/**
+	 * recover - load the latest snapshot, or a new graph if there is none, replay the log tail on it and start
+	 * 				logging its changes.  A torn record at the end of the log is truncated.
+	 *
+	 * @param newGraph - creates the empty graph used when there is no snapshot
+	 * @return the recovered graph
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	public synchronized Graph recover(Supplier<? extends Graph> newGraph) throws IOException, ClassNotFoundException {
+		if (graph != null) {
+			throw new IllegalStateException("change log already recovered");
+		}
+
+		Graph recovered;
+		long sequence = 0;
+		File snapshot = new File(directory, SNAPSHOT_FILE);
+		if (snapshot.exists()) {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+				if (in.readInt() != SNAPSHOT_MAGIC) {
+					throw new IOException("not a graph snapshot: " + snapshot);
+				}
+				sequence = in.readLong();
+				recovered = (Graph) new ObjectInputStream(in).readObject();
+			}
+		} else {
+			recovered = newGraph.get();
+		}
+		snapshotSequence = sequence;
+
+		// Replay every contiguous change after the snapshot; stop at the first torn or missing record
+		int replayed = 0;
+		boolean stopped = false;
+		for(File segment: listSegments()) {
+			if (stopped || segmentStart(segment) > sequence + 1) {
+				stopped = true;
+				Files.move(segment.toPath(), new File(directory, segment.getName() + ".corrupt").toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+				continue;
+			}
+			long valid = 0;
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+				while (true) {
+					byte[] payload = readRecord(in);
+					GraphChange change = payload == null ? null
+							: GraphChange.readFrom(new DataInputStream(new ByteArrayInputStream(payload)));
+					if (change == null || change.getSequence() > sequence + 1) {
+						stopped = change != null || valid < segment.length();
+						break;
+					}
+					if (change.getSequence() == sequence + 1) {
+						change.applyTo(recovered);
+						sequence++;
+						replayed++;
+					}
+					valid += RECORD_HEADER + payload.length;
+				}
+			}
+			if (valid < segment.length()) {
+				try (FileChannel truncate = FileChannel.open(segment.toPath(), StandardOpenOption.WRITE)) {
+					truncate.truncate(valid);
+					truncate.force(true);
+				}
+			}
+		}
+		replayedCount = replayed;
+
+		synchronized(writeLock) {
+			synchronized(appendLock) {
+				lastSequence = sequence;
+			}
+			writtenSequence = sequence;
+			durableSequence = sequence;
+			openSegment(sequence + 1);
+		}
+
+		recovered.addChangeListener(this);
+		graph = recovered;
+
+		if (policy != FsyncPolicy.EVERY_CHANGE) {
+			committer = new Thread(this::runCommitter, "graph-change-log-committer");
+			committer.setDaemon(true);
+			committer.start();
+		}
+		return recovered;
+	}
+
+	/**
+	 * beforeEdgeAdded - append the change before the graph applies it; if the append fails the graph is left
+	 * 					unchanged
+	 */
+	@Override
+	public void beforeEdgeAdded(Edge edge) {
+		append(GraphChange.Type.ADD_EDGE, edge);
+	}
+
+	/**
+	 * beforeEdgeRemoved - append the change before the graph applies it; if the append fails the graph is left
+	 * 						unchanged
+	 */
+	@Override
+	public void beforeEdgeRemoved(Edge edge) {
+		append(GraphChange.Type.REMOVE_EDGE, edge);
+	}
+
+	@Override
+	public void edgeAdded(Edge edge) {
+	}
+
+	@Override
+	public void edgeRemoved(Edge edge) {
+	}
+
+	/**
+	 * append - encode the change into the pending batch; with EVERY_CHANGE it is forced immediately
+	 *
+	 * @param type
+	 * @param edge
+	 */
+	private void append(GraphChange.Type type, Edge edge) {
+		synchronized(appendLock) {
+			checkUsable();
+			long sequence = lastSequence + 1;
+			try {
+				scratch.reset();
+				new GraphChange(type, sequence, edge).writeTo(scratchOut);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			int length = scratch.size();
+			crc.reset();
+			crc.update(scratch.buffer(), 0, length);
+
+			if (pending.remaining() < RECORD_HEADER + length) {
+				ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + RECORD_HEADER + length));
+				pending.flip();
+				larger.put(pending);
+				pending = larger;
+			}
+			pending.putInt(length).putInt((int) crc.getValue()).put(scratch.buffer(), 0, length);
+			lastSequence = sequence;
+		}
+
+		if (policy == FsyncPolicy.EVERY_CHANGE) {
+			try {
+				flush(true);
+			} catch (IOException e) {
+				failure = e;
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * flush - write the pending batch to the current segment and optionally force it to disk
+	 *
+	 * @param force
+	 * @throws IOException
+	 */
+	private void flush(boolean force) throws IOException {
+		synchronized(writeLock) {
+			ByteBuffer batch = null;
+			long batchSequence;
+			synchronized(appendLock) {
+				batchSequence = lastSequence;
+				if (pending.position() > 0) {
+					batch = pending;
+					pending = spare;
+					spare = null;
+				}
+			}
+			if (batch == null && (! force || durableSequence >= batchSequence)) {
+				return;
+			}
+			long start = channel.position();
+			try {
+				if (batch != null) {
+					batch.flip();
+					while (batch.hasRemaining()) {
+						channel.write(batch);
+					}
+				}
+				if (force) {
+					channel.force(false);
+				}
+			} catch (IOException e) {
+				// drop the part of the batch which may have been written, so recovery does not replay it
+				try {
+					channel.truncate(start);
+				} catch (IOException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+				throw e;
+			} finally {
+				if (batch != null) {
+					batch.clear();
+					synchronized(appendLock) {
+						spare = batch;
+					}
+				}
+			}
+			writtenSequence = batchSequence;
+			if (force) {
+				durableSequence = batchSequence;
+			}
+		}
+	}
+
+	/**
+	 * sync - force every change appended so far to disk.  Concurrent callers share one fsync.
+	 *
+	 * @throws IOException
+	 */
+	public void sync() throws IOException {
+		long target;
+		synchronized(appendLock) {
+			checkUsable();
+			target = lastSequence;
+		}
+		if (durableSequence < target) {
+			flush(true);
+		}
+	}
+
+	/**
+	 * checkpoint - write a snapshot of the graph and delete the log segments it covers.  Mutations of the graph
+	 * 				wait while the snapshot image is taken.
+	 *
+	 * @throws IOException
+	 */
+	public void checkpoint() throws IOException {
+		Graph target = graph;
+		if (target == null) {
+			throw new IllegalStateException("change log not recovered");
+		}
+
+		long sequence;
+		ByteArrayOutputStream image = new ByteArrayOutputStream();
+		synchronized(target) {
+			synchronized(writeLock) {
+				checkUsable();
+				flush(true);
+				sequence = durableSequence;
+				channel.close();
+				openSegment(sequence + 1);
+			}
+			try (ObjectOutputStream oos = new ObjectOutputStream(image)) {
+				oos.writeObject(target);
+			}
+		}
+
+		File temp = new File(directory, SNAPSHOT_FILE + ".tmp");
+		try (FileOutputStream fos = new FileOutputStream(temp)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeLong(sequence);
+			image.writeTo(out);
+			out.flush();
+			fos.getChannel().force(true);
+		}
+		Files.move(temp.toPath(), new File(directory, SNAPSHOT_FILE).toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		snapshotSequence = sequence;
+
+		for(File segment: listSegments()) {
+			if (segmentStart(segment) <= sequence) {
+				Files.delete(segment.toPath());
+			}
+		}
+	}
+
+	/**
+	 * setCheckpointInterval - let the background committer take a checkpoint after the given number of changes
+	 *
+	 * @param changes - number of changes between checkpoints, 0 disables automatic checkpoints
+	 */
+	public void setCheckpointInterval(long changes) {
+		if (changes < 0) {
+			throw new IllegalArgumentException("negative checkpoint interval: " + changes);
+		}
+		this.checkpointInterval = changes;
+	}
+
+	private void runCommitter() {
+		while (! closed) {
+			try {
+				Thread.sleep(commitIntervalMillis);
+			} catch (InterruptedException e) {
+				if (closed) {
+					return;
+				}
+			}
+			try {
+				flush(policy == FsyncPolicy.GROUP);
+				long interval = checkpointInterval;
+				if (interval > 0 && writtenSequence - snapshotSequence >= interval && ! closed) {
+					checkpoint();
+				}
+			} catch (IOException e) {
+				failure = e;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * close - stop logging, force the remaining changes to disk and close the segment
+	 *
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (committer != null) {
+			committer.interrupt();
+			try {
+				committer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		Graph target = graph;
+		if (target != null) {
+			target.removeChangeListener(this);
+			synchronized(writeLock) {
+				try {
+					if (failure == null) {
+						flush(true);
+					}
+				} finally {
+					channel.close();
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private void openSegment(long firstSequence) throws IOException {
+		File segment = new File(directory, String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+		channel = segmentOpener.open(segment.toPath());
+	}
+
+	private File[] listSegments() {
+		File[] segments = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+		if (segments == null) {
+			return new File[0];
+		}
+		Arrays.sort(segments, Comparator.comparingLong(GraphChangeLog::segmentStart));
+		return segments;
+	}
+
+	private static long segmentStart(File segment) {
+		String name = segment.getName();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	/**
+	 * readRecord - read one record
+	 *
+	 * @param in
+	 * @return the payload, or null at the end of the segment or at a torn or corrupt record
+	 * @throws IOException
+	 */
+	private static byte[] readRecord(DataInputStream in) throws IOException {
+		try {
+			int length = in.readInt();
+			int checksum = in.readInt();
+			if (length <= 0 || length > MAX_RECORD) {
+				return null;
+			}
+			byte[] payload = new byte[length];
+			in.readFully(payload);
+			CRC32 crc = new CRC32();
+			crc.update(payload, 0, length);
+			if ((int) crc.getValue() != checksum) {
+				return null;
+			}
+			return payload;
+		} catch (EOFException e) {
+			return null;
+		}
+	}
+
+	private void checkUsable() {
+		if (closed) {
+			throw new IllegalStateException("change log closed");
+		}
+		if (failure != null) {
+			throw new UncheckedIOException("change log failed", failure);
+		}
+	}
+
+	/**
+	 * @return the directory
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @return the fsync policy
+	 */
+	public FsyncPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * @return the sequence of the last appended change
+	 */
+	public long getLastSequence() {
+		synchronized(appendLock) {
+			return lastSequence;
+		}
+	}
+
+	/**
+	 * @return the sequence of the last change forced to disk
+	 */
+	public long getDurableSequence() {
+		return durableSequence;
+	}
+
+	/**
+	 * @return the sequence of the last change included in the snapshot
+	 */
+	public long getSnapshotSequence() {
+		return snapshotSequence;
+	}
+
+	/**
+	 * @return the number of changes replayed by recover()
+	 */
+	public int getReplayedCount() {
+		return replayedCount;
+	}
+
+	/**
+	 * SegmentOpener - opens the channel a log segment is written through
+	 */
+	interface SegmentOpener {
+		FileChannel open(Path path) throws IOException;
+	}
+
+	/**
+	 * RecordBuffer - ByteArrayOutputStream giving access to its buffer without a copy
+	 */
+	private static final class RecordBuffer extends ByteArrayOutputStream {
+		RecordBuffer() {
+			super(128);
+		}
+
+		byte[] buffer() {
+			return buf;
+		}
+	}
+}
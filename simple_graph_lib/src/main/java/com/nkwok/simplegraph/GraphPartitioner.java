@@ -0,0 +1,19 @@
+/**
+ * Name: GraphPartitioner
+ * Description: Interface to split the vertices of a Graph into a number of shards.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.Map;
+
+public interface GraphPartitioner {
+
+	/**
+	 * partition - assign every vertex of the graph to a shard
+	 * 
+	 * @param graph - graph to split
+	 * @param shards - number of shards
+	 * @return map of vertex name and shard number from 0 to shards - 1
+	 */
+	Map<String, Integer> partition(Graph graph, int shards);
+}
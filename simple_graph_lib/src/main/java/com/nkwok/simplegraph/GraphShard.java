@@ -0,0 +1,75 @@
+/**
+ * Name: GraphShard
+ * Description: Interface of one shard of a PartitionedGraph.  A shard owns a subset of the vertices and their
+ * 				outgoing edges and keeps per query search state.  The in-process implementation is LocalGraphShard;
+ * 				only Serializable values cross this interface so it can be backed by another process.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.List;
+
+/**
+ * Distances are long keys: the distance itself for INT and LONG weights, and the raw bits of the double distance
+ * for DOUBLE weights, which order like the distances as they are never negative.
+ */
+public interface GraphShard {
+
+	/**
+	 * @return the shard number
+	 */
+	int getShardId();
+
+	/**
+	 * @return the number of vertices owned by the shard
+	 */
+	int getNumbersOfVertices();
+
+	/**
+	 * @return the number of edges leaving the vertices owned by the shard
+	 */
+	int getNumbersOfEdges();
+
+	/**
+	 * relax - seed the query with the given entries of owned vertices and run a local Dijkstra's search over the
+	 * 			owned vertices.  Entries which do not improve the known distance are ignored.
+	 * 
+	 * @param queryId - query identifier
+	 * @param batch - entries for vertices owned by this shard
+	 * @param bound - distances not below the bound are not explored
+	 * @return entries for vertices owned by other shards reached through cut edges
+	 */
+	List<FrontierEntry> relax(long queryId, List<FrontierEntry> batch, long bound);
+
+	/**
+	 * getEdges - the edges leaving an owned vertex
+	 * 
+	 * @param vertex
+	 * @return the edges, empty if the vertex has none or is not owned
+	 */
+	List<Edge> getEdges(String vertex);
+
+	/**
+	 * distance - the best distance found so far for an owned vertex
+	 * 
+	 * @param queryId
+	 * @param vertex
+	 * @return the distance, Long.MAX_VALUE if not reached
+	 */
+	long distance(long queryId, String vertex);
+
+	/**
+	 * parent - the previous vertex on the best path found so far to an owned vertex
+	 * 
+	 * @param queryId
+	 * @param vertex
+	 * @return the parent name, null for the source or if not reached
+	 */
+	String parent(long queryId, String vertex);
+
+	/**
+	 * release - discard the search state of a query
+	 * 
+	 * @param queryId
+	 */
+	void release(long queryId);
+}
@@ -0,0 +1,37 @@
+/**
+ * Name: HashPartitioner
+ * Description: GraphPartitioner which assigns a vertex to a shard by the hash of its name.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class HashPartitioner implements GraphPartitioner {
+
+	@Override
+	public Map<String, Integer> partition(Graph graph, int shards) {
+		if (shards <= 0) {
+			throw new IllegalArgumentException("shards must be positive: " + shards);
+		}
+		Map<String, Integer> assignment = new HashMap<>();
+		for(Vertex vertex: graph.getVertices()) {
+			assignment.put(vertex.getName(), shardOf(vertex.getName(), shards));
+		}
+		return assignment;
+	}
+
+	/**
+	 * shardOf - shard of a vertex name
+	 * 
+	 * @param name
+	 * @param shards
+	 * @return shard number
+	 */
+	public static int shardOf(String name, int shards) {
+		int hash = name == null ? 0 : name.hashCode();
+		// spread the bits so that names differing only in the last characters do not cluster
+		hash ^= (hash >>> 16);
+		return Math.floorMod(hash * 0x9E3779B9, shards);
+	}
+}
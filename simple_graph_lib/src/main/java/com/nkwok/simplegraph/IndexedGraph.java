@@ -0,0 +1,464 @@
+/**
+ * Name: IndexedGraph
+ * Description: Immutable compiled snapshot of a Graph used by the searches.  Vertices are numbered from 0 in
+ * 				name order, or in the order of a VertexOrdering strategy, and the edges are kept in primitive
+ * 				arrays in compressed sparse row layout, both outgoing (offsets/targets) and incoming
+ * 				(inOffsets/sources).  Edge slot e of the outgoing arrays is the edge identifier; the incoming
+ * 				arrays refer back to it.  getId and getName map between vertex ids and names in every layout.
+ * 				The weights are kept in an int, long or double array, the narrowest which holds every edge weight
+ * 				(see getWeightType); the searches pick their specialized loop from it.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class IndexedGraph {
+
+	private final VertexOrdering.Strategy strategy;
+	private final String[] names;
+	private final Map<String, Integer> ids;
+
+	private final int[] offsets;
+	private final int[] targets;
+	private final Edge.WeightType weightType;
+	// only the array of the weight type is set
+	private final int[] weights;
+	private final long[] longWeights;
+	private final double[] doubleWeights;
+	private final String[] edgeNames;
+
+	private final int[] inOffsets;
+	private final int[] sources;
+	private final int[] inEdges;
+	// it is used to hold the strongly connected components, built on first use
+	private volatile StrongComponents strongComponents;
+
+	/**
+	 * Constructor with the vertices and edges of a graph.  The caller must hold the graph lock.
+	 *
+	 * @param vertices
+	 * @param edges
+	 */
+	IndexedGraph(Collection<Vertex> vertices, Collection<Edge> edges) {
+		this(vertices, edges, VertexOrdering.Strategy.NAME);
+	}
+
+	/**
+	 * Constructor with the vertices and edges of a graph numbered by a VertexOrdering strategy.  The caller must
+	 * hold the graph lock.
+	 *
+	 * @param vertices
+	 * @param edges
+	 * @param strategy - vertex numbering strategy
+	 */
+	IndexedGraph(Collection<Vertex> vertices, Collection<Edge> edges, VertexOrdering.Strategy strategy) {
+		this(orderedNames(vertices, edges, strategy), edges, strategy);
+	}
+
+	private IndexedGraph(String[] names, Collection<Edge> edges, VertexOrdering.Strategy strategy) {
+		int n = names.length;
+		this.strategy = strategy;
+		this.names = names;
+		this.ids = new HashMap<>(n * 2);
+		for(int i = 0; i < n; i++) {
+			ids.put(names[i], i);
+		}
+
+		int m = edges.size();
+		Edge.WeightType type = Edge.WeightType.INT;
+		for(Edge edge: edges) {
+			if (edge.getWeightType().compareTo(type) > 0) {
+				type = edge.getWeightType();
+			}
+		}
+		this.weightType = type;
+		int[] from = new int[m];
+		int[] to = new int[m];
+		int[] weight = type == Edge.WeightType.INT ? new int[m] : null;
+		long[] longWeight = type == Edge.WeightType.LONG ? new long[m] : null;
+		double[] doubleWeight = type == Edge.WeightType.DOUBLE ? new double[m] : null;
+		String[] name = new String[m];
+		int[] outDegree = new int[n + 1];
+		int[] inDegree = new int[n + 1];
+		int e = 0;
+		for(Edge edge: edges) {
+			from[e] = ids.get(edge.getFromVertex());
+			to[e] = ids.get(edge.getToVertex());
+			if (weight != null) {
+				weight[e] = edge.getWeight();
+			} else if (longWeight != null) {
+				longWeight[e] = edge.getLongWeight();
+			} else {
+				doubleWeight[e] = edge.getDoubleWeight();
+			}
+			name[e] = edge.getName();
+			outDegree[from[e] + 1]++;
+			inDegree[to[e] + 1]++;
+			e++;
+		}
+		for(int i = 0; i < n; i++) {
+			outDegree[i + 1] += outDegree[i];
+			inDegree[i + 1] += inDegree[i];
+		}
+		this.offsets = outDegree;
+		this.inOffsets = inDegree;
+
+		this.targets = new int[m];
+		this.weights = weight == null ? null : new int[m];
+		this.longWeights = longWeight == null ? null : new long[m];
+		this.doubleWeights = doubleWeight == null ? null : new double[m];
+		this.edgeNames = new String[m];
+		this.sources = new int[m];
+		this.inEdges = new int[m];
+		int[] outNext = Arrays.copyOf(offsets, n);
+		int[] inNext = Arrays.copyOf(inOffsets, n);
+		for(int i = 0; i < m; i++) {
+			int slot = outNext[from[i]]++;
+			targets[slot] = to[i];
+			if (weights != null) {
+				weights[slot] = weight[i];
+			} else if (longWeights != null) {
+				longWeights[slot] = longWeight[i];
+			} else {
+				doubleWeights[slot] = doubleWeight[i];
+			}
+			edgeNames[slot] = name[i];
+			int inSlot = inNext[to[i]]++;
+			sources[inSlot] = from[i];
+			inEdges[inSlot] = slot;
+		}
+	}
+
+	/**
+	 * orderedNames - vertex names in id order; the name ordered layout is built first for the other strategies
+	 */
+	private static String[] orderedNames(Collection<Vertex> vertices, Collection<Edge> edges,
+			VertexOrdering.Strategy strategy) {
+		String[] sorted = new String[vertices.size()];
+		int n = 0;
+		for(Vertex vertex: vertices) {
+			sorted[n++] = vertex.getName();
+		}
+		Arrays.sort(sorted);
+		if (strategy == VertexOrdering.Strategy.NAME) {
+			return sorted;
+		}
+		int[] order = VertexOrdering.order(new IndexedGraph(sorted, edges, VertexOrdering.Strategy.NAME), strategy);
+		String[] names = new String[n];
+		for(int i = 0; i < n; i++) {
+			names[i] = sorted[order[i]];
+		}
+		return names;
+	}
+
+	/**
+	 * getStrongComponents - return the strongly connected components of the snapshot.  They are built on first
+	 * 						use and kept with the snapshot.
+	 *
+	 * @return the components
+	 */
+	public StrongComponents getStrongComponents() {
+		StrongComponents components = strongComponents;
+		if (components == null) {
+			components = new StrongComponents(this);
+			strongComponents = components;
+		}
+		return components;
+	}
+
+	/**
+	 * @return the vertex numbering strategy of the layout
+	 */
+	public VertexOrdering.Strategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * @return the number of vertices
+	 */
+	public int getNumbersOfVertices() {
+		return names.length;
+	}
+
+	/**
+	 * @return the number of edges
+	 */
+	public int getNumbersOfEdges() {
+		return targets.length;
+	}
+
+	/**
+	 * getId - return the vertex id of a vertex name
+	 *
+	 * @param name
+	 * @return vertex id, -1 if not found
+	 */
+	public int getId(String name) {
+		Integer id = name == null ? null : ids.get(name);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * getName - return the vertex name of a vertex id
+	 *
+	 * @param id
+	 * @return the name
+	 */
+	public String getName(int id) {
+		return names[id];
+	}
+
+	/**
+	 * getVertex - return a vertex object for a vertex id
+	 *
+	 * @param id
+	 * @return the vertex
+	 */
+	public Vertex getVertex(int id) {
+		return new Vertex(names[id]);
+	}
+
+	/**
+	 * firstEdge - the first outgoing edge slot of a vertex; the slots run up to but excluding endEdge
+	 *
+	 * @param id
+	 * @return edge slot
+	 */
+	public int firstEdge(int id) {
+		return offsets[id];
+	}
+
+	/**
+	 * endEdge - one past the last outgoing edge slot of a vertex
+	 *
+	 * @param id
+	 * @return edge slot
+	 */
+	public int endEdge(int id) {
+		return offsets[id + 1];
+	}
+
+	/**
+	 * @param slot - edge slot
+	 * @return the vertex id the edge goes to
+	 */
+	public int target(int slot) {
+		return targets[slot];
+	}
+
+	/**
+	 * @return the narrowest primitive type holding every edge weight
+	 */
+	public Edge.WeightType getWeightType() {
+		return weightType;
+	}
+
+	/**
+	 * extend - the distance key through an edge.  Searches written once for every weight type keep long
+	 * 			distance keys: the distance itself for int and long weights, and the raw bits of the double
+	 * 			distance for double weights, which order like the distances as they are never negative.
+	 * 			Long.MAX_VALUE marks an unreached vertex.
+	 *
+	 * @param distance - distance key of the vertex the edge leaves
+	 * @param slot - edge slot
+	 * @return the distance key of the vertex the edge goes to, Long.MAX_VALUE if a long distance overflows
+	 */
+	long extend(long distance, int slot) {
+		switch (weightType) {
+		case DOUBLE:
+			return Double.doubleToRawLongBits(Double.longBitsToDouble(distance) + doubleWeights[slot]);
+		case LONG:
+			// compared before adding, so that long weights cannot overflow
+			long weight = longWeights[slot];
+			return weight >= Long.MAX_VALUE - distance ? Long.MAX_VALUE : distance + weight;
+		default:
+			return distance + weights[slot];
+		}
+	}
+
+	/**
+	 * sumKeys - the sum of two distance keys, see extend
+	 *
+	 * @param weightType - weight type of the graph
+	 * @param first - distance key
+	 * @param second - distance key
+	 * @return the sum, Long.MAX_VALUE if either is Long.MAX_VALUE or the sum overflows a long
+	 */
+	static long sumKeys(Edge.WeightType weightType, long first, long second) {
+		if (first == Long.MAX_VALUE || second == Long.MAX_VALUE) {
+			return Long.MAX_VALUE;
+		}
+		if (weightType == Edge.WeightType.DOUBLE) {
+			return Double.doubleToRawLongBits(Double.longBitsToDouble(first) + Double.longBitsToDouble(second));
+		}
+		return second >= Long.MAX_VALUE - first ? Long.MAX_VALUE : first + second;
+	}
+
+	/**
+	 * gapKey - the distance key of how far one distance key is above another, 0 if it is not
+	 *
+	 * @param weightType - weight type of the graph
+	 * @param first - distance key, not Long.MAX_VALUE
+	 * @param second - distance key, not Long.MAX_VALUE
+	 * @return the distance key of max(0, first - second)
+	 */
+	static long gapKey(Edge.WeightType weightType, long first, long second) {
+		if (first <= second) {
+			return 0;
+		}
+		if (weightType == Edge.WeightType.DOUBLE) {
+			return Double.doubleToRawLongBits(Double.longBitsToDouble(first) - Double.longBitsToDouble(second));
+		}
+		return first - second;
+	}
+
+	/**
+	 * keyValue - the distance a distance key holds, see extend
+	 *
+	 * @param weightType - weight type of the graph
+	 * @param key - distance key
+	 * @return the distance, positive infinity for Long.MAX_VALUE
+	 */
+	static double keyValue(Edge.WeightType weightType, long key) {
+		if (key == Long.MAX_VALUE) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return weightType == Edge.WeightType.DOUBLE ? Double.longBitsToDouble(key) : key;
+	}
+
+	/**
+	 * @param slot - edge slot
+	 * @return the weight of the edge; int weight graphs only
+	 */
+	public int weight(int slot) {
+		return weights[slot];
+	}
+
+	/**
+	 * @param slot - edge slot
+	 * @return the weight of the edge; int and long weight graphs only
+	 */
+	public long longWeight(int slot) {
+		return longWeights != null ? longWeights[slot] : weights[slot];
+	}
+
+	/**
+	 * @param slot - edge slot
+	 * @return the weight of the edge
+	 */
+	public double doubleWeight(int slot) {
+		if (doubleWeights != null) {
+			return doubleWeights[slot];
+		}
+		return longWeights != null ? longWeights[slot] : weights[slot];
+	}
+
+	/**
+	 * @param slot - edge slot
+	 * @return the name of the edge
+	 */
+	public String edgeName(int slot) {
+		return edgeNames[slot];
+	}
+
+	/**
+	 * getEdge - return an edge object for an edge slot
+	 *
+	 * @param slot - edge slot
+	 * @param fromId - vertex id the edge leaves from
+	 * @return the edge
+	 */
+	public Edge getEdge(int slot, int fromId) {
+		switch (weightType) {
+		case LONG:
+			return new LongEdge(edgeNames[slot], names[fromId], names[targets[slot]], longWeights[slot]);
+		case DOUBLE:
+			return new DoubleEdge(edgeNames[slot], names[fromId], names[targets[slot]], doubleWeights[slot]);
+		default:
+			return new Edge(edgeNames[slot], names[fromId], names[targets[slot]], weights[slot]);
+		}
+	}
+
+	/**
+	 * findEdge - return the lightest edge slot from one vertex to another
+	 *
+	 * @param fromId
+	 * @param toId
+	 * @return edge slot, -1 if there is no such edge
+	 */
+	public int findEdge(int fromId, int toId) {
+		int found = -1;
+		for(int slot = offsets[fromId]; slot < offsets[fromId + 1]; slot++) {
+			if (targets[slot] == toId && (found < 0 || lighter(slot, found))) {
+				found = slot;
+			}
+		}
+		return found;
+	}
+
+	private boolean lighter(int slot, int other) {
+		switch (weightType) {
+		case LONG:
+			return longWeights[slot] < longWeights[other];
+		case DOUBLE:
+			return doubleWeights[slot] < doubleWeights[other];
+		default:
+			return weights[slot] < weights[other];
+		}
+	}
+
+	/**
+	 * @param id
+	 * @return the number of outgoing edges of a vertex
+	 */
+	public int outDegree(int id) {
+		return offsets[id + 1] - offsets[id];
+	}
+
+	/**
+	 * firstInEdge - the first incoming position of a vertex; the positions run up to but excluding endInEdge
+	 *
+	 * @param id
+	 * @return incoming position
+	 */
+	public int firstInEdge(int id) {
+		return inOffsets[id];
+	}
+
+	/**
+	 * endInEdge - one past the last incoming position of a vertex
+	 *
+	 * @param id
+	 * @return incoming position
+	 */
+	public int endInEdge(int id) {
+		return inOffsets[id + 1];
+	}
+
+	/**
+	 * @param position - incoming position
+	 * @return the vertex id the incoming edge comes from
+	 */
+	public int source(int position) {
+		return sources[position];
+	}
+
+	/**
+	 * @param position - incoming position
+	 * @return the outgoing edge slot of the incoming edge
+	 */
+	public int inEdge(int position) {
+		return inEdges[position];
+	}
+
+	/**
+	 * @param id
+	 * @return the number of incoming edges of a vertex
+	 */
+	public int inDegree(int id) {
+		return inOffsets[id + 1] - inOffsets[id];
+	}
+}
@@ -0,0 +1,312 @@
+/**
+ * Name: KShortestPaths
+ * Description: K shortest loopless paths using Yen's Algorithm.
+ * 				The shortest path tree towards the destination is computed once with a backward Dijkstra's search
+ * 				and shared by all spur searches:
+ * 				- its distances are exact lower bounds (removing edges can only make paths longer), so every spur
+ * 				  search is an A* search which walks almost straight to the destination
+ * 				- a spur node whose root cost plus lower bound cannot beat the candidates already kept is skipped
+ * 				- only the best (k - found) candidates are kept
+ * 				The spur searches reuse the same arrays, reset by a generation stamp instead of clearing them.
+ * 				Distances are the distance keys of IndexedGraph.extend, so one search serves every weight type.
+ * 				Paths are sequences of edge slots, so parallel edges between two vertices give distinct paths.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+final class KShortestPaths {
+
+	private static final long UNREACHABLE = Long.MAX_VALUE;
+
+	/**
+	 * Candidate order: weight, then number of vertices, then edge slots; two candidates are only equal if they
+	 * take the same edges, which also removes duplicates.
+	 */
+	private static final Comparator<Route> ROUTE_ORDER = (r1, r2) -> {
+		int result = Long.compare(r1.totalKey(), r2.totalKey());
+		if (result != 0) {
+			return result;
+		}
+		result = Integer.compare(r1.slots.length, r2.slots.length);
+		for(int i = 0; result == 0 && i < r1.slots.length; i++) {
+			result = Integer.compare(r1.slots[i], r2.slots[i]);
+		}
+		return result;
+	};
+
+	/**
+	 * A path while it is searched: its vertex ids, the edge slot leaving each vertex but the last and the distance
+	 * key of each vertex
+	 */
+	private static final class Route {
+		final int[] vertexIds;
+		final int[] slots;
+		final long[] keys;
+
+		Route(int[] vertexIds, int[] slots, long[] keys) {
+			this.vertexIds = vertexIds;
+			this.slots = slots;
+			this.keys = keys;
+		}
+
+		long totalKey() {
+			return keys[keys.length - 1];
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(slots);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			// every route starts at the same source, so the edges alone tell it apart
+			return obj instanceof Route && Arrays.equals(slots, ((Route) obj).slots);
+		}
+	}
+
+	private final IndexedGraph graph;
+	private final int source;
+	private final int target;
+	private final Edge.WeightType weightType;
+
+	// shortest path tree towards the target, nextSlot is the edge slot leaving each vertex towards it
+	private final long[] toTarget;
+	private final int[] nextSlot;
+
+	// spur search state, valid only where stamp equals generation
+	private final long[] distance;
+	private final int[] previous;
+	private final int[] previousSlot;
+	private final int[] stamp;
+	private final int[] banned;
+	private int generation;
+	private final DistanceHeap heap = new DistanceHeap(64);
+
+	KShortestPaths(IndexedGraph graph, int source, int target) {
+		this.graph = graph;
+		this.source = source;
+		this.target = target;
+		this.weightType = graph.getWeightType();
+
+		int n = graph.getNumbersOfVertices();
+		this.toTarget = new long[n];
+		this.nextSlot = new int[n];
+		this.distance = new long[n];
+		this.previous = new int[n];
+		this.previousSlot = new int[n];
+		this.stamp = new int[n];
+		this.banned = new int[n];
+		buildReverseTree();
+	}
+
+	/**
+	 * buildReverseTree - backward Dijkstra's search from the target over the incoming edges
+	 */
+	private void buildReverseTree() {
+		Arrays.fill(toTarget, UNREACHABLE);
+		// the raw bits of 0.0 are 0
+		toTarget[target] = 0;
+		nextSlot[target] = -1;
+		heap.clear();
+		heap.add(0, target);
+		while (! heap.isEmpty()) {
+			int node = heap.poll();
+			long nodeDistance = heap.lastKey();
+			if (nodeDistance > toTarget[node]) {
+				continue;
+			}
+			for(int pos = graph.firstInEdge(node), end = graph.endInEdge(node); pos < end; pos++) {
+				int from = graph.source(pos);
+				int slot = graph.inEdge(pos);
+				long calcweight = graph.extend(nodeDistance, slot);
+				if (calcweight < toTarget[from]) {
+					toTarget[from] = calcweight;
+					nextSlot[from] = slot;
+					heap.add(calcweight, from);
+				}
+			}
+		}
+	}
+
+	/**
+	 * find - the k shortest loopless paths from source to target
+	 *
+	 * @param k
+	 * @return paths in increasing weight, fewer than k if there are not that many
+	 */
+	List<Path> find(int k) {
+		if (toTarget[source] == UNREACHABLE) {
+			return Collections.emptyList();
+		}
+
+		List<Route> found = new ArrayList<>(k);
+		found.add(treeRoute());
+		TreeSet<Route> candidates = new TreeSet<>(ROUTE_ORDER);
+
+		while (found.size() < k) {
+			Route last = found.get(found.size() - 1);
+			int needed = k - found.size();
+
+			for(int spurIndex = 0; spurIndex < last.slots.length; spurIndex++) {
+				int spurNode = last.vertexIds[spurIndex];
+				long rootCost = last.keys[spurIndex];
+
+				// no spur path from here can be better than the candidates already kept
+				long bound = IndexedGraph.sumKeys(weightType, rootCost, toTarget[spurNode]);
+				if (candidates.size() >= needed && bound >= candidates.last().totalKey()) {
+					continue;
+				}
+
+				generation++;
+				for(int i = 0; i < spurIndex; i++) {
+					banned[last.vertexIds[i]] = generation;
+				}
+				Route candidate = spurSearch(last, spurIndex, found);
+				if (candidate != null && ! found.contains(candidate)) {
+					candidates.add(candidate);
+					if (candidates.size() > needed) {
+						candidates.pollLast();
+					}
+				}
+			}
+
+			if (candidates.isEmpty()) {
+				break;
+			}
+			found.add(candidates.pollFirst());
+		}
+
+		List<Path> paths = new ArrayList<>(found.size());
+		for(Route route: found) {
+			paths.add(Path.fromSlots(graph, route.vertexIds, route.slots, route.keys));
+		}
+		return paths;
+	}
+
+	/**
+	 * treeRoute - the shortest path read from the shortest path tree, summed from the source so that double
+	 * 				weights add up as in the spur searches
+	 *
+	 * @return the route
+	 */
+	private Route treeRoute() {
+		int length = 1;
+		for(int node = source; node != target; node = graph.target(nextSlot[node])) {
+			length++;
+		}
+		int[] vertexIds = new int[length];
+		int[] slots = new int[length - 1];
+		long[] keys = new long[length];
+		int node = source;
+		vertexIds[0] = source;
+		for(int i = 1; i < length; i++) {
+			slots[i - 1] = nextSlot[node];
+			keys[i] = graph.extend(keys[i - 1], nextSlot[node]);
+			node = graph.target(nextSlot[node]);
+			vertexIds[i] = node;
+		}
+		return new Route(vertexIds, slots, keys);
+	}
+
+	/**
+	 * spurSearch - A* search from the spur node to the target which does not use the root path vertices nor
+	 * 				the edges leaving the spur node along any found path sharing the same root
+	 *
+	 * @param last - the path the spur node is taken from
+	 * @param spurIndex - position of the spur node on the path
+	 * @param found - paths found so far
+	 * @return root path followed by the spur path, null if there is none
+	 */
+	private Route spurSearch(Route last, int spurIndex, List<Route> found) {
+		int spurNode = last.vertexIds[spurIndex];
+		long rootCost = last.keys[spurIndex];
+
+		heap.clear();
+		stamp[spurNode] = generation;
+		distance[spurNode] = rootCost;
+		previous[spurNode] = -1;
+		heap.add(IndexedGraph.sumKeys(weightType, rootCost, toTarget[spurNode]), spurNode);
+
+		while (! heap.isEmpty()) {
+			int node = heap.poll();
+			long nodeDistance = distance[node];
+			if (heap.lastKey() > IndexedGraph.sumKeys(weightType, nodeDistance, toTarget[node])) {
+				continue;
+			}
+			if (node == target) {
+				return join(last, spurIndex);
+			}
+			for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+				int neighbor = graph.target(slot);
+				if (banned[neighbor] == generation || toTarget[neighbor] == UNREACHABLE) {
+					continue;
+				}
+				if (node == spurNode && usedBySameRoot(last, spurIndex, slot, found)) {
+					continue;
+				}
+				long calcweight = graph.extend(nodeDistance, slot);
+				if (calcweight == UNREACHABLE) {
+					continue;
+				}
+				if (stamp[neighbor] != generation || calcweight < distance[neighbor]) {
+					stamp[neighbor] = generation;
+					distance[neighbor] = calcweight;
+					previous[neighbor] = node;
+					previousSlot[neighbor] = slot;
+					heap.add(IndexedGraph.sumKeys(weightType, calcweight, toTarget[neighbor]), neighbor);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * usedBySameRoot - true if a found path with the same root edges leaves the spur node by the edge slot
+	 */
+	private static boolean usedBySameRoot(Route last, int spurIndex, int slot, List<Route> found) {
+		for(Route route: found) {
+			if (route.slots.length > spurIndex && route.slots[spurIndex] == slot) {
+				boolean sameRoot = true;
+				for(int i = 0; sameRoot && i < spurIndex; i++) {
+					sameRoot = route.slots[i] == last.slots[i];
+				}
+				if (sameRoot) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * join - root path up to the spur node followed by the spur path found by the last spur search
+	 */
+	private Route join(Route last, int spurIndex) {
+		int spurLength = 0;
+		for(int node = target; node >= 0; node = previous[node]) {
+			spurLength++;
+		}
+		int length = spurIndex + spurLength;
+		int[] vertexIds = new int[length];
+		int[] slots = new int[length - 1];
+		long[] keys = new long[length];
+		System.arraycopy(last.vertexIds, 0, vertexIds, 0, spurIndex);
+		System.arraycopy(last.slots, 0, slots, 0, spurIndex);
+		System.arraycopy(last.keys, 0, keys, 0, spurIndex);
+		for(int node = target, i = length - 1; node >= 0; node = previous[node], i--) {
+			vertexIds[i] = node;
+			keys[i] = distance[node];
+			if (previous[node] >= 0) {
+				slots[i - 1] = previousSlot[node];
+			}
+		}
+		return new Route(vertexIds, slots, keys);
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * Name: LabelPropagationPartitioner
+ * Description: Locality aware GraphPartitioner.  It starts from the hash assignment and repeatedly moves every
+ * 				vertex to the shard holding most of its neighbors, as long as that shard is not over capacity.
+ * 				Neighbors in the same shard do not need a frontier exchange during sharded searches.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class LabelPropagationPartitioner implements GraphPartitioner {
+
+	private final int maxIterations;
+	private final double imbalance;
+	private final long seed;
+
+	/**
+	 * Constructor with iteration limit, allowed imbalance and random seed
+	 * 
+	 * @param maxIterations - maximum number of passes over the vertices
+	 * @param imbalance - allowed shard size above the average, 0.1 means 10%
+	 * @param seed - seed of the vertex visiting order
+	 */
+	public LabelPropagationPartitioner(int maxIterations, double imbalance, long seed) {
+		if (maxIterations < 0 || imbalance < 0) {
+			throw new IllegalArgumentException("negative maxIterations or imbalance");
+		}
+		this.maxIterations = maxIterations;
+		this.imbalance = imbalance;
+		this.seed = seed;
+	}
+
+	/**
+	 * Constructor with 10 iterations and 10% imbalance
+	 */
+	public LabelPropagationPartitioner() {
+		this(10, 0.1, 42L);
+	}
+
+	@Override
+	public Map<String, Integer> partition(Graph graph, int shards) {
+		if (shards <= 0) {
+			throw new IllegalArgumentException("shards must be positive: " + shards);
+		}
+
+		// Number the vertices in name order so that the result does not depend on hash set order
+		List<String> names = new ArrayList<>();
+		graph.getVertices().forEach(v -> names.add(v.getName()));
+		Collections.sort(names);
+		Map<String, Integer> ids = new HashMap<>();
+		for(int i = 0; i < names.size(); i++) {
+			ids.put(names.get(i), i);
+		}
+
+		// Undirected neighbor lists
+		int n = names.size();
+		List<List<Integer>> neighbors = new ArrayList<>(n);
+		for(int i = 0; i < n; i++) {
+			neighbors.add(new ArrayList<>());
+		}
+		for(Edge edge: graph.getEdges()) {
+			int from = ids.get(edge.getFromVertex());
+			int to = ids.get(edge.getToVertex());
+			if (from != to) {
+				neighbors.get(from).add(to);
+				neighbors.get(to).add(from);
+			}
+		}
+
+		int[] labels = new int[n];
+		int[] sizes = new int[shards];
+		for(int i = 0; i < n; i++) {
+			labels[i] = HashPartitioner.shardOf(names.get(i), shards);
+			sizes[labels[i]]++;
+		}
+		int capacity = (int) Math.ceil((double) n / shards * (1.0 + imbalance));
+
+		List<Integer> order = new ArrayList<>(n);
+		for(int i = 0; i < n; i++) {
+			order.add(i);
+		}
+		Random random = new Random(seed);
+		int[] counts = new int[shards];
+
+		for(int iteration = 0; iteration < maxIterations; iteration++) {
+			Collections.shuffle(order, random);
+			int moved = 0;
+			for(int v: order) {
+				List<Integer> adjacent = neighbors.get(v);
+				if (adjacent.isEmpty()) {
+					continue;
+				}
+				for(int u: adjacent) {
+					counts[labels[u]]++;
+				}
+				int current = labels[v];
+				int best = current;
+				for(int u: adjacent) {
+					int label = labels[u];
+					if (counts[label] > counts[best] && sizes[label] < capacity) {
+						best = label;
+					}
+				}
+				for(int u: adjacent) {
+					counts[labels[u]] = 0;
+				}
+				if (best != current) {
+					labels[v] = best;
+					sizes[current]--;
+					sizes[best]++;
+					moved++;
+				}
+			}
+			if (moved == 0) {
+				break;
+			}
+		}
+
+		Map<String, Integer> assignment = new HashMap<>();
+		for(int i = 0; i < n; i++) {
+			assignment.put(names.get(i), labels[i]);
+		}
+		return assignment;
+	}
+}
@@ -0,0 +1,559 @@
+/**
+ * Name: LandmarkIndex
+ * Description: Landmark distance oracle (ALT) over an IndexedGraph.  For a few landmark vertices L it keeps the
+ * 				distance from L to every vertex (forward) and from every vertex to L (backward).  By the triangle
+ * 				inequality they give a lower bound of d(s, t), used by ShortestPathGraph.findPath as an A*
+ * 				heuristic, and an upper bound through the landmarks for fast approximate distances.
+ *
+ * 				Landmarks are selected with one of two strategies:
+ * 				  FARTHEST - each landmark is the vertex farthest from the landmarks already chosen
+ * 				  AVOID - grow a shortest path tree from a random root and descend into the subtree whose vertices
+ * 				          have the worst lower bounds and no landmark, taking the leaf reached
+ * 				The distance arrays of all landmarks are then computed in parallel.  The index can be saved next to
+ * 				the serialized graph and loaded back; it records the vertex and edge counts and a SHA-256 digest
+ * 				of the vertex names, edges and weights of the graph it was built for, and is rejected for any
+ * 				graph which does not match all of them.
+ * 				The distances are the distance keys of IndexedGraph.extend, so graphs of every weight type are
+ * 				indexed; with double weights the bounds are only as exact as the double sums they come from.
+ */
+package com.nkwok.simplegraph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public final class LandmarkIndex {
+
+	public enum Strategy {
+		FARTHEST,
+		AVOID
+	}
+
+	/**
+	 * distance of an unreachable vertex
+	 */
+	public static final long UNREACHABLE = Long.MAX_VALUE;
+
+	private static final int FILE_MAGIC = 0x534C4D32;
+	private static final int DIGEST_LENGTH = 32;
+	private static final String FILE_SUFFIX = ".landmarks";
+
+	private final Edge.WeightType weightType;
+	private final long edgeCount;
+	private final byte[] digest;
+	private final int[] landmarks;
+	// forward[i][v] = d(landmarks[i], v), backward[i][v] = d(v, landmarks[i])
+	private final long[][] forward;
+	private final long[][] backward;
+	private volatile IndexedGraph validatedGraph;
+
+	private LandmarkIndex(IndexedGraph graph, byte[] digest, int[] landmarks, long[][] forward, long[][] backward) {
+		this.validatedGraph = graph;
+		this.weightType = graph.getWeightType();
+		this.edgeCount = graph.getNumbersOfEdges();
+		this.digest = digest;
+		this.landmarks = landmarks;
+		this.forward = forward;
+		this.backward = backward;
+	}
+
+	/**
+	 * build - select the landmarks and compute their distance arrays
+	 *
+	 * @param graph - graph to index
+	 * @param count - number of landmarks, at most the number of vertices
+	 * @param strategy - landmark selection strategy
+	 * @param seed - seed of the random choices
+	 * @return the index
+	 */
+	public static LandmarkIndex build(IndexedGraph graph, int count, Strategy strategy, long seed) {
+		if (graph == null || strategy == null) {
+			throw new IllegalArgumentException("null graph or strategy");
+		}
+		int n = graph.getNumbersOfVertices();
+		if (count <= 0) {
+			throw new IllegalArgumentException("count must be positive: " + count);
+		}
+		if (n == 0) {
+			throw new IllegalArgumentException("graph has no vertices");
+		}
+		count = Math.min(count, n);
+
+		int[] landmarks = strategy == Strategy.FARTHEST
+				? selectFarthest(graph, count, new Random(seed))
+				: selectAvoid(graph, count, new Random(seed));
+
+		long[][] forward = new long[landmarks.length][];
+		long[][] backward = new long[landmarks.length][];
+		IntStream.range(0, landmarks.length * 2).parallel().forEach(i -> {
+			if (i < landmarks.length) {
+				forward[i] = distances(graph, landmarks[i], false, null, null);
+			} else {
+				backward[i - landmarks.length] = distances(graph, landmarks[i - landmarks.length], true, null, null);
+			}
+		});
+		return new LandmarkIndex(graph, digest(graph), landmarks, forward, backward);
+	}
+
+	/**
+	 * build - select 16 landmarks with the AVOID strategy
+	 *
+	 * @param graph - graph to index
+	 * @return the index
+	 */
+	public static LandmarkIndex build(IndexedGraph graph) {
+		return build(graph, 16, Strategy.AVOID, 42L);
+	}
+
+	/**
+	 * selectFarthest - start from a random vertex, then repeatedly take the reachable vertex farthest from all
+	 * 					landmarks chosen so far, ignoring edge direction
+	 */
+	private static int[] selectFarthest(IndexedGraph graph, int count, Random random) {
+		int n = graph.getNumbersOfVertices();
+		long[] nearest = new long[n];
+		Arrays.fill(nearest, UNREACHABLE);
+		int[] landmarks = new int[count];
+		boolean[] chosen = new boolean[n];
+
+		int next = random.nextInt(n);
+		for(int i = 0; i < count; i++) {
+			landmarks[i] = next;
+			chosen[next] = true;
+			long[] fromLandmark = distances(graph, next, false, null, null);
+			long[] toLandmark = distances(graph, next, true, null, null);
+			next = -1;
+			for(int v = 0; v < n; v++) {
+				nearest[v] = Math.min(nearest[v], Math.min(fromLandmark[v], toLandmark[v]));
+				// unreachable vertices come first so that every component gets a landmark
+				if (! chosen[v] && (next < 0 || nearest[v] > nearest[next])) {
+					next = v;
+				}
+			}
+			if (next < 0) {
+				return Arrays.copyOf(landmarks, i + 1);
+			}
+		}
+		return landmarks;
+	}
+
+	/**
+	 * selectAvoid - the avoid heuristic of Goldberg and Werneck
+	 */
+	private static int[] selectAvoid(IndexedGraph graph, int count, Random random) {
+		int n = graph.getNumbersOfVertices();
+		int[] landmarks = new int[count];
+		boolean[] chosen = new boolean[n];
+		long[][] forward = new long[count][];
+		long[][] backward = new long[count][];
+		int[] parents = new int[n];
+		int[] order = new int[n];
+		double[] size = new double[n];
+		Edge.WeightType type = graph.getWeightType();
+		boolean[] covered = new boolean[n];
+		int[] childStart = new int[n + 1];
+		int[] children = new int[n];
+
+		for(int i = 0; i < count; i++) {
+			int root = random.nextInt(n);
+			long[] rootDistance = distances(graph, root, false, parents, order);
+			int settled = 0;
+			for(long d: rootDistance) {
+				if (d != UNREACHABLE) {
+					settled++;
+				}
+			}
+
+			// weight of a vertex is how far its distance is above the lower bound of the current landmarks;
+			// the size of a subtree is the total weight, or 0 if it holds a landmark
+			for(int j = settled - 1; j >= 0; j--) {
+				int v = order[j];
+				long bound = 0;
+				for(int l = 0; l < i; l++) {
+					bound = Math.max(bound, bound(type, forward[l], backward[l], root, v));
+				}
+				size[v] += IndexedGraph.keyValue(type, IndexedGraph.gapKey(type, rootDistance[v], bound));
+				covered[v] |= chosen[v];
+				if (covered[v]) {
+					size[v] = 0;
+				}
+				if (parents[v] >= 0) {
+					size[parents[v]] += size[v];
+					covered[parents[v]] |= covered[v];
+				}
+			}
+
+			// children lists of the shortest path tree
+			Arrays.fill(childStart, 0);
+			for(int j = 0; j < settled; j++) {
+				if (parents[order[j]] >= 0) {
+					childStart[parents[order[j]] + 1]++;
+				}
+			}
+			for(int v = 0; v < n; v++) {
+				childStart[v + 1] += childStart[v];
+			}
+			int[] next = Arrays.copyOf(childStart, n);
+			for(int j = 0; j < settled; j++) {
+				int v = order[j];
+				if (parents[v] >= 0) {
+					children[next[parents[v]]++] = v;
+				}
+			}
+
+			// descend into the heaviest uncovered subtree until a leaf is reached
+			int current = root;
+			while (true) {
+				int best = -1;
+				for(int c = childStart[current]; c < childStart[current + 1]; c++) {
+					int v = children[c];
+					if (! covered[v] && (best < 0 || size[v] > size[best])) {
+						best = v;
+					}
+				}
+				if (best < 0) {
+					break;
+				}
+				current = best;
+			}
+			if (chosen[current]) {
+				// every vertex reachable from the root is covered, pick any vertex not yet chosen
+				current = -1;
+				for(int v = 0; v < n && current < 0; v++) {
+					if (! chosen[v]) {
+						current = v;
+					}
+				}
+			}
+			landmarks[i] = current;
+			chosen[current] = true;
+			forward[i] = distances(graph, current, false, null, null);
+			backward[i] = distances(graph, current, true, null, null);
+
+			for(int j = 0; j < settled; j++) {
+				size[order[j]] = 0;
+				covered[order[j]] = false;
+			}
+		}
+		return landmarks;
+	}
+
+	/**
+	 * distances - Dijkstra's search from a vertex over the outgoing edges, or to a vertex over the incoming edges
+	 *
+	 * @param graph
+	 * @param source - start vertex id
+	 * @param reverse - true to follow the edges backwards
+	 * @param parents - optional array receiving the parent of every vertex, -1 for the source
+	 * @param order - optional array receiving the vertex ids in settle order
+	 * @return distance of every vertex, UNREACHABLE if not reached
+	 */
+	static long[] distances(IndexedGraph graph, int source, boolean reverse, int[] parents, int[] order) {
+		int n = graph.getNumbersOfVertices();
+		long[] distance = new long[n];
+		Arrays.fill(distance, UNREACHABLE);
+		if (parents != null) {
+			Arrays.fill(parents, -1);
+		}
+		DistanceHeap heap = new DistanceHeap(64);
+		distance[source] = 0;
+		heap.add(0, source);
+		int settled = 0;
+
+		while (! heap.isEmpty()) {
+			int node = heap.poll();
+			long nodeDistance = heap.lastKey();
+			if (nodeDistance > distance[node]) {
+				continue;
+			}
+			if (order != null) {
+				order[settled] = node;
+			}
+			settled++;
+			int begin = reverse ? graph.firstInEdge(node) : graph.firstEdge(node);
+			int end = reverse ? graph.endInEdge(node) : graph.endEdge(node);
+			for(int i = begin; i < end; i++) {
+				int neighbor = reverse ? graph.source(i) : graph.target(i);
+				long calcweight = graph.extend(nodeDistance, reverse ? graph.inEdge(i) : i);
+				if (calcweight < distance[neighbor]) {
+					distance[neighbor] = calcweight;
+					if (parents != null) {
+						parents[neighbor] = node;
+					}
+					heap.add(calcweight, neighbor);
+				}
+			}
+		}
+		return distance;
+	}
+
+	/**
+	 * bound - distance key of the lower bound of d(s, t) from one landmark
+	 *
+	 * @return the bound, UNREACHABLE if the landmark proves that t cannot be reached from s
+	 */
+	private static long bound(Edge.WeightType weightType, long[] fromLandmark, long[] toLandmark, int s, int t) {
+		long bound = 0;
+		// d(L, t) <= d(L, s) + d(s, t)
+		if (fromLandmark[s] != UNREACHABLE) {
+			if (fromLandmark[t] == UNREACHABLE) {
+				return UNREACHABLE;
+			}
+			bound = Math.max(bound, IndexedGraph.gapKey(weightType, fromLandmark[t], fromLandmark[s]));
+		}
+		// d(s, L) <= d(s, t) + d(t, L)
+		if (toLandmark[t] != UNREACHABLE) {
+			if (toLandmark[s] == UNREACHABLE) {
+				return UNREACHABLE;
+			}
+			bound = Math.max(bound, IndexedGraph.gapKey(weightType, toLandmark[s], toLandmark[t]));
+		}
+		return bound;
+	}
+
+	/**
+	 * lowerBoundKey - distance key of the lower bound of the distance between two vertices
+	 *
+	 * @param s - source vertex id
+	 * @param t - destination vertex id
+	 * @return the bound, UNREACHABLE if t cannot be reached from s
+	 */
+	long lowerBoundKey(int s, int t) {
+		long result = 0;
+		for(int i = 0; i < landmarks.length; i++) {
+			long bound = bound(weightType, forward[i], backward[i], s, t);
+			if (bound > result) {
+				result = bound;
+				if (result == UNREACHABLE) {
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * upperBoundKey - distance key of the shortest route from s to t through one of the landmarks
+	 */
+	private long upperBoundKey(int s, int t) {
+		if (s == t) {
+			return 0;
+		}
+		long result = UNREACHABLE;
+		for(int i = 0; i < landmarks.length; i++) {
+			result = Math.min(result, IndexedGraph.sumKeys(weightType, backward[i][s], forward[i][t]));
+		}
+		return result;
+	}
+
+	/**
+	 * lowerBound - lower bound of the distance between two vertices, rounded down for double weights
+	 *
+	 * @param s - source vertex id
+	 * @param t - destination vertex id
+	 * @return the bound, UNREACHABLE if t cannot be reached from s
+	 */
+	public long lowerBound(int s, int t) {
+		long key = lowerBoundKey(s, t);
+		if (weightType != Edge.WeightType.DOUBLE || key == UNREACHABLE) {
+			return key;
+		}
+		return (long) Math.floor(Double.longBitsToDouble(key));
+	}
+
+	/**
+	 * upperBound - length of the shortest route from s to t through one of the landmarks, rounded up for double
+	 * 				weights; an approximate distance answered without a search
+	 *
+	 * @param s - source vertex id
+	 * @param t - destination vertex id
+	 * @return the bound, UNREACHABLE if no landmark lies on a route from s to t
+	 */
+	public long upperBound(int s, int t) {
+		long key = upperBoundKey(s, t);
+		if (weightType != Edge.WeightType.DOUBLE || key == UNREACHABLE) {
+			return key;
+		}
+		return (long) Math.ceil(Double.longBitsToDouble(key));
+	}
+
+	/**
+	 * getDoubleLowerBound - lower bound of the distance between two vertices
+	 *
+	 * @param s - source vertex id
+	 * @param t - destination vertex id
+	 * @return the bound, positive infinity if t cannot be reached from s
+	 */
+	public double getDoubleLowerBound(int s, int t) {
+		return IndexedGraph.keyValue(weightType, lowerBoundKey(s, t));
+	}
+
+	/**
+	 * getDoubleUpperBound - length of the shortest route from s to t through one of the landmarks
+	 *
+	 * @param s - source vertex id
+	 * @param t - destination vertex id
+	 * @return the bound, positive infinity if no landmark lies on a route from s to t
+	 */
+	public double getDoubleUpperBound(int s, int t) {
+		return IndexedGraph.keyValue(weightType, upperBoundKey(s, t));
+	}
+
+	/**
+	 * @return the landmark vertex ids
+	 */
+	public int[] getLandmarks() {
+		return landmarks.clone();
+	}
+
+	/**
+	 * @return the number of landmarks
+	 */
+	public int getNumbersOfLandmarks() {
+		return landmarks.length;
+	}
+
+	/**
+	 * isValidFor - true if the index was built for a graph with the same vertices and edges
+	 *
+	 * @param graph
+	 * @return true/false
+	 */
+	public boolean isValidFor(IndexedGraph graph) {
+		if (graph == validatedGraph) {
+			return true;
+		}
+		if (graph.getWeightType() != weightType || graph.getNumbersOfVertices() != forward[0].length
+				|| graph.getNumbersOfEdges() != edgeCount || ! MessageDigest.isEqual(digest(graph), digest)) {
+			return false;
+		}
+		validatedGraph = graph;
+		return true;
+	}
+
+	/**
+	 * digest - SHA-256 digest of the vertex names, edge targets and weights of a graph in vertex id order
+	 */
+	private static byte[] digest(IndexedGraph graph) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform has SHA-256
+			throw new IllegalStateException(e);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+		int n = graph.getNumbersOfVertices();
+		for(int v = 0; v < n; v++) {
+			byte[] name = graph.getName(v).getBytes(StandardCharsets.UTF_8);
+			if (buffer.remaining() < Integer.BYTES * 2) {
+				drain(buffer, digest);
+			}
+			buffer.putInt(name.length);
+			buffer.putInt(graph.outDegree(v));
+			drain(buffer, digest);
+			digest.update(name);
+			for(int slot = graph.firstEdge(v); slot < graph.endEdge(v); slot++) {
+				if (buffer.remaining() < Integer.BYTES + Long.BYTES) {
+					drain(buffer, digest);
+				}
+				buffer.putInt(graph.target(slot));
+				buffer.putLong(graph.getWeightType() == Edge.WeightType.DOUBLE
+						? Double.doubleToLongBits(graph.doubleWeight(slot)) : graph.longWeight(slot));
+			}
+		}
+		drain(buffer, digest);
+		return digest.digest();
+	}
+
+	private static void drain(ByteBuffer buffer, MessageDigest digest) {
+		buffer.flip();
+		digest.update(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * landmarkFile - the file holding the landmark index saved next to a serialized graph
+	 *
+	 * @param graphFile - file of the serialized graph
+	 * @return the landmark file
+	 */
+	public static File landmarkFile(File graphFile) {
+		return new File(graphFile.getPath() + FILE_SUFFIX);
+	}
+
+	/**
+	 * save - write the index
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public void save(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(forward[0].length);
+			out.writeLong(edgeCount);
+			out.write(digest);
+			out.writeInt(landmarks.length);
+			for(int i = 0; i < landmarks.length; i++) {
+				out.writeInt(landmarks[i]);
+				for(long d: forward[i]) {
+					out.writeLong(d);
+				}
+				for(long d: backward[i]) {
+					out.writeLong(d);
+				}
+			}
+		}
+	}
+
+	/**
+	 * load - read an index written by save and check that it belongs to the graph
+	 *
+	 * @param file
+	 * @param graph - graph the index is used with
+	 * @return the index
+	 * @throws IOException - if the file cannot be read or was built for a different graph
+	 */
+	public static LandmarkIndex load(File file, IndexedGraph graph) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+			if (in.readInt() != FILE_MAGIC) {
+				throw new IOException("not a landmark index: " + file);
+			}
+			int n = in.readInt();
+			long edges = in.readLong();
+			byte[] digest = new byte[DIGEST_LENGTH];
+			in.readFully(digest);
+			if (n != graph.getNumbersOfVertices()
+					|| edges != graph.getNumbersOfEdges() || ! MessageDigest.isEqual(digest, digest(graph))) {
+				throw new IOException("landmark index " + file + " was built for a different graph");
+			}
+			int count = in.readInt();
+			int[] landmarks = new int[count];
+			long[][] forward = new long[count][n];
+			long[][] backward = new long[count][n];
+			for(int i = 0; i < count; i++) {
+				landmarks[i] = in.readInt();
+				for(int v = 0; v < n; v++) {
+					forward[i][v] = in.readLong();
+				}
+				for(int v = 0; v < n; v++) {
+					backward[i][v] = in.readLong();
+				}
+			}
+			return new LandmarkIndex(graph, digest, landmarks, forward, backward);
+		}
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * Name: LocalGraphShard
+ * Description: In-process GraphShard holding the owned vertices, their outgoing edges and the search state of
+ * 				the running queries.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class LocalGraphShard implements GraphShard {
+
+	private final int shardId;
+	private final Set<String> ownedVertices;
+	private final Map<String, List<Edge>> outgoingEdges = new HashMap<>();
+	private final int edgeCount;
+	private final Edge.WeightType weightType;
+	private final ConcurrentMap<Long, QueryState> queries = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor with owned vertices and the edges leaving them
+	 * 
+	 * @param shardId - shard number
+	 * @param ownedVertices - names of the vertices owned by the shard
+	 * @param edges - edges whose from vertex is owned by the shard
+	 */
+	public LocalGraphShard(int shardId, Set<String> ownedVertices, Collection<Edge> edges) {
+		this(shardId, ownedVertices, edges, widestType(edges));
+	}
+
+	/**
+	 * Constructor with owned vertices, the edges leaving them and the weight type of the whole graph, so that
+	 * all the shards of a graph sum the distances alike
+	 * 
+	 * @param shardId - shard number
+	 * @param ownedVertices - names of the vertices owned by the shard
+	 * @param edges - edges whose from vertex is owned by the shard
+	 * @param weightType - weight type of the partitioned graph
+	 */
+	public LocalGraphShard(int shardId, Set<String> ownedVertices, Collection<Edge> edges,
+			Edge.WeightType weightType) {
+		if (weightType == null) {
+			throw new IllegalArgumentException("null weightType");
+		}
+		this.shardId = shardId;
+		this.weightType = weightType;
+		this.ownedVertices = new HashSet<>(ownedVertices);
+		int count = 0;
+		for(Edge edge: edges) {
+			if (! this.ownedVertices.contains(edge.getFromVertex())) {
+				throw new IllegalArgumentException("edge not owned by shard " + shardId + ": " + edge);
+			}
+			outgoingEdges.computeIfAbsent(edge.getFromVertex(), k -> new ArrayList<>()).add(edge);
+			count++;
+		}
+		this.edgeCount = count;
+	}
+
+	@Override
+	public int getShardId() {
+		return shardId;
+	}
+
+	@Override
+	public int getNumbersOfVertices() {
+		return ownedVertices.size();
+	}
+
+	@Override
+	public int getNumbersOfEdges() {
+		return edgeCount;
+	}
+
+	/**
+	 * @return the weight type the distances are summed in
+	 */
+	public Edge.WeightType getWeightType() {
+		return weightType;
+	}
+
+	/**
+	 * widestType - the widest weight type of the edges
+	 * 
+	 * @param edges
+	 * @return the type, INT if there is no edge
+	 */
+	static Edge.WeightType widestType(Collection<Edge> edges) {
+		Edge.WeightType type = Edge.WeightType.INT;
+		for(Edge edge: edges) {
+			if (edge.getWeightType().compareTo(type) > 0) {
+				type = edge.getWeightType();
+			}
+		}
+		return type;
+	}
+
+	/**
+	 * extend - the distance key through an edge
+	 * 
+	 * @param type - weight type of the graph
+	 * @param distance - distance key of the from vertex
+	 * @param edge
+	 * @return the distance key of the to vertex, Long.MAX_VALUE if a long distance overflows
+	 */
+	static long extend(Edge.WeightType type, long distance, Edge edge) {
+		if (type == Edge.WeightType.DOUBLE) {
+			return Double.doubleToRawLongBits(Double.longBitsToDouble(distance) + edge.getDoubleWeight());
+		}
+		// compared before adding, so that long weights cannot overflow
+		long weight = edge.getLongWeight();
+		return weight >= Long.MAX_VALUE - distance ? Long.MAX_VALUE : distance + weight;
+	}
+
+	@Override
+	public List<Edge> getEdges(String vertex) {
+		return Collections.unmodifiableList(outgoingEdges.getOrDefault(vertex, Collections.emptyList()));
+	}
+
+	@Override
+	public List<FrontierEntry> relax(long queryId, List<FrontierEntry> batch, long bound) {
+		QueryState state = queries.computeIfAbsent(queryId, k -> new QueryState());
+
+		synchronized(state) {
+			Queue<FrontierEntry> queue = new PriorityQueue<>(16, Comparator.comparingLong(FrontierEntry::getDistance));
+			for(FrontierEntry entry: batch) {
+				if (ownedVertices.contains(entry.getVertex()) && entry.getDistance() < bound
+						&& state.improve(entry.getVertex(), entry.getDistance(), entry.getParent())) {
+					queue.add(entry);
+				}
+			}
+
+			// best entry per remote vertex reached in this call
+			Map<String, FrontierEntry> remote = new HashMap<>();
+			while (! queue.isEmpty()) {
+				FrontierEntry entry = queue.poll();
+				String node = entry.getVertex();
+				if (entry.getDistance() > state.distance(node)) {
+					// a shorter distance has been queued after this one
+					continue;
+				}
+				for(Edge edge: outgoingEdges.getOrDefault(node, Collections.emptyList())) {
+					long calcweight = extend(weightType, entry.getDistance(), edge);
+					if (calcweight >= bound) {
+						continue;
+					}
+					String target = edge.getToVertex();
+					if (ownedVertices.contains(target)) {
+						if (state.improve(target, calcweight, node)) {
+							queue.add(new FrontierEntry(target, calcweight, node));
+						}
+					} else if (calcweight < state.sent(target)) {
+						FrontierEntry known = remote.get(target);
+						if (known == null || calcweight < known.getDistance()) {
+							remote.put(target, new FrontierEntry(target, calcweight, node));
+						}
+					}
+				}
+			}
+
+			for(FrontierEntry entry: remote.values()) {
+				state.sent.put(entry.getVertex(), entry.getDistance());
+			}
+			return new ArrayList<>(remote.values());
+		}
+	}
+
+	@Override
+	public long distance(long queryId, String vertex) {
+		QueryState state = queries.get(queryId);
+		if (state == null) {
+			return Long.MAX_VALUE;
+		}
+		synchronized(state) {
+			return state.distance(vertex);
+		}
+	}
+
+	@Override
+	public String parent(long queryId, String vertex) {
+		QueryState state = queries.get(queryId);
+		if (state == null) {
+			return null;
+		}
+		synchronized(state) {
+			return state.parents.get(vertex);
+		}
+	}
+
+	@Override
+	public void release(long queryId) {
+		queries.remove(queryId);
+	}
+
+	/**
+	 * QueryState - distances, parents and the distances already sent to other shards for one query
+	 */
+	private static final class QueryState {
+		final Map<String, Long> distances = new HashMap<>();
+		final Map<String, String> parents = new HashMap<>();
+		final Map<String, Long> sent = new HashMap<>();
+
+		long distance(String vertex) {
+			Long distance = distances.get(vertex);
+			return distance == null ? Long.MAX_VALUE : distance;
+		}
+
+		long sent(String vertex) {
+			Long distance = sent.get(vertex);
+			return distance == null ? Long.MAX_VALUE : distance;
+		}
+
+		boolean improve(String vertex, long distance, String parent) {
+			if (distance >= distance(vertex)) {
+				return false;
+			}
+			distances.put(vertex, distance);
+			parents.put(vertex, parent);
+			return true;
+		}
+	}
+}
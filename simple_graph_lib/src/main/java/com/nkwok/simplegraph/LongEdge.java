@@ -0,0 +1,91 @@
+/**
+ * Name: LongEdge
+ * Description: Edge with a long weight, for costs which do not fit an int.  A graph holding any LongEdge is
+ * 				compiled with long weights and searched with overflow checked sums.
+ */
+package com.nkwok.simplegraph;
+
+public final class LongEdge extends Edge {
+
+	private static final long serialVersionUID = 1L;
+	private final long weight;
+
+	/**
+	 * Constructor with the edge name, the end vertices and a weight which must not be negative
+	 *
+	 * @param name
+	 * @param fromVertex
+	 * @param toVertex
+	 * @param weight
+	 */
+	public LongEdge(String name, String fromVertex, String toVertex, long weight) {
+		super(name, fromVertex, toVertex, 0);
+		if (weight < 0) {
+			throw new IllegalArgumentException("negative weight " + weight);
+		}
+		this.weight = weight;
+	}
+
+	/**
+	 * @return the weight
+	 * @throws ArithmeticException - if the weight does not fit an int
+	 */
+	@Override
+	public int getWeight() {
+		return Math.toIntExact(weight);
+	}
+
+	/**
+	 * @return the weight
+	 */
+	@Override
+	public long getLongWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return the weight as a double
+	 */
+	@Override
+	public double getDoubleWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return LONG
+	 */
+	@Override
+	public WeightType getWeightType() {
+		return WeightType.LONG;
+	}
+
+	@Override
+	Edge copy(String name, String fromVertex, String toVertex) {
+		return new LongEdge(name, fromVertex, toVertex, weight);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return
+			"LongEdge [name=" + getName() + ", from=" + getFromVertex() + ", to=" + getToVertex() + ", weight=" + weight + "]";
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + Long.hashCode(weight);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && weight == ((LongEdge) obj).weight;
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * Name: MappedArray
+ * Description: Fixed length array of ints or longs in a memory mapped file, for search state too large for the
+ * 				Java heap.  The operating system pages it in and out, so only the pages in use take memory.
+ * 				The file is mapped in 1 GB segments and starts as zeros without being written.
+ * 				A mapping cannot be released before it is garbage collected; close deletes the file, which on
+ * 				Linux frees the disk space once the mapping is gone.
+ */
+package com.nkwok.simplegraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+final class MappedArray implements AutoCloseable {
+
+	private static final int SEGMENT_SHIFT = 30;
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	private final File file;
+	private MappedByteBuffer[] segments;
+
+	/**
+	 * Constructor with the backing file, the number of elements and the bytes of an element
+	 *
+	 * @param file - created or truncated
+	 * @param length - number of elements
+	 * @param elementBytes - 4 for ints, 8 for longs
+	 * @throws IOException
+	 */
+	MappedArray(File file, long length, int elementBytes) throws IOException {
+		this.file = file;
+		long bytes = length * elementBytes;
+		int count = (int) ((bytes + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		segments = new MappedByteBuffer[count];
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+			raf.setLength(0);
+			raf.setLength(bytes);
+			for(int i = 0; i < count; i++) {
+				long position = (long) i << SEGMENT_SHIFT;
+				segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(SEGMENT_MASK + 1, bytes - position));
+			}
+		}
+	}
+
+	long getLong(long index) {
+		long position = index << 3;
+		return segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) (position & SEGMENT_MASK));
+	}
+
+	void putLong(long index, long value) {
+		long position = index << 3;
+		segments[(int) (position >>> SEGMENT_SHIFT)].putLong((int) (position & SEGMENT_MASK), value);
+	}
+
+	int getInt(long index) {
+		long position = index << 2;
+		return segments[(int) (position >>> SEGMENT_SHIFT)].getInt((int) (position & SEGMENT_MASK));
+	}
+
+	void putInt(long index, int value) {
+		long position = index << 2;
+		segments[(int) (position >>> SEGMENT_SHIFT)].putInt((int) (position & SEGMENT_MASK), value);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		segments = null;
+		if (! file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+}
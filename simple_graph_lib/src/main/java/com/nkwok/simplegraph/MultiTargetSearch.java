@@ -0,0 +1,145 @@
+/**
+ * Name: MultiTargetSearch
+ * Description: One Dijkstra search from a source to a set of targets, instead of one search per target.  The
+ * 				search stops as soon as the wanted number of targets is settled; the targets are settled in
+ * 				order of distance, so these are the nearest ones.  Targets in strongly connected components
+ * 				which the source cannot reach are dropped before the search, and vertices in components which
+ * 				lead to no target are never queued, so the search does not run on to exhaust the graph looking
+ * 				for them.  Int and long weights share a loop with overflow checks; double weights have their own.
+ * 				The search state is kept in the SearchWorkspace of the calling thread.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class MultiTargetSearch {
+
+	private MultiTargetSearch() {
+	}
+
+	/**
+	 * search - find the shortest paths from the source to the nearest targets
+	 *
+	 * @param graph
+	 * @param from - source vertex id
+	 * @param targets - target vertex ids, repeats are ignored
+	 * @param wanted - number of targets to settle, at most the number of distinct targets
+	 * @return the paths, nearest target first; fewer than wanted if fewer targets can be reached
+	 * @throws ArithmeticException - if fewer than wanted targets are found and a path weight overflowed a long
+	 */
+	static List<Path> search(IndexedGraph graph, int from, int[] targets, int wanted) {
+		List<Path> paths = new ArrayList<>();
+		if (wanted == 0 || targets.length == 0) {
+			return paths;
+		}
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(graph)) {
+			StrongComponents components = graph.getStrongComponents();
+			if (! components.between(from, targets, targets.length, workspace)) {
+				return paths;
+			}
+			int generation = workspace.generation();
+			int[] allowed = workspace.allowed;
+			int allowedStamp = workspace.allowedStamp;
+			// the targets are marked with the generation
+			int[] mark = workspace.mark;
+			int reachable = 0;
+			for(int target: targets) {
+				if (mark[target] != generation && allowed[components.getComponent(target)] == allowedStamp) {
+					mark[target] = generation;
+					reachable++;
+				}
+			}
+			wanted = Math.min(wanted, reachable);
+			if (graph.getWeightType() == Edge.WeightType.DOUBLE) {
+				searchDouble(graph, from, wanted, components, workspace, paths);
+			} else {
+				searchLong(graph, from, wanted, components, workspace, paths);
+			}
+			return paths;
+		}
+	}
+
+	private static void searchLong(IndexedGraph graph, int from, int wanted, StrongComponents components,
+			SearchWorkspace workspace, List<Path> paths) {
+		int generation = workspace.generation();
+		int[] allowed = workspace.allowed;
+		int allowedStamp = workspace.allowedStamp;
+		int[] mark = workspace.mark;
+		DistanceHeap unsettled = workspace.heap;
+		boolean overflow = false;
+
+		workspace.reach(from, 0L, -1);
+		unsettled.add(0, from);
+
+		while (! unsettled.isEmpty() && paths.size() < wanted) {
+			int node = unsettled.poll();
+			long nodeDistance = unsettled.lastKey();
+			if (nodeDistance > workspace.distance(node)) {
+				continue;
+			}
+			if (mark[node] == generation) {
+				paths.add(Path.fromParents(graph, workspace.previous, workspace.distance, node));
+				if (paths.size() == wanted) {
+					break;
+				}
+			}
+			for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+				int neighbor = graph.target(slot);
+				if (allowed[components.getComponent(neighbor)] != allowedStamp) {
+					continue;
+				}
+				long weight = graph.longWeight(slot);
+				if (weight >= Long.MAX_VALUE - nodeDistance) {
+					overflow = true;
+					continue;
+				}
+				long calcweight = nodeDistance + weight;
+				if (calcweight < workspace.distance(neighbor)) {
+					workspace.reach(neighbor, calcweight, node);
+					unsettled.add(calcweight, neighbor);
+				}
+			}
+		}
+		if (paths.size() < wanted && overflow) {
+			throw new ArithmeticException("path weight overflows long");
+		}
+	}
+
+	private static void searchDouble(IndexedGraph graph, int from, int wanted, StrongComponents components,
+			SearchWorkspace workspace, List<Path> paths) {
+		int generation = workspace.generation();
+		int[] allowed = workspace.allowed;
+		int allowedStamp = workspace.allowedStamp;
+		int[] mark = workspace.mark;
+		DistanceHeap unsettled = workspace.heap;
+
+		workspace.reach(from, 0.0, -1);
+		unsettled.add(Double.doubleToRawLongBits(0.0), from);
+
+		while (! unsettled.isEmpty() && paths.size() < wanted) {
+			int node = unsettled.poll();
+			double nodeDistance = Double.longBitsToDouble(unsettled.lastKey());
+			if (nodeDistance > workspace.doubleDistance(node)) {
+				continue;
+			}
+			if (mark[node] == generation) {
+				paths.add(Path.fromParents(graph, workspace.previous, workspace.doubleDistance, node));
+				if (paths.size() == wanted) {
+					break;
+				}
+			}
+			for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+				int neighbor = graph.target(slot);
+				if (allowed[components.getComponent(neighbor)] != allowedStamp) {
+					continue;
+				}
+				double calcweight = nodeDistance + graph.doubleWeight(slot);
+				if (calcweight < workspace.doubleDistance(neighbor)) {
+					workspace.reach(neighbor, calcweight, node);
+					unsettled.add(Double.doubleToRawLongBits(calcweight), neighbor);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ * Name: PartitionedGraph
+ * Description: A Graph split into shards by a GraphPartitioner.  Every vertex is owned by one shard together
+ * 				with its outgoing edges.  Vertices with an edge to or from another shard are boundary vertices.
+ * 				The partitioned graph is a snapshot; later changes of the source graph are not seen.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class PartitionedGraph {
+
+	private final Map<String, Integer> assignment;
+	private final List<GraphShard> shards;
+	private final Set<String> boundaryVertices;
+	private final int cutEdges;
+	private final Edge.WeightType weightType;
+
+	/**
+	 * Constructor with the graph to split, number of shards and partitioner
+	 * 
+	 * @param graph - source graph
+	 * @param shardCount - number of shards
+	 * @param partitioner - assigns the vertices to shards
+	 */
+	public PartitionedGraph(Graph graph, int shardCount, GraphPartitioner partitioner) {
+		if (graph == null || partitioner == null) {
+			throw new IllegalArgumentException("null graph or partitioner");
+		}
+		if (shardCount <= 0) {
+			throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+		}
+
+		Set<Edge> edges;
+		Map<String, Integer> parts;
+		synchronized(graph) {
+			edges = graph.getEdges();
+			parts = new HashMap<>(partitioner.partition(graph, shardCount));
+		}
+
+		List<Set<String>> owned = new ArrayList<>(shardCount);
+		List<List<Edge>> ownedEdges = new ArrayList<>(shardCount);
+		for(int i = 0; i < shardCount; i++) {
+			owned.add(new HashSet<>());
+			ownedEdges.add(new ArrayList<>());
+		}
+		for(Map.Entry<String, Integer> entry: parts.entrySet()) {
+			Integer shard = entry.getValue();
+			if (shard == null || shard < 0 || shard >= shardCount) {
+				throw new IllegalArgumentException("invalid shard " + shard + " for vertex " + entry.getKey());
+			}
+			owned.get(shard).add(entry.getKey());
+		}
+
+		Set<String> boundary = new HashSet<>();
+		int cut = 0;
+		for(Edge edge: edges) {
+			Integer fromShard = parts.get(edge.getFromVertex());
+			Integer toShard = parts.get(edge.getToVertex());
+			if (fromShard == null || toShard == null) {
+				throw new IllegalArgumentException("partitioner did not assign the vertices of " + edge);
+			}
+			ownedEdges.get(fromShard).add(edge);
+			if (! fromShard.equals(toShard)) {
+				boundary.add(edge.getFromVertex());
+				boundary.add(edge.getToVertex());
+				cut++;
+			}
+		}
+
+		Edge.WeightType type = LocalGraphShard.widestType(edges);
+		List<GraphShard> built = new ArrayList<>(shardCount);
+		for(int i = 0; i < shardCount; i++) {
+			built.add(new LocalGraphShard(i, owned.get(i), ownedEdges.get(i), type));
+		}
+
+		this.assignment = parts;
+		this.shards = Collections.unmodifiableList(built);
+		this.boundaryVertices = Collections.unmodifiableSet(boundary);
+		this.cutEdges = cut;
+		this.weightType = type;
+	}
+
+	/**
+	 * Constructor with the graph to split and number of shards, using the HashPartitioner
+	 * 
+	 * @param graph - source graph
+	 * @param shardCount - number of shards
+	 */
+	public PartitionedGraph(Graph graph, int shardCount) {
+		this(graph, shardCount, new HashPartitioner());
+	}
+
+	/**
+	 * @return the widest weight type of the edges, which the shards sum the distances in
+	 */
+	public Edge.WeightType getWeightType() {
+		return weightType;
+	}
+
+	/**
+	 * @return the number of shards
+	 */
+	public int getShardCount() {
+		return shards.size();
+	}
+
+	/**
+	 * @return the shards
+	 */
+	public List<GraphShard> getShards() {
+		return shards;
+	}
+
+	/**
+	 * getShard - return the shard with the given number
+	 * 
+	 * @param shardId
+	 * @return the shard
+	 */
+	public GraphShard getShard(int shardId) {
+		return shards.get(shardId);
+	}
+
+	/**
+	 * getShardOf - return the shard number owning a vertex
+	 * 
+	 * @param vertexName
+	 * @return shard number, -1 if the vertex is not in the graph
+	 */
+	public int getShardOf(String vertexName) {
+		Integer shard = vertexName == null ? null : assignment.get(vertexName);
+		return shard == null ? -1 : shard;
+	}
+
+	/**
+	 * @return the vertices with an edge to or from another shard
+	 */
+	public Set<String> getBoundaryVertices() {
+		return boundaryVertices;
+	}
+
+	/**
+	 * isBoundaryVertex - return true if the vertex has an edge to or from another shard
+	 * 
+	 * @param vertexName
+	 * @return true/false
+	 */
+	public boolean isBoundaryVertex(String vertexName) {
+		return boundaryVertices.contains(vertexName);
+	}
+
+	/**
+	 * @return the number of edges between two different shards
+	 */
+	public int getNumbersOfCutEdges() {
+		return cutEdges;
+	}
+}
@@ -0,0 +1,490 @@
+/**
+ * Name: Path
+ * Description: Result of a shortest path search.  The path is held as primitive arrays of vertex ids and
+ * 				cumulative weights, with the names of its vertices and edges copied out of the IndexedGraph it
+ * 				was found in, so a kept path does not keep the snapshot of the whole graph alive; Vertex and
+ * 				Edge objects are only created when asked for.  Paths over a graph with double weights keep
+ * 				double cumulative weights.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+public final class Path {
+
+	private final int[] vertexIds;
+	// only one of the two is set
+	private final long[] weights;
+	private final double[] doubleWeights;
+	private final String[] names;
+	private final String[] edgeNames;
+	private final Edge.WeightType weightType;
+	// weight of each edge of a path with double weights, the difference of two sums is not always exact
+	private final double[] edgeWeights;
+
+	/**
+	 * Constructor with the graph, vertex ids from source to destination and the weight from the source to each
+	 *
+	 * @param graph
+	 * @param vertexIds
+	 * @param weights
+	 */
+	Path(IndexedGraph graph, int[] vertexIds, long[] weights) {
+		this.vertexIds = vertexIds;
+		this.weights = weights;
+		this.doubleWeights = null;
+		this.names = new String[vertexIds.length];
+		this.edgeNames = new String[vertexIds.length - 1];
+		this.weightType = graph.getWeightType();
+		this.edgeWeights = null;
+		for(int i = 0; i < vertexIds.length; i++) {
+			names[i] = graph.getName(vertexIds[i]);
+			if (i > 0) {
+				edgeNames[i - 1] = graph.edgeName(edgeSlot(graph, i - 1));
+			}
+		}
+	}
+
+	/**
+	 * Constructor with the graph, vertex ids from source to destination and the double weight from the source
+	 * to each
+	 *
+	 * @param graph
+	 * @param vertexIds
+	 * @param weights
+	 */
+	Path(IndexedGraph graph, int[] vertexIds, double[] weights) {
+		this.vertexIds = vertexIds;
+		this.weights = null;
+		this.doubleWeights = weights;
+		this.names = new String[vertexIds.length];
+		this.edgeNames = new String[vertexIds.length - 1];
+		this.weightType = graph.getWeightType();
+		this.edgeWeights = new double[vertexIds.length - 1];
+		for(int i = 0; i < vertexIds.length; i++) {
+			names[i] = graph.getName(vertexIds[i]);
+			if (i > 0) {
+				int slot = edgeSlot(graph, i - 1);
+				edgeNames[i - 1] = graph.edgeName(slot);
+				edgeWeights[i - 1] = graph.doubleWeight(slot);
+			}
+		}
+	}
+
+	/**
+	 * Constructor with the vertex ids, null for a path found outside an IndexedGraph, names, edge names and weights
+	 */
+	private Path(int[] vertexIds, String[] names, String[] edgeNames, Edge.WeightType weightType, long[] weights,
+			double[] doubleWeights, double[] edgeWeights) {
+		this.vertexIds = vertexIds;
+		this.names = names;
+		this.edgeNames = edgeNames;
+		this.weightType = weightType;
+		this.weights = weights;
+		this.doubleWeights = doubleWeights;
+		this.edgeWeights = edgeWeights;
+	}
+
+	/**
+	 * edgeSlot - find the edge slot leaving the vertex at a position whose weight matches the path
+	 */
+	private int edgeSlot(IndexedGraph graph, int index) {
+		int from = vertexIds[index];
+		int to = vertexIds[index + 1];
+		int found = -1;
+		if (weights != null) {
+			long weight = weights[index + 1] - weights[index];
+			for(int slot = graph.firstEdge(from); slot < graph.endEdge(from); slot++) {
+				if (graph.target(slot) == to) {
+					found = slot;
+					if (graph.longWeight(slot) == weight) {
+						break;
+					}
+				}
+			}
+		} else {
+			// the closest weight, the difference of two sums is not always exact
+			double weight = doubleWeights[index + 1] - doubleWeights[index];
+			for(int slot = graph.firstEdge(from); slot < graph.endEdge(from); slot++) {
+				if (graph.target(slot) == to && (found < 0
+						|| Math.abs(graph.doubleWeight(slot) - weight) < Math.abs(graph.doubleWeight(found) - weight))) {
+					found = slot;
+				}
+			}
+		}
+		if (found < 0) {
+			throw new IllegalArgumentException("no edge from vertex " + from + " to " + to);
+		}
+		return found;
+	}
+
+	/**
+	 * fromEdges - build the path following a list of edges from the source; the weights are summed as the
+	 * 				searches sum them for the weight type of the graph.  The path has no vertex ids.
+	 *
+	 * @param source - source vertex name
+	 * @param edges - edges from the source to the destination, each leaving the vertex the last one enters
+	 * @param weightType - weight type of the graph searched
+	 * @return the path
+	 */
+	static Path fromEdges(String source, List<Edge> edges, Edge.WeightType weightType) {
+		int length = edges.size() + 1;
+		String[] names = new String[length];
+		String[] edgeNames = new String[length - 1];
+		names[0] = source;
+		for(int i = 0; i < edges.size(); i++) {
+			names[i + 1] = edges.get(i).getToVertex();
+			edgeNames[i] = edges.get(i).getName();
+		}
+		if (weightType == Edge.WeightType.DOUBLE) {
+			double[] weights = new double[length];
+			double[] edgeWeights = new double[length - 1];
+			for(int i = 0; i < edges.size(); i++) {
+				edgeWeights[i] = edges.get(i).getDoubleWeight();
+				weights[i + 1] = weights[i] + edgeWeights[i];
+			}
+			return new Path(null, names, edgeNames, weightType, null, weights, edgeWeights);
+		}
+		long[] weights = new long[length];
+		for(int i = 0; i < edges.size(); i++) {
+			weights[i + 1] = Math.addExact(weights[i], edges.get(i).getLongWeight());
+		}
+		return new Path(null, names, edgeNames, weightType, weights, null, null);
+	}
+
+	/**
+	 * fromParents - build the path to a vertex by following the parent vertex ids of a search back to its source
+	 *
+	 * @param graph - graph searched
+	 * @param parents - parent vertex id of every reached vertex, -1 for the source
+	 * @param distances - distance from the source of every reached vertex
+	 * @param dest - destination vertex id
+	 * @return the path
+	 */
+	static Path fromParents(IndexedGraph graph, int[] parents, long[] distances, int dest) {
+		int length = 1;
+		for(int node = dest; parents[node] >= 0; node = parents[node]) {
+			length++;
+		}
+		int[] vertexIds = new int[length];
+		long[] weights = new long[length];
+		for(int node = dest, i = length - 1; i >= 0; node = parents[node], i--) {
+			vertexIds[i] = node;
+			weights[i] = distances[node];
+		}
+		return new Path(graph, vertexIds, weights);
+	}
+
+	/**
+	 * fromParents - build the path to a vertex of a search with double distances
+	 *
+	 * @param graph - graph searched
+	 * @param parents - parent vertex id of every reached vertex, -1 for the source
+	 * @param distances - distance from the source of every reached vertex
+	 * @param dest - destination vertex id
+	 * @return the path
+	 */
+	static Path fromParents(IndexedGraph graph, int[] parents, double[] distances, int dest) {
+		int length = 1;
+		for(int node = dest; parents[node] >= 0; node = parents[node]) {
+			length++;
+		}
+		int[] vertexIds = new int[length];
+		double[] weights = new double[length];
+		for(int node = dest, i = length - 1; i >= 0; node = parents[node], i--) {
+			vertexIds[i] = node;
+			weights[i] = distances[node];
+		}
+		return new Path(graph, vertexIds, weights);
+	}
+
+	/**
+	 * fromKeys - build the path to a vertex of a search over distance keys, see IndexedGraph.extend
+	 *
+	 * @param graph - graph searched
+	 * @param parents - parent vertex id of every reached vertex, -1 for the source
+	 * @param keys - distance key from the source of every reached vertex
+	 * @param dest - destination vertex id
+	 * @return the path
+	 */
+	static Path fromKeys(IndexedGraph graph, int[] parents, long[] keys, int dest) {
+		if (graph.getWeightType() != Edge.WeightType.DOUBLE) {
+			return fromParents(graph, parents, keys, dest);
+		}
+		int length = 1;
+		for(int node = dest; parents[node] >= 0; node = parents[node]) {
+			length++;
+		}
+		int[] vertexIds = new int[length];
+		long[] pathKeys = new long[length];
+		for(int node = dest, i = length - 1; i >= 0; node = parents[node], i--) {
+			vertexIds[i] = node;
+			pathKeys[i] = keys[node];
+		}
+		return fromKeys(graph, vertexIds, pathKeys);
+	}
+
+	/**
+	 * fromKeys - build a path from its vertex ids and their distance keys, see IndexedGraph.extend
+	 *
+	 * @param graph - graph searched
+	 * @param vertexIds - vertex ids from source to destination
+	 * @param keys - distance key from the source of each vertex
+	 * @return the path
+	 */
+	static Path fromKeys(IndexedGraph graph, int[] vertexIds, long[] keys) {
+		if (graph.getWeightType() != Edge.WeightType.DOUBLE) {
+			return new Path(graph, vertexIds, keys);
+		}
+		double[] weights = new double[keys.length];
+		for(int i = 0; i < keys.length; i++) {
+			weights[i] = Double.longBitsToDouble(keys[i]);
+		}
+		return new Path(graph, vertexIds, weights);
+	}
+
+	/**
+	 * fromSlots - build a path from its vertex ids, the edge slots between them and their distance keys, so that
+	 * 				of parallel edges the path names the one it took
+	 *
+	 * @param graph - graph searched
+	 * @param vertexIds - vertex ids from source to destination
+	 * @param slots - edge slot leaving each vertex but the destination
+	 * @param keys - distance key from the source of each vertex
+	 * @return the path
+	 */
+	static Path fromSlots(IndexedGraph graph, int[] vertexIds, int[] slots, long[] keys) {
+		String[] names = new String[vertexIds.length];
+		String[] edgeNames = new String[slots.length];
+		for(int i = 0; i < vertexIds.length; i++) {
+			names[i] = graph.getName(vertexIds[i]);
+		}
+		for(int i = 0; i < slots.length; i++) {
+			edgeNames[i] = graph.edgeName(slots[i]);
+		}
+		Edge.WeightType weightType = graph.getWeightType();
+		if (weightType != Edge.WeightType.DOUBLE) {
+			return new Path(vertexIds, names, edgeNames, weightType, keys, null, null);
+		}
+		double[] weights = new double[keys.length];
+		double[] edgeWeights = new double[slots.length];
+		for(int i = 0; i < keys.length; i++) {
+			weights[i] = Double.longBitsToDouble(keys[i]);
+		}
+		for(int i = 0; i < slots.length; i++) {
+			edgeWeights[i] = graph.doubleWeight(slots[i]);
+		}
+		return new Path(vertexIds, names, edgeNames, weightType, null, weights, edgeWeights);
+	}
+
+	/**
+	 * @return the number of vertices on the path, including source and destination
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * @return the number of edges on the path
+	 */
+	public int getNumbersOfEdges() {
+		return names.length - 1;
+	}
+
+	/**
+	 * @param index - position on the path, 0 is the source
+	 * @return the vertex id in the snapshot the path was found in
+	 * @throws IllegalStateException - if the path was not found in an IndexedGraph, such as a sharded path
+	 */
+	public int getVertexId(int index) {
+		if (vertexIds == null) {
+			throw new IllegalStateException("path was not found in an indexed graph");
+		}
+		return vertexIds[index];
+	}
+
+	/**
+	 * @param index - position on the path, 0 is the source
+	 * @return the vertex name
+	 */
+	public String getVertexName(int index) {
+		return names[index];
+	}
+
+	/**
+	 * @param index - position on the path, 0 is the source
+	 * @return the vertex
+	 */
+	public Vertex getVertex(int index) {
+		return new Vertex(names[index]);
+	}
+
+	/**
+	 * @param index - position on the path, 0 is the source
+	 * @return the weight from the source up to the vertex, rounded to the nearest long for double weights
+	 */
+	public long getWeight(int index) {
+		return weights != null ? weights[index] : Math.round(doubleWeights[index]);
+	}
+
+	/**
+	 * @return the weight of the whole path, rounded to the nearest long for double weights
+	 */
+	public long getTotalWeight() {
+		return getWeight(names.length - 1);
+	}
+
+	/**
+	 * @param index - position on the path, 0 is the source
+	 * @return the weight from the source up to the vertex
+	 */
+	public double getDoubleWeight(int index) {
+		return weights != null ? weights[index] : doubleWeights[index];
+	}
+
+	/**
+	 * @return the weight of the whole path
+	 */
+	public double getTotalDoubleWeight() {
+		return getDoubleWeight(names.length - 1);
+	}
+
+	/**
+	 * @return the source name
+	 */
+	public String getSource() {
+		return getVertexName(0);
+	}
+
+	/**
+	 * @return the destination name
+	 */
+	public String getDestination() {
+		return getVertexName(names.length - 1);
+	}
+
+	/**
+	 * getEdge - return the edge leaving the vertex at the given position
+	 *
+	 * @param index - position on the path, 0 is the edge leaving the source
+	 * @return the edge
+	 */
+	public Edge getEdge(int index) {
+		String from = names[index];
+		String to = names[index + 1];
+		switch (weightType) {
+		case LONG:
+			return new LongEdge(edgeNames[index], from, to, weights[index + 1] - weights[index]);
+		case DOUBLE:
+			return new DoubleEdge(edgeNames[index], from, to, edgeWeights[index]);
+		default:
+			return new Edge(edgeNames[index], from, to, Math.toIntExact(weights[index + 1] - weights[index]));
+		}
+	}
+
+	/**
+	 * @return the vertices from source to destination, created as they are read
+	 */
+	public List<Vertex> getVertices() {
+		return new AbstractList<Vertex>() {
+			@Override
+			public Vertex get(int index) {
+				return getVertex(index);
+			}
+
+			@Override
+			public int size() {
+				return names.length;
+			}
+		};
+	}
+
+	/**
+	 * @return the edges from source to destination, created as they are read
+	 */
+	public List<Edge> getEdges() {
+		return new AbstractList<Edge>() {
+			@Override
+			public Edge get(int index) {
+				return getEdge(index);
+			}
+
+			@Override
+			public int size() {
+				return names.length - 1;
+			}
+		};
+	}
+
+	/**
+	 * toList - convert to the list returned by ShortestPathGraph.findShortestPath
+	 *
+	 * @return list of map of vertex and calculated weights
+	 * @throws ArithmeticException - if a weight does not fit an int
+	 */
+	public LinkedList<Map<Vertex, Integer>> toList() {
+		LinkedList<Map<Vertex, Integer>> list = new LinkedList<>();
+		for(int i = 0; i < names.length; i++) {
+			list.add(Collections.singletonMap(getVertex(i), Math.toIntExact(getWeight(i))));
+		}
+		return list;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 *
+	 * Same format as ShortestPathGraph.pathToString: node-name1 (weight1) -> node-name2 (weight2) ...
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(names.length * 16);
+		for(int i = 0; i < names.length; i++) {
+			if (i > 0) {
+				builder.append(" -> ");
+			}
+			builder.append(names[i]).append(" (");
+			if (weights != null) {
+				builder.append(weights[i]);
+			} else {
+				builder.append(doubleWeights[i]);
+			}
+			builder.append(')');
+		}
+		return builder.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(names);
+		result = prime * result + Arrays.hashCode(weights);
+		result = prime * result + Arrays.hashCode(doubleWeights);
+		result = prime * result + Arrays.hashCode(edgeNames);
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Path other = (Path) obj;
+		return Arrays.equals(names, other.names) && Arrays.equals(weights, other.weights)
+				&& Arrays.equals(doubleWeights, other.doubleWeights) && Arrays.equals(edgeNames, other.edgeNames);
+	}
+}
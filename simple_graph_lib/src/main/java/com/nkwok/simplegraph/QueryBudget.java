@@ -0,0 +1,86 @@
+/**
+ * Name: QueryBudget
+ * Description: Budget of one query started from its QueryOptions.  The query calls settle for every vertex it
+ * 				settles or enters and stops once it returns false; the status then tells which limit was hit.
+ * 				The clock and the cancellation test are only read every QueryOptions.CHECK_INTERVAL steps.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.function.BooleanSupplier;
+
+final class QueryBudget {
+
+	private final long start;
+	private final long timeoutNanos;
+	private final long maxSettled;
+	private final BooleanSupplier cancelled;
+	private long settled;
+	private QueryResult.Status status = QueryResult.Status.COMPLETE;
+
+	QueryBudget(long timeoutNanos, long maxSettled, BooleanSupplier cancelled) {
+		this.start = System.nanoTime();
+		this.timeoutNanos = timeoutNanos;
+		this.maxSettled = maxSettled;
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * settle - count one step of the query
+	 *
+	 * @return true if the query may go on; false once a limit is hit
+	 */
+	boolean settle() {
+		if (status != QueryResult.Status.COMPLETE) {
+			return false;
+		}
+		if (++settled > maxSettled) {
+			settled = maxSettled;
+			status = QueryResult.Status.SETTLED_LIMIT;
+			return false;
+		}
+		if (settled % QueryOptions.CHECK_INTERVAL == 0) {
+			if (cancelled != null && cancelled.getAsBoolean()) {
+				status = QueryResult.Status.CANCELLED;
+				return false;
+			}
+			if (timeoutNanos != Long.MAX_VALUE && System.nanoTime() - start > timeoutNanos) {
+				status = QueryResult.Status.TIMED_OUT;
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * limitResults - record that the query stopped at the result limit
+	 */
+	void limitResults() {
+		if (status == QueryResult.Status.COMPLETE) {
+			status = QueryResult.Status.RESULT_LIMIT;
+		}
+	}
+
+	/**
+	 * @return the number of steps counted
+	 */
+	long getSettled() {
+		return settled;
+	}
+
+	/**
+	 * @return COMPLETE or the limit which stopped the query
+	 */
+	QueryResult.Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * result - return the result of the query with its status
+	 *
+	 * @param value - result found, partial if a limit was hit
+	 * @return the result
+	 */
+	<T> QueryResult<T> result(T value) {
+		return new QueryResult<>(value, status, settled, System.nanoTime() - start);
+	}
+}
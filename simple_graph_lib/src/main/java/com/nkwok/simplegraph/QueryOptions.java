@@ -0,0 +1,103 @@
+/**
+ * Name: QueryOptions
+ * Description: Limits of a query: a timeout, a maximum number of vertices settled or entered, a maximum number
+ * 				of results and a cancellation test.  A query given options counts its steps in its hot loop and
+ * 				checks the clock and the cancellation test every CHECK_INTERVAL steps, so the checks cost
+ * 				little; when a limit is hit it stops and returns what it has found with the limit in the
+ * 				QueryResult.  The timeout is counted from the start of each query, so one options object can be
+ * 				used by many queries.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+public final class QueryOptions {
+
+	/**
+	 * steps between two checks of the clock and the cancellation test
+	 */
+	static final int CHECK_INTERVAL = 64;
+
+	private long timeoutNanos = Long.MAX_VALUE;
+	private long maxSettled = Long.MAX_VALUE;
+	private int maxResults = Integer.MAX_VALUE;
+	private BooleanSupplier cancelled;
+
+	/**
+	 * @param timeout - time a query may run for; default no limit
+	 * @param unit - unit of the timeout
+	 * @return this
+	 */
+	public QueryOptions setTimeout(long timeout, TimeUnit unit) {
+		if (timeout < 0 || unit == null) {
+			throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+		}
+		this.timeoutNanos = unit.toNanos(timeout);
+		return this;
+	}
+
+	/**
+	 * @param maxSettled - vertices a query may settle or enter; default no limit
+	 * @return this
+	 */
+	public QueryOptions setMaxSettled(long maxSettled) {
+		if (maxSettled <= 0) {
+			throw new IllegalArgumentException("max settled must be positive: " + maxSettled);
+		}
+		this.maxSettled = maxSettled;
+		return this;
+	}
+
+	/**
+	 * @param maxResults - results a query may return, such as paths; default no limit
+	 * @return this
+	 */
+	public QueryOptions setMaxResults(int maxResults) {
+		if (maxResults <= 0) {
+			throw new IllegalArgumentException("max results must be positive: " + maxResults);
+		}
+		this.maxResults = maxResults;
+		return this;
+	}
+
+	/**
+	 * @param cancelled - test returning true once the query should stop, such as AtomicBoolean::get or
+	 * 			Future::isCancelled; it is called from the query thread.  Default none
+	 * @return this
+	 */
+	public QueryOptions setCancellation(BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+		return this;
+	}
+
+	/**
+	 * @return the timeout in nanoseconds, Long.MAX_VALUE for no limit
+	 */
+	public long getTimeoutNanos() {
+		return timeoutNanos;
+	}
+
+	/**
+	 * @return the maximum number of vertices settled, Long.MAX_VALUE for no limit
+	 */
+	public long getMaxSettled() {
+		return maxSettled;
+	}
+
+	/**
+	 * @return the maximum number of results, Integer.MAX_VALUE for no limit
+	 */
+	public int getMaxResults() {
+		return maxResults;
+	}
+
+	/**
+	 * start - start the budget of one query
+	 *
+	 * @return the budget, counting from now
+	 */
+	QueryBudget start() {
+		return new QueryBudget(timeoutNanos, maxSettled, cancelled);
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * Name: QueryResult
+ * Description: Result of a query run with QueryOptions: the value found, and the limit which stopped the query
+ * 				if any.  A query stopped by a limit returns what it had found so far, which may be empty or null.
+ */
+package com.nkwok.simplegraph;
+
+public final class QueryResult<T> {
+
+	/**
+	 * How the query ended
+	 */
+	public enum Status {
+		/** the query ran to the end, the value is the full result */
+		COMPLETE,
+		/** the timeout passed */
+		TIMED_OUT,
+		/** the maximum number of vertices were settled */
+		SETTLED_LIMIT,
+		/** the maximum number of results were found, more may exist */
+		RESULT_LIMIT,
+		/** the cancellation test returned true */
+		CANCELLED
+	}
+
+	private final T value;
+	private final Status status;
+	private final long settled;
+	private final long elapsedNanos;
+
+	QueryResult(T value, Status status, long settled, long elapsedNanos) {
+		this.value = value;
+		this.status = status;
+		this.settled = settled;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return the value found, partial if the query was stopped by a limit
+	 */
+	public T getValue() {
+		return value;
+	}
+
+	/**
+	 * @return how the query ended
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return true if the query ran to the end
+	 */
+	public boolean isComplete() {
+		return status == Status.COMPLETE;
+	}
+
+	/**
+	 * @return the number of vertices settled or entered by the query
+	 */
+	public long getSettled() {
+		return settled;
+	}
+
+	/**
+	 * @return the time the query ran for in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return status + " " + value;
+	}
+}
@@ -0,0 +1,179 @@
+/**
+ * Name: SearchWorkspace
+ * Description: Search arrays and heap kept by a thread and reused by its searches, so a query neither
+ * 				allocates nor clears arrays the size of the graph.  A vertex entry is only valid where its stamp
+ * 				equals the generation of the current search; starting a search moves to the next generation,
+ * 				which drops every entry in O(1).  The strongly connected components a search may enter are
+ * 				stamped the same way.  The arrays grow to the largest graph searched by the thread.
+ * 				A search started while the thread's workspace is in use, from a change listener for example,
+ * 				gets a workspace of its own.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.Arrays;
+
+final class SearchWorkspace implements AutoCloseable {
+
+	private static final ThreadLocal<SearchWorkspace> LOCAL = ThreadLocal.withInitial(SearchWorkspace::new);
+
+	// vertex state, valid only where stamp equals generation
+	long[] distance = new long[0];
+	double[] doubleDistance = new double[0];
+	int[] previous = new int[0];
+	private int[] stamp = new int[0];
+	// it is used to flag vertices, such as the targets of a search, valid only where it equals generation
+	int[] mark = new int[0];
+	// it is used to hold a value per marked vertex, such as a lower bound to the destination
+	long[] estimate = new long[0];
+	// it is used as the queue of a breadth first search
+	int[] queue = new int[0];
+	private int generation;
+
+	// component state of StrongComponents.between, valid only where the stamp equals generation
+	int[] backward = new int[0];
+	int[] forward = new int[0];
+	int[] componentQueue = new int[0];
+	// the components a search may enter are those whose entry in allowed equals allowedStamp
+	int[] allowed = forward;
+	int allowedStamp;
+
+	final DistanceHeap heap = new DistanceHeap(64);
+	// it is used to hold a single destination without allocating
+	final int[] single = new int[1];
+
+	private boolean inUse;
+	private final boolean pooled;
+
+	private SearchWorkspace() {
+		this(true);
+	}
+
+	private SearchWorkspace(boolean pooled) {
+		this.pooled = pooled;
+	}
+
+	/**
+	 * acquire - return the workspace of the calling thread ready for a new search on a graph; the caller must
+	 * 			close it when the search is done
+	 *
+	 * @param graph
+	 * @return the workspace
+	 */
+	static SearchWorkspace acquire(IndexedGraph graph) {
+		return acquire(graph.getNumbersOfVertices());
+	}
+
+	/**
+	 * acquire - return the workspace of the calling thread ready for a new search on a number of vertices; the
+	 * 			caller must close it when the search is done
+	 *
+	 * @param vertices - number of vertices of the graph
+	 * @return the workspace
+	 */
+	static SearchWorkspace acquire(int vertices) {
+		SearchWorkspace workspace = LOCAL.get();
+		if (workspace.inUse) {
+			workspace = new SearchWorkspace(false);
+		}
+		workspace.inUse = true;
+		workspace.begin(vertices);
+		return workspace;
+	}
+
+	/**
+	 * begin - size the arrays for a graph and move to the next generation
+	 */
+	private void begin(int n) {
+		if (stamp.length < n) {
+			int size = Math.max(n, stamp.length + (stamp.length >> 1));
+			distance = new long[size];
+			doubleDistance = new double[size];
+			previous = new int[size];
+			stamp = new int[size];
+			mark = new int[size];
+			estimate = new long[size];
+			queue = new int[size];
+		}
+		generation++;
+		if (generation == Integer.MAX_VALUE) {
+			// every stamp is behind the generation again after the reset
+			Arrays.fill(stamp, 0);
+			Arrays.fill(mark, 0);
+			Arrays.fill(backward, 0);
+			Arrays.fill(forward, 0);
+			generation = 1;
+		}
+		heap.clear();
+	}
+
+	/**
+	 * @return the generation of the current search
+	 */
+	int generation() {
+		return generation;
+	}
+
+	/**
+	 * components - make the component arrays large enough for a number of components
+	 */
+	void components(int count) {
+		if (backward.length < count) {
+			int size = Math.max(count, backward.length + (backward.length >> 1));
+			backward = Arrays.copyOf(backward, size);
+			forward = Arrays.copyOf(forward, size);
+			componentQueue = new int[size];
+		}
+	}
+
+	/**
+	 * @param id - vertex id
+	 * @return true if the vertex was reached by the current search
+	 */
+	boolean reached(int id) {
+		return stamp[id] == generation;
+	}
+
+	/**
+	 * @param id - vertex id
+	 * @return the distance of the vertex, Long.MAX_VALUE if it was not reached
+	 */
+	long distance(int id) {
+		return stamp[id] == generation ? distance[id] : Long.MAX_VALUE;
+	}
+
+	/**
+	 * @param id - vertex id
+	 * @return the double distance of the vertex, infinite if it was not reached
+	 */
+	double doubleDistance(int id) {
+		return stamp[id] == generation ? doubleDistance[id] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * reach - set the distance and parent of a vertex
+	 */
+	void reach(int id, long distance, int parent) {
+		stamp[id] = generation;
+		this.distance[id] = distance;
+		previous[id] = parent;
+	}
+
+	/**
+	 * reach - set the double distance and parent of a vertex
+	 */
+	void reach(int id, double distance, int parent) {
+		stamp[id] = generation;
+		doubleDistance[id] = distance;
+		previous[id] = parent;
+	}
+
+	/**
+	 * close - give the workspace back to its thread
+	 */
+	@Override
+	public void close() {
+		if (pooled) {
+			inUse = false;
+		}
+	}
+}
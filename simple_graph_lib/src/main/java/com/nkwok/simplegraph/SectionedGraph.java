@@ -0,0 +1,827 @@
+/**
+ * Name: SectionedGraph
+ * Description: Read-only graph opened lazily from a sectioned file, so a process can answer its first query
+ * 				without reading the whole graph.  The vertices are numbered in name order and cut into partitions
+ * 				of a fixed number of vertices; each partition has three sections:
+ * 				  names      - the vertex names, [UTF]...
+ * 				  adjacency  - per vertex [int degree] then per edge [int target][weight as int, long or double]
+ * 				  labels     - the edge names in adjacency order, [boolean present][UTF]...
+ * 				File layout:
+ * 				  header     - magic, version, vertex count, edge count, weight type, direction flag,
+ * 				               vertices per partition, partition count
+ * 				  index      - per partition the first vertex name and the offset and length of its sections
+ * 				  sections   - the sections of every partition
+ * 				Opening reads the header and the index only.  A section is read with a positional read on first
+ * 				use and kept in an LRU cache bounded by a number of sections, so the memory follows the working
+ * 				set; the searches only need the adjacency sections.  Names are found by binary search of the
+ * 				first names of the partitions, then of the partition's names.
+ */
+package com.nkwok.simplegraph;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class SectionedGraph implements AutoCloseable {
+
+	private static final int MAGIC = 0x53474631;
+	private static final int VERSION = 1;
+	private static final int NAMES = 0;
+	private static final int ADJACENCY = 1;
+	private static final int LABELS = 2;
+	private static final int SECTION_KINDS = 3;
+
+	private final File file;
+	private final FileChannel channel;
+	private final int vertexCount;
+	private final long edgeCount;
+	private final Edge.WeightType weightType;
+	private final boolean biDirection;
+	private final int partitionSize;
+	private final String[] firstNames;
+	// offset and length of section kind k of partition p at [(p * SECTION_KINDS + k) * 2]
+	private final long[] sections;
+	private final int maxCachedSections;
+
+	// guarded by cache
+	private final LinkedHashMap<Integer, Object> cache;
+	private long sectionLoads;
+	private long cacheHits;
+	private long bytesRead;
+
+	/**
+	 * Adjacency section of a partition: edges of local vertex v in [offsets[v], offsets[v + 1])
+	 */
+	private static final class Adjacency {
+		final int[] offsets;
+		final int[] targets;
+		final long[] weights;
+		final double[] doubleWeights;
+
+		Adjacency(int[] offsets, int[] targets, long[] weights, double[] doubleWeights) {
+			this.offsets = offsets;
+			this.targets = targets;
+			this.weights = weights;
+			this.doubleWeights = doubleWeights;
+		}
+	}
+
+	/**
+	 * Search state of one query keyed by the vertices it touches, in an open addressing table growing with them,
+	 * so a query costs what it explores rather than the size of the file
+	 */
+	private static final class QueryState {
+		// vertex id + 1, 0 for a free slot
+		private int[] ids = new int[32];
+		private long[] distances = new long[32];
+		private int[] parents = new int[32];
+		private int size;
+
+		private int slot(int id) {
+			int mask = ids.length - 1;
+			int slot = (id * 0x9E3779B9) >>> 16 & mask;
+			while (ids[slot] != 0 && ids[slot] != id + 1) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		boolean reached(int id) {
+			return ids[slot(id)] != 0;
+		}
+
+		/**
+		 * @return the distance of a vertex, Long.MAX_VALUE if not reached
+		 */
+		long distance(int id) {
+			int slot = slot(id);
+			return ids[slot] != 0 ? distances[slot] : Long.MAX_VALUE;
+		}
+
+		/**
+		 * @return the parent of a vertex, -1 for the source or a vertex not reached
+		 */
+		int parent(int id) {
+			int slot = slot(id);
+			return ids[slot] != 0 ? parents[slot] : -1;
+		}
+
+		void reach(int id, long distance, int parent) {
+			int slot = slot(id);
+			if (ids[slot] == 0) {
+				// kept at most half full
+				if (++size * 2 > ids.length) {
+					grow();
+					slot = slot(id);
+				}
+				ids[slot] = id + 1;
+			}
+			distances[slot] = distance;
+			parents[slot] = parent;
+		}
+
+		private void grow() {
+			int[] oldIds = ids;
+			long[] oldDistances = distances;
+			int[] oldParents = parents;
+			ids = new int[oldIds.length * 2];
+			distances = new long[ids.length];
+			parents = new int[ids.length];
+			for(int i = 0; i < oldIds.length; i++) {
+				if (oldIds[i] != 0) {
+					int slot = slot(oldIds[i] - 1);
+					ids[slot] = oldIds[i];
+					distances[slot] = oldDistances[i];
+					parents[slot] = oldParents[i];
+				}
+			}
+		}
+	}
+
+	private SectionedGraph(File file, int maxCachedSections) throws IOException {
+		this.file = file;
+		this.maxCachedSections = maxCachedSections;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			ByteBuffer head = ByteBuffer.allocate(Integer.BYTES * 3 + Long.BYTES);
+			readFully(head, 0);
+			head.flip();
+			if (head.getInt() != MAGIC) {
+				throw new IOException("not a sectioned graph file: " + file);
+			}
+			int version = head.getInt();
+			if (version != VERSION) {
+				throw new IOException("unsupported sectioned graph version " + version);
+			}
+			int headerLength = head.getInt();
+			long indexLength = head.getLong();
+			if (headerLength < 0 || indexLength < 0 || indexLength > Integer.MAX_VALUE) {
+				throw new IOException("corrupt sectioned graph header: " + file);
+			}
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+					read(head.capacity(), headerLength + (int) indexLength)));
+			this.vertexCount = in.readInt();
+			this.edgeCount = in.readLong();
+			int type = in.readUnsignedByte();
+			if (type >= Edge.WeightType.values().length) {
+				throw new IOException("unknown weight type " + type);
+			}
+			this.weightType = Edge.WeightType.values()[type];
+			this.biDirection = in.readBoolean();
+			this.partitionSize = in.readInt();
+			int partitions = in.readInt();
+			this.firstNames = new String[partitions];
+			this.sections = new long[partitions * SECTION_KINDS * 2];
+			for(int p = 0; p < partitions; p++) {
+				firstNames[p] = in.readUTF();
+				for(int k = 0; k < SECTION_KINDS * 2; k++) {
+					sections[p * SECTION_KINDS * 2 + k] = in.readLong();
+				}
+				for(int k = 1; k < SECTION_KINDS * 2; k += 2) {
+					long length = sections[p * SECTION_KINDS * 2 + k];
+					if (length < 0 || length > Integer.MAX_VALUE || sections[p * SECTION_KINDS * 2 + k - 1] < 0) {
+						throw new IOException("corrupt sectioned graph index: " + file);
+					}
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		this.cache = new LinkedHashMap<Integer, Object>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Object> eldest) {
+				return size() > SectionedGraph.this.maxCachedSections;
+			}
+		};
+	}
+
+	/**
+	 * write - write the current snapshot of a graph as a sectioned file.  The file is written next to the
+	 * 			target and moved over it once complete.
+	 *
+	 * @param graph - graph to write
+	 * @param target - file to write
+	 * @param partitionSize - vertices per partition
+	 * @throws IOException
+	 */
+	public static void write(Graph graph, File target, int partitionSize) throws IOException {
+		if (graph == null || target == null) {
+			throw new IllegalArgumentException("null graph or file");
+		}
+		if (partitionSize <= 0) {
+			throw new IllegalArgumentException("partition size must be positive: " + partitionSize);
+		}
+		IndexedGraph snapshot = graph.getIndexedGraph();
+		int n = snapshot.getNumbersOfVertices();
+		// ids of the file in name order
+		String[] names = new String[n];
+		for(int id = 0; id < n; id++) {
+			names[id] = snapshot.getName(id);
+		}
+		Arrays.sort(names);
+		int[] order = new int[n];
+		int[] rank = new int[n];
+		for(int i = 0; i < n; i++) {
+			order[i] = snapshot.getId(names[i]);
+			rank[order[i]] = i;
+		}
+
+		int partitions = (n + partitionSize - 1) / partitionSize;
+		long[] sections = new long[partitions * SECTION_KINDS * 2];
+		File temp = new File(target.getPath() + ".tmp");
+		File body = new File(target.getPath() + ".body");
+		try {
+			// the sections go to a body file first, so the index in front of them knows their offsets; they are
+			// counted in a long, as DataOutputStream.size stops at Integer.MAX_VALUE
+			try (CountingOutputStream counter = new CountingOutputStream(new FileOutputStream(body));
+					DataOutputStream out = new DataOutputStream(counter)) {
+				for(int p = 0; p < partitions; p++) {
+					int begin = p * partitionSize;
+					int end = Math.min(n, begin + partitionSize);
+					int base = p * SECTION_KINDS * 2;
+
+					sections[base + NAMES * 2] = counter.count;
+					for(int i = begin; i < end; i++) {
+						out.writeUTF(names[i]);
+					}
+					sections[base + NAMES * 2 + 1] = sectionLength(counter.count - sections[base + NAMES * 2]);
+
+					sections[base + ADJACENCY * 2] = counter.count;
+					for(int i = begin; i < end; i++) {
+						int id = order[i];
+						out.writeInt(snapshot.outDegree(id));
+						for(int slot = snapshot.firstEdge(id); slot < snapshot.endEdge(id); slot++) {
+							out.writeInt(rank[snapshot.target(slot)]);
+							switch (snapshot.getWeightType()) {
+							case LONG:
+								out.writeLong(snapshot.longWeight(slot));
+								break;
+							case DOUBLE:
+								out.writeDouble(snapshot.doubleWeight(slot));
+								break;
+							default:
+								out.writeInt(snapshot.weight(slot));
+							}
+						}
+					}
+					sections[base + ADJACENCY * 2 + 1] = sectionLength(counter.count - sections[base + ADJACENCY * 2]);
+
+					sections[base + LABELS * 2] = counter.count;
+					for(int i = begin; i < end; i++) {
+						int id = order[i];
+						for(int slot = snapshot.firstEdge(id); slot < snapshot.endEdge(id); slot++) {
+							String label = snapshot.edgeName(slot);
+							out.writeBoolean(label != null);
+							if (label != null) {
+								out.writeUTF(label);
+							}
+						}
+					}
+					sections[base + LABELS * 2 + 1] = sectionLength(counter.count - sections[base + LABELS * 2]);
+				}
+			}
+
+			ByteArrayOutputStream index = new ByteArrayOutputStream();
+			DataOutputStream indexOut = new DataOutputStream(index);
+			indexOut.writeInt(n);
+			indexOut.writeLong(snapshot.getNumbersOfEdges());
+			indexOut.writeByte(snapshot.getWeightType().ordinal());
+			indexOut.writeBoolean(graph.isBiDirection());
+			indexOut.writeInt(partitionSize);
+			indexOut.writeInt(partitions);
+			int fixed = indexOut.size();
+			long start = Integer.BYTES * 3 + Long.BYTES;
+			for(int p = 0; p < partitions; p++) {
+				indexOut.writeUTF(names[p * partitionSize]);
+				indexOut.write(new byte[SECTION_KINDS * 2 * Long.BYTES]);
+			}
+			start += indexOut.size();
+			// the offsets are known now that the size of the index is
+			byte[] indexBytes = index.toByteArray();
+			ByteBuffer patch = ByteBuffer.wrap(indexBytes);
+			int position = fixed;
+			for(int p = 0; p < partitions; p++) {
+				position += 2 + names[p * partitionSize].getBytes(StandardCharsets.UTF_8).length;
+				for(int k = 0; k < SECTION_KINDS; k++) {
+					int at = p * SECTION_KINDS * 2 + k * 2;
+					patch.putLong(position, start + sections[at]);
+					patch.putLong(position + Long.BYTES, sections[at + 1]);
+					position += Long.BYTES * 2;
+				}
+			}
+
+			try (FileOutputStream fos = new FileOutputStream(temp)) {
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(fixed);
+				out.writeLong(indexBytes.length - fixed);
+				out.write(indexBytes);
+				Files.copy(body.toPath(), out);
+				out.flush();
+				fos.getChannel().force(true);
+			}
+			Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(body.toPath());
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+
+	/**
+	 * sectionLength - check the length of a section written, as a section is read into one byte array
+	 *
+	 * @throws IOException - if the section is longer than a byte array can be
+	 */
+	private static long sectionLength(long length) throws IOException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("a section of " + length
+					+ " bytes is over the 2 GB limit; use a smaller partition size");
+		}
+		return length;
+	}
+
+	/**
+	 * Buffered stream counting the bytes written in a long
+	 */
+	private static final class CountingOutputStream extends BufferedOutputStream {
+		long count;
+
+		CountingOutputStream(OutputStream out) {
+			super(out, 1 << 16);
+		}
+
+		@Override
+		public synchronized void write(int b) throws IOException {
+			super.write(b);
+			count++;
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) throws IOException {
+			super.write(b, off, len);
+			count += len;
+		}
+	}
+
+	/**
+	 * open - open a sectioned file, reading its header and index only
+	 *
+	 * @param file - file written by write
+	 * @param maxCachedSections - most sections kept in memory
+	 * @return the graph
+	 * @throws IOException
+	 */
+	public static SectionedGraph open(File file, int maxCachedSections) throws IOException {
+		if (file == null) {
+			throw new IllegalArgumentException("null file");
+		}
+		if (maxCachedSections <= 0) {
+			throw new IllegalArgumentException("max cached sections must be positive: " + maxCachedSections);
+		}
+		return new SectionedGraph(file, maxCachedSections);
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int count = channel.read(buffer, position);
+			if (count < 0) {
+				throw new EOFException("sectioned graph file is truncated: " + file);
+			}
+			position += count;
+		}
+	}
+
+	private byte[] read(long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		readFully(buffer, position);
+		return buffer.array();
+	}
+
+	/**
+	 * section - return a section from the cache, reading it on a miss
+	 */
+	private Object section(int partition, int kind) {
+		int key = partition * SECTION_KINDS + kind;
+		synchronized(cache) {
+			Object cached = cache.get(key);
+			if (cached != null) {
+				cacheHits++;
+				return cached;
+			}
+		}
+		Object loaded;
+		try {
+			int at = key * 2;
+			byte[] bytes = read(sections[at], (int) sections[at + 1]);
+			loaded = decode(partition, kind, new DataInputStream(new ByteArrayInputStream(bytes)));
+			synchronized(cache) {
+				sectionLoads++;
+				bytesRead += bytes.length;
+				// a section read by two threads at once is kept once
+				Object raced = cache.putIfAbsent(key, loaded);
+				return raced != null ? raced : loaded;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Object decode(int partition, int kind, DataInputStream in) throws IOException {
+		int begin = partition * partitionSize;
+		int count = Math.min(vertexCount, begin + partitionSize) - begin;
+		switch (kind) {
+		case NAMES: {
+			String[] names = new String[count];
+			for(int i = 0; i < count; i++) {
+				names[i] = in.readUTF();
+			}
+			return names;
+		}
+		case ADJACENCY: {
+			int[] offsets = new int[count + 1];
+			int size = (int) sections[(partition * SECTION_KINDS + ADJACENCY) * 2 + 1];
+			int edgeBytes = Integer.BYTES + (weightType == Edge.WeightType.INT ? Integer.BYTES : Long.BYTES);
+			int capacity = (size - count * Integer.BYTES) / edgeBytes;
+			int[] targets = new int[capacity];
+			long[] weights = weightType == Edge.WeightType.DOUBLE ? null : new long[capacity];
+			double[] doubleWeights = weightType == Edge.WeightType.DOUBLE ? new double[capacity] : null;
+			int e = 0;
+			for(int i = 0; i < count; i++) {
+				int degree = in.readInt();
+				for(int j = 0; j < degree; j++, e++) {
+					targets[e] = in.readInt();
+					switch (weightType) {
+					case LONG:
+						weights[e] = in.readLong();
+						break;
+					case DOUBLE:
+						doubleWeights[e] = in.readDouble();
+						break;
+					default:
+						weights[e] = in.readInt();
+					}
+				}
+				offsets[i + 1] = e;
+			}
+			return new Adjacency(offsets, targets, weights, doubleWeights);
+		}
+		default: {
+			Adjacency adjacency = (Adjacency) section(partition, ADJACENCY);
+			String[] labels = new String[adjacency.targets.length];
+			for(int i = 0; i < labels.length; i++) {
+				labels[i] = in.readBoolean() ? in.readUTF() : null;
+			}
+			return labels;
+		}
+		}
+	}
+
+	private Adjacency adjacency(int id) {
+		return (Adjacency) section(id / partitionSize, ADJACENCY);
+	}
+
+	/**
+	 * @return the number of vertices
+	 */
+	public int getNumbersOfVertices() {
+		return vertexCount;
+	}
+
+	/**
+	 * @return the number of edges
+	 */
+	public long getNumbersOfEdges() {
+		return edgeCount;
+	}
+
+	/**
+	 * @return the narrowest primitive type holding every edge weight
+	 */
+	public Edge.WeightType getWeightType() {
+		return weightType;
+	}
+
+	/**
+	 * @return the biDirection flag of the graph written
+	 */
+	public boolean isBiDirection() {
+		return biDirection;
+	}
+
+	/**
+	 * getId - return the vertex id of a vertex name; ids are in name order
+	 *
+	 * @param name
+	 * @return vertex id, -1 if there is no such vertex
+	 */
+	public int getId(String name) {
+		if (name == null || firstNames.length == 0) {
+			return -1;
+		}
+		int partition = Arrays.binarySearch(firstNames, name);
+		if (partition < 0) {
+			partition = -partition - 2;
+			if (partition < 0) {
+				return -1;
+			}
+		}
+		int found = Arrays.binarySearch((String[]) section(partition, NAMES), name);
+		return found < 0 ? -1 : partition * partitionSize + found;
+	}
+
+	/**
+	 * @param id
+	 * @return the vertex name of a vertex id
+	 */
+	public String getName(int id) {
+		checkId(id);
+		return ((String[]) section(id / partitionSize, NAMES))[id % partitionSize];
+	}
+
+	/**
+	 * @param id
+	 * @return the number of outgoing edges of a vertex
+	 */
+	public int outDegree(int id) {
+		checkId(id);
+		Adjacency adjacency = adjacency(id);
+		int local = id % partitionSize;
+		return adjacency.offsets[local + 1] - adjacency.offsets[local];
+	}
+
+	/**
+	 * getEdges - return the outgoing edges of a vertex with their names, made as by IndexedGraph.getEdge
+	 *
+	 * @param fromName - vertex name
+	 * @return the edges; empty if the vertex is not in the graph
+	 */
+	public List<Edge> getEdges(String fromName) {
+		int id = getId(fromName);
+		if (id < 0) {
+			return Collections.emptyList();
+		}
+		int partition = id / partitionSize;
+		int local = id % partitionSize;
+		Adjacency adjacency = adjacency(id);
+		String[] labels = (String[]) section(partition, LABELS);
+		List<Edge> result = new ArrayList<>();
+		for(int e = adjacency.offsets[local]; e < adjacency.offsets[local + 1]; e++) {
+			result.add(edge(adjacency, labels, e, fromName));
+		}
+		return result;
+	}
+
+	/**
+	 * edge - make the edge at a position of an adjacency section
+	 */
+	private Edge edge(Adjacency adjacency, String[] labels, int e, String fromName) {
+		String to = getName(adjacency.targets[e]);
+		switch (weightType) {
+		case LONG:
+			return new LongEdge(labels[e], fromName, to, adjacency.weights[e]);
+		case DOUBLE:
+			return new DoubleEdge(labels[e], fromName, to, adjacency.doubleWeights[e]);
+		default:
+			return new Edge(labels[e], fromName, to, (int) adjacency.weights[e]);
+		}
+	}
+
+	/**
+	 * extend - the distance key through the edge at a position of an adjacency section, see IndexedGraph.extend
+	 *
+	 * @return the distance key of the vertex the edge goes to, Long.MAX_VALUE if a long distance overflows
+	 */
+	private long extend(Adjacency adjacency, int e, long distance) {
+		if (weightType == Edge.WeightType.DOUBLE) {
+			return Double.doubleToRawLongBits(Double.longBitsToDouble(distance) + adjacency.doubleWeights[e]);
+		}
+		// compared before adding, so that long weights cannot overflow
+		long weight = adjacency.weights[e];
+		return weight >= Long.MAX_VALUE - distance ? Long.MAX_VALUE : distance + weight;
+	}
+
+	/**
+	 * getHopDistance - return the minimum number of edges from the source node to the destination node,
+	 * 					ignoring the weights.  Only the adjacency sections on the way are read.
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return number of edges; -1 if either node is not in the graph or the destination cannot be reached
+	 */
+	public int getHopDistance(String fromName, String destName) {
+		int from = getId(fromName);
+		int dest = getId(destName);
+		if (from < 0 || dest < 0) {
+			return BreadthFirstSearch.UNREACHED;
+		}
+		QueryState state = new QueryState();
+		int[] queue = new int[16];
+		int head = 0;
+		int tail = 0;
+		state.reach(from, 0L, -1);
+		queue[tail++] = from;
+		while (head < tail && ! state.reached(dest)) {
+			int node = queue[head++];
+			long hops = state.distance(node) + 1;
+			Adjacency adjacency = adjacency(node);
+			int local = node % partitionSize;
+			for(int e = adjacency.offsets[local]; e < adjacency.offsets[local + 1]; e++) {
+				int neighbor = adjacency.targets[e];
+				if (! state.reached(neighbor)) {
+					state.reach(neighbor, hops, -1);
+					if (tail == queue.length) {
+						queue = Arrays.copyOf(queue, tail * 2);
+					}
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return state.reached(dest) ? (int) state.distance(dest) : BreadthFirstSearch.UNREACHED;
+	}
+
+	/**
+	 * findShortestPath - Find the shortest path using Dijkstra's Algorithm, see findPath
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return list of map of vertex and calculated weights if found; otherwise, it is null
+	 * @throws ArithmeticException - if a weight on the path does not fit an int
+	 */
+	public LinkedList<Map<Vertex, Integer>> findShortestPath(String fromName, String destName) {
+		Path path = findPath(fromName, destName);
+		// Like ShortestPathGraph, the source itself is not reported as a path
+		return path == null || path.size() < 2 ? null : path.toList();
+	}
+
+	/**
+	 * findPath - Find the shortest path using Dijkstra's Algorithm, reading only the adjacency sections of the
+	 * 				vertices settled and the label sections of the vertices on the path.  The distances are the
+	 * 				distance keys of IndexedGraph.extend, so every weight type is searched.
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return the path if found, a single vertex path if both are the same vertex; otherwise, it is null
+	 * @throws ArithmeticException - if the destination is only reached by paths whose weight overflows a long
+	 */
+	public Path findPath(String fromName, String destName) {
+		int from = getId(fromName);
+		int dest = getId(destName);
+		if (from < 0 || dest < 0) {
+			return null;
+		}
+		QueryState state = new QueryState();
+		DistanceHeap unsettled = new DistanceHeap(16);
+		boolean overflow = false;
+		// the raw bits of 0.0 are 0
+		state.reach(from, 0L, -1);
+		unsettled.add(0, from);
+		while (! unsettled.isEmpty()) {
+			int node = unsettled.poll();
+			long nodeDistance = unsettled.lastKey();
+			if (nodeDistance > state.distance(node)) {
+				continue;
+			}
+			if (node == dest) {
+				break;
+			}
+			Adjacency adjacency = adjacency(node);
+			int local = node % partitionSize;
+			for(int e = adjacency.offsets[local]; e < adjacency.offsets[local + 1]; e++) {
+				int neighbor = adjacency.targets[e];
+				long calcweight = extend(adjacency, e, nodeDistance);
+				if (calcweight == Long.MAX_VALUE) {
+					overflow = true;
+					continue;
+				}
+				if (calcweight < state.distance(neighbor)) {
+					state.reach(neighbor, calcweight, node);
+					unsettled.add(calcweight, neighbor);
+				}
+			}
+		}
+		if (! state.reached(dest)) {
+			if (overflow) {
+				throw new ArithmeticException("path weight overflows long");
+			}
+			return null;
+		}
+
+		// the edge into each vertex is the one leaving its parent which gives its distance
+		LinkedList<Edge> edges = new LinkedList<>();
+		for(int node = dest, parent = state.parent(node); parent >= 0; node = parent, parent = state.parent(node)) {
+			Adjacency adjacency = adjacency(parent);
+			int local = parent % partitionSize;
+			int e = adjacency.offsets[local];
+			while (adjacency.targets[e] != node
+					|| extend(adjacency, e, state.distance(parent)) != state.distance(node)) {
+				e++;
+			}
+			String[] labels = (String[]) section(parent / partitionSize, LABELS);
+			edges.addFirst(edge(adjacency, labels, e, getName(parent)));
+		}
+		return Path.fromEdges(fromName, edges, weightType);
+	}
+
+	/**
+	 * toGraph - read the whole file into a Graph which can be changed
+	 *
+	 * @return the graph
+	 */
+	public Graph toGraph() {
+		Set<Edge> edges = new HashSet<>();
+		for(int id = 0; id < vertexCount; id++) {
+			edges.addAll(getEdges(getName(id)));
+		}
+		return new Graph(edges, biDirection);
+	}
+
+	/**
+	 * @return the number of sections in memory
+	 */
+	public int getCachedSections() {
+		synchronized(cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * @return the number of sections read from the file
+	 */
+	public long getSectionLoads() {
+		synchronized(cache) {
+			return sectionLoads;
+		}
+	}
+
+	/**
+	 * @return the number of section lookups found in memory
+	 */
+	public long getCacheHits() {
+		synchronized(cache) {
+			return cacheHits;
+		}
+	}
+
+	/**
+	 * @return the number of bytes of sections read from the file
+	 */
+	public long getBytesRead() {
+		synchronized(cache) {
+			return bytesRead;
+		}
+	}
+
+	/**
+	 * @return the number of partitions of the file
+	 */
+	public int getPartitionCount() {
+		return firstNames.length;
+	}
+
+	private void checkId(int id) {
+		if (id < 0 || id >= vertexCount) {
+			throw new IllegalArgumentException("no vertex with id " + id);
+		}
+	}
+
+	/**
+	 * close - close the file; the graph cannot read sections afterwards
+	 *
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+		synchronized(cache) {
+			cache.clear();
+		}
+	}
+}
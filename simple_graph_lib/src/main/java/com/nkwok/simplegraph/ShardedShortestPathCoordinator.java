@@ -0,0 +1,196 @@
+/**
+ * Name: ShardedShortestPathCoordinator
+ * Description: Answers findShortestPath over a PartitionedGraph.  Each round the shards holding frontier entries
+ * 				run a local Dijkstra's search in parallel and return the entries reaching other shards; the
+ * 				coordinator keeps the best entry per vertex and sends them to their owners as the next round's
+ * 				batches.  Entries not shorter than the best known distance to the destination are pruned, and the
+ * 				search ends when no shard has anything left to relax.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ShardedShortestPathCoordinator implements AutoCloseable {
+
+	private final PartitionedGraph graph;
+	private final Executor executor;
+	private final ExecutorService ownedExecutor;
+	private final AtomicLong queryIds = new AtomicLong();
+	private final AtomicLong rounds = new AtomicLong();
+	private final AtomicLong exchangedEntries = new AtomicLong();
+
+	/**
+	 * Constructor with the partitioned graph and the executor running the shard searches
+	 * 
+	 * @param graph - partitioned graph
+	 * @param executor - executor running the shard searches, not shut down by close()
+	 */
+	public ShardedShortestPathCoordinator(PartitionedGraph graph, Executor executor) {
+		if (graph == null || executor == null) {
+			throw new IllegalArgumentException("null graph or executor");
+		}
+		this.graph = graph;
+		this.executor = executor;
+		this.ownedExecutor = null;
+	}
+
+	/**
+	 * Constructor with the partitioned graph and one owned daemon worker thread per shard
+	 * 
+	 * @param graph - partitioned graph
+	 */
+	public ShardedShortestPathCoordinator(PartitionedGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		this.graph = graph;
+		this.ownedExecutor = Executors.newFixedThreadPool(graph.getShardCount(), r -> {
+			Thread thread = new Thread(r, "graph-shard-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor = ownedExecutor;
+	}
+
+	/**
+	 * findShortestPath - Find the shortest path across the shards
+	 * 
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return list of map of vertex and calculated weights if found; otherwise, it is null
+	 */
+	public LinkedList<Map<Vertex, Integer>> findShortestPath(String fromName, String destName) {
+		Path path = findPath(fromName, destName);
+		// Like ShortestPathGraph, the source itself is not reported as a path
+		return path == null || path.size() < 2 ? null : path.toList();
+	}
+
+	/**
+	 * findPath - Find the shortest path across the shards with the weights summed in the weight type of the graph
+	 * 
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return the path if found, a single vertex path if both are the same vertex; otherwise, it is null
+	 */
+	public Path findPath(String fromName, String destName) {
+		int fromShard = graph.getShardOf(fromName);
+		int destShard = graph.getShardOf(destName);
+		if (fromShard < 0 || destShard < 0) {
+			return null;
+		}
+
+		long queryId = queryIds.incrementAndGet();
+		try {
+			Map<Integer, List<FrontierEntry>> batches = new HashMap<>();
+			batches.put(fromShard, Collections.singletonList(new FrontierEntry(fromName, 0, null)));
+			long best = Long.MAX_VALUE;
+
+			while (! batches.isEmpty()) {
+				rounds.incrementAndGet();
+				final long bound = best;
+
+				List<CompletableFuture<List<FrontierEntry>>> replies = new ArrayList<>(batches.size());
+				for(Map.Entry<Integer, List<FrontierEntry>> batch: batches.entrySet()) {
+					GraphShard shard = graph.getShard(batch.getKey());
+					replies.add(CompletableFuture.supplyAsync(() -> shard.relax(queryId, batch.getValue(), bound), executor));
+				}
+
+				// keep the best entry per vertex over all replies
+				Map<String, FrontierEntry> frontier = new HashMap<>();
+				for(CompletableFuture<List<FrontierEntry>> reply: replies) {
+					for(FrontierEntry entry: reply.join()) {
+						FrontierEntry known = frontier.get(entry.getVertex());
+						if (known == null || entry.getDistance() < known.getDistance()) {
+							frontier.put(entry.getVertex(), entry);
+						}
+					}
+				}
+				exchangedEntries.addAndGet(frontier.size());
+
+				best = graph.getShard(destShard).distance(queryId, destName);
+				batches = new HashMap<>();
+				for(FrontierEntry entry: frontier.values()) {
+					if (entry.getDistance() < best) {
+						batches.computeIfAbsent(graph.getShardOf(entry.getVertex()), k -> new ArrayList<>()).add(entry);
+					}
+				}
+			}
+
+			if (best == Long.MAX_VALUE) {
+				return null;
+			}
+
+			// walk from destination back to source, asking the owner of each parent for the edge it was reached by
+			Edge.WeightType type = graph.getWeightType();
+			LinkedList<Edge> edges = new LinkedList<>();
+			String node = destName;
+			long distance = best;
+			String parent = graph.getShard(destShard).parent(queryId, node);
+			while (parent != null) {
+				GraphShard shard = graph.getShard(graph.getShardOf(parent));
+				long parentDistance = shard.distance(queryId, parent);
+				Edge used = null;
+				for(Edge edge: shard.getEdges(parent)) {
+					if (edge.getToVertex().equals(node)
+							&& LocalGraphShard.extend(type, parentDistance, edge) == distance) {
+						used = edge;
+						break;
+					}
+				}
+				if (used == null) {
+					throw new IllegalStateException("no edge from " + parent + " to " + node);
+				}
+				edges.addFirst(used);
+				node = parent;
+				distance = parentDistance;
+				parent = shard.parent(queryId, node);
+			}
+			return Path.fromEdges(fromName, edges, type);
+		} finally {
+			for(GraphShard shard: graph.getShards()) {
+				shard.release(queryId);
+			}
+		}
+	}
+
+	/**
+	 * @return the partitioned graph
+	 */
+	public PartitionedGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the number of frontier exchange rounds run by all queries
+	 */
+	public long getRounds() {
+		return rounds.get();
+	}
+
+	/**
+	 * @return the number of frontier entries exchanged between shards by all queries
+	 */
+	public long getExchangedEntries() {
+		return exchangedEntries.get();
+	}
+
+	/**
+	 * close - shut down the worker threads if they are owned by this instance
+	 */
+	@Override
+	public void close() {
+		if (ownedExecutor != null) {
+			ownedExecutor.shutdown();
+		}
+	}
+}
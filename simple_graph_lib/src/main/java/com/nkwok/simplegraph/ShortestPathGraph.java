@@ -8,19 +8,16 @@
 package com.nkwok.simplegraph;
 
 
+import java.io.File;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -40,7 +37,7 @@ public class ShortestPathGraph extends Graph{
 	}
 
 	/**
-	 * findShortestPath - Find the shortest path using Dijkstra's Algorithm
+	 * findPath - Find the shortest path using Dijkstra's Algorithm
 	 *  1. Assign node 0 for source and MAX to others and initially visited set to empty
 	 *  2. Add source to unvisited set
 	 *  3. while unvisited set is not empty
@@ -48,106 +45,491 @@ public class ShortestPathGraph extends Graph{
 	 *  5.     select the vertex of unsettled set with the minimum distance 
 	 *  6.     remove current vertex from unsettled set and add the current vertex into settled set
 	 *  7.     if new shortest path found, update the vertex distance
+	 *  The search runs on the indexed snapshot of the graph, so the graph is only locked to get the snapshot,
+	 *  and stops as soon as the destination is settled.  Vertices in strongly connected components which cannot
+	 *  reach the destination are never queued, see StrongComponents.between.  The search state is kept in the
+	 *  SearchWorkspace of the calling thread, so a query allocates no arrays the size of the graph and its cost
+	 *  follows the part of the graph it explores.  Each weight type of the snapshot has its own loop, so
+	 *  int weights are summed in longs without checks, long weights with overflow checks and double weights
+	 *  in doubles.
 	 *  
 	 * @param fromName - source node name
 	 * @param destName - destination node name
-	 * @return list of map of vertex and calculated weights if found; otherwise, it is null
+	 * @return the path if found; otherwise, it is null
+	 * @throws ArithmeticException - if the destination is only reached by paths whose weight overflows a long
 	 */
+	public Path findPath(String fromName, String destName) {
+		return findPath(fromName, destName, null, null);
+	}
 
-	public LinkedList<Map<Vertex, Integer>> findShortestPath(String fromName, String destName) {
-		
-		// it is used to hold the parent vertex (neighbor-node, parent)
-		Map<Vertex, Vertex> previous = new HashMap<>();
-		// it is used to hold the calculated distance from source to the node 
-		Map<Vertex, Integer> calcuatedWeight = new HashMap<>();
-		
-		Comparator<Vertex> cmp =
-			new Comparator<Vertex>() {
-				public int compare(Vertex v1, Vertex v2) {
-					int w1 = calcuatedWeight.get(v1) == null ? Integer.MAX_VALUE : calcuatedWeight.get(v1);
-					int w2 = calcuatedWeight.get(v2) == null ? Integer.MAX_VALUE : calcuatedWeight.get(v2);
-					return Integer.compare(w1,  w2);
+	/**
+	 * findPath - Find the shortest path within the limits of the options, see findPath.  Every vertex settled
+	 * 				counts against the budget; a search stopped by a limit has no path.
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @param options - limits of the search
+	 * @return the path if found, null if there is none or a limit was hit, with the status of the search
+	 * @throws ArithmeticException - if the destination is only reached by paths whose weight overflows a long
+	 */
+	public QueryResult<Path> findPath(String fromName, String destName, QueryOptions options) {
+		if (options == null) {
+			throw new IllegalArgumentException("null options");
+		}
+		QueryBudget budget = options.start();
+		return budget.result(findPath(fromName, destName, budget, null));
+	}
+
+	/**
+	 * findPath - Find the shortest path using only the vertices and edges of a subgraph view, see findPath.
+	 * 				The view is searched in place, without copying the graph.
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @param view - subgraph view of the current snapshot of the graph
+	 * @return the path if found; otherwise, it is null
+	 * @throws IllegalStateException - if the view was made for a different snapshot of the graph
+	 * @throws ArithmeticException - if the destination is only reached by paths whose weight overflows a long
+	 */
+	public Path findPath(String fromName, String destName, SubgraphView view) {
+		if (view == null) {
+			throw new IllegalArgumentException("null view");
+		}
+		return findPath(fromName, destName, null, view);
+	}
+
+	/**
+	 * findPath - Dijkstra's Algorithm with an optional budget and an optional subgraph view
+	 */
+	private Path findPath(String fromName, String destName, QueryBudget budget, SubgraphView view) {
+		IndexedGraph graph = getIndexedGraph();
+		if (view != null) {
+			view.checkGraph(graph);
+		}
+		int from = graph.getId(fromName);
+		int dest = graph.getId(destName);
+		if (from < 0 || dest < 0) {
+			return null;
+		}
+		if (view != null && (! view.includesVertex(from) || ! view.includesVertex(dest))) {
+			return null;
+		}
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(graph)) {
+			// only the strongly connected components between the two ends can be on the path
+			StrongComponents components = graph.getStrongComponents();
+			workspace.single[0] = dest;
+			if (! components.between(from, workspace.single, 1, workspace)) {
+				return null;
+			}
+			switch (graph.getWeightType()) {
+			case LONG:
+				return findLongPath(graph, from, dest, components, workspace, budget, view);
+			case DOUBLE:
+				return findDoublePath(graph, from, dest, components, workspace, budget, view);
+			default:
+				return findIntPath(graph, from, dest, components, workspace, budget, view);
+			}
+		}
+	}
+
+	/**
+	 * findIntPath - Dijkstra's Algorithm over int weights, summed in longs without checks
+	 */
+	private static Path findIntPath(IndexedGraph graph, int from, int dest, StrongComponents components,
+			SearchWorkspace workspace, QueryBudget budget, SubgraphView view) {
+		int[] allowed = workspace.allowed;
+		int allowedStamp = workspace.allowedStamp;
+		DistanceHeap unsettled = workspace.heap;
+
+		workspace.reach(from, 0L, -1);
+		unsettled.add(0, from);
+
+		while (! unsettled.isEmpty()) {
+			int node = unsettled.poll();
+			long nodeDistance = unsettled.lastKey();
+			if (nodeDistance > workspace.distance(node)) {
+				// already settled with a shorter distance
+				continue;
+			}
+			if (node == dest) {
+				break;
+			}
+			if (budget != null && ! budget.settle()) {
+				return null;
+			}
+			for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+				int neighbor = graph.target(slot);
+				if (allowed[components.getComponent(neighbor)] != allowedStamp
+						|| view != null && ! view.includesEdge(slot)) {
+					continue;
 				}
-			};
-		
-		// it is used to hold the settled vertices
-		Set<String> settledNodes = new HashSet<>();
-		// Make a PriorityQueue with 50 initial capacities - just a random one
-		Queue<Vertex> unsettledPQueue = new PriorityQueue<>(50, cmp);
-		
-		Vertex fromVertex = null;
-		Vertex destVertex = null;
-		
-		synchronized(this) {
-			fromVertex = getVertex(fromName);
-			destVertex = getVertex(destName);
-			
-			if (fromVertex == null || destVertex == null) {
+				long calcweight = nodeDistance + graph.weight(slot);
+				if (calcweight < workspace.distance(neighbor)) {
+					workspace.reach(neighbor, calcweight, node);
+					unsettled.add(calcweight, neighbor);
+				}
+			}
+		}
+
+		if (! workspace.reached(dest)) {
+			return null;
+		}
+		return Path.fromParents(graph, workspace.previous, workspace.distance, dest);
+	}
+
+	/**
+	 * findLongPath - Dijkstra's Algorithm over long weights.  The distances are kept below Long.MAX_VALUE, which
+	 * 					marks an unreached vertex; a relaxation which would overflow is dropped and only reported
+	 * 					if the destination is not reached otherwise.
+	 */
+	private static Path findLongPath(IndexedGraph graph, int from, int dest, StrongComponents components,
+			SearchWorkspace workspace, QueryBudget budget, SubgraphView view) {
+		int[] allowed = workspace.allowed;
+		int allowedStamp = workspace.allowedStamp;
+		DistanceHeap unsettled = workspace.heap;
+		boolean overflow = false;
+
+		workspace.reach(from, 0L, -1);
+		unsettled.add(0, from);
+
+		while (! unsettled.isEmpty()) {
+			int node = unsettled.poll();
+			long nodeDistance = unsettled.lastKey();
+			if (nodeDistance > workspace.distance(node)) {
+				continue;
+			}
+			if (node == dest) {
+				break;
+			}
+			if (budget != null && ! budget.settle()) {
+				return null;
+			}
+			for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+				int neighbor = graph.target(slot);
+				if (allowed[components.getComponent(neighbor)] != allowedStamp
+						|| view != null && ! view.includesEdge(slot)) {
+					continue;
+				}
+				long weight = graph.longWeight(slot);
+				if (weight >= Long.MAX_VALUE - nodeDistance) {
+					overflow = true;
+					continue;
+				}
+				long calcweight = nodeDistance + weight;
+				if (calcweight < workspace.distance(neighbor)) {
+					workspace.reach(neighbor, calcweight, node);
+					unsettled.add(calcweight, neighbor);
+				}
+			}
+		}
+
+		if (! workspace.reached(dest)) {
+			if (overflow) {
+				throw new ArithmeticException("path weight overflows long");
+			}
+			return null;
+		}
+		return Path.fromParents(graph, workspace.previous, workspace.distance, dest);
+	}
+
+	/**
+	 * findDoublePath - Dijkstra's Algorithm over double weights.  The weights are never negative, and the bits of
+	 * 					non-negative doubles sort in the same order as their values, so the heap keys are the
+	 * 					raw bits of the distances.
+	 */
+	private static Path findDoublePath(IndexedGraph graph, int from, int dest, StrongComponents components,
+			SearchWorkspace workspace, QueryBudget budget, SubgraphView view) {
+		int[] allowed = workspace.allowed;
+		int allowedStamp = workspace.allowedStamp;
+		DistanceHeap unsettled = workspace.heap;
+
+		workspace.reach(from, 0.0, -1);
+		unsettled.add(Double.doubleToRawLongBits(0.0), from);
+
+		while (! unsettled.isEmpty()) {
+			int node = unsettled.poll();
+			double nodeDistance = Double.longBitsToDouble(unsettled.lastKey());
+			if (nodeDistance > workspace.doubleDistance(node)) {
+				continue;
+			}
+			if (node == dest) {
+				break;
+			}
+			if (budget != null && ! budget.settle()) {
+				return null;
+			}
+			for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+				int neighbor = graph.target(slot);
+				if (allowed[components.getComponent(neighbor)] != allowedStamp
+						|| view != null && ! view.includesEdge(slot)) {
+					continue;
+				}
+				double calcweight = nodeDistance + graph.doubleWeight(slot);
+				if (calcweight < workspace.doubleDistance(neighbor)) {
+					workspace.reach(neighbor, calcweight, node);
+					unsettled.add(Double.doubleToRawLongBits(calcweight), neighbor);
+				}
+			}
+		}
+
+		if (! workspace.reached(dest)) {
+			return null;
+		}
+		return Path.fromParents(graph, workspace.previous, workspace.doubleDistance, dest);
+	}
+
+	/**
+	 * findPath - Find the shortest path using A* search with the landmark lower bounds as the heuristic (ALT).
+	 * 				The bounds are consistent, so the path found is the same as with Dijkstra's Algorithm, but
+	 * 				far fewer vertices are settled on the way.  The search keeps the distance keys of
+	 * 				IndexedGraph.extend, so it serves every weight type; with double weights the bounds, and so
+	 * 				the path weight, are only as exact as the double sums they come from.
+	 *  
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @param landmarks - landmark index built for the current state of the graph
+	 * @return the path if found; otherwise, it is null
+	 * @throws IllegalStateException - if the landmark index was built for a different graph
+	 * @throws ArithmeticException - if the destination is only reached by paths whose weight overflows a long
+	 */
+	public Path findPath(String fromName, String destName, LandmarkIndex landmarks) {
+		if (landmarks == null) {
+			return findPath(fromName, destName);
+		}
+		IndexedGraph graph = getIndexedGraph();
+		if (! landmarks.isValidFor(graph)) {
+			throw new IllegalStateException("landmark index was built for a different graph");
+		}
+		int from = graph.getId(fromName);
+		int dest = graph.getId(destName);
+		if (from < 0 || dest < 0) {
+			return null;
+		}
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(graph)) {
+			StrongComponents components = graph.getStrongComponents();
+			workspace.single[0] = dest;
+			if (! components.between(from, workspace.single, 1, workspace)) {
 				return null;
 			}
-			
-			// Start with the source node with 0 weight
-			unsettledPQueue.add(fromVertex);
-			calcuatedWeight.put(fromVertex, 0);
-			
-			// Loop until unsettled queue is done
-			// unsettled queue will be added while walking the neighbors from the current node
-			// if it is not yet settled
-			while (! unsettledPQueue.isEmpty()) {
-				
-				// The first one in queue should be the smallest
-				Vertex node = unsettledPQueue.poll();
-				
-				settledNodes.add(node.getName());
-
-				// Find all unsettled neighbors, update the weight and put found neighbors into unsettled queue
-				getAdjacencyListWithWeight(node.getName())
-				.forEach(k -> {
-					k.forEach((u, v) -> {
-						if (! settledNodes.contains(u.getName())) {
-							int targetweight =
-									(calcuatedWeight.get(u) == null) ? Integer.MAX_VALUE : calcuatedWeight.get(u);
-
-							int calcweight = calcuatedWeight.get(node) + v;
-							if (targetweight > calcweight) {
-								calcuatedWeight.put(u, calcweight);
-								previous.put(u, node);
-								unsettledPQueue.add(u);
-							}
+			long fromEstimate = landmarks.lowerBoundKey(from, dest);
+			if (fromEstimate == LandmarkIndex.UNREACHABLE) {
+				return null;
+			}
+
+			int[] allowed = workspace.allowed;
+			int allowedStamp = workspace.allowedStamp;
+			int generation = workspace.generation();
+			// it is used to hold the lower bound to the destination, computed where mark equals generation
+			int[] mark = workspace.mark;
+			long[] estimate = workspace.estimate;
+			DistanceHeap unsettled = workspace.heap;
+			Edge.WeightType weightType = graph.getWeightType();
+			boolean overflow = false;
+
+			// the raw bits of 0.0 are 0
+			workspace.reach(from, 0L, -1);
+			mark[from] = generation;
+			estimate[from] = fromEstimate;
+			unsettled.add(fromEstimate, from);
+
+			while (! unsettled.isEmpty()) {
+				int node = unsettled.poll();
+				if (unsettled.lastKey() > IndexedGraph.sumKeys(weightType, workspace.distance(node), estimate[node])) {
+					continue;
+				}
+				if (node == dest) {
+					break;
+				}
+				long nodeDistance = workspace.distance(node);
+				for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+					int neighbor = graph.target(slot);
+					if (allowed[components.getComponent(neighbor)] != allowedStamp) {
+						continue;
+					}
+					long calcweight = graph.extend(nodeDistance, slot);
+					if (calcweight == Long.MAX_VALUE) {
+						overflow = true;
+						continue;
+					}
+					if (calcweight < workspace.distance(neighbor)) {
+						if (mark[neighbor] != generation) {
+							mark[neighbor] = generation;
+							estimate[neighbor] = landmarks.lowerBoundKey(neighbor, dest);
+						}
+						if (estimate[neighbor] == LandmarkIndex.UNREACHABLE) {
+							continue;
 						}
-					});
-				});
+						workspace.reach(neighbor, calcweight, node);
+						unsettled.add(IndexedGraph.sumKeys(weightType, calcweight, estimate[neighbor]), neighbor);
+					}
+				}
 			}
+
+			if (! workspace.reached(dest)) {
+				if (overflow) {
+					throw new ArithmeticException("path weight overflows long");
+				}
+				return null;
+			}
+			return Path.fromKeys(graph, workspace.previous, workspace.distance, dest);
 		}
-		
-		
-		// Build result into a LinkedList with Vertex and calculated weight
-		LinkedList<Map<Vertex, Integer>> shortestPath = new LinkedList<>();
-		final Vertex destNode = destVertex;
-		Vertex destination = destNode;
+	}
+
+	/**
+	 * findKShortestPaths - Find up to k shortest loopless paths using Yen's Algorithm, see KShortestPaths.
+	 * 						Unlike showConnectivity it does not enumerate every path; it runs about one guided
+	 * 						search per spur node of each path found.
+	 * 
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @param k - number of paths wanted
+	 * @return paths in increasing weight order; empty if the destination cannot be reached
+	 */
+	public List<Path> findKShortestPaths(String fromName, String destName, int k) {
+		if (k <= 0) {
+			throw new IllegalArgumentException("k must be positive: " + k);
+		}
+		IndexedGraph graph = getIndexedGraph();
+		int from = graph.getId(fromName);
+		int dest = graph.getId(destName);
+		if (from < 0 || dest < 0 || ! graph.getStrongComponents().canReach(from, dest)) {
+			return new ArrayList<>();
+		}
+		return new KShortestPaths(graph, from, dest).find(k);
+	}
+
+	/**
+	 * findShortestPaths - Find the shortest path to each of a set of target nodes with one search, which stops
+	 * 						once every target that can be reached is settled, see MultiTargetSearch.
+	 * 
+	 * @param fromName - source node name
+	 * @param targetNames - target node names; names not in the graph are ignored
+	 * @return map of target node name and path, nearest target first; targets which cannot be reached are left
+	 * 			out, and the map is empty if the source node is not in the graph
+	 * @throws ArithmeticException - if a target is only reached by paths whose weight overflows a long
+	 */
+	public Map<String, Path> findShortestPaths(String fromName, Set<String> targetNames) {
+		if (targetNames == null) {
+			throw new IllegalArgumentException("null targets");
+		}
+		Map<String, Path> result = new LinkedHashMap<>();
+		for(Path path: findNearest(fromName, targetNames, targetNames.size())) {
+			result.put(path.getDestination(), path);
+		}
+		return result;
+	}
+
+	/**
+	 * findNearest - Find the shortest paths to the k nearest of a set of target nodes with one search, which
+	 * 				stops once k targets are settled, see MultiTargetSearch.
+	 * 
+	 * @param fromName - source node name
+	 * @param targetNames - target node names; names not in the graph are ignored
+	 * @param k - number of targets wanted
+	 * @return up to k paths in increasing weight order, fewer if fewer targets can be reached; empty if the
+	 * 			source node is not in the graph
+	 * @throws ArithmeticException - if fewer than k targets are found and a path weight overflowed a long
+	 */
+	public List<Path> findNearest(String fromName, Set<String> targetNames, int k) {
+		if (targetNames == null) {
+			throw new IllegalArgumentException("null targets");
+		}
+		if (k < 0) {
+			throw new IllegalArgumentException("k must not be negative: " + k);
+		}
+		IndexedGraph graph = getIndexedGraph();
+		int from = graph.getId(fromName);
+		if (from < 0) {
+			return new ArrayList<>();
+		}
+		int[] targets = targetNames.stream()
+				.mapToInt(graph::getId)
+				.filter(id -> id >= 0)
+				.toArray();
+		return MultiTargetSearch.search(graph, from, targets, Math.min(k, targets.length));
+	}
 
-		// Check if the destination path has reached
-		if (previous.get(destNode) == null) {
+	/**
+	 * findAllPaths - Find the shortest paths from the source node to every node within a fixed memory budget;
+	 * 				the priority queue spills to disk and the distances are memory mapped files, see
+	 * 				ExternalShortestPaths.  The caller must close the result to delete its files.
+	 *
+	 * @param fromName - source node name
+	 * @param spillDirectory - directory of the spill files
+	 * @param memoryBudget - bytes of priority queue entries kept in memory
+	 * @return the search results; null if the source node is not in the graph
+	 * @throws IOException - if a spill file cannot be written or read
+	 */
+	public ExternalShortestPaths findAllPaths(String fromName, File spillDirectory, long memoryBudget)
+			throws IOException {
+		IndexedGraph graph = getIndexedGraph();
+		int from = graph.getId(fromName);
+		if (from < 0) {
 			return null;
 		}
+		ExternalShortestPaths paths = new ExternalShortestPaths(graph, spillDirectory, memoryBudget);
+		try {
+			paths.search(from);
+		} catch (IOException | RuntimeException e) {
+			paths.close();
+			throw e;
+		}
+		return paths;
+	}
 
-		// build the path list from destination to source
-		// first add the destination node
-		shortestPath.add(new HashMap<Vertex, Integer>() {
-			{ put(destNode, calcuatedWeight.get(destNode)); }
-		});
-		// then loop thru the previous nodes until it reached the top
-		while (previous.get(destination) != null) {
-			destination = previous.get(destination);
-			final Vertex fromNode = destination;
-			shortestPath.add(new HashMap<Vertex, Integer>() {
-				{	put(fromNode, calcuatedWeight.get(fromNode)); }
-			});
+	/**
+	 * findShortestPath - Find the shortest path, see findPath.  This is the original result type which is kept
+	 * 						for existing callers; new code should use findPath.
+	 *  
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return list of map of vertex and calculated weights if found; otherwise, it is null
+	 * @throws ArithmeticException - if a weight on the path does not fit an int
+	 */
+	public LinkedList<Map<Vertex, Integer>> findShortestPath(String fromName, String destName) {
+		Path path = findPath(fromName, destName);
+		// the source on its own is not reported as a path
+		if (path == null || path.size() < 2) {
+			return null;
 		}
-		
-		// Order the path from source to destination
-		Collections.reverse(shortestPath);
-		return shortestPath;
+		return path.toList();
+	}
+
+	/**
+	 * findShortestPath - Find the shortest path within the limits of the options, see findPath
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @param options - limits of the search
+	 * @return list of map of vertex and calculated weights if found, null if there is none or a limit was hit,
+	 * 			with the status of the search
+	 * @throws ArithmeticException - if a weight on the path does not fit an int
+	 */
+	public QueryResult<LinkedList<Map<Vertex, Integer>>> findShortestPath(String fromName, String destName,
+			QueryOptions options) {
+		if (options == null) {
+			throw new IllegalArgumentException("null options");
+		}
+		QueryBudget budget = options.start();
+		Path path = findPath(fromName, destName, budget, null);
+		return budget.result(path == null || path.size() < 2 ? null : path.toList());
+	}
+
+	/**
+	 * findShortestPath - Find the shortest path using only the vertices and edges of a subgraph view, see
+	 * 						findPath
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @param view - subgraph view of the current snapshot of the graph
+	 * @return list of map of vertex and calculated weights if found; otherwise, it is null
+	 * @throws IllegalStateException - if the view was made for a different snapshot of the graph
+	 * @throws ArithmeticException - if a weight on the path does not fit an int
+	 */
+	public LinkedList<Map<Vertex, Integer>> findShortestPath(String fromName, String destName,
+			SubgraphView view) {
+		Path path = findPath(fromName, destName, view);
+		return path == null || path.size() < 2 ? null : path.toList();
 	}
 	
 	/**
@@ -162,12 +544,26 @@ public class ShortestPathGraph extends Graph{
 			return "";
 		}
 
-        return foundPath.stream()
-            	.flatMap(x -> x.entrySet().stream())
-            	.collect(Collectors.toMap(p -> p.getKey(), p -> p.getValue(), (e1, e2) -> e1, LinkedHashMap::new))
-            	.entrySet().stream()
-            	.map(p -> p.getKey().getName() + " (" + p.getValue() + ")")
-            	.collect(Collectors.joining(" -> "));
+		StringBuilder builder = new StringBuilder(foundPath.size() * 16);
+		for(Map<Vertex, Integer> hop: foundPath) {
+			for(Map.Entry<Vertex, Integer> entry: hop.entrySet()) {
+				if (builder.length() > 0) {
+					builder.append(" -> ");
+				}
+				builder.append(entry.getKey().getName()).append(" (").append(entry.getValue()).append(')');
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * pathToString - Convert a path to printable string
+	 * 
+	 * @param foundPath - path found by findPath
+	 * @return String with format node-name1 (weight1) -> node-name2 (weight2) ...
+	 */
+	public String pathToString(Path foundPath) {
+		return foundPath == null ? "" : foundPath.toString();
 	}
 	
 	/**
@@ -200,15 +596,9 @@ public class ShortestPathGraph extends Graph{
 		ShortestPathGraph sp = new ShortestPathGraph(edges);
         
 		Instant startTime = Instant.now();
-		LinkedList<Map<Vertex, Integer>> foundPath = sp.findShortestPath("Node_0", "Node_10");
-		String result = sp.pathToString(foundPath);
+		Path foundPath = sp.findPath("Node_0", "Node_10");
 		if (foundPath != null) {
-	        result = foundPath.stream()
-	            	.flatMap(x -> x.entrySet().stream())
-	            	.collect(Collectors.toMap(p -> p.getKey(), p -> p.getValue(), (e1, e2) -> e1, LinkedHashMap::new))
-	            	.entrySet().stream()
-	            	.map(p -> p.getKey().getName() + " (" + p.getValue() + ")")
-	            	.collect(Collectors.joining(" -> "));
+	        String result = sp.pathToString(foundPath);
 	        
 	        System.out.println("Shortest Path found in " + ChronoUnit.MILLIS.between(startTime, Instant.now()) + " ms");
 	        System.out.println(result);
@@ -0,0 +1,399 @@
+/**
+ * Name: StrongComponents
+ * Description: Strongly connected components of an IndexedGraph and their condensation DAG.  The components are
+ * 				found with Tarjan's algorithm run on an explicit stack, so long chains do not overflow the call
+ * 				stack.  Tarjan completes a component only after every component it reaches, so the component
+ * 				ids are a reverse topological order: every DAG edge goes from a higher id to a lower id.
+ * 				The level of a component is the longest DAG path to it from a component without incoming
+ * 				edges; a component can only reach components of a higher level.  between uses the levels to
+ * 				find the components lying on some path between two vertices, which the searches use to skip
+ * 				the rest of the graph.  When every destination is in the component of the source that is the
+ * 				component itself; otherwise the DAG search for a search is bounded, and a search whose pruning
+ * 				would cost more runs unpruned.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.Arrays;
+
+public final class StrongComponents {
+
+	/**
+	 * Most DAG edges the pruning of a search scans before giving up and letting the search enter every component
+	 */
+	static final int PRUNE_BUDGET = 1 << 12;
+
+	private static final int NO_PATH = 0;
+	private static final int PRUNED = 1;
+	private static final int UNPRUNED = 2;
+
+	private final int[] component;
+	private final int count;
+	// members of the components in compressed sparse row layout
+	private final int[] memberOffsets;
+	private final int[] members;
+	// condensation DAG, both directions, without duplicate edges
+	private final int[] dagOffsets;
+	private final int[] dagTargets;
+	private final int[] dagInOffsets;
+	private final int[] dagSources;
+	private final int[] level;
+	private final int levelCount;
+	// all zero, the allowed components of an unpruned search
+	private final int[] unpruned;
+
+	/**
+	 * Constructor with a compiled graph
+	 *
+	 * @param graph
+	 */
+	StrongComponents(IndexedGraph graph) {
+		int n = graph.getNumbersOfVertices();
+		component = new int[n];
+		count = tarjan(graph, component);
+
+		memberOffsets = new int[count + 1];
+		for(int node = 0; node < n; node++) {
+			memberOffsets[component[node] + 1]++;
+		}
+		for(int c = 0; c < count; c++) {
+			memberOffsets[c + 1] += memberOffsets[c];
+		}
+		members = new int[n];
+		int[] fill = Arrays.copyOf(memberOffsets, count);
+		for(int node = 0; node < n; node++) {
+			members[fill[component[node]]++] = node;
+		}
+
+		// successors of every component, a marker per component drops the duplicate edges
+		dagOffsets = new int[count + 1];
+		int[] targets = new int[Math.max(16, count)];
+		int size = 0;
+		int[] seen = new int[count];
+		Arrays.fill(seen, -1);
+		for(int c = 0; c < count; c++) {
+			dagOffsets[c] = size;
+			for(int pos = memberOffsets[c]; pos < memberOffsets[c + 1]; pos++) {
+				int node = members[pos];
+				for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+					int other = component[graph.target(slot)];
+					if (other != c && seen[other] != c) {
+						seen[other] = c;
+						if (size == targets.length) {
+							targets = Arrays.copyOf(targets, size * 2);
+						}
+						targets[size++] = other;
+					}
+				}
+			}
+		}
+		dagOffsets[count] = size;
+		dagTargets = Arrays.copyOf(targets, size);
+
+		dagInOffsets = new int[count + 1];
+		for(int pos = 0; pos < size; pos++) {
+			dagInOffsets[dagTargets[pos] + 1]++;
+		}
+		for(int c = 0; c < count; c++) {
+			dagInOffsets[c + 1] += dagInOffsets[c];
+		}
+		dagSources = new int[size];
+		fill = Arrays.copyOf(dagInOffsets, count);
+		for(int c = 0; c < count; c++) {
+			for(int pos = dagOffsets[c]; pos < dagOffsets[c + 1]; pos++) {
+				dagSources[fill[dagTargets[pos]]++] = c;
+			}
+		}
+
+		// highest id first is a topological order
+		level = new int[count];
+		int maxLevel = -1;
+		for(int c = count - 1; c >= 0; c--) {
+			maxLevel = Math.max(maxLevel, level[c]);
+			for(int pos = dagOffsets[c]; pos < dagOffsets[c + 1]; pos++) {
+				int next = dagTargets[pos];
+				level[next] = Math.max(level[next], level[c] + 1);
+			}
+		}
+		levelCount = maxLevel + 1;
+		unpruned = new int[count];
+	}
+
+	/**
+	 * tarjan - Tarjan's algorithm with the depth first search on an explicit stack
+	 *
+	 * @param graph
+	 * @param component - filled with the component id of every vertex
+	 * @return the number of components
+	 */
+	private static int tarjan(IndexedGraph graph, int[] component) {
+		int n = graph.getNumbersOfVertices();
+		int[] index = new int[n];
+		int[] low = new int[n];
+		// it is used to hold the next outgoing edge slot to visit of every vertex on the search stack
+		int[] cursor = new int[n];
+		int[] callStack = new int[n];
+		int[] componentStack = new int[n];
+		Arrays.fill(index, -1);
+		Arrays.fill(component, -1);
+		int counter = 0;
+		int count = 0;
+
+		for(int root = 0; root < n; root++) {
+			if (index[root] >= 0) {
+				continue;
+			}
+			int depth = 0;
+			int top = 0;
+			index[root] = low[root] = counter++;
+			cursor[root] = graph.firstEdge(root);
+			callStack[depth++] = root;
+			componentStack[top++] = root;
+
+			while (depth > 0) {
+				int node = callStack[depth - 1];
+				if (cursor[node] < graph.endEdge(node)) {
+					int next = graph.target(cursor[node]++);
+					if (index[next] < 0) {
+						index[next] = low[next] = counter++;
+						cursor[next] = graph.firstEdge(next);
+						callStack[depth++] = next;
+						componentStack[top++] = next;
+					} else if (component[next] < 0) {
+						// still on the component stack
+						low[node] = Math.min(low[node], index[next]);
+					}
+					continue;
+				}
+				depth--;
+				if (low[node] == index[node]) {
+					int member;
+					do {
+						member = componentStack[--top];
+						component[member] = count;
+					} while (member != node);
+					count++;
+				}
+				if (depth > 0) {
+					int parent = callStack[depth - 1];
+					low[parent] = Math.min(low[parent], low[node]);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of components
+	 */
+	public int getComponentCount() {
+		return count;
+	}
+
+	/**
+	 * @param id - vertex id
+	 * @return the component id of the vertex
+	 */
+	public int getComponent(int id) {
+		return component[id];
+	}
+
+	/**
+	 * @param component - component id
+	 * @return the number of vertices of the component
+	 */
+	public int getComponentSize(int component) {
+		return memberOffsets[component + 1] - memberOffsets[component];
+	}
+
+	/**
+	 * @param component - component id
+	 * @return the vertex ids of the component in increasing order
+	 */
+	public int[] getMembers(int component) {
+		return Arrays.copyOfRange(members, memberOffsets[component], memberOffsets[component + 1]);
+	}
+
+	/**
+	 * firstSuccessor - the first DAG position of a component; the positions run up to but excluding endSuccessor
+	 *
+	 * @param component - component id
+	 * @return DAG position
+	 */
+	public int firstSuccessor(int component) {
+		return dagOffsets[component];
+	}
+
+	/**
+	 * endSuccessor - one past the last DAG position of a component
+	 *
+	 * @param component - component id
+	 * @return DAG position
+	 */
+	public int endSuccessor(int component) {
+		return dagOffsets[component + 1];
+	}
+
+	/**
+	 * @param position - DAG position
+	 * @return the component id the DAG edge goes to
+	 */
+	public int successor(int position) {
+		return dagTargets[position];
+	}
+
+	/**
+	 * @return the number of DAG edges
+	 */
+	public int getNumbersOfDagEdges() {
+		return dagTargets.length;
+	}
+
+	/**
+	 * @param component - component id
+	 * @return the topological level of the component, 0 if no other component reaches it
+	 */
+	public int getLevel(int component) {
+		return level[component];
+	}
+
+	/**
+	 * @return the number of topological levels
+	 */
+	public int getLevelCount() {
+		return levelCount;
+	}
+
+	/**
+	 * between - find the components lying on some path from a vertex to any of the destination vertices.  It
+	 * 			searches the DAG backwards from the destinations, only entering components of a higher level
+	 * 			than the component of the source, then forwards from the source through the components found.
+	 *
+	 * @param from - source vertex id
+	 * @param dests - destination vertex ids
+	 * @return flags by component id, true for the components on some path; null if no destination can be reached
+	 */
+	public boolean[] between(int from, int... dests) {
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(0)) {
+			if (mark(from, dests, dests.length, workspace, Integer.MAX_VALUE) == NO_PATH) {
+				return null;
+			}
+			boolean[] keep = new boolean[count];
+			for(int c = 0; c < count; c++) {
+				keep[c] = workspace.allowed[c] == workspace.allowedStamp;
+			}
+			return keep;
+		}
+	}
+
+	/**
+	 * between - the same as between for a search, with the components it may enter stamped in the allowed array
+	 * 			of its workspace instead of allocating flags.  The DAG search is bounded by PRUNE_BUDGET; past it
+	 * 			every component is allowed.
+	 *
+	 * @param from - source vertex id
+	 * @param dests - destination vertex ids
+	 * @param destCount - number of destinations used from the array
+	 * @param workspace - workspace of the search
+	 * @return false if no destination can be reached
+	 */
+	boolean between(int from, int[] dests, int destCount, SearchWorkspace workspace) {
+		return mark(from, dests, destCount, workspace, PRUNE_BUDGET) != NO_PATH;
+	}
+
+	/**
+	 * mark - stamp the components reaching a destination in the backward array of the workspace, then those of
+	 * 			them reached from the source in its forward array, which becomes the allowed array
+	 *
+	 * @return NO_PATH, PRUNED, or UNPRUNED if the backward search scanned more DAG edges than the budget
+	 */
+	private int mark(int from, int[] dests, int destCount, SearchWorkspace workspace, int budget) {
+		workspace.components(count);
+		int stamp = workspace.generation();
+		int[] backward = workspace.backward;
+		int[] forward = workspace.forward;
+		int[] queue = workspace.componentQueue;
+		workspace.allowed = forward;
+		workspace.allowedStamp = stamp;
+
+		// a path between two vertices of one component cannot leave it, as it could not come back
+		int start = component[from];
+		boolean local = destCount > 0;
+		for(int i = 0; local && i < destCount; i++) {
+			local = component[dests[i]] == start;
+		}
+		if (local) {
+			forward[start] = stamp;
+			return PRUNED;
+		}
+
+		// the source reaches only components of a lower id and a higher level than its own
+		int minLevel = level[start];
+		int size = 0;
+		for(int i = 0; i < destCount; i++) {
+			int c = component[dests[i]];
+			if (backward[c] != stamp && (c == start || c < start && level[c] > minLevel)) {
+				backward[c] = stamp;
+				queue[size++] = c;
+			}
+		}
+		int work = 0;
+		for(int head = 0; head < size; head++) {
+			int c = queue[head];
+			work += dagInOffsets[c + 1] - dagInOffsets[c];
+			if (work > budget) {
+				workspace.allowed = unpruned;
+				workspace.allowedStamp = 0;
+				return UNPRUNED;
+			}
+			for(int pos = dagInOffsets[c]; pos < dagInOffsets[c + 1]; pos++) {
+				int previous = dagSources[pos];
+				if (backward[previous] != stamp
+						&& (previous == start || previous < start && level[previous] > minLevel)) {
+					backward[previous] = stamp;
+					queue[size++] = previous;
+				}
+			}
+		}
+		if (backward[start] != stamp) {
+			return NO_PATH;
+		}
+
+		// forwards from the source through the components found, to drop those the source does not reach
+		forward[start] = stamp;
+		queue[0] = start;
+		size = 1;
+		for(int head = 0; head < size; head++) {
+			int c = queue[head];
+			for(int pos = dagOffsets[c]; pos < dagOffsets[c + 1]; pos++) {
+				int next = dagTargets[pos];
+				if (backward[next] == stamp && forward[next] != stamp) {
+					forward[next] = stamp;
+					queue[size++] = next;
+				}
+			}
+		}
+		return PRUNED;
+	}
+
+	/**
+	 * canReach - return true if there is a path from a vertex to another
+	 *
+	 * @param from - source vertex id
+	 * @param dest - destination vertex id
+	 * @return true if the destination can be reached
+	 */
+	public boolean canReach(int from, int dest) {
+		int start = component[from];
+		int end = component[dest];
+		if (start == end) {
+			return true;
+		}
+		if (level[start] >= level[end] || start < end) {
+			return false;
+		}
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(0)) {
+			workspace.single[0] = dest;
+			return mark(from, workspace.single, 1, workspace, Integer.MAX_VALUE) != NO_PATH;
+		}
+	}
+}
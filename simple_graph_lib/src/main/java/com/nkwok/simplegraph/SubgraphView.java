@@ -0,0 +1,260 @@
+/**
+ * Name: SubgraphView
+ * Description: Subgraph of an IndexedGraph snapshot given by a bit per vertex and, once an edge is removed, a bit
+ * 				per edge slot, so a constrained search needs no copy of the graph: the searches skip the edges
+ * 				whose bit or target vertex bit is clear.  A view with every edge kept takes V / 64 longs, one
+ * 				with removed edges (V + E) / 64.  Vertices and edges are removed by name or by a filter run once
+ * 				over the snapshot, such as EdgeFilter.weightBelow.
+ *
+ * 				A view is made for one snapshot; a search given the view of another snapshot fails.  The remove
+ * 				and filter methods change the view, so a view should not be changed while it is searched.
+ */
+package com.nkwok.simplegraph;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+public final class SubgraphView {
+
+	/**
+	 * Test of an edge slot of the snapshot
+	 */
+	public interface EdgeFilter {
+		/**
+		 * test - return true to keep an edge
+		 *
+		 * @param graph - snapshot of the view
+		 * @param fromId - vertex id the edge leaves from
+		 * @param slot - edge slot
+		 * @return true to keep the edge
+		 */
+		boolean test(IndexedGraph graph, int fromId, int slot);
+
+		/**
+		 * weightBelow - filter keeping the edges lighter than a weight
+		 *
+		 * @param weight
+		 * @return the filter
+		 */
+		static EdgeFilter weightBelow(double weight) {
+			return (graph, fromId, slot) -> graph.doubleWeight(slot) < weight;
+		}
+	}
+
+	private final IndexedGraph graph;
+	private final long[] vertices;
+	// null while every edge is kept
+	private long[] edges;
+
+	/**
+	 * Constructor with a compiled graph, every vertex and edge kept
+	 *
+	 * @param graph
+	 */
+	public SubgraphView(IndexedGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		this.graph = graph;
+		this.vertices = allSet(graph.getNumbersOfVertices());
+	}
+
+	/**
+	 * Constructor with a graph, viewing its current snapshot with every vertex and edge kept
+	 *
+	 * @param graph
+	 */
+	public SubgraphView(Graph graph) {
+		this(graph == null ? null : graph.getIndexedGraph());
+	}
+
+	private static long[] allSet(int bits) {
+		long[] words = new long[(bits + 63) >>> 6];
+		Arrays.fill(words, -1L);
+		if ((bits & 63) != 0) {
+			words[words.length - 1] = (1L << bits) - 1;
+		}
+		return words;
+	}
+
+	/**
+	 * @return the snapshot of the view
+	 */
+	public IndexedGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * removeVertex - drop a vertex and so every edge to or from it
+	 *
+	 * @param name - vertex name, ignored if not in the snapshot
+	 * @return this
+	 */
+	public SubgraphView removeVertex(String name) {
+		int id = graph.getId(name);
+		if (id >= 0) {
+			vertices[id >>> 6] &= ~(1L << id);
+		}
+		return this;
+	}
+
+	/**
+	 * filterVertices - drop the vertices failing a test
+	 *
+	 * @param keep - test of the vertex ids to keep
+	 * @return this
+	 */
+	public SubgraphView filterVertices(IntPredicate keep) {
+		for(int id = 0; id < graph.getNumbersOfVertices(); id++) {
+			if (! keep.test(id)) {
+				vertices[id >>> 6] &= ~(1L << id);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * removeEdge - drop the edges of the snapshot with the name and end vertices of an edge
+	 *
+	 * @param edge - edge to drop, ignored if not in the snapshot
+	 * @return this
+	 */
+	public SubgraphView removeEdge(Edge edge) {
+		int from = graph.getId(edge.getFromVertex());
+		int to = graph.getId(edge.getToVertex());
+		if (from < 0 || to < 0) {
+			return this;
+		}
+		return filterEdges(from, (g, fromId, slot) -> g.target(slot) != to
+				|| ! g.edgeName(slot).equals(edge.getName()));
+	}
+
+	/**
+	 * filterEdges - drop the edges failing a filter
+	 *
+	 * @param keep - filter of the edges to keep
+	 * @return this
+	 */
+	public SubgraphView filterEdges(EdgeFilter keep) {
+		for(int id = 0; id < graph.getNumbersOfVertices(); id++) {
+			filterEdges(id, keep);
+		}
+		return this;
+	}
+
+	private SubgraphView filterEdges(int from, EdgeFilter keep) {
+		for(int slot = graph.firstEdge(from), end = graph.endEdge(from); slot < end; slot++) {
+			if (! keep.test(graph, from, slot)) {
+				if (edges == null) {
+					edges = allSet(graph.getNumbersOfEdges());
+				}
+				edges[slot >>> 6] &= ~(1L << slot);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * @param id - vertex id
+	 * @return true if the vertex is in the view
+	 */
+	public boolean includesVertex(int id) {
+		return (vertices[id >>> 6] & 1L << id) != 0;
+	}
+
+	/**
+	 * @param slot - edge slot
+	 * @return true if the edge and its target vertex are in the view; the source vertex is not checked
+	 */
+	public boolean includesEdge(int slot) {
+		return (edges == null || (edges[slot >>> 6] & 1L << slot) != 0) && includesVertex(graph.target(slot));
+	}
+
+	/**
+	 * @return the number of vertices in the view
+	 */
+	public int getNumbersOfVertices() {
+		int count = 0;
+		for(long word: vertices) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of edges in the view, both of their vertices included
+	 */
+	public int getNumbersOfEdges() {
+		int count = 0;
+		for(int id = 0; id < graph.getNumbersOfVertices(); id++) {
+			if (includesVertex(id)) {
+				for(int slot = graph.firstEdge(id), end = graph.endEdge(id); slot < end; slot++) {
+					if (includesEdge(slot)) {
+						count++;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * checkGraph - fail a search of a different snapshot
+	 *
+	 * @param searched - snapshot searched
+	 * @throws IllegalStateException - if the view was made for another snapshot
+	 */
+	void checkGraph(IndexedGraph searched) {
+		if (searched != graph) {
+			throw new IllegalStateException("subgraph view was made for a different snapshot of the graph");
+		}
+	}
+
+	/**
+	 * getHopDistance - return the minimum number of edges of the view from the source node to the destination
+	 * 					node
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return number of edges; -1 if either node is not in the view or the destination cannot be reached
+	 */
+	public int getHopDistance(String fromName, String destName) {
+		int from = graph.getId(fromName);
+		int dest = graph.getId(destName);
+		if (from < 0 || dest < 0 || ! includesVertex(from) || ! includesVertex(dest)
+				|| ! graph.getStrongComponents().canReach(from, dest)) {
+			return BreadthFirstSearch.UNREACHED;
+		}
+		// the levels are kept in the workspace of the calling thread, so a query allocates no arrays
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(graph)) {
+			int[] queue = workspace.queue;
+			int head = 0;
+			int tail = 0;
+			workspace.reach(from, 0L, -1);
+			queue[tail++] = from;
+			while (head < tail && ! workspace.reached(dest)) {
+				int node = queue[head++];
+				long hops = workspace.distance(node) + 1;
+				for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+					int neighbor = graph.target(slot);
+					if (! workspace.reached(neighbor) && includesEdge(slot)) {
+						workspace.reach(neighbor, hops, -1);
+						queue[tail++] = neighbor;
+					}
+				}
+			}
+			return workspace.reached(dest) ? (int) workspace.distance(dest) : BreadthFirstSearch.UNREACHED;
+		}
+	}
+
+	/**
+	 * isReachable - return true if there is a path of the view from the source node to the destination node
+	 *
+	 * @param fromName - source node name
+	 * @param destName - destination node name
+	 * @return true if reachable
+	 */
+	public boolean isReachable(String fromName, String destName) {
+		return getHopDistance(fromName, destName) != BreadthFirstSearch.UNREACHED;
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * Name: BetweennessCentrality
+ * Description: Parallel Brandes betweenness centrality over an IndexedGraph, with shortest paths counted in hops.
+ * 				Every source vertex is one task on the ForkJoinPool:
+ * 				  1. a breadth first search counts the shortest paths sigma to every vertex and leaves the vertices
+ * 				     in order of distance
+ * 				  2. the vertices are taken back in reverse order and each passes its dependency
+ * 				     sigma[v] / sigma[w] * (1 + delta[w]) to the in-neighbors v one hop closer to the source
+ * 				The predecessors are found again through the incoming edge arrays instead of being stored.  Each
+ * 				pool thread keeps its own search arrays and partial scores, added up at the end, so the tasks
+ * 				share nothing.  The sources are run in rounds and the time of every round is reported.
+ * 				Scores are not normalized; on a graph with both directions of every edge each pair is counted
+ * 				twice.
+ */
+package com.nkwok.simplegraph.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.IndexedGraph;
+
+public final class BetweennessCentrality {
+
+	private final IndexedGraph graph;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	private int roundSize;
+
+	/**
+	 * Search arrays and partial scores of one pool thread
+	 */
+	private static final class Workspace {
+		final int[] distance;
+		final double[] sigma;
+		final double[] delta;
+		final int[] order;
+		final double[] partial;
+
+		Workspace(int n) {
+			distance = new int[n];
+			Arrays.fill(distance, -1);
+			sigma = new double[n];
+			delta = new double[n];
+			order = new int[n];
+			partial = new double[n];
+		}
+	}
+
+	/**
+	 * Constructor with a compiled graph
+	 *
+	 * @param graph
+	 */
+	public BetweennessCentrality(IndexedGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		this.graph = graph;
+	}
+
+	/**
+	 * Constructor with a graph, scored on its current snapshot
+	 *
+	 * @param graph
+	 */
+	public BetweennessCentrality(Graph graph) {
+		this(graph == null ? null : graph.getIndexedGraph());
+	}
+
+	/**
+	 * @param pool - pool running the source tasks; default the common pool
+	 * @return this
+	 */
+	public BetweennessCentrality setPool(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("null pool");
+		}
+		this.pool = pool;
+		return this;
+	}
+
+	/**
+	 * @param roundSize - number of sources per timed round; default 0 for 64 per pool thread
+	 * @return this
+	 */
+	public BetweennessCentrality setRoundSize(int roundSize) {
+		if (roundSize < 0) {
+			throw new IllegalArgumentException("round size must not be negative: " + roundSize);
+		}
+		this.roundSize = roundSize;
+		return this;
+	}
+
+	/**
+	 * run - compute the betweenness of every vertex from every source
+	 *
+	 * @return the scores with the time of every round of sources
+	 */
+	public CentralityResult run() {
+		int n = graph.getNumbersOfVertices();
+		Queue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+		ThreadLocal<Workspace> local = ThreadLocal.withInitial(() -> {
+			Workspace workspace = new Workspace(n);
+			workspaces.add(workspace);
+			return workspace;
+		});
+
+		int round = roundSize > 0 ? roundSize : 64 * pool.getParallelism();
+		List<Long> nanos = new ArrayList<>();
+		for(int first = 0; first < n; first += round) {
+			long start = System.nanoTime();
+			int offset = first;
+			ParallelRange.forEach(pool, Math.min(round, n - first), 1, (chunk, begin, end) -> {
+				Workspace workspace = local.get();
+				for(int source = offset + begin; source < offset + end; source++) {
+					accumulate(source, workspace);
+				}
+			});
+			nanos.add(System.nanoTime() - start);
+		}
+
+		double[] scores = new double[n];
+		for(Workspace workspace: workspaces) {
+			for(int node = 0; node < n; node++) {
+				scores[node] += workspace.partial[node];
+			}
+		}
+		return new CentralityResult(graph, scores, nanos.stream().mapToLong(Long::longValue).toArray(), true);
+	}
+
+	/**
+	 * accumulate - add the dependencies of one source to the partial scores of the workspace
+	 */
+	private void accumulate(int source, Workspace workspace) {
+		int[] distance = workspace.distance;
+		double[] sigma = workspace.sigma;
+		double[] delta = workspace.delta;
+		int[] order = workspace.order;
+
+		// breadth first search, the order array is the queue
+		int size = 0;
+		distance[source] = 0;
+		sigma[source] = 1;
+		order[size++] = source;
+		for(int head = 0; head < size; head++) {
+			int node = order[head];
+			int nextDistance = distance[node] + 1;
+			for(int slot = graph.firstEdge(node), end = graph.endEdge(node); slot < end; slot++) {
+				int neighbor = graph.target(slot);
+				if (distance[neighbor] < 0) {
+					distance[neighbor] = nextDistance;
+					order[size++] = neighbor;
+				}
+				if (distance[neighbor] == nextDistance) {
+					sigma[neighbor] += sigma[node];
+				}
+			}
+		}
+
+		// dependencies in reverse order of distance
+		for(int i = size - 1; i > 0; i--) {
+			int node = order[i];
+			int previousDistance = distance[node] - 1;
+			double share = (1 + delta[node]) / sigma[node];
+			for(int pos = graph.firstInEdge(node), end = graph.endInEdge(node); pos < end; pos++) {
+				int parent = graph.source(pos);
+				if (distance[parent] == previousDistance) {
+					delta[parent] += sigma[parent] * share;
+				}
+			}
+			workspace.partial[node] += delta[node];
+		}
+
+		for(int i = 0; i < size; i++) {
+			int node = order[i];
+			distance[node] = -1;
+			sigma[node] = 0;
+			delta[node] = 0;
+		}
+	}
+}
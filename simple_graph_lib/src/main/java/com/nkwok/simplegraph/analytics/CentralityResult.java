@@ -0,0 +1,108 @@
+/**
+ * Name: CentralityResult
+ * Description: Score of every vertex of an IndexedGraph computed by an analytics algorithm, with the time taken
+ * 				by each iteration of the algorithm.
+ */
+package com.nkwok.simplegraph.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.nkwok.simplegraph.IndexedGraph;
+
+public final class CentralityResult {
+
+	private final IndexedGraph graph;
+	private final double[] scores;
+	private final long[] iterationNanos;
+	private final boolean converged;
+
+	CentralityResult(IndexedGraph graph, double[] scores, long[] iterationNanos, boolean converged) {
+		this.graph = graph;
+		this.scores = scores;
+		this.iterationNanos = iterationNanos;
+		this.converged = converged;
+	}
+
+	/**
+	 * @return the graph scored
+	 */
+	public IndexedGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @param id - vertex id
+	 * @return the score of the vertex
+	 */
+	public double getScore(int id) {
+		return scores[id];
+	}
+
+	/**
+	 * @param name - vertex name
+	 * @return the score of the vertex, NaN if it is not in the graph
+	 */
+	public double getScore(String name) {
+		int id = graph.getId(name);
+		return id < 0 ? Double.NaN : scores[id];
+	}
+
+	/**
+	 * @return a copy of the scores by vertex id
+	 */
+	public double[] getScores() {
+		return scores.clone();
+	}
+
+	/**
+	 * getTop - return the names of the highest scored vertices
+	 *
+	 * @param k - number of vertices
+	 * @return up to k vertex names, highest score first, ties in name order
+	 */
+	public List<String> getTop(int k) {
+		if (k < 0) {
+			throw new IllegalArgumentException("k must not be negative: " + k);
+		}
+		return IntStream.range(0, scores.length)
+			.boxed()
+			.sorted(Comparator.comparingDouble((Integer id) -> - scores[id]).thenComparing(graph::getName))
+			.limit(k)
+			.map(graph::getName)
+			.collect(Collectors.toCollection(ArrayList::new));
+	}
+
+	/**
+	 * @return the number of iterations run
+	 */
+	public int getIterations() {
+		return iterationNanos.length;
+	}
+
+	/**
+	 * @return a copy of the time of every iteration in nanoseconds
+	 */
+	public long[] getIterationNanos() {
+		return iterationNanos.clone();
+	}
+
+	/**
+	 * @return the total time of the iterations in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return Arrays.stream(iterationNanos).sum();
+	}
+
+	/**
+	 * @return true if the algorithm stopped because it converged rather than at its iteration limit; always
+	 * 			true for exact algorithms
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+}
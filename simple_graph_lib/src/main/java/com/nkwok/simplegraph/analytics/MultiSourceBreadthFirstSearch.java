@@ -0,0 +1,351 @@
+/**
+ * Name: MultiSourceBreadthFirstSearch
+ * Description: Bit-parallel breadth first search from many sources at once over an IndexedGraph (MS-BFS, Then
+ * 				et al.).  The sources are cut into batches of 64 per word of the batch; every vertex keeps a
+ * 				bitset of the batch sources which have seen it and of those for which it is in the frontier, so
+ * 				one pass over the edges of a level advances every search of the batch and the adjacency data is
+ * 				read once per batch instead of once per source.  Each level is expanded either
+ * 				  push - every frontier vertex ORs its frontier bits into its out-neighbors
+ * 				  pull - every vertex not yet seen by all the batch sources ORs the frontier bits of its
+ * 				         in-neighbors and stops once it has all the bits it is missing
+ * 				Pull is used when the edges leaving the frontier exceed 1/ALPHA of the incoming edges of the
+ * 				vertices still missing bits.  The batches are run in parallel on a ForkJoinPool; each pool thread
+ * 				keeps its own bitsets, 3 * words longs per vertex, so the batches share nothing.
+ *
+ * 				The results are reported to a Visitor as (source index, vertex, hops), each pair once, from the
+ * 				thread running the batch of the source.
+ */
+package com.nkwok.simplegraph.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import com.nkwok.simplegraph.BreadthFirstSearch;
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.IndexedGraph;
+
+public final class MultiSourceBreadthFirstSearch {
+
+	/**
+	 * Receiver of the vertices reached by the searches.  Calls for sources of different batches come from
+	 * different threads; calls for one source come from one thread, in order of hops.
+	 */
+	public interface Visitor {
+		/**
+		 * visit - a vertex is reached from a source for the first time
+		 *
+		 * @param source - index of the source in the sources array
+		 * @param vertex - vertex id
+		 * @param hops - minimum number of edges from the source
+		 */
+		void visit(int source, int vertex, int hops);
+	}
+
+	private static final int ALPHA = 14;
+	private static final int MAX_BATCH_WORDS = 64;
+
+	private final IndexedGraph graph;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	private int batchWords = 1;
+
+	/**
+	 * Bitsets and frontier lists of one pool thread
+	 */
+	private static final class Workspace {
+		final long[] seen;
+		final long[] visit;
+		final long[] next;
+		final int[] touched;
+		int[] frontier;
+		int[] candidates;
+
+		Workspace(int n, int words) {
+			seen = new long[n * words];
+			visit = new long[n * words];
+			next = new long[n * words];
+			touched = new int[n];
+			frontier = new int[n];
+			candidates = new int[n];
+		}
+	}
+
+	/**
+	 * Constructor with a compiled graph
+	 *
+	 * @param graph
+	 */
+	public MultiSourceBreadthFirstSearch(IndexedGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		this.graph = graph;
+	}
+
+	/**
+	 * Constructor with a graph, searched on its current snapshot
+	 *
+	 * @param graph
+	 */
+	public MultiSourceBreadthFirstSearch(Graph graph) {
+		this(graph == null ? null : graph.getIndexedGraph());
+	}
+
+	/**
+	 * @param pool - pool running the batches; default the common pool
+	 * @return this
+	 */
+	public MultiSourceBreadthFirstSearch setPool(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("null pool");
+		}
+		this.pool = pool;
+		return this;
+	}
+
+	/**
+	 * @param batchWords - 64 bit words of sources per batch, 1 to 64; default 1.  Wider batches read the edges
+	 * 			fewer times but keep more memory per vertex and give fewer batches to run in parallel.
+	 * @return this
+	 */
+	public MultiSourceBreadthFirstSearch setBatchWords(int batchWords) {
+		if (batchWords <= 0 || batchWords > MAX_BATCH_WORDS) {
+			throw new IllegalArgumentException("batch words must be between 1 and " + MAX_BATCH_WORDS + ": "
+					+ batchWords);
+		}
+		this.batchWords = batchWords;
+		return this;
+	}
+
+	/**
+	 * run - search from every source and report the vertices reached to the visitor
+	 *
+	 * @param sources - source vertex ids, repeats allowed
+	 * @param visitor - receiver of the results, called from the pool threads
+	 */
+	public void run(int[] sources, Visitor visitor) {
+		int n = graph.getNumbersOfVertices();
+		if (sources == null || visitor == null) {
+			throw new IllegalArgumentException("null sources or visitor");
+		}
+		for(int source: sources) {
+			if (source < 0 || source >= n) {
+				throw new IllegalArgumentException("no vertex with id " + source);
+			}
+		}
+		int words = batchWords;
+		ThreadLocal<Workspace> local = ThreadLocal.withInitial(() -> new Workspace(n, words));
+		ParallelRange.forEach(pool, sources.length, words * Long.SIZE, (chunk, begin, end) ->
+				searchBatch(local.get(), words, sources, begin, end, visitor));
+	}
+
+	/**
+	 * hopDistances - minimum number of edges from every source to every vertex
+	 *
+	 * @param sources - source vertex ids
+	 * @return hop counts indexed by source index then vertex id, BreadthFirstSearch.UNREACHED if not reachable
+	 */
+	public int[][] hopDistances(int... sources) {
+		int[][] result = new int[sources == null ? 0 : sources.length][graph.getNumbersOfVertices()];
+		for(int[] row: result) {
+			Arrays.fill(row, BreadthFirstSearch.UNREACHED);
+		}
+		run(sources, (source, vertex, hops) -> result[source][vertex] = hops);
+		return result;
+	}
+
+	/**
+	 * hopDistances - minimum number of edges from every source to every destination
+	 *
+	 * @param sources - source vertex ids
+	 * @param dests - destination vertex ids, repeats allowed
+	 * @return hop counts indexed by source index then destination index, BreadthFirstSearch.UNREACHED if not
+	 * 			reachable
+	 */
+	public int[][] hopDistances(int[] sources, int[] dests) {
+		int n = graph.getNumbersOfVertices();
+		if (dests == null) {
+			throw new IllegalArgumentException("null destinations");
+		}
+		// destination indexes of a vertex as a chain: first index, then the next index with the same vertex
+		int[] firstDest = new int[n];
+		int[] nextDest = new int[dests.length];
+		Arrays.fill(firstDest, -1);
+		for(int i = dests.length - 1; i >= 0; i--) {
+			if (dests[i] < 0 || dests[i] >= n) {
+				throw new IllegalArgumentException("no vertex with id " + dests[i]);
+			}
+			nextDest[i] = firstDest[dests[i]];
+			firstDest[dests[i]] = i;
+		}
+		int[][] result = new int[sources == null ? 0 : sources.length][dests.length];
+		for(int[] row: result) {
+			Arrays.fill(row, BreadthFirstSearch.UNREACHED);
+		}
+		run(sources, (source, vertex, hops) -> {
+			for(int i = firstDest[vertex]; i >= 0; i = nextDest[i]) {
+				result[source][i] = hops;
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * reachableCounts - number of vertices reachable from every source
+	 *
+	 * @param sources - source vertex ids
+	 * @return number of vertices reached, including the source, indexed by source index
+	 */
+	public int[] reachableCounts(int... sources) {
+		int[] result = new int[sources == null ? 0 : sources.length];
+		run(sources, (source, vertex, hops) -> result[source]++);
+		return result;
+	}
+
+	/**
+	 * searchBatch - search from the sources [begin, end) together, bit i of a vertex standing for source
+	 * 				begin + i
+	 */
+	private void searchBatch(Workspace workspace, int words, int[] sources, int begin, int end,
+			Visitor visitor) {
+		long[] seen = workspace.seen;
+		long[] visit = workspace.visit;
+		long[] next = workspace.next;
+		int[] touched = workspace.touched;
+		int n = graph.getNumbersOfVertices();
+		Arrays.fill(seen, 0);
+		Arrays.fill(touched, -1);
+
+		// bits of the sources in the batch; the words past the last source stay empty
+		long[] full = new long[words];
+		int count = end - begin;
+		for(int w = 0; w < words; w++) {
+			int bits = Math.min(Long.SIZE, count - w * Long.SIZE);
+			full[w] = bits <= 0 ? 0 : bits == Long.SIZE ? -1L : (1L << bits) - 1;
+		}
+
+		int frontierSize = 0;
+		for(int i = 0; i < count; i++) {
+			int vertex = sources[begin + i];
+			int index = vertex * words + (i >>> 6);
+			seen[index] |= 1L << i;
+			visit[index] |= 1L << i;
+			if (touched[vertex] != 0) {
+				touched[vertex] = 0;
+				workspace.frontier[frontierSize++] = vertex;
+			}
+			visitor.visit(begin + i, vertex, 0);
+		}
+
+		// incoming edges of the vertices not yet seen by every source of the batch
+		long missingEdges = graph.getNumbersOfEdges();
+		for(int f = 0; f < frontierSize; f++) {
+			if (isFull(seen, workspace.frontier[f] * words, full)) {
+				missingEdges -= graph.inDegree(workspace.frontier[f]);
+			}
+		}
+
+		int hops = 0;
+		while (frontierSize > 0) {
+			hops++;
+			int[] frontier = workspace.frontier;
+			int[] candidates = workspace.candidates;
+			int candidateSize = 0;
+			long frontierEdges = 0;
+			for(int f = 0; f < frontierSize; f++) {
+				frontierEdges += graph.outDegree(frontier[f]);
+			}
+
+			if (frontierEdges * ALPHA > missingEdges) {
+				// pull: the vertices missing bits collect them from the frontier
+				for(int vertex = 0; vertex < n; vertex++) {
+					int base = vertex * words;
+					if (isFull(seen, base, full)) {
+						continue;
+					}
+					boolean found = false;
+					for(int pos = graph.firstInEdge(vertex), last = graph.endInEdge(vertex); pos < last; pos++) {
+						int parent = graph.source(pos) * words;
+						boolean complete = true;
+						for(int w = 0; w < words; w++) {
+							long bits = visit[parent + w] & ~seen[base + w];
+							if (bits != 0) {
+								next[base + w] |= bits;
+								found = true;
+							}
+							complete &= ((seen[base + w] | next[base + w]) & full[w]) == full[w];
+						}
+						if (complete) {
+							break;
+						}
+					}
+					if (found) {
+						candidates[candidateSize++] = vertex;
+					}
+				}
+			} else {
+				// push: the frontier hands its bits to the out-neighbors
+				for(int f = 0; f < frontierSize; f++) {
+					int parent = frontier[f] * words;
+					for(int slot = graph.firstEdge(frontier[f]), last = graph.endEdge(frontier[f]); slot < last;
+							slot++) {
+						int vertex = graph.target(slot);
+						int base = vertex * words;
+						for(int w = 0; w < words; w++) {
+							next[base + w] |= visit[parent + w];
+						}
+						if (touched[vertex] != hops) {
+							touched[vertex] = hops;
+							candidates[candidateSize++] = vertex;
+						}
+					}
+				}
+			}
+
+			for(int f = 0; f < frontierSize; f++) {
+				Arrays.fill(visit, frontier[f] * words, frontier[f] * words + words, 0);
+			}
+
+			// the new bits of the candidates make the next frontier
+			int nextSize = 0;
+			for(int c = 0; c < candidateSize; c++) {
+				int vertex = candidates[c];
+				int base = vertex * words;
+				boolean fresh = false;
+				for(int w = 0; w < words; w++) {
+					long bits = next[base + w] & ~seen[base + w];
+					next[base + w] = 0;
+					if (bits == 0) {
+						continue;
+					}
+					fresh = true;
+					seen[base + w] |= bits;
+					visit[base + w] = bits;
+					int first = begin + (w << 6);
+					while (bits != 0) {
+						visitor.visit(first + Long.numberOfTrailingZeros(bits), vertex, hops);
+						bits &= bits - 1;
+					}
+				}
+				if (fresh) {
+					frontier[nextSize++] = vertex;
+					if (isFull(seen, base, full)) {
+						missingEdges -= graph.inDegree(vertex);
+					}
+				}
+			}
+			frontierSize = nextSize;
+		}
+	}
+
+	/**
+	 * isFull - return true if a vertex has been seen by every source of the batch
+	 */
+	private static boolean isFull(long[] seen, int base, long[] full) {
+		for(int w = 0; w < full.length; w++) {
+			if ((seen[base + w] & full[w]) != full[w]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
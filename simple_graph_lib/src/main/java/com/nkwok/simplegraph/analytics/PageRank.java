@@ -0,0 +1,164 @@
+/**
+ * Name: PageRank
+ * Description: Parallel PageRank over an IndexedGraph.  Each iteration is pull based: every vertex sums the
+ * 				contributions rank / out degree of its in-neighbors read through the incoming edge arrays, so
+ * 				each vertex is written by one task only and no locking is needed.  The rank of vertices without
+ * 				outgoing edges is spread over all vertices.  Iterations stop when the L1 change of the ranks
+ * 				falls below the tolerance or at the iteration limit.  The ranks sum to 1.
+ */
+package com.nkwok.simplegraph.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.IndexedGraph;
+
+public final class PageRank {
+
+	private static final int GRAIN = 4096;
+
+	private final IndexedGraph graph;
+	private double dampingFactor = 0.85;
+	private double tolerance = 1e-6;
+	private int maxIterations = 100;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	/**
+	 * Constructor with a compiled graph
+	 *
+	 * @param graph
+	 */
+	public PageRank(IndexedGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		this.graph = graph;
+	}
+
+	/**
+	 * Constructor with a graph, ranked on its current snapshot
+	 *
+	 * @param graph
+	 */
+	public PageRank(Graph graph) {
+		this(graph == null ? null : graph.getIndexedGraph());
+	}
+
+	/**
+	 * @param dampingFactor - probability of following an edge, between 0 and 1; default 0.85
+	 * @return this
+	 */
+	public PageRank setDampingFactor(double dampingFactor) {
+		if (! (dampingFactor >= 0 && dampingFactor <= 1)) {
+			throw new IllegalArgumentException("damping factor must be between 0 and 1: " + dampingFactor);
+		}
+		this.dampingFactor = dampingFactor;
+		return this;
+	}
+
+	/**
+	 * @param tolerance - L1 change of the ranks under which the iterations stop; default 1e-6
+	 * @return this
+	 */
+	public PageRank setTolerance(double tolerance) {
+		if (! (tolerance >= 0)) {
+			throw new IllegalArgumentException("tolerance must not be negative: " + tolerance);
+		}
+		this.tolerance = tolerance;
+		return this;
+	}
+
+	/**
+	 * @param maxIterations - iteration limit; default 100
+	 * @return this
+	 */
+	public PageRank setMaxIterations(int maxIterations) {
+		if (maxIterations <= 0) {
+			throw new IllegalArgumentException("max iterations must be positive: " + maxIterations);
+		}
+		this.maxIterations = maxIterations;
+		return this;
+	}
+
+	/**
+	 * @param pool - pool running the iterations; default the common pool
+	 * @return this
+	 */
+	public PageRank setPool(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("null pool");
+		}
+		this.pool = pool;
+		return this;
+	}
+
+	/**
+	 * run - iterate until convergence or the iteration limit
+	 *
+	 * @return the ranks with the time of every iteration
+	 */
+	public CentralityResult run() {
+		int n = graph.getNumbersOfVertices();
+		if (n == 0) {
+			return new CentralityResult(graph, new double[0], new long[0], true);
+		}
+		int chunks = ParallelRange.chunks(n, GRAIN);
+		double[] rank = new double[n];
+		double[] next = new double[n];
+		double[] contribution = new double[n];
+		double[] partialDangling = new double[chunks];
+		double[] partialDelta = new double[chunks];
+		long[] nanos = new long[maxIterations];
+		Arrays.fill(rank, 1.0 / n);
+
+		int iteration = 0;
+		boolean converged = false;
+		while (iteration < maxIterations && ! converged) {
+			long start = System.nanoTime();
+			double[] current = rank;
+			ParallelRange.forEach(pool, n, GRAIN, (chunk, begin, end) -> {
+				double dangling = 0;
+				for(int node = begin; node < end; node++) {
+					int degree = graph.outDegree(node);
+					if (degree == 0) {
+						dangling += current[node];
+						contribution[node] = 0;
+					} else {
+						contribution[node] = current[node] / degree;
+					}
+				}
+				partialDangling[chunk] = dangling;
+			});
+			double dangling = 0;
+			for(double value: partialDangling) {
+				dangling += value;
+			}
+
+			double base = (1 - dampingFactor) / n + dampingFactor * dangling / n;
+			double[] updated = next;
+			ParallelRange.forEach(pool, n, GRAIN, (chunk, begin, end) -> {
+				double delta = 0;
+				for(int node = begin; node < end; node++) {
+					double sum = 0;
+					for(int pos = graph.firstInEdge(node), last = graph.endInEdge(node); pos < last; pos++) {
+						sum += contribution[graph.source(pos)];
+					}
+					updated[node] = base + dampingFactor * sum;
+					delta += Math.abs(updated[node] - current[node]);
+				}
+				partialDelta[chunk] = delta;
+			});
+			double delta = 0;
+			for(double value: partialDelta) {
+				delta += value;
+			}
+
+			next = rank;
+			rank = updated;
+			nanos[iteration++] = System.nanoTime() - start;
+			converged = delta < tolerance;
+		}
+		return new CentralityResult(graph, rank, Arrays.copyOf(nanos, iteration), converged);
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Name: ParallelRange
+ * Description: Runs a body over the chunks of an index range on a ForkJoinPool.  The range is cut into fixed
+ * 				chunks, so a body can keep a partial result per chunk and the caller can reduce them in order.
+ */
+package com.nkwok.simplegraph.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+final class ParallelRange {
+
+	/**
+	 * Body run for one chunk
+	 */
+	interface Body {
+		void run(int chunk, int begin, int end);
+	}
+
+	private ParallelRange() {
+	}
+
+	/**
+	 * chunks - number of chunks of a range
+	 *
+	 * @param size - size of the range
+	 * @param grain - indexes per chunk
+	 * @return the number of chunks
+	 */
+	static int chunks(int size, int grain) {
+		return (size + grain - 1) / grain;
+	}
+
+	/**
+	 * forEach - run the body for every chunk of [0, size) and wait for all of them
+	 *
+	 * @param pool
+	 * @param size - size of the range
+	 * @param grain - indexes per chunk
+	 * @param body
+	 */
+	static void forEach(ForkJoinPool pool, int size, int grain, Body body) {
+		int chunks = chunks(size, grain);
+		if (chunks == 1) {
+			body.run(0, 0, size);
+		} else if (chunks > 1) {
+			pool.invoke(new ChunkTask(0, chunks, size, grain, body));
+		}
+	}
+
+	private static final class ChunkTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final int firstChunk;
+		private final int endChunk;
+		private final int size;
+		private final int grain;
+		private final Body body;
+
+		ChunkTask(int firstChunk, int endChunk, int size, int grain, Body body) {
+			this.firstChunk = firstChunk;
+			this.endChunk = endChunk;
+			this.size = size;
+			this.grain = grain;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (endChunk - firstChunk == 1) {
+				int begin = firstChunk * grain;
+				body.run(firstChunk, begin, Math.min(size, begin + grain));
+				return;
+			}
+			int middle = (firstChunk + endChunk) >>> 1;
+			invokeAll(new ChunkTask(firstChunk, middle, size, grain, body),
+					new ChunkTask(middle, endChunk, size, grain, body));
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Name: GraphGenerator
+ * Description: Generators of the directed graphs the load is run on.  Vertices are named Node_0 to Node_(n-1)
+ * 				and edge weights are drawn between 1 and 100.  RANDOM and SCALE_FREE graphs also have the
+ * 				ring Node_i -> Node_(i+1), so every vertex is in the graph and every query has a path.
+ */
+package com.nkwok.simplegraph.load;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.nkwok.simplegraph.Edge;
+
+public enum GraphGenerator {
+
+	// uniformly random edges
+	RANDOM {
+		@Override
+		void addEdges(int vertices, int degree, Random random, Set<Edge> edges) {
+			for(int i = 0; i < vertices * degree; i++) {
+				int from = random.nextInt(vertices);
+				int to = random.nextInt(vertices);
+				if (from != to) {
+					edges.add(edge(from, to, random));
+				}
+			}
+		}
+	},
+	// preferential attachment, the targets are picked in proportion to the edges they already have
+	SCALE_FREE {
+		@Override
+		void addEdges(int vertices, int degree, Random random, Set<Edge> edges) {
+			List<Integer> ends = new ArrayList<>();
+			ends.add(0);
+			for(int from = 1; from < vertices; from++) {
+				for(int i = 0; i < degree; i++) {
+					int to = ends.get(random.nextInt(ends.size()));
+					edges.add(edge(from, to, random));
+					ends.add(to);
+				}
+				ends.add(from);
+			}
+		}
+	},
+	// square grid with edges both ways between neighbors, the degree is not used
+	GRID {
+		@Override
+		void addEdges(int vertices, int degree, Random random, Set<Edge> edges) {
+			int side = (int) Math.ceil(Math.sqrt(vertices));
+			for(int id = 0; id < vertices; id++) {
+				if (id % side + 1 < side && id + 1 < vertices) {
+					edges.add(edge(id, id + 1, random));
+					edges.add(edge(id + 1, id, random));
+				}
+				if (id + side < vertices) {
+					edges.add(edge(id, id + side, random));
+					edges.add(edge(id + side, id, random));
+				}
+			}
+		}
+
+		@Override
+		boolean ring() {
+			return false;
+		}
+	};
+
+	abstract void addEdges(int vertices, int degree, Random random, Set<Edge> edges);
+
+	boolean ring() {
+		return true;
+	}
+
+	/**
+	 * generate - build the edges of a graph
+	 *
+	 * @param vertices - number of vertices, at least 2
+	 * @param degree - average number of generated edges per vertex
+	 * @param seed - seed of the random weights and edges
+	 * @return the edges
+	 */
+	public Set<Edge> generate(int vertices, int degree, long seed) {
+		if (vertices < 2) {
+			throw new IllegalArgumentException("at least 2 vertices are needed: " + vertices);
+		}
+		if (degree < 0) {
+			throw new IllegalArgumentException("degree must not be negative: " + degree);
+		}
+		Random random = new Random(seed);
+		Set<Edge> edges = new HashSet<>();
+		if (ring()) {
+			for(int id = 0; id < vertices; id++) {
+				edges.add(edge(id, (id + 1) % vertices, random));
+			}
+		}
+		addEdges(vertices, degree, random, edges);
+		return edges;
+	}
+
+	/**
+	 * @param id
+	 * @return the name of a generated vertex
+	 */
+	public static String vertexName(int id) {
+		return "Node_" + id;
+	}
+
+	private static Edge edge(int from, int to, Random random) {
+		// the name is the vertex pair, a repeated pair with another weight is a parallel edge
+		return new Edge("Edge " + from + "_" + to, vertexName(from), vertexName(to), 1 + random.nextInt(100));
+	}
+}
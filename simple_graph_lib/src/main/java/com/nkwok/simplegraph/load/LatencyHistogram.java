@@ -0,0 +1,131 @@
+/**
+ * Name: LatencyHistogram
+ * Description: Histogram of latencies in nanoseconds with log-linear buckets in the style of HdrHistogram.
+ * 				Values below 256 have a bucket each; above that every power of two is split into 128 buckets,
+ * 				so a recorded value is reported within 1% of itself over the whole long range, in a fixed
+ * 				array of counts.  A histogram is not thread safe: each thread records into its own and they
+ * 				are added up at the end.
+ */
+package com.nkwok.simplegraph.load;
+
+public final class LatencyHistogram {
+
+	private static final int SUB_BITS = 7;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	// the largest magnitude is the one of 2^62
+	private static final int BUCKETS = (62 - SUB_BITS + 2) * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+	private long count;
+	private long min = Long.MAX_VALUE;
+	private long max;
+	private double sum;
+
+	/**
+	 * index - return the bucket of a value
+	 */
+	static int index(long value) {
+		if (value < 2 * SUB_BUCKETS) {
+			return (int) value;
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return (magnitude + 1) * SUB_BUCKETS + (int) (value >>> magnitude) - SUB_BUCKETS;
+	}
+
+	/**
+	 * highestEquivalent - return the largest value of a bucket
+	 */
+	static long highestEquivalent(int index) {
+		if (index < 2 * SUB_BUCKETS) {
+			return index;
+		}
+		int magnitude = index / SUB_BUCKETS - 1;
+		long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+		return ((sub + 1) << magnitude) - 1;
+	}
+
+	/**
+	 * record - count one value
+	 *
+	 * @param nanos - latency, negative values are counted as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts[index(value)]++;
+		count++;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+		sum += value;
+	}
+
+	/**
+	 * add - add the counts of another histogram to this one
+	 *
+	 * @param other
+	 */
+	public void add(LatencyHistogram other) {
+		if (other == null) {
+			throw new IllegalArgumentException("null histogram");
+		}
+		for(int i = 0; i < BUCKETS; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		sum += other.sum;
+	}
+
+	/**
+	 * @return the number of values recorded
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the smallest value recorded, 0 if none
+	 */
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	/**
+	 * @return the largest value recorded, 0 if none
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * @return the mean of the values recorded, 0 if none
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : sum / count;
+	}
+
+	/**
+	 * getValueAtPercentile - return the value under which the given percentage of the values fall
+	 *
+	 * @param percentile - between 0 and 100
+	 * @return the largest value of the bucket holding the percentile, at most the largest value recorded; 0 if
+	 * 			nothing was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (! (percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for(int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(highestEquivalent(i), max);
+			}
+		}
+		return max;
+	}
+}
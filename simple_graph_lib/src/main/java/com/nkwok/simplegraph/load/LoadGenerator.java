@@ -0,0 +1,540 @@
+/**
+ * Name: LoadGenerator
+ * Description: Mixed read/write load on a ShortestPathGraph from many threads, to see how the graph behaves
+ * 				while shortest path queries race with addEdge and removeEdge.  Every thread draws each operation
+ * 				as a read with probability 1 - writeRatio, otherwise as a write, which adds a new edge or
+ * 				removes one the thread added before.  The vertices of every operation are drawn with a Zipf
+ * 				distribution of the given skew, 0 being uniform.  The read mode picks the query API, so the
+ * 				locked, snapshot and asynchronous paths can be compared on the same load.  Latencies go into a
+ * 				LatencyHistogram per thread; after the run the graph is checked against the edges the threads
+ * 				know they left in it, see checkInvariants.
+ * 				Run from the command line with key=value arguments, e.g.
+ * 				  java com.nkwok.simplegraph.load.LoadGenerator mode=all threads=64 writeRatio=0.05 skew=1.1
+ */
+package com.nkwok.simplegraph.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.nkwok.simplegraph.AsyncShortestPathGraph;
+import com.nkwok.simplegraph.Edge;
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.IndexedGraph;
+import com.nkwok.simplegraph.ShortestPathGraph;
+import com.nkwok.simplegraph.Vertex;
+
+public final class LoadGenerator {
+
+	private static final int MAX_ERROR_MESSAGES = 10;
+
+	/**
+	 * Query API used by the reads
+	 */
+	public enum ReadMode {
+		// ShortestPathGraph.findShortestPath, the original list result
+		FIND_SHORTEST_PATH,
+		// ShortestPathGraph.findPath on the indexed snapshot
+		FIND_PATH,
+		// Graph.getHopDistance, breadth first search on the indexed snapshot
+		HOP_DISTANCE,
+		// AsyncShortestPathGraph.findShortestPath with a pool of one worker per load thread, waited for
+		ASYNC
+	}
+
+	private GraphGenerator generator = GraphGenerator.RANDOM;
+	private int vertices = 1000;
+	private int degree = 4;
+	private ReadMode readMode = ReadMode.FIND_PATH;
+	private int threads = 8;
+	private double writeRatio = 0.1;
+	private double skew;
+	private long durationMillis = 1000;
+	private long operationsPerThread;
+	private long intervalMillis = 100;
+	private long seed = 1;
+
+	/**
+	 * Operations and measurements of one load thread
+	 */
+	private final class Worker implements Runnable {
+		final int index;
+		final ShortestPathGraph graph;
+		final AsyncShortestPathGraph async;
+		final int[] keys;
+		final double[] cdf;
+		final CountDownLatch start;
+		final long startNanos;
+		final long endNanos;
+		final SplittableRandom random;
+		final LatencyHistogram reads = new LatencyHistogram();
+		final LatencyHistogram writes = new LatencyHistogram();
+		// it is used to hold the edges this thread added and did not remove
+		final List<Edge> live = new ArrayList<>();
+		long[] intervals = new long[16];
+		long errors;
+		long rejected;
+		final List<String> errorMessages = new ArrayList<>();
+		long added;
+
+		Worker(int index, ShortestPathGraph graph, AsyncShortestPathGraph async, int[] keys, double[] cdf,
+				CountDownLatch start, long startNanos, long endNanos) {
+			this.index = index;
+			this.graph = graph;
+			this.async = async;
+			this.keys = keys;
+			this.cdf = cdf;
+			this.start = start;
+			this.startNanos = startNanos;
+			this.endNanos = endNanos;
+			this.random = new SplittableRandom(seed * 31 + index);
+		}
+
+		@Override
+		public void run() {
+			try {
+				start.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			long intervalNanos = intervalMillis * 1000000;
+			for(long done = 0; operationsPerThread > 0 ? done < operationsPerThread : System.nanoTime() < endNanos;
+					done++) {
+				if (Thread.currentThread().isInterrupted()) {
+					break;
+				}
+				boolean write = random.nextDouble() < writeRatio;
+				long before = System.nanoTime();
+				try {
+					if (write) {
+						write();
+					} else {
+						read();
+					}
+				} catch (RejectedExecutionException e) {
+					rejected++;
+				} catch (Exception e) {
+					errors++;
+					if (errorMessages.size() < MAX_ERROR_MESSAGES) {
+						errorMessages.add(e.toString());
+					}
+				}
+				long after = System.nanoTime();
+				(write ? writes : reads).record(after - before);
+				int interval = (int) ((after - startNanos) / intervalNanos);
+				if (interval >= intervals.length) {
+					intervals = Arrays.copyOf(intervals, Math.max(interval + 1, intervals.length * 2));
+				}
+				intervals[interval]++;
+			}
+		}
+
+		private String key() {
+			if (cdf == null) {
+				return GraphGenerator.vertexName(keys[random.nextInt(keys.length)]);
+			}
+			int rank = Arrays.binarySearch(cdf, random.nextDouble());
+			rank = rank < 0 ? Math.min(- rank - 1, keys.length - 1) : rank;
+			return GraphGenerator.vertexName(keys[rank]);
+		}
+
+		private void read() throws Exception {
+			String from = key();
+			String dest = key();
+			switch (readMode) {
+			case FIND_SHORTEST_PATH:
+				graph.findShortestPath(from, dest);
+				break;
+			case HOP_DISTANCE:
+				graph.getHopDistance(from, dest);
+				break;
+			case ASYNC:
+				try {
+					async.findShortestPath(from, dest).get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof RejectedExecutionException) {
+						throw (RejectedExecutionException) e.getCause();
+					}
+					throw e;
+				}
+				break;
+			default:
+				graph.findPath(from, dest);
+				break;
+			}
+		}
+
+		private void write() {
+			if (! live.isEmpty() && random.nextBoolean()) {
+				int pick = random.nextInt(live.size());
+				Edge edge = live.get(pick);
+				live.set(pick, live.get(live.size() - 1));
+				live.remove(live.size() - 1);
+				graph.removeEdge(edge);
+				return;
+			}
+			String from = key();
+			String to = key();
+			Edge edge = new Edge("Load " + index + "_" + added++, from, to, 1 + random.nextInt(100));
+			// added to the list first, so an edge is known even if a listener of the graph throws
+			live.add(edge);
+			graph.addEdge(edge);
+		}
+	}
+
+	/**
+	 * @param generator - generator of the graph; default RANDOM
+	 * @return this
+	 */
+	public LoadGenerator setGenerator(GraphGenerator generator) {
+		if (generator == null) {
+			throw new IllegalArgumentException("null generator");
+		}
+		this.generator = generator;
+		return this;
+	}
+
+	/**
+	 * @param vertices - number of vertices of the graph, at least 2; default 1000
+	 * @return this
+	 */
+	public LoadGenerator setVertices(int vertices) {
+		if (vertices < 2) {
+			throw new IllegalArgumentException("at least 2 vertices are needed: " + vertices);
+		}
+		this.vertices = vertices;
+		return this;
+	}
+
+	/**
+	 * @param degree - average number of generated edges per vertex; default 4
+	 * @return this
+	 */
+	public LoadGenerator setDegree(int degree) {
+		if (degree < 0) {
+			throw new IllegalArgumentException("degree must not be negative: " + degree);
+		}
+		this.degree = degree;
+		return this;
+	}
+
+	/**
+	 * @param readMode - query API used by the reads; default FIND_PATH
+	 * @return this
+	 */
+	public LoadGenerator setReadMode(ReadMode readMode) {
+		if (readMode == null) {
+			throw new IllegalArgumentException("null read mode");
+		}
+		this.readMode = readMode;
+		return this;
+	}
+
+	/**
+	 * @param threads - number of load threads; default 8
+	 * @return this
+	 */
+	public LoadGenerator setThreads(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("threads must be positive: " + threads);
+		}
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * @param writeRatio - share of the operations which are writes, between 0 and 1; default 0.1
+	 * @return this
+	 */
+	public LoadGenerator setWriteRatio(double writeRatio) {
+		if (! (writeRatio >= 0 && writeRatio <= 1)) {
+			throw new IllegalArgumentException("write ratio must be between 0 and 1: " + writeRatio);
+		}
+		this.writeRatio = writeRatio;
+		return this;
+	}
+
+	/**
+	 * @param skew - Zipf exponent of the vertex popularity, 0 for uniform; default 0
+	 * @return this
+	 */
+	public LoadGenerator setSkew(double skew) {
+		if (! (skew >= 0)) {
+			throw new IllegalArgumentException("skew must not be negative: " + skew);
+		}
+		this.skew = skew;
+		return this;
+	}
+
+	/**
+	 * @param durationMillis - length of the run when the operations are not limited; default 1000
+	 * @return this
+	 */
+	public LoadGenerator setDurationMillis(long durationMillis) {
+		if (durationMillis <= 0) {
+			throw new IllegalArgumentException("duration must be positive: " + durationMillis);
+		}
+		this.durationMillis = durationMillis;
+		return this;
+	}
+
+	/**
+	 * @param operationsPerThread - number of operations of every thread, 0 to run for the duration; default 0
+	 * @return this
+	 */
+	public LoadGenerator setOperationsPerThread(long operationsPerThread) {
+		if (operationsPerThread < 0) {
+			throw new IllegalArgumentException("operations must not be negative: " + operationsPerThread);
+		}
+		this.operationsPerThread = operationsPerThread;
+		return this;
+	}
+
+	/**
+	 * @param intervalMillis - length of the throughput intervals; default 100
+	 * @return this
+	 */
+	public LoadGenerator setIntervalMillis(long intervalMillis) {
+		if (intervalMillis <= 0) {
+			throw new IllegalArgumentException("interval must be positive: " + intervalMillis);
+		}
+		this.intervalMillis = intervalMillis;
+		return this;
+	}
+
+	/**
+	 * @param seed - seed of the graph and of the operations; default 1
+	 * @return this
+	 */
+	public LoadGenerator setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	/**
+	 * run - generate the graph, run the load on it and check the graph afterwards
+	 *
+	 * @return the report of the run
+	 * @throws InterruptedException - if the calling thread is interrupted while the load runs
+	 */
+	public LoadReport run() throws InterruptedException {
+		Set<Edge> initial = generator.generate(vertices, degree, seed);
+		ShortestPathGraph graph = new ShortestPathGraph(initial);
+		AsyncShortestPathGraph async = readMode == ReadMode.ASYNC ? new AsyncShortestPathGraph(graph, threads, threads * 4)
+				: null;
+
+		// the popular vertices are spread over the graph
+		List<Integer> shuffled = new ArrayList<>();
+		for(int id = 0; id < vertices; id++) {
+			shuffled.add(id);
+		}
+		Collections.shuffle(shuffled, new Random(seed));
+		int[] keys = shuffled.stream().mapToInt(Integer::intValue).toArray();
+		double[] cdf = skew > 0 ? zipf(vertices, skew) : null;
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<Worker> workers = new ArrayList<>();
+		List<Thread> running = new ArrayList<>();
+		long startNanos;
+		try {
+			startNanos = System.nanoTime();
+			long endNanos = startNanos + durationMillis * 1000000;
+			for(int i = 0; i < threads; i++) {
+				Worker worker = new Worker(i, graph, async, keys, cdf, start, startNanos, endNanos);
+				Thread thread = new Thread(worker, "load-" + i);
+				thread.setDaemon(true);
+				workers.add(worker);
+				running.add(thread);
+				thread.start();
+			}
+			start.countDown();
+			for(Thread thread: running) {
+				thread.join();
+			}
+		} finally {
+			for(Thread thread: running) {
+				thread.interrupt();
+			}
+			if (async != null) {
+				async.close();
+			}
+		}
+		long elapsedNanos = System.nanoTime() - startNanos;
+
+		LatencyHistogram reads = new LatencyHistogram();
+		LatencyHistogram writes = new LatencyHistogram();
+		long[] intervals = new long[0];
+		long errors = 0;
+		long rejected = 0;
+		List<String> errorMessages = new ArrayList<>();
+		Set<Edge> expected = new HashSet<>(initial);
+		for(Worker worker: workers) {
+			reads.add(worker.reads);
+			writes.add(worker.writes);
+			if (worker.intervals.length > intervals.length) {
+				intervals = Arrays.copyOf(intervals, worker.intervals.length);
+			}
+			for(int i = 0; i < worker.intervals.length; i++) {
+				intervals[i] += worker.intervals[i];
+			}
+			errors += worker.errors;
+			rejected += worker.rejected;
+			for(String message: worker.errorMessages) {
+				if (errorMessages.size() < MAX_ERROR_MESSAGES) {
+					errorMessages.add(message);
+				}
+			}
+			expected.addAll(worker.live);
+		}
+		int used = intervals.length;
+		while (used > 0 && intervals[used - 1] == 0) {
+			used--;
+		}
+		return new LoadReport(readMode, threads, graph, reads, writes, elapsedNanos, intervalMillis,
+				Arrays.copyOf(intervals, used), errors, rejected, errorMessages, checkInvariants(graph, expected));
+	}
+
+	/**
+	 * zipf - cumulative Zipf distribution over the ranks
+	 */
+	private static double[] zipf(int size, double skew) {
+		double[] cdf = new double[size];
+		double total = 0;
+		for(int rank = 0; rank < size; rank++) {
+			total += 1 / Math.pow(rank + 1, skew);
+			cdf[rank] = total;
+		}
+		for(int rank = 0; rank < size; rank++) {
+			cdf[rank] /= total;
+		}
+		return cdf;
+	}
+
+	/**
+	 * checkInvariants - check the consistency of a graph which is not changing
+	 * 	1. the ends of every edge are vertices of the graph
+	 * 	2. every vertex is the end of an edge, removeEdge drops the vertices left without edges
+	 * 	3. the indexed snapshot has the same vertices and edges
+	 * 	4. the edges are the expected ones, if they are given
+	 *
+	 * @param graph
+	 * @param expectedEdges - edges the graph should have, null not to compare them
+	 * @return the violations found, empty if the graph is consistent
+	 */
+	public static List<String> checkInvariants(Graph graph, Set<Edge> expectedEdges) {
+		if (graph == null) {
+			throw new IllegalArgumentException("null graph");
+		}
+		List<String> violations = new ArrayList<>();
+		Set<Vertex> vertices = graph.getVertices();
+		Set<Edge> edges = graph.getEdges();
+
+		Set<String> names = new HashSet<>();
+		for(Vertex vertex: vertices) {
+			names.add(vertex.getName());
+		}
+		Set<String> ends = new HashSet<>();
+		for(Edge edge: edges) {
+			ends.add(edge.getFromVertex());
+			ends.add(edge.getToVertex());
+			if (! names.contains(edge.getFromVertex()) || ! names.contains(edge.getToVertex())) {
+				violations.add("edge with an end which is not a vertex: " + edge);
+			}
+		}
+		for(String name: names) {
+			if (! ends.contains(name)) {
+				violations.add("vertex without edges: " + name);
+			}
+		}
+
+		IndexedGraph indexed = graph.getIndexedGraph();
+		if (indexed.getNumbersOfVertices() != vertices.size() || indexed.getNumbersOfEdges() != edges.size()) {
+			violations.add("indexed snapshot has " + indexed.getNumbersOfVertices() + " vertices and "
+					+ indexed.getNumbersOfEdges() + " edges, the graph " + vertices.size() + " and " + edges.size());
+		}
+
+		if (expectedEdges != null) {
+			Set<Edge> missing = new HashSet<>(expectedEdges);
+			missing.removeAll(edges);
+			Set<Edge> unexpected = new HashSet<>(edges);
+			unexpected.removeAll(expectedEdges);
+			if (! missing.isEmpty()) {
+				violations.add(missing.size() + " expected edges are missing, e.g. " + missing.iterator().next());
+			}
+			if (! unexpected.isEmpty()) {
+				violations.add(unexpected.size() + " edges are not expected, e.g. " + unexpected.iterator().next());
+			}
+		}
+		return violations;
+	}
+
+	/**
+	 * main - run the load with key=value arguments: generator, vertices, degree, mode (a ReadMode or all),
+	 * 			threads, writeRatio, skew, duration (ms), operations (per thread), interval (ms), seed
+	 *
+	 * @param args
+	 * @throws InterruptedException
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		LoadGenerator load = new LoadGenerator();
+		List<ReadMode> modes = new ArrayList<>(Arrays.asList(load.readMode));
+		for(String arg: args) {
+			int split = arg.indexOf('=');
+			if (split < 0) {
+				throw new IllegalArgumentException("argument is not key=value: " + arg);
+			}
+			String key = arg.substring(0, split);
+			String value = arg.substring(split + 1);
+			switch (key) {
+			case "generator":
+				load.setGenerator(GraphGenerator.valueOf(value.toUpperCase()));
+				break;
+			case "vertices":
+				load.setVertices(Integer.parseInt(value));
+				break;
+			case "degree":
+				load.setDegree(Integer.parseInt(value));
+				break;
+			case "mode":
+				modes = value.equalsIgnoreCase("all") ? Arrays.asList(ReadMode.values())
+						: Arrays.asList(ReadMode.valueOf(value.toUpperCase()));
+				break;
+			case "threads":
+				load.setThreads(Integer.parseInt(value));
+				break;
+			case "writeRatio":
+				load.setWriteRatio(Double.parseDouble(value));
+				break;
+			case "skew":
+				load.setSkew(Double.parseDouble(value));
+				break;
+			case "duration":
+				load.setDurationMillis(Long.parseLong(value));
+				break;
+			case "operations":
+				load.setOperationsPerThread(Long.parseLong(value));
+				break;
+			case "interval":
+				load.setIntervalMillis(Long.parseLong(value));
+				break;
+			case "seed":
+				load.setSeed(Long.parseLong(value));
+				break;
+			default:
+				throw new IllegalArgumentException("unknown argument: " + key);
+			}
+		}
+		for(ReadMode mode: modes) {
+			System.out.println(load.setReadMode(mode).run());
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * Name: LoadReport
+ * Description: Result of a LoadGenerator run: latency histograms of the reads and writes, throughput of every
+ * 				interval of the run, failed operations and the invariant violations found in the graph after
+ * 				the run.
+ */
+package com.nkwok.simplegraph.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nkwok.simplegraph.ShortestPathGraph;
+
+public final class LoadReport {
+
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+	private final LoadGenerator.ReadMode readMode;
+	private final int threads;
+	private final ShortestPathGraph graph;
+	private final LatencyHistogram reads;
+	private final LatencyHistogram writes;
+	private final long elapsedNanos;
+	private final long intervalMillis;
+	private final long[] intervalOperations;
+	private final long errors;
+	private final long rejected;
+	private final List<String> errorMessages;
+	private final List<String> violations;
+
+	LoadReport(LoadGenerator.ReadMode readMode, int threads, ShortestPathGraph graph, LatencyHistogram reads,
+			LatencyHistogram writes, long elapsedNanos, long intervalMillis, long[] intervalOperations, long errors,
+			long rejected, List<String> errorMessages, List<String> violations) {
+		this.readMode = readMode;
+		this.threads = threads;
+		this.graph = graph;
+		this.reads = reads;
+		this.writes = writes;
+		this.elapsedNanos = elapsedNanos;
+		this.intervalMillis = intervalMillis;
+		this.intervalOperations = intervalOperations;
+		this.errors = errors;
+		this.rejected = rejected;
+		this.errorMessages = errorMessages;
+		this.violations = violations;
+	}
+
+	/**
+	 * @return the read mode of the run
+	 */
+	public LoadGenerator.ReadMode getReadMode() {
+		return readMode;
+	}
+
+	/**
+	 * @return the number of load threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @return the graph the load ran on, in its state at the end of the run
+	 */
+	public ShortestPathGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the latencies of the reads
+	 */
+	public LatencyHistogram getReads() {
+		return reads;
+	}
+
+	/**
+	 * @return the latencies of the writes
+	 */
+	public LatencyHistogram getWrites() {
+		return writes;
+	}
+
+	/**
+	 * @return the number of operations run, failed ones included
+	 */
+	public long getOperations() {
+		return reads.getCount() + writes.getCount();
+	}
+
+	/**
+	 * @return the time of the run in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return the operations per second over the whole run
+	 */
+	public double getThroughput() {
+		return elapsedNanos == 0 ? 0 : getOperations() * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * @return the length of the throughput intervals in milliseconds
+	 */
+	public long getIntervalMillis() {
+		return intervalMillis;
+	}
+
+	/**
+	 * @return a copy of the number of operations completed in every interval of the run
+	 */
+	public long[] getIntervalOperations() {
+		return intervalOperations.clone();
+	}
+
+	/**
+	 * @return the number of operations which threw an exception
+	 */
+	public long getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @return the number of reads rejected by the backpressure of the asynchronous mode
+	 */
+	public long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * @return the first error messages
+	 */
+	public List<String> getErrorMessages() {
+		return new ArrayList<>(errorMessages);
+	}
+
+	/**
+	 * @return the invariant violations found after the run, empty if the graph is consistent
+	 */
+	public List<String> getViolations() {
+		return new ArrayList<>(violations);
+	}
+
+	/**
+	 * @return true if no operation failed and no invariant is violated
+	 */
+	public boolean isClean() {
+		return errors == 0 && violations.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("mode %s, %d threads, %d operations in %d ms (%.0f ops/s), %d errors, %d rejected%n",
+				readMode, threads, getOperations(), elapsedNanos / 1000000, getThroughput(), errors, rejected));
+		appendLatencies(builder, "reads ", reads);
+		appendLatencies(builder, "writes", writes);
+		builder.append("operations per ").append(intervalMillis).append(" ms:");
+		for(long operations: intervalOperations) {
+			builder.append(' ').append(operations);
+		}
+		builder.append(String.format("%n"));
+		for(String message: errorMessages) {
+			builder.append("error: ").append(message).append(String.format("%n"));
+		}
+		if (violations.isEmpty()) {
+			builder.append(String.format("invariants: ok%n"));
+		}
+		for(String violation: violations) {
+			builder.append("violation: ").append(violation).append(String.format("%n"));
+		}
+		return builder.toString();
+	}
+
+	private static void appendLatencies(StringBuilder builder, String label, LatencyHistogram histogram) {
+		builder.append(String.format("%s %8d  mean %9.1f us", label, histogram.getCount(), histogram.getMean() / 1000));
+		for(double percentile: PERCENTILES) {
+			builder.append(String.format("  p%s %9.1f us", percentile == (long) percentile ? String.valueOf((long) percentile)
+					: String.valueOf(percentile), histogram.getValueAtPercentile(percentile) / 1000.0));
+		}
+		builder.append(String.format("  max %9.1f us%n", histogram.getMax() / 1000.0));
+	}
+}
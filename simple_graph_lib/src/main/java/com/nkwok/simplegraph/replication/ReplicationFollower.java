@@ -0,0 +1,316 @@
+/**
+ * Name: ReplicationFollower
+ * Description: Read replica of a Graph fed by a ReplicationPrimary over a socket.  A receiver thread connects to
+ * 				the primary, tells it the last change it has applied and then applies the batches it gets, in
+ * 				sequence, to its graph.  The first connection, or one the primary cannot resume from its
+ * 				backlog, starts with a snapshot, which replaces the graph; getGraph returns the current one, so
+ * 				readers should get it per query.  After a lost connection the follower reconnects every retry
+ * 				interval and resumes where it was.  The lag is the number of changes the primary had made, as
+ * 				of the last frame received, which are not applied yet.
+ * 				A snapshot may only hold the classes of a graph: Graph, Vertex, Edge and their subclasses, their
+ * 				sets and strings.  Any other class ends the connection before it is instantiated.
+ *
+ * 				The replica must only be read: a change made to it directly is not known to the primary.
+ */
+package com.nkwok.simplegraph.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import com.nkwok.simplegraph.Edge;
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.GraphChange;
+import com.nkwok.simplegraph.Vertex;
+
+public class ReplicationFollower implements AutoCloseable {
+
+	private final InetSocketAddress primary;
+	private final long retryMillis;
+	private final Object lock = new Object();
+
+	private volatile Graph graph;
+	// guarded by lock for writes, read freely
+	private volatile long primaryId;
+	private volatile long appliedSequence = -1;
+	private volatile long primarySequence = -1;
+	private volatile long lastContactMillis;
+	private volatile boolean connected;
+	private volatile boolean closed;
+	private volatile long snapshotCount;
+	private volatile long connectCount;
+	private volatile IOException lastFailure;
+	private volatile Socket socket;
+	private final Thread receiver;
+
+	/**
+	 * Constructor with the address of the primary and the retry interval.  The follower starts connecting.
+	 *
+	 * @param host - host name of the primary
+	 * @param port - port of the primary
+	 * @param retryMillis - time between two connection attempts
+	 */
+	public ReplicationFollower(String host, int port, long retryMillis) {
+		if (host == null) {
+			throw new IllegalArgumentException("null host");
+		}
+		if (retryMillis <= 0) {
+			throw new IllegalArgumentException("retry interval must be positive: " + retryMillis);
+		}
+		this.primary = new InetSocketAddress(host, port);
+		this.retryMillis = retryMillis;
+		receiver = new Thread(this::runReceiver, "replication-follower-" + primary);
+		receiver.setDaemon(true);
+		receiver.start();
+	}
+
+	/**
+	 * Constructor with the address of the primary, retrying every 200 ms
+	 *
+	 * @param host - host name of the primary
+	 * @param port - port of the primary
+	 */
+	public ReplicationFollower(String host, int port) {
+		this(host, port, 200);
+	}
+
+	/**
+	 * Object stream which only resolves the classes a graph is made of, so the bytes from the network cannot
+	 * instantiate anything else
+	 */
+	static final class SnapshotInputStream extends ObjectInputStream {
+
+		SnapshotInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			Class<?> type = super.resolveClass(desc);
+			if (Graph.class.isAssignableFrom(type) || Edge.class.isAssignableFrom(type) || type == Vertex.class
+					|| type == HashSet.class || type == String.class) {
+				return type;
+			}
+			throw new InvalidClassException(desc.getName(), "not allowed in a graph snapshot");
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+			throw new InvalidClassException("proxy", "not allowed in a graph snapshot");
+		}
+	}
+
+	private void runReceiver() {
+		while (! closed) {
+			try (Socket connection = new Socket()) {
+				socket = connection;
+				connection.connect(primary, (int) Math.min(Integer.MAX_VALUE, retryMillis * 10));
+				connection.setTcpNoDelay(true);
+				connectCount++;
+				receive(connection);
+			} catch (IOException | ClassNotFoundException | RuntimeException e) {
+				if (! closed) {
+					lastFailure = e instanceof IOException ? (IOException) e : new IOException(e);
+				}
+			} finally {
+				connected = false;
+				socket = null;
+			}
+			if (closed) {
+				return;
+			}
+			try {
+				Thread.sleep(retryMillis);
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * receive - say where the follower is and apply the frames of the primary until the connection ends
+	 */
+	private void receive(Socket connection) throws IOException, ClassNotFoundException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+		out.writeInt(ReplicationProtocol.MAGIC);
+		out.writeLong(graph == null ? 0 : primaryId);
+		out.writeLong(appliedSequence);
+		out.flush();
+		connected = true;
+
+		DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+		while (! closed) {
+			int frame = in.readUnsignedByte();
+			switch (frame) {
+			case ReplicationProtocol.SNAPSHOT:
+				long id = in.readLong();
+				long sequence = in.readLong();
+				int length = in.readInt();
+				if (length < 0 || length > ReplicationProtocol.MAX_SNAPSHOT) {
+					throw new IOException("invalid snapshot length " + length);
+				}
+				byte[] image = new byte[length];
+				in.readFully(image);
+				Graph snapshot;
+				try (ObjectInputStream ois = new SnapshotInputStream(new ByteArrayInputStream(image))) {
+					snapshot = (Graph) ois.readObject();
+				}
+				synchronized(lock) {
+					graph = snapshot;
+					primaryId = id;
+					appliedSequence = sequence;
+					primarySequence = Math.max(primarySequence, sequence);
+					snapshotCount++;
+					lock.notifyAll();
+				}
+				break;
+			case ReplicationProtocol.BATCH:
+				long latest = in.readLong();
+				int count = in.readInt();
+				for(int i = 0; i < count; i++) {
+					GraphChange change = GraphChange.readFrom(in);
+					if (change.getSequence() != appliedSequence + 1) {
+						throw new IOException("change " + change.getSequence() + " after " + appliedSequence);
+					}
+					change.applyTo(graph);
+					synchronized(lock) {
+						appliedSequence = change.getSequence();
+					}
+				}
+				synchronized(lock) {
+					primarySequence = latest;
+					lock.notifyAll();
+				}
+				break;
+			case ReplicationProtocol.HEARTBEAT:
+				primarySequence = in.readLong();
+				break;
+			default:
+				throw new IOException("unknown replication frame " + frame);
+			}
+			lastContactMillis = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * @return the replica, null until the first snapshot is received; it is replaced by later snapshots
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the sequence of the last change applied, -1 before the first snapshot
+	 */
+	public long getAppliedSequence() {
+		return appliedSequence;
+	}
+
+	/**
+	 * @return the sequence of the primary as of the last frame received, -1 before the first one
+	 */
+	public long getPrimarySequence() {
+		return primarySequence;
+	}
+
+	/**
+	 * @return the number of changes made by the primary and not applied yet, as of the last frame received
+	 */
+	public long getLag() {
+		return Math.max(0, primarySequence - appliedSequence);
+	}
+
+	/**
+	 * @return the time of the last frame received in milliseconds since the epoch, 0 before the first one
+	 */
+	public long getLastContactMillis() {
+		return lastContactMillis;
+	}
+
+	/**
+	 * @return true while connected to the primary
+	 */
+	public boolean isConnected() {
+		return connected;
+	}
+
+	/**
+	 * @return the number of snapshots received
+	 */
+	public long getSnapshotCount() {
+		return snapshotCount;
+	}
+
+	/**
+	 * @return the number of connections made to the primary
+	 */
+	public long getConnectCount() {
+		return connectCount;
+	}
+
+	/**
+	 * @return the error which ended the last connection, null if none
+	 */
+	public IOException getLastFailure() {
+		return lastFailure;
+	}
+
+	/**
+	 * awaitSequence - wait until a change of the primary has been applied
+	 *
+	 * @param sequence - sequence of the change
+	 * @param timeout
+	 * @param unit
+	 * @return true if applied; false if the timeout passed first
+	 * @throws InterruptedException
+	 */
+	public boolean awaitSequence(long sequence, long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized(lock) {
+			while (appliedSequence < sequence) {
+				long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (left <= 0) {
+					return false;
+				}
+				lock.wait(left);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * close - disconnect from the primary and stop; the replica keeps its last state
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		Socket current = socket;
+		if (current != null) {
+			try {
+				current.close();
+			} catch (IOException e) {
+				// already closed
+			}
+		}
+		receiver.interrupt();
+		try {
+			receiver.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,390 @@
+/**
+ * Name: ReplicationPrimary
+ * Description: Streams the changes of a Graph over sockets to ReplicationFollower processes.  Every
+ * 				addEdge/removeEdge is numbered and kept in a ring of the latest changes, the backlog.  Each
+ * 				follower connection has a sender thread which sends the changes after the last one the
+ * 				follower has, as batches of everything pending at the time up to the batch limit, and a
+ * 				heartbeat with the current sequence while there are none.
+ * 				A follower without state, from another primary or so far behind that its next change has left
+ * 				the backlog gets a snapshot first: the graph serialized under its lock with the sequence of the
+ * 				last change it includes.  A follower which reconnects within the backlog just resumes.
+ *
+ * 				Lock order: graph monitor -> primary lock.  The change listener runs under the graph lock and
+ * 				only appends to the backlog; the sockets are written without either lock held.
+ */
+package com.nkwok.simplegraph.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.nkwok.simplegraph.Edge;
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.GraphChange;
+import com.nkwok.simplegraph.GraphChangeListener;
+
+public class ReplicationPrimary implements GraphChangeListener, AutoCloseable {
+
+	// longest pause between two failed accepts
+	private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+	private final Graph graph;
+	private final ServerSocket server;
+	private final long primaryId;
+	private final Object lock = new Object();
+
+	// guarded by lock: change s is at backlog[s % length] while s > sequence - length
+	private final GraphChange[] backlog;
+	private long sequence;
+
+	private volatile int maxBatch = 1024;
+	private volatile long heartbeatMillis = 100;
+	private volatile boolean closed;
+	private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+	private final AtomicLong snapshotsSent = new AtomicLong();
+	private final AtomicLong changesSent = new AtomicLong();
+	private final Thread acceptor;
+	private volatile IOException lastAcceptFailure;
+
+	/**
+	 * Constructor with the graph to replicate, the address and port to listen on and the number of changes kept
+	 * for followers to catch up from.  The primary starts listening and logging the changes of the graph.
+	 * The followers are not authenticated, so the address should only be reachable by trusted hosts.
+	 *
+	 * @param graph - graph to replicate
+	 * @param bindAddress - local address to listen on, null for all interfaces
+	 * @param port - port to listen on, 0 for any free port
+	 * @param backlogSize - number of latest changes kept
+	 * @throws IOException - if the port cannot be bound
+	 */
+	public ReplicationPrimary(Graph graph, InetAddress bindAddress, int port, int backlogSize) throws IOException {
+		this(graph, new ServerSocket(port, 0, bindAddress), backlogSize);
+	}
+
+	/**
+	 * Constructor with the graph to replicate, the port to listen on and the number of changes kept for
+	 * followers to catch up from.  The primary starts listening and logging the changes of the graph.
+	 *
+	 * @param graph - graph to replicate
+	 * @param port - port on the loopback interface only, 0 for any free port
+	 * @param backlogSize - number of latest changes kept
+	 * @throws IOException - if the port cannot be bound
+	 */
+	public ReplicationPrimary(Graph graph, int port, int backlogSize) throws IOException {
+		this(graph, InetAddress.getLoopbackAddress(), port, backlogSize);
+	}
+
+	/**
+	 * Constructor with the graph to replicate and the port to listen on, keeping the latest 65536 changes
+	 *
+	 * @param graph - graph to replicate
+	 * @param port - port on the loopback interface only, 0 for any free port
+	 * @throws IOException - if the port cannot be bound
+	 */
+	public ReplicationPrimary(Graph graph, int port) throws IOException {
+		this(graph, port, 1 << 16);
+	}
+
+	/**
+	 * Constructor with the graph to replicate, a bound server socket and the backlog size
+	 *
+	 * @param graph - graph to replicate
+	 * @param server - bound server socket, closed with the primary
+	 * @param backlogSize - number of latest changes kept
+	 */
+	public ReplicationPrimary(Graph graph, ServerSocket server, int backlogSize) {
+		if (graph == null || server == null) {
+			throw new IllegalArgumentException("null graph or server socket");
+		}
+		if (backlogSize <= 0) {
+			throw new IllegalArgumentException("backlog size must be positive: " + backlogSize);
+		}
+		this.graph = graph;
+		this.server = server;
+		this.backlog = new GraphChange[backlogSize];
+		long id = new Random().nextLong();
+		this.primaryId = id == 0 ? 1 : id;
+		graph.addChangeListener(this);
+		acceptor = new Thread(this::runAcceptor, "replication-primary-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	/**
+	 * @param maxBatch - most changes sent in one batch; default 1024
+	 * @return this
+	 */
+	public ReplicationPrimary setMaxBatch(int maxBatch) {
+		if (maxBatch <= 0) {
+			throw new IllegalArgumentException("max batch must be positive: " + maxBatch);
+		}
+		this.maxBatch = maxBatch;
+		return this;
+	}
+
+	/**
+	 * @param heartbeatMillis - time without changes after which a heartbeat is sent; default 100
+	 * @return this
+	 */
+	public ReplicationPrimary setHeartbeatMillis(long heartbeatMillis) {
+		if (heartbeatMillis <= 0) {
+			throw new IllegalArgumentException("heartbeat must be positive: " + heartbeatMillis);
+		}
+		this.heartbeatMillis = heartbeatMillis;
+		return this;
+	}
+
+	@Override
+	public void edgeAdded(Edge edge) {
+		append(GraphChange.Type.ADD_EDGE, edge);
+	}
+
+	@Override
+	public void edgeRemoved(Edge edge) {
+		append(GraphChange.Type.REMOVE_EDGE, edge);
+	}
+
+	private void append(GraphChange.Type type, Edge edge) {
+		synchronized(lock) {
+			sequence++;
+			backlog[(int) (sequence % backlog.length)] = new GraphChange(type, sequence, edge);
+			lock.notifyAll();
+		}
+	}
+
+	private void runAcceptor() {
+		long backoffMillis = 0;
+		while (! closed) {
+			Socket socket;
+			try {
+				socket = server.accept();
+			} catch (IOException e) {
+				if (closed) {
+					return;
+				}
+				lastAcceptFailure = e;
+				if (server.isClosed()) {
+					// closed from outside the primary, nothing more to accept
+					return;
+				}
+				// a failing accept, out of file descriptors for example, is retried after a growing pause
+				backoffMillis = Math.min(MAX_ACCEPT_BACKOFF_MILLIS, Math.max(1, backoffMillis * 2));
+				try {
+					Thread.sleep(backoffMillis);
+				} catch (InterruptedException interrupted) {
+					return;
+				}
+				continue;
+			}
+			backoffMillis = 0;
+			followers.add(socket);
+			Thread sender = new Thread(() -> runSender(socket), "replication-primary-sender-"
+					+ socket.getRemoteSocketAddress());
+			sender.setDaemon(true);
+			sender.start();
+		}
+	}
+
+	/**
+	 * runSender - bring one follower up to date and keep streaming the changes to it until it disconnects
+	 */
+	private void runSender(Socket socket) {
+		try {
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			if (in.readInt() != ReplicationProtocol.MAGIC) {
+				return;
+			}
+			long followerId = in.readLong();
+			long next = in.readLong() + 1;
+			boolean snapshot = followerId != primaryId;
+
+			while (! closed) {
+				if (snapshot) {
+					next = sendSnapshot(out) + 1;
+					snapshot = false;
+				}
+				GraphChange[] batch;
+				long primarySequence;
+				synchronized(lock) {
+					if (sequence < next) {
+						lock.wait(heartbeatMillis);
+					}
+					primarySequence = sequence;
+					if (next <= sequence - backlog.length || next > sequence + 1) {
+						// the follower's next change has left the backlog, or it is ahead of this primary
+						snapshot = true;
+						continue;
+					}
+					int count = (int) Math.min(maxBatch, sequence - next + 1);
+					batch = new GraphChange[count];
+					for(int i = 0; i < count; i++) {
+						batch[i] = backlog[(int) ((next + i) % backlog.length)];
+					}
+				}
+				if (batch.length == 0) {
+					out.writeByte(ReplicationProtocol.HEARTBEAT);
+					out.writeLong(primarySequence);
+				} else {
+					out.writeByte(ReplicationProtocol.BATCH);
+					out.writeLong(primarySequence);
+					out.writeInt(batch.length);
+					for(GraphChange change: batch) {
+						change.writeTo(out);
+					}
+					next += batch.length;
+					changesSent.addAndGet(batch.length);
+				}
+				out.flush();
+			}
+		} catch (IOException | InterruptedException e) {
+			// the follower is gone or the primary is closing; the follower reconnects and resumes
+		} finally {
+			followers.remove(socket);
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// already closed
+			}
+		}
+	}
+
+	/**
+	 * sendSnapshot - send the graph with the sequence of the last change it includes
+	 *
+	 * @return the sequence of the snapshot
+	 */
+	private long sendSnapshot(DataOutputStream out) throws IOException {
+		ByteArrayOutputStream image = new ByteArrayOutputStream();
+		long snapshotSequence;
+		synchronized(graph) {
+			try (ObjectOutputStream oos = new ObjectOutputStream(image)) {
+				oos.writeObject(graph);
+			}
+			synchronized(lock) {
+				snapshotSequence = sequence;
+			}
+		}
+		out.writeByte(ReplicationProtocol.SNAPSHOT);
+		out.writeLong(primaryId);
+		out.writeLong(snapshotSequence);
+		out.writeInt(image.size());
+		image.writeTo(out);
+		out.flush();
+		snapshotsSent.incrementAndGet();
+		return snapshotSequence;
+	}
+
+	/**
+	 * @return the graph replicated
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the port the primary listens on
+	 */
+	public int getPort() {
+		return server.getLocalPort();
+	}
+
+	/**
+	 * @return the address the primary listens on
+	 */
+	public InetAddress getAddress() {
+		return server.getInetAddress();
+	}
+
+	/**
+	 * @return the sequence of the last change of the graph
+	 */
+	public long getSequence() {
+		synchronized(lock) {
+			return sequence;
+		}
+	}
+
+	/**
+	 * @return the number of followers connected
+	 */
+	public int getFollowerCount() {
+		return followers.size();
+	}
+
+	/**
+	 * @return the number of snapshots sent to followers
+	 */
+	public long getSnapshotsSent() {
+		return snapshotsSent.get();
+	}
+
+	/**
+	 * @return the number of changes sent to followers, counted once per follower
+	 */
+	public long getChangesSent() {
+		return changesSent.get();
+	}
+
+	/**
+	 * @return the error of the last failed accept of a follower connection, null if none
+	 */
+	public IOException getLastAcceptFailure() {
+		return lastAcceptFailure;
+	}
+
+	/**
+	 * disconnectFollowers - drop every follower connection; the followers reconnect and resume
+	 */
+	public void disconnectFollowers() {
+		for(Socket socket: followers) {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// already closed
+			}
+		}
+	}
+
+	/**
+	 * close - stop logging the changes of the graph, stop listening and drop the followers
+	 *
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		graph.removeChangeListener(this);
+		synchronized(lock) {
+			lock.notifyAll();
+		}
+		try {
+			server.close();
+		} catch (SocketException e) {
+			// already closed
+		}
+		disconnectFollowers();
+		acceptor.interrupt();
+		try {
+			acceptor.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
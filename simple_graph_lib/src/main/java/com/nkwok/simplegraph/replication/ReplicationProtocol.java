@@ -0,0 +1,26 @@
+/**
+ * Name: ReplicationProtocol
+ * Description: Wire format between a ReplicationPrimary and its followers, written with DataOutput.
+ * 				Follower to primary, once after connecting:
+ * 				  HELLO     - [int magic][long primary id][long last applied sequence], id 0 for none
+ * 				Primary to follower, as a stream of frames:
+ * 				  SNAPSHOT  - [byte 1][long primary id][long sequence][int length][serialized graph]
+ * 				  BATCH     - [byte 2][long primary sequence][int count][GraphChange]...
+ * 				  HEARTBEAT - [byte 3][long primary sequence]
+ * 				The changes of a batch follow each other in sequence; the primary sequence tells the follower
+ * 				how far behind it is.
+ */
+package com.nkwok.simplegraph.replication;
+
+final class ReplicationProtocol {
+
+	static final int MAGIC = 0x53475231;
+	static final int SNAPSHOT = 1;
+	static final int BATCH = 2;
+	static final int HEARTBEAT = 3;
+	// largest snapshot a follower accepts
+	static final int MAX_SNAPSHOT = Integer.MAX_VALUE - 8;
+
+	private ReplicationProtocol() {
+	}
+}
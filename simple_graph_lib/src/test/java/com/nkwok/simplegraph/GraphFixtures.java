@@ -0,0 +1,138 @@
+/**
+ * Name: GraphFixtures
+ * Description: Graphs shared by the tests, so a test only spells out the edges of its own scenario
+ */
+
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public final class GraphFixtures {
+
+	/**
+	 * Shortest path of the sample graph from Node_0 to Node_10
+	 */
+	public static final String SAMPLE_SHORTEST_PATH = "Node_0 (0) -> Node_4 (1) -> Node_9 (3) -> Node_10 (4)";
+
+	private GraphFixtures() {
+	}
+
+	/**
+	 * sampleEdges - the eleven node graph of TestShortestPathGraph
+	 *
+	 * @return a new set of the edges
+	 */
+	public static Set<Edge> sampleEdges() {
+		return edges(
+				new Edge("Edge 0_1", "Node_0", "Node_1", 1),
+				new Edge("Edge 0_2", "Node_0", "Node_2", 1),
+				new Edge("Edge 0_4", "Node_0", "Node_4", 1),
+				new Edge("Edge 0_10", "Node_0", "Node_10", 7),
+				new Edge("Edge 1_10", "Node_1", "Node_10", 5),
+				new Edge("Edge 2_6", "Node_2", "Node_6", 186),
+				new Edge("Edge 2_7", "Node_2", "Node_7", 103),
+				new Edge("Edge 3_7", "Node_3", "Node_7", 183),
+				new Edge("Edge 4_9", "Node_4", "Node_9", 2),
+				new Edge("Edge 5_8", "Node_5", "Node_8", 250),
+				new Edge("Edge 7_9", "Node_7", "Node_9", 1),
+				new Edge("Edge 8_9", "Node_8", "Node_9", 84),
+				new Edge("Edge 9_10", "Node_9", "Node_10", 1));
+	}
+
+	/**
+	 * edges - a new set of edges
+	 *
+	 * @param edges
+	 * @return the set
+	 */
+	public static Set<Edge> edges(Edge... edges) {
+		return new HashSet<>(Arrays.asList(edges));
+	}
+
+	/**
+	 * chainEdges - edges Node_0 -> Node_1 -> ... -> Node_(nodes - 1) of weight 1
+	 *
+	 * @param nodes - number of nodes
+	 * @return a new set of the edges
+	 */
+	public static Set<Edge> chainEdges(int nodes) {
+		Set<Edge> edges = new HashSet<>();
+		for(int i = 1; i < nodes; i++) {
+			edges.add(new Edge("Edge " + i, "Node_" + (i - 1), "Node_" + i, 1));
+		}
+		return edges;
+	}
+
+	/**
+	 * randomEdges - random directed edges "Edge i" between Node_0 ... Node_(nodes - 1)
+	 *
+	 * @param nodes - number of nodes
+	 * @param edgeCount - number of edges
+	 * @param maxWeight - weights are drawn from 1 to maxWeight
+	 * @param seed
+	 * @return a new set of the edges
+	 */
+	public static Set<Edge> randomEdges(int nodes, int edgeCount, int maxWeight, long seed) {
+		Random random = new Random(seed);
+		Set<Edge> edges = new HashSet<>();
+		for(int i = 0; i < edgeCount; i++) {
+			String from = "Node_" + random.nextInt(nodes);
+			String to = "Node_" + random.nextInt(nodes);
+			edges.add(new Edge("Edge " + i, from, to, maxWeight == 1 ? 1 : 1 + random.nextInt(maxWeight)));
+		}
+		return edges;
+	}
+
+	/**
+	 * randomEdges - random directed edges with weights of a type: INT from 1 to 100, LONG above 2 ^ 40 and DOUBLE
+	 * 				from 0.5 to 100.5
+	 *
+	 * @param nodes - number of nodes
+	 * @param edgeCount - number of edges
+	 * @param type - weight type
+	 * @param seed
+	 * @return a new set of the edges
+	 */
+	public static Set<Edge> randomEdges(int nodes, int edgeCount, Edge.WeightType type, long seed) {
+		Random random = new Random(seed);
+		Set<Edge> edges = new HashSet<>();
+		for(int i = 0; i < edgeCount; i++) {
+			String from = "Node_" + random.nextInt(nodes);
+			String to = "Node_" + random.nextInt(nodes);
+			switch (type) {
+			case LONG:
+				edges.add(new LongEdge("Edge " + i, from, to, (1L << 40) + random.nextInt(1000)));
+				break;
+			case DOUBLE:
+				edges.add(new DoubleEdge("Edge " + i, from, to, 0.5 + random.nextDouble() * 100));
+				break;
+			default:
+				edges.add(new Edge("Edge " + i, from, to, 1 + random.nextInt(100)));
+				break;
+			}
+		}
+		return edges;
+	}
+
+	/**
+	 * indexed - build edges straight into the indexed form with every node Node_0 ... Node_(nodes - 1), also the
+	 * 			nodes no edge touches, which a Graph built from the edges would leave out
+	 *
+	 * @param nodes - number of nodes
+	 * @param edges
+	 * @return the indexed graph
+	 */
+	public static IndexedGraph indexed(int nodes, Collection<Edge> edges) {
+		List<Vertex> vertices = new ArrayList<>();
+		for(int i = 0; i < nodes; i++) {
+			vertices.add(new Vertex("Node_" + i));
+		}
+		return new IndexedGraph(vertices, edges);
+	}
+}
@@ -0,0 +1,103 @@
+/**
+ * Name: TestAsyncShortestPathGraph
+ * Description: JUnit test for AsyncShortestPathGraph class
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestAsyncShortestPathGraph {
+
+	private final Set<Edge> edges = GraphFixtures.sampleEdges();
+
+	// Executor which only runs the tasks when asked, so the tests can hold queries in flight
+	private final List<Runnable> heldTasks = new ArrayList<>();
+
+	private void runHeldTasks() {
+		List<Runnable> tasks = new ArrayList<>(heldTasks);
+		heldTasks.clear();
+		tasks.forEach(Runnable::run);
+	}
+
+	@Test
+	public void test_findShortestPath() throws Exception {
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+
+		try (AsyncShortestPathGraph async = new AsyncShortestPathGraph(sp, 2, 16)) {
+			LinkedList<Map<Vertex, Integer>> foundPath =
+					async.findShortestPath("Node_0", "Node_10").get(10, TimeUnit.SECONDS);
+			assertEquals(GraphFixtures.SAMPLE_SHORTEST_PATH, sp.pathToString(foundPath));
+		}
+	}
+
+	@Test
+	public void test_coalesceDuplicates() throws Exception {
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+		AsyncShortestPathGraph async = new AsyncShortestPathGraph(sp, heldTasks::add, 16);
+
+		CompletableFuture<LinkedList<Map<Vertex, Integer>>> first = async.findShortestPath("Node_0", "Node_10");
+		CompletableFuture<LinkedList<Map<Vertex, Integer>>> second = async.findShortestPath("Node_0", "Node_10");
+		CompletableFuture<LinkedList<Map<Vertex, Integer>>> other = async.findShortestPath("Node_0", "Node_9");
+
+		assertEquals(2, heldTasks.size());
+		assertEquals(1, async.getCoalescedCount());
+		assertEquals(2, async.getInFlightCount());
+
+		runHeldTasks();
+
+		assertEquals(GraphFixtures.SAMPLE_SHORTEST_PATH, sp.pathToString(first.get()));
+		assertEquals(GraphFixtures.SAMPLE_SHORTEST_PATH, sp.pathToString(second.get()));
+		assertNotSame(first.get(), second.get());
+		assertEquals("Node_0 (0) -> Node_4 (1) -> Node_9 (3)", sp.pathToString(other.get()));
+		assertEquals(0, async.getInFlightCount());
+
+		// A query after completion starts a new search
+		async.findShortestPath("Node_0", "Node_10");
+		assertEquals(1, heldTasks.size());
+		runHeldTasks();
+	}
+
+	@Test
+	public void test_backpressure() throws Exception {
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+		AsyncShortestPathGraph async = new AsyncShortestPathGraph(sp, heldTasks::add, 1);
+
+		CompletableFuture<LinkedList<Map<Vertex, Integer>>> first = async.findShortestPath("Node_0", "Node_10");
+		CompletableFuture<LinkedList<Map<Vertex, Integer>>> rejected = async.findShortestPath("Node_0", "Node_9");
+		// joining an in-flight query does not count against the bound
+		CompletableFuture<LinkedList<Map<Vertex, Integer>>> joined = async.findShortestPath("Node_0", "Node_10");
+
+		try {
+			rejected.get();
+			fail("expected rejection");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+		assertEquals(1, async.getRejectedCount());
+
+		runHeldTasks();
+		assertEquals(GraphFixtures.SAMPLE_SHORTEST_PATH, sp.pathToString(first.get()));
+		assertEquals(GraphFixtures.SAMPLE_SHORTEST_PATH, sp.pathToString(joined.get()));
+
+		// the permit is released once the search is done
+		CompletableFuture<LinkedList<Map<Vertex, Integer>>> accepted = async.findShortestPath("Node_0", "Node_9");
+		runHeldTasks();
+		assertEquals("Node_0 (0) -> Node_4 (1) -> Node_9 (3)", sp.pathToString(accepted.get()));
+	}
+}
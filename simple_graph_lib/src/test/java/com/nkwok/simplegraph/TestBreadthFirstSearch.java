@@ -0,0 +1,107 @@
+/**
+ * Name: TestBreadthFirstSearch
+ * Description: JUnit test for BreadthFirstSearch class and the hop distance methods of Graph
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestBreadthFirstSearch {
+
+	/**
+	 * plain queue based search used as the reference
+	 */
+	private static int[] expected(IndexedGraph graph, int source) {
+		int[] levels = new int[graph.getNumbersOfVertices()];
+		Arrays.fill(levels, BreadthFirstSearch.UNREACHED);
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		levels[source] = 0;
+		queue.add(source);
+		while (! queue.isEmpty()) {
+			int node = queue.poll();
+			for(int slot = graph.firstEdge(node); slot < graph.endEdge(node); slot++) {
+				int neighbor = graph.target(slot);
+				if (levels[neighbor] == BreadthFirstSearch.UNREACHED) {
+					levels[neighbor] = levels[node] + 1;
+					queue.add(neighbor);
+				}
+			}
+		}
+		return levels;
+	}
+
+	@Test
+	public void test_sparseGraph() {
+		IndexedGraph graph = GraphFixtures.indexed(300, GraphFixtures.randomEdges(300, 450, 100, 1L));
+		BreadthFirstSearch search = new BreadthFirstSearch(graph);
+		for(int source = 0; source < graph.getNumbersOfVertices(); source += 17) {
+			assertArrayEquals(expected(graph, source), search.hopDistances(source));
+		}
+	}
+
+	@Test
+	public void test_socialGraph() {
+		// dense enough to switch to bottom-up and large enough to split levels into parallel chunks
+		IndexedGraph graph = GraphFixtures.indexed(20000, GraphFixtures.randomEdges(20000, 200000, 100, 2L));
+		for(boolean parallel: new boolean[] {false, true}) {
+			BreadthFirstSearch search = new BreadthFirstSearch(graph, parallel);
+			for(int source = 0; source < 3; source++) {
+				assertArrayEquals(expected(graph, source), search.hopDistances(source));
+				assertTrue(search.getBottomUpLevels() > 0);
+				assertTrue(search.getTopDownLevels() > 0);
+			}
+		}
+	}
+
+	@Test
+	public void test_hopDistance() {
+		IndexedGraph graph = GraphFixtures.indexed(5000, GraphFixtures.randomEdges(5000, 40000, 100, 3L));
+		int[] levels = expected(graph, 7);
+		for(boolean parallel: new boolean[] {false, true}) {
+			BreadthFirstSearch search = new BreadthFirstSearch(graph, parallel);
+			for(int target = 0; target < levels.length; target += 97) {
+				assertEquals(levels[target], search.hopDistance(7, target));
+			}
+		}
+	}
+
+	@Test
+	public void test_graphHopDistance() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge 0_1", "Node_0", "Node_1", 1));
+		edges.add(new Edge("Edge 1_2", "Node_1", "Node_2", 1));
+		edges.add(new Edge("Edge 2_3", "Node_2", "Node_3", 1));
+		edges.add(new Edge("Edge 0_3", "Node_0", "Node_3", 50));
+		edges.add(new Edge("Edge 4_0", "Node_4", "Node_0", 1));
+		Graph graph = new Graph(edges);
+
+		assertEquals(1, graph.getHopDistance("Node_0", "Node_3"));
+		assertEquals(2, graph.getHopDistance("Node_0", "Node_2"));
+		assertEquals(0, graph.getHopDistance("Node_0", "Node_0"));
+		assertEquals(-1, graph.getHopDistance("Node_0", "Node_4"));
+		assertEquals(-1, graph.getHopDistance("Node_0", "Node_X"));
+		assertEquals(-1, graph.getHopDistance(null, "Node_0"));
+
+		Map<String, Integer> hops = graph.getHopDistances("Node_0");
+		assertEquals(4, hops.size());
+		assertEquals(Integer.valueOf(0), hops.get("Node_0"));
+		assertEquals(Integer.valueOf(1), hops.get("Node_1"));
+		assertEquals(Integer.valueOf(2), hops.get("Node_2"));
+		assertEquals(Integer.valueOf(1), hops.get("Node_3"));
+		assertTrue(graph.getHopDistances("Node_X").isEmpty());
+
+		graph.removeEdge(new Edge("Edge 0_3", "Node_0", "Node_3", 50));
+		assertEquals(3, graph.getHopDistance("Node_0", "Node_3"));
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * Name: TestCompressedGraph
+ * Description: JUnit test for CompressedGraph class
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestCompressedGraph {
+
+	@Test
+	public void test_neighbors() {
+		IndexedGraph graph = new ShortestPathGraph(GraphFixtures.randomEdges(300, 2000, Edge.WeightType.INT, 3L))
+				.getIndexedGraph();
+		// small pages so the lists are spread over many of them
+		CompressedGraph compressed = new CompressedGraph(graph, 100);
+		assertEquals(graph.getNumbersOfVertices(), compressed.getNumbersOfVertices());
+		assertEquals(graph.getNumbersOfEdges(), compressed.getNumbersOfEdges());
+
+		CompressedGraph.Cursor cursor = compressed.cursor();
+		for(int id = 0; id < graph.getNumbersOfVertices(); id++) {
+			assertEquals(id, compressed.getId(graph.getName(id)));
+			assertEquals(graph.getName(id), compressed.getName(id));
+			assertEquals(graph.outDegree(id), compressed.outDegree(id));
+
+			List<Long> expected = new ArrayList<>();
+			for(int slot = graph.firstEdge(id); slot < graph.endEdge(id); slot++) {
+				expected.add((long) graph.target(slot) << 32 | graph.weight(slot));
+			}
+			expected.sort(null);
+			List<Long> decoded = new ArrayList<>();
+			cursor.reset(id);
+			while (cursor.next()) {
+				decoded.add((long) cursor.target() << 32 | cursor.weight());
+			}
+			// parallel edges to one target come in any order
+			decoded.sort(null);
+			assertEquals(expected, decoded);
+			assertEquals(0, cursor.remaining());
+		}
+		assertEquals(-1, compressed.getId("Node_X"));
+		assertEquals(-1, compressed.getId(null));
+	}
+
+	@Test
+	public void test_size() {
+		Set<Edge> edges = new HashSet<>();
+		// neighbors with close ids, as in a crawl ordered graph
+		for(int i = 0; i < 10000; i++) {
+			for(int j = 1; j <= 8; j++) {
+				edges.add(new Edge("Edge " + i + "_" + j, String.format("Node_%05d", i),
+						String.format("Node_%05d", (i + j) % 10000), j));
+			}
+		}
+		CompressedGraph compressed = new CompressedGraph(new Graph(edges));
+		// the int arrays of the snapshot take a target, a weight, a source and an edge slot: 16 bytes per edge
+		long arrayBytes = 16L * edges.size();
+		assertTrue(compressed.getSizeInBytes() + " bytes", compressed.getSizeInBytes() * 4 < arrayBytes);
+	}
+
+	@Test
+	public void test_hopDistances() {
+		IndexedGraph graph = new Graph(GraphFixtures.randomEdges(400, 900, Edge.WeightType.INT, 5L)).getIndexedGraph();
+		CompressedGraph compressed = new CompressedGraph(graph);
+		BreadthFirstSearch search = new BreadthFirstSearch(graph, false);
+		Random random = new Random(6);
+		for(int query = 0; query < 30; query++) {
+			int source = random.nextInt(graph.getNumbersOfVertices());
+			int target = random.nextInt(graph.getNumbersOfVertices());
+			assertArrayEquals(search.hopDistances(source), compressed.hopDistances(source));
+			assertEquals(search.hopDistance(source, target), compressed.hopDistance(source, target));
+		}
+	}
+
+	@Test
+	public void test_findPath() {
+		for(Edge.WeightType type: Edge.WeightType.values()) {
+			ShortestPathGraph graph = new ShortestPathGraph(GraphFixtures.randomEdges(300, 800, type, 7L));
+			CompressedGraph compressed = new CompressedGraph(graph);
+			Random random = new Random(8);
+			for(int query = 0; query < 40; query++) {
+				String from = "Node_" + random.nextInt(300);
+				String dest = "Node_" + random.nextInt(300);
+				Path expected = graph.findPath(from, dest);
+				CompressedGraph.Route route = compressed.findPath(from, dest);
+				if (expected == null) {
+					assertNull(route);
+					continue;
+				}
+				assertEquals(type.name(), expected.getTotalDoubleWeight(), route.getTotalDoubleWeight(), 1e-9);
+				assertEquals(type.name(), expected.getTotalWeight(), route.getTotalWeight());
+				assertEquals(from, route.getVertexNames().get(0));
+				assertEquals(dest, route.getVertexNames().get(route.size() - 1));
+			}
+		}
+		assertNull(new CompressedGraph(new Graph(GraphFixtures.randomEdges(10, 20, Edge.WeightType.INT, 1L)))
+				.findPath("Node_1", "Node_X"));
+	}
+
+	@Test
+	public void test_emptyAndSelfLoops() {
+		Set<Edge> edges = new HashSet<>(Arrays.asList(
+				new Edge("Edge A_A", "Node_A", "Node_A", 2),
+				new Edge("Edge A_B", "Node_A", "Node_B", 3)));
+		CompressedGraph compressed = new CompressedGraph(new Graph(edges));
+		assertEquals(2, compressed.outDegree(compressed.getId("Node_A")));
+		assertEquals(0, compressed.outDegree(compressed.getId("Node_B")));
+		assertEquals(3, compressed.findPath("Node_A", "Node_B").getTotalWeight());
+		assertEquals(0, new CompressedGraph(new Graph()).getNumbersOfVertices());
+	}
+}
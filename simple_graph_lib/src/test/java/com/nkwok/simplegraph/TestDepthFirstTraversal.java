@@ -0,0 +1,138 @@
+/**
+ * Name: TestDepthFirstTraversal
+ * Description: JUnit test for DepthFirstTraversal class and the depth first queries of Graph
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestDepthFirstTraversal {
+
+	/**
+	 * recursive enumeration used as the reference
+	 */
+	private static void expectedPaths(IndexedGraph graph, List<Integer> path, boolean[] onPath, int dest,
+			List<String> result) {
+		int node = path.get(path.size() - 1);
+		if (node == dest) {
+			result.add(path.toString());
+			return;
+		}
+		for(int slot = graph.firstEdge(node); slot < graph.endEdge(node); slot++) {
+			int next = graph.target(slot);
+			if (! onPath[next]) {
+				onPath[next] = true;
+				path.add(next);
+				expectedPaths(graph, path, onPath, dest, result);
+				path.remove(path.size() - 1);
+				onPath[next] = false;
+			}
+		}
+	}
+
+	private static void expectedOrder(IndexedGraph graph, int node, boolean[] seen, List<Integer> order) {
+		seen[node] = true;
+		order.add(node);
+		for(int slot = graph.firstEdge(node); slot < graph.endEdge(node); slot++) {
+			if (! seen[graph.target(slot)]) {
+				expectedOrder(graph, graph.target(slot), seen, order);
+			}
+		}
+	}
+
+	@Test
+	public void test_simplePaths() {
+		IndexedGraph graph = GraphFixtures.indexed(12, GraphFixtures.randomEdges(12, 30, 1, 4L));
+		DepthFirstTraversal traversal = new DepthFirstTraversal(graph);
+		for(int from = 0; from < graph.getNumbersOfVertices(); from++) {
+			for(int dest = 0; dest < graph.getNumbersOfVertices(); dest += 3) {
+				List<String> expected = new ArrayList<>();
+				boolean[] onPath = new boolean[graph.getNumbersOfVertices()];
+				onPath[from] = true;
+				expectedPaths(graph, new ArrayList<>(Arrays.asList(from)), onPath, dest, expected);
+
+				int end = dest;
+				List<String> found = new ArrayList<>();
+				for(int[] path: traversal.simplePaths(from, id -> id == end, null, 0)) {
+					List<Integer> boxed = new ArrayList<>();
+					for(int id: path) {
+						boxed.add(id);
+					}
+					found.add(boxed.toString());
+				}
+				assertEquals(expected, found);
+			}
+		}
+	}
+
+	@Test
+	public void test_preorder() {
+		IndexedGraph graph = GraphFixtures.indexed(300, GraphFixtures.randomEdges(300, 900, 1, 8L));
+		DepthFirstTraversal traversal = new DepthFirstTraversal(graph);
+		for(int from = 0; from < graph.getNumbersOfVertices(); from += 11) {
+			List<Integer> expected = new ArrayList<>();
+			expectedOrder(graph, from, new boolean[graph.getNumbersOfVertices()], expected);
+			assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), traversal.preorder(from));
+		}
+	}
+
+	@Test
+	public void test_stopAndReuse() {
+		IndexedGraph graph = GraphFixtures.indexed(12, GraphFixtures.randomEdges(12, 40, 1, 9L));
+		DepthFirstTraversal traversal = new DepthFirstTraversal(graph);
+		List<int[]> all = traversal.simplePaths(0, id -> id == 5, null, 0);
+		assertTrue(all.size() > 3);
+
+		List<int[]> first = traversal.simplePaths(0, id -> id == 5, null, 3);
+		assertEquals(3, first.size());
+		for(int i = 0; i < 3; i++) {
+			assertArrayEquals(all.get(i), first.get(i));
+		}
+		// nothing is left marked by the stopped walk
+		assertEquals(all.size(), traversal.simplePaths(0, id -> id == 5, null, 0).size());
+		assertEquals(-1, traversal.getDepth());
+	}
+
+	@Test
+	public void test_deepChain() {
+		int n = 100000;
+		IndexedGraph graph = GraphFixtures.indexed(n, GraphFixtures.chainEdges(n));
+		DepthFirstTraversal traversal = new DepthFirstTraversal(graph);
+		int last = graph.getId("Node_" + (n - 1));
+
+		List<int[]> paths = traversal.simplePaths(graph.getId("Node_0"), id -> id == last, null, 0);
+		assertEquals(1, paths.size());
+		assertEquals(n, paths.get(0).length);
+		assertEquals(n, traversal.preorder(graph.getId("Node_0")).length);
+	}
+
+	@Test
+	public void test_graphQueries() {
+		int n = 2000;
+		Set<Edge> edges = new HashSet<>();
+		for(int i = 1; i < n; i++) {
+			edges.add(new Edge("Edge " + i, "Node_" + (i - 1), "Node_" + i, 1));
+		}
+		Graph graph = new Graph(edges);
+		List<List<String>> paths = graph.showConnectivity("Node_0", "Node_" + (n - 1));
+		assertEquals(1, paths.size());
+		assertEquals(n, paths.get(0).size());
+		assertEquals("Node_" + (n - 1), paths.get(0).get(n - 1));
+
+		List<String> order = graph.getDepthFirstOrder("Node_10");
+		assertEquals(n - 10, order.size());
+		assertEquals("Node_10", order.get(0));
+		assertEquals(0, graph.getDepthFirstOrder("Node_X").size());
+	}
+}
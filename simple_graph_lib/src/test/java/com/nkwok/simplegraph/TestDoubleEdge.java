@@ -0,0 +1,96 @@
+/**
+ * Name: TestDoubleEdge
+ * Description: JUnit test for DoubleEdge class and the shortest path search over double weights
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+public class TestDoubleEdge {
+
+	@Test
+	public void test_create() {
+		DoubleEdge edge = new DoubleEdge("Edge A_B", "Node_A", "Node_B", 2.5);
+
+		assertEquals(2.5, edge.getDoubleWeight(), 0.0);
+		assertEquals(3, edge.getLongWeight());
+		assertEquals(3, edge.getWeight());
+		assertEquals(Edge.WeightType.DOUBLE, edge.getWeightType());
+		assertTrue(edge.equals(new DoubleEdge("Edge A_B", "Node_A", "Node_B", 2.5)));
+		assertFalse(edge.equals(new DoubleEdge("Edge A_B", "Node_A", "Node_B", 2.25)));
+		assertTrue(new DoubleEdge("Edge A_B", "Node_A", "Node_B", -0.0).equals(
+				new DoubleEdge("Edge A_B", "Node_A", "Node_B", 0.0)));
+	}
+
+	@Test
+	public void test_invalidWeights() {
+		for(double weight: new double[] {-1.0, Double.NaN, Double.POSITIVE_INFINITY}) {
+			try {
+				new DoubleEdge("Edge A_B", "Node_A", "Node_B", weight);
+				assertTrue("accepted " + weight, false);
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void test_findPath() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new DoubleEdge("Edge A_B", "Node_A", "Node_B", 0.25));
+		edges.add(new DoubleEdge("Edge B_C", "Node_B", "Node_C", 0.5));
+		edges.add(new Edge("Edge A_C", "Node_A", "Node_C", 1));
+		edges.add(new LongEdge("Edge C_D", "Node_C", "Node_D", 2));
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+		assertEquals(Edge.WeightType.DOUBLE, sp.getIndexedGraph().getWeightType());
+
+		Path path = sp.findPath("Node_A", "Node_D");
+		assertEquals("Node_A (0.0) -> Node_B (0.25) -> Node_C (0.75) -> Node_D (2.75)", path.toString());
+		assertEquals(2.75, path.getTotalDoubleWeight(), 0.0);
+		assertEquals(3, path.getTotalWeight());
+		assertEquals(new DoubleEdge("Edge B_C", "Node_B", "Node_C", 0.5), path.getEdge(1));
+		assertEquals(new DoubleEdge("Edge C_D", "Node_C", "Node_D", 2), path.getEdge(2));
+		assertNull(sp.findPath("Node_D", "Node_A"));
+	}
+
+	/**
+	 * the same random graph with int weights and with the weights scaled by 1/8, which is exact in binary
+	 */
+	@Test
+	public void test_sameAsIntWeights() {
+		Random random = new Random(4);
+		Set<Edge> intEdges = new HashSet<>();
+		Set<Edge> doubleEdges = new HashSet<>();
+		for(int i = 0; i < 400; i++) {
+			String from = "Node_" + random.nextInt(100);
+			String to = "Node_" + random.nextInt(100);
+			int weight = 1 + random.nextInt(50);
+			intEdges.add(new Edge("Edge " + i, from, to, weight));
+			doubleEdges.add(new DoubleEdge("Edge " + i, from, to, weight / 8.0));
+		}
+		ShortestPathGraph intGraph = new ShortestPathGraph(intEdges);
+		ShortestPathGraph doubleGraph = new ShortestPathGraph(doubleEdges);
+		for(int i = 0; i < 100; i++) {
+			String from = "Node_" + random.nextInt(100);
+			String to = "Node_" + random.nextInt(100);
+			Path expected = intGraph.findPath(from, to);
+			Path actual = doubleGraph.findPath(from, to);
+			if (expected == null) {
+				assertNull(actual);
+			} else {
+				assertEquals(expected.getTotalWeight() / 8.0, actual.getTotalDoubleWeight(), 0.0);
+			}
+		}
+	}
+}
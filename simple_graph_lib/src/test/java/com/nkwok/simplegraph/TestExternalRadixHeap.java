@@ -0,0 +1,74 @@
+/**
+ * Name: TestExternalRadixHeap
+ * Description: JUnit test for ExternalRadixHeap class
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestExternalRadixHeap {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * random monotone adds and polls against a PriorityQueue, with room for only a few entries in memory
+	 */
+	private void checkAgainstQueue(int memoryLimit, boolean spills) throws Exception {
+		Random random = new Random(memoryLimit);
+		PriorityQueue<Long> expected = new PriorityQueue<>();
+		try (ExternalRadixHeap heap = new ExternalRadixHeap(folder.getRoot(), memoryLimit)) {
+			long last = 0;
+			for(int round = 0; round < 20000; round++) {
+				if (expected.isEmpty() || random.nextInt(3) > 0) {
+					// a few equal keys, small steps and large jumps
+					long key = last + (random.nextBoolean() ? random.nextInt(4) : random.nextInt(1 << 20));
+					expected.add(key);
+					heap.add(key, (int) (key % 1000));
+				} else {
+					long key = expected.poll();
+					int value = heap.poll();
+					assertEquals(key, heap.lastKey());
+					assertEquals((int) (key % 1000), value);
+					last = key;
+				}
+				assertEquals(expected.size(), heap.size());
+			}
+			while (! expected.isEmpty()) {
+				heap.poll();
+				assertEquals((long) expected.poll(), heap.lastKey());
+			}
+			assertTrue(heap.isEmpty());
+			assertEquals(spills, heap.getSpilledCount() > 0);
+		}
+		assertEquals(0, folder.getRoot().list().length);
+	}
+
+	@Test
+	public void test_inMemory() throws Exception {
+		checkAgainstQueue(1 << 20, false);
+	}
+
+	@Test
+	public void test_spilled() throws Exception {
+		checkAgainstQueue(16, true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_keyBelowLast() throws Exception {
+		try (ExternalRadixHeap heap = new ExternalRadixHeap(folder.getRoot(), 16)) {
+			heap.add(10, 1);
+			heap.poll();
+			heap.add(9, 2);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Name: TestExternalShortestPaths
+ * Description: JUnit test for ExternalShortestPaths class and ShortestPathGraph.findAllPaths
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestExternalShortestPaths {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void test_sameAsDijkstra() throws Exception {
+		IndexedGraph graph = GraphFixtures.indexed(3000, GraphFixtures.randomEdges(3000, 15000, 1000, 1L));
+		File spill = new File(folder.getRoot(), "spill");
+		// room for 64 queue entries
+		try (ExternalShortestPaths paths = new ExternalShortestPaths(graph, spill, 64 * 12)) {
+			for(int source: new int[] {0, 1234}) {
+				paths.search(source);
+				assertTrue(paths.getSpilledCount() > 0);
+				long[] expected = LandmarkIndex.distances(graph, source, false, null, null);
+				long reached = 0;
+				for(int node = 0; node < graph.getNumbersOfVertices(); node++) {
+					assertEquals(expected[node], paths.distance(node));
+					if (expected[node] != LandmarkIndex.UNREACHABLE) {
+						reached++;
+						Path path = paths.pathTo(node);
+						assertEquals(source, path.getVertexId(0));
+						assertEquals(expected[node], path.getTotalWeight());
+					} else {
+						assertNull(paths.pathTo(node));
+					}
+				}
+				assertEquals(reached, paths.getSettledCount());
+				assertEquals(-1, paths.parent(source));
+			}
+		}
+		assertEquals(0, spill.list().length);
+	}
+
+	@Test
+	public void test_findAllPaths() throws Exception {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge 0_1", "Node_0", "Node_1", 4));
+		edges.add(new Edge("Edge 0_2", "Node_0", "Node_2", 1));
+		edges.add(new Edge("Edge 2_1", "Node_2", "Node_1", 1));
+		edges.add(new LongEdge("Edge 1_3", "Node_1", "Node_3", 5_000_000_000L));
+		edges.add(new Edge("Edge 4_0", "Node_4", "Node_0", 1));
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+		File spill = folder.newFolder("spill");
+		assertNull(sp.findAllPaths("Node_X", spill, 1 << 20));
+
+		try (ExternalShortestPaths paths = sp.findAllPaths("Node_0", spill, 1 << 20)) {
+			IndexedGraph graph = paths.getGraph();
+			assertEquals(2, paths.distance(graph.getId("Node_1")));
+			assertEquals(5_000_000_002L, paths.distance(graph.getId("Node_3")));
+			assertEquals(ExternalShortestPaths.UNREACHABLE, paths.distance(graph.getId("Node_4")));
+			assertEquals("Node_0 (0) -> Node_2 (1) -> Node_1 (2) -> Node_3 (5000000002)",
+					paths.pathTo(graph.getId("Node_3")).toString());
+			assertEquals(sp.findPath("Node_0", "Node_3"), paths.pathTo(graph.getId("Node_3")));
+		}
+	}
+
+	@Test
+	public void test_doubleWeights() throws Exception {
+		ShortestPathGraph sp = new ShortestPathGraph(GraphFixtures.randomEdges(500, 2000, Edge.WeightType.DOUBLE, 2L));
+		IndexedGraph graph = sp.getIndexedGraph();
+		try (ExternalShortestPaths paths = new ExternalShortestPaths(graph, folder.newFolder("spill"), 64 * 12)) {
+			int source = graph.getId("Node_0");
+			paths.search(source);
+			assertTrue(paths.getSpilledCount() > 0);
+			for(int node = 0; node < graph.getNumbersOfVertices(); node++) {
+				Path expected = sp.findPath("Node_0", graph.getName(node));
+				if (expected == null) {
+					assertEquals(Double.POSITIVE_INFINITY, paths.doubleDistance(node), 0);
+					assertNull(paths.pathTo(node));
+				} else {
+					assertEquals(expected.getTotalDoubleWeight(), paths.doubleDistance(node), 1e-9);
+					assertEquals(paths.doubleDistance(node), paths.pathTo(node).getTotalDoubleWeight(), 0);
+				}
+			}
+		}
+	}
+}
@@ -110,6 +110,19 @@ public class TestGraph {
 		assertTrue(graph.getEdges().containsAll(edges) && graph.getNumbersOfEdges() == edges.size());
 	}
 
+	@Test
+	public void test_removeEdgeDropsOrphanVertices() {
+		final Graph graph = new Graph(edges);
+
+		newEdges.forEach(graph::addEdge);
+		assertEquals(4, graph.getNumbersOfVertices());
+		newEdges.forEach(graph::removeEdge);
+
+		// Node_4 is left without edges, the other vertices keep theirs
+		assertEquals(vertices, graph.getVertices());
+		assertTrue(graph.getVertex("Node_4") == null);
+	}
+
 	@Test
 	public void test_getTotalsVertices() {
 		Graph graph = new Graph(edges);
@@ -0,0 +1,309 @@
+/**
+ * Name: TestGraphChangeLog
+ * Description: JUnit test for GraphChangeLog class
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestGraphChangeLog {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File logDir;
+	private List<Edge> setupEdges = new ArrayList<Edge>();
+
+	@Before
+	public void setUp() throws Exception {
+		logDir = new File(folder.getRoot(), "graph-log");
+
+		String[] names = {"Node_1", "Node_2", "Node_3", "Node_4"};
+		setupEdges.add(new Edge("Edge 1_2", names[0], names[1], 12));
+		setupEdges.add(new Edge("Edge 1_3", names[0], names[2], 13));
+		setupEdges.add(new Edge("Edge 2_3", names[1], names[2], 23));
+		setupEdges.add(new Edge("Edge 3_4", names[2], names[3], 34));
+	}
+
+	private File[] segments() {
+		return logDir.listFiles((dir, name) -> name.endsWith(".log"));
+	}
+
+	@Test
+	public void test_replayAfterRestart() throws Exception {
+		Graph expected;
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.EVERY_CHANGE)) {
+			Graph graph = log.recover(Graph::new);
+			setupEdges.forEach(graph::addEdge);
+			graph.removeEdge(setupEdges.get(1));
+			assertEquals(5, log.getDurableSequence());
+			expected = graph;
+		}
+
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.EVERY_CHANGE)) {
+			Graph graph = log.recover(Graph::new);
+			assertEquals(5, log.getReplayedCount());
+			assertEquals(expected.getEdges(), graph.getEdges());
+			assertEquals(expected.getVertices(), graph.getVertices());
+		}
+	}
+
+	@Test
+	public void test_groupCommit() throws Exception {
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.GROUP, 1000)) {
+			Graph graph = log.recover(() -> new Graph(true));
+			setupEdges.forEach(graph::addEdge);
+			assertEquals(4, log.getLastSequence());
+			log.sync();
+			assertEquals(4, log.getDurableSequence());
+		}
+
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.GROUP, 1000)) {
+			Graph graph = log.recover(() -> new Graph(true));
+			assertTrue(graph.isBiDirection());
+			assertEquals(setupEdges.size() * 2, graph.getNumbersOfEdges());
+		}
+	}
+
+	@Test
+	public void test_checkpointAndTail() throws Exception {
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.NEVER)) {
+			ShortestPathGraph graph = (ShortestPathGraph) log.recover(() -> new ShortestPathGraph(new HashSet<>()));
+			graph.addEdge(setupEdges.get(0));
+			graph.addEdge(setupEdges.get(1));
+			log.checkpoint();
+			assertEquals(2, log.getSnapshotSequence());
+			assertEquals(1, segments().length);
+
+			graph.addEdge(setupEdges.get(2));
+			graph.addEdge(setupEdges.get(3));
+		}
+
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.NEVER)) {
+			ShortestPathGraph graph = (ShortestPathGraph) log.recover(() -> new ShortestPathGraph(new HashSet<>()));
+			assertEquals(2, log.getReplayedCount());
+			assertEquals(new HashSet<>(setupEdges), graph.getEdges());
+			assertEquals("Node_1 (0) -> Node_3 (13) -> Node_4 (47)",
+					graph.pathToString(graph.findShortestPath("Node_1", "Node_4")));
+		}
+	}
+
+	@Test
+	public void test_tornTailIsTruncated() throws Exception {
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.EVERY_CHANGE)) {
+			Graph graph = log.recover(Graph::new);
+			setupEdges.forEach(graph::addEdge);
+		}
+
+		// Simulate a crash in the middle of writing a record
+		File segment = segments()[0];
+		long length = segment.length();
+		try (FileOutputStream out = new FileOutputStream(segment, true)) {
+			out.write(new byte[] {0, 0, 0, 40, 1, 2, 3});
+		}
+
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.EVERY_CHANGE)) {
+			Graph graph = log.recover(Graph::new);
+			assertEquals(4, log.getReplayedCount());
+			assertEquals(length, segment.length());
+			assertEquals(new HashSet<>(setupEdges), graph.getEdges());
+		}
+	}
+
+	@Test
+	public void test_weightTypesReplay() throws Exception {
+		List<Edge> typedEdges = new ArrayList<>();
+		typedEdges.add(new Edge("Edge 1_2", "Node_1", "Node_2", 12));
+		typedEdges.add(new LongEdge("Edge 2_3", "Node_2", "Node_3", 5_000_000_000L));
+		typedEdges.add(new DoubleEdge("Edge 3_4", "Node_3", "Node_4", 0.75));
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.EVERY_CHANGE)) {
+			Graph graph = log.recover(Graph::new);
+			typedEdges.forEach(graph::addEdge);
+		}
+
+		try (GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.EVERY_CHANGE)) {
+			Graph graph = log.recover(Graph::new);
+			assertEquals(new HashSet<>(typedEdges), graph.getEdges());
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void test_closedLogRejectsChanges() throws IOException, ClassNotFoundException {
+		GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.GROUP);
+		log.recover(Graph::new);
+		log.close();
+		log.sync();
+	}
+
+	@Test
+	public void test_failedAppendLeavesGraphUnchanged() throws Exception {
+		AtomicBoolean failing = new AtomicBoolean();
+		GraphChangeLog log = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.EVERY_CHANGE);
+		log.segmentOpener = path -> new FailingChannel(FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), failing);
+		Graph graph = log.recover(Graph::new);
+		graph.addEdge(setupEdges.get(0));
+
+		failing.set(true);
+		try {
+			graph.addEdge(setupEdges.get(1));
+			fail("the append should fail");
+		} catch (UncheckedIOException e) {
+			assertEquals(new HashSet<>(setupEdges.subList(0, 1)), graph.getEdges());
+		}
+		// the failed log refuses every later change, so the graph never gets ahead of it
+		failing.set(false);
+		try {
+			graph.removeEdge(setupEdges.get(0));
+			fail("the failed log should refuse changes");
+		} catch (UncheckedIOException e) {
+			assertEquals(new HashSet<>(setupEdges.subList(0, 1)), graph.getEdges());
+		}
+		try {
+			log.close();
+			fail("close should report the failure");
+		} catch (IOException e) {
+			assertEquals("injected", e.getMessage());
+		}
+
+		try (GraphChangeLog reopened = new GraphChangeLog(logDir, GraphChangeLog.FsyncPolicy.EVERY_CHANGE)) {
+			assertEquals(graph.getEdges(), reopened.recover(Graph::new).getEdges());
+			assertEquals(1, reopened.getReplayedCount());
+		}
+	}
+
+	/**
+	 * FileChannel failing its writes and forces while the flag is set
+	 */
+	private static final class FailingChannel extends FileChannel {
+		private final FileChannel channel;
+		private final AtomicBoolean failing;
+
+		FailingChannel(FileChannel channel, AtomicBoolean failing) {
+			this.channel = channel;
+			this.failing = failing;
+		}
+
+		private void check() throws IOException {
+			if (failing.get()) {
+				throw new IOException("injected");
+			}
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			return channel.read(dst);
+		}
+
+		@Override
+		public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+			return channel.read(dsts, offset, length);
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			check();
+			return channel.write(src);
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+			check();
+			return channel.write(srcs, offset, length);
+		}
+
+		@Override
+		public long position() throws IOException {
+			return channel.position();
+		}
+
+		@Override
+		public FileChannel position(long newPosition) throws IOException {
+			channel.position(newPosition);
+			return this;
+		}
+
+		@Override
+		public long size() throws IOException {
+			return channel.size();
+		}
+
+		@Override
+		public FileChannel truncate(long size) throws IOException {
+			channel.truncate(size);
+			return this;
+		}
+
+		@Override
+		public void force(boolean metaData) throws IOException {
+			check();
+			channel.force(metaData);
+		}
+
+		@Override
+		public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+			return channel.transferTo(position, count, target);
+		}
+
+		@Override
+		public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+			check();
+			return channel.transferFrom(src, position, count);
+		}
+
+		@Override
+		public int read(ByteBuffer dst, long position) throws IOException {
+			return channel.read(dst, position);
+		}
+
+		@Override
+		public int write(ByteBuffer src, long position) throws IOException {
+			check();
+			return channel.write(src, position);
+		}
+
+		@Override
+		public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+			return channel.map(mode, position, size);
+		}
+
+		@Override
+		public FileLock lock(long position, long size, boolean shared) throws IOException {
+			return channel.lock(position, size, shared);
+		}
+
+		@Override
+		public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+			return channel.tryLock(position, size, shared);
+		}
+
+		@Override
+		protected void implCloseChannel() throws IOException {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * Name: TestKShortestPaths
+ * Description: JUnit test for ShortestPathGraph.findKShortestPaths
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class TestKShortestPaths {
+
+	/**
+	 * Sample Graph used for the test
+	 *   C -> D (3), C -> E (2), D -> F (4), E -> D (1), E -> F (2), E -> G (3), F -> G (2), F -> H (1), G -> H (2)
+	 */
+	private ShortestPathGraph sampleGraph() {
+		return new ShortestPathGraph(new HashSet<>(Arrays.asList(
+				new Edge("Edge C_D", "C", "D", 3),
+				new Edge("Edge C_E", "C", "E", 2),
+				new Edge("Edge D_F", "D", "F", 4),
+				new Edge("Edge E_D", "E", "D", 1),
+				new Edge("Edge E_F", "E", "F", 2),
+				new Edge("Edge E_G", "E", "G", 3),
+				new Edge("Edge F_G", "F", "G", 2),
+				new Edge("Edge F_H", "F", "H", 1),
+				new Edge("Edge G_H", "G", "H", 2))));
+	}
+
+	@Test
+	public void test_sampleGraph() {
+		ShortestPathGraph sp = sampleGraph();
+
+		List<Path> found = sp.findKShortestPaths("C", "H", 3);
+
+		assertEquals(3, found.size());
+		assertEquals("C (0) -> E (2) -> F (4) -> H (5)", found.get(0).toString());
+		assertEquals("C (0) -> E (2) -> G (5) -> H (7)", found.get(1).toString());
+		// three paths weigh 8, any of them may come third
+		assertEquals(8, found.get(2).getTotalWeight());
+	}
+
+	@Test
+	public void test_fewerPathsThanK() {
+		ShortestPathGraph sp = sampleGraph();
+
+		assertEquals(7, sp.findKShortestPaths("C", "H", 100).size());
+		assertTrue(sp.findKShortestPaths("H", "C", 3).isEmpty());
+		assertTrue(sp.findKShortestPaths("C", "X", 3).isEmpty());
+		assertEquals(1, sp.findKShortestPaths("C", "C", 3).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_invalidK() {
+		sampleGraph().findKShortestPaths("C", "H", 0);
+	}
+
+	/**
+	 * Compare the weights against all paths enumerated by showConnectivity
+	 */
+	@Test
+	public void test_matchesEnumeration() {
+		// without self loops, which showConnectivity does not list, nor parallel edges, which it lists as one path
+		Map<List<String>, Edge> single = new HashMap<>();
+		for(Edge edge: GraphFixtures.randomEdges(12, 40, 20, 11L)) {
+			if (! edge.getFromVertex().equals(edge.getToVertex())) {
+				single.putIfAbsent(Arrays.asList(edge.getFromVertex(), edge.getToVertex()), edge);
+			}
+		}
+		ShortestPathGraph sp = new ShortestPathGraph(new HashSet<>(single.values()));
+		Random random = new Random(12);
+		IndexedGraph indexed = sp.getIndexedGraph();
+
+		for(int i = 0; i < 12; i++) {
+			String from = "Node_" + random.nextInt(12);
+			String dest = "Node_" + random.nextInt(12);
+			if (from.equals(dest) || sp.getVertex(from) == null || sp.getVertex(dest) == null) {
+				continue;
+			}
+
+			List<Long> expected = new ArrayList<>();
+			for(List<String> path: sp.showConnectivity(from, dest)) {
+				long weight = 0;
+				for(int j = 0; j + 1 < path.size(); j++) {
+					weight += indexed.weight(indexed.findEdge(indexed.getId(path.get(j)), indexed.getId(path.get(j + 1))));
+				}
+				expected.add(weight);
+			}
+			expected.sort(null);
+
+			List<Long> found = sp.findKShortestPaths(from, dest, 5).stream()
+					.map(Path::getTotalWeight)
+					.collect(Collectors.toList());
+			assertEquals(expected.subList(0, Math.min(5, expected.size())), found);
+		}
+	}
+
+	@Test
+	public void test_parallelEdges() {
+		ShortestPathGraph sp = new ShortestPathGraph(GraphFixtures.edges(
+				new Edge("e1", "A", "B", 1),
+				new Edge("e2", "A", "B", 2),
+				new Edge("e3", "B", "C", 1)));
+
+		// each parallel edge gives its own path, told apart by its edge names
+		List<Path> found = sp.findKShortestPaths("A", "C", 3);
+		assertEquals(2, found.size());
+		assertEquals(2, found.get(0).getTotalWeight());
+		assertEquals("e1", found.get(0).getEdge(0).getName());
+		assertEquals(3, found.get(1).getTotalWeight());
+		assertEquals("e2", found.get(1).getEdge(0).getName());
+		assertEquals("e3", found.get(1).getEdge(1).getName());
+	}
+
+	@Test
+	public void test_longAndDoubleWeights() {
+		List<Path> expected = sampleGraph().findKShortestPaths("C", "H", 5);
+
+		// the same graph with the weights halved as doubles, and raised above the int range as longs
+		Set<Edge> halved = new HashSet<>();
+		Set<Edge> raised = new HashSet<>();
+		for(Edge edge: sampleGraph().getEdges()) {
+			halved.add(new DoubleEdge(edge.getName(), edge.getFromVertex(), edge.getToVertex(),
+					edge.getWeight() / 2.0));
+			raised.add(new LongEdge(edge.getName(), edge.getFromVertex(), edge.getToVertex(),
+					edge.getWeight() * (1L << 40)));
+		}
+		List<Path> doubles = new ShortestPathGraph(halved).findKShortestPaths("C", "H", 5);
+		List<Path> longs = new ShortestPathGraph(raised).findKShortestPaths("C", "H", 5);
+
+		assertEquals(expected.size(), doubles.size());
+		assertEquals(expected.size(), longs.size());
+		for(int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getTotalWeight() / 2.0, doubles.get(i).getTotalDoubleWeight(), 0);
+			assertEquals(expected.get(i).getTotalWeight() * (1L << 40), longs.get(i).getTotalWeight());
+		}
+	}
+}
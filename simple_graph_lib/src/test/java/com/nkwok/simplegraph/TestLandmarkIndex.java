@@ -0,0 +1,179 @@
+/**
+ * Name: TestLandmarkIndex
+ * Description: JUnit test for LandmarkIndex class and the landmark A* search
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestLandmarkIndex {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ShortestPathGraph sp;
+
+	/**
+	 * Random directed graph of 200 nodes
+	 */
+	@Before
+	public void setUp() throws Exception {
+		sp = new ShortestPathGraph(GraphFixtures.randomEdges(200, 800, 100, 3L));
+	}
+
+	private void checkBounds(LandmarkIndex landmarks) {
+		IndexedGraph graph = sp.getIndexedGraph();
+		Random random = new Random(5);
+		for(int i = 0; i < 100; i++) {
+			int s = random.nextInt(graph.getNumbersOfVertices());
+			int t = random.nextInt(graph.getNumbersOfVertices());
+			Path path = sp.findPath(graph.getName(s), graph.getName(t));
+			long lower = landmarks.lowerBound(s, t);
+			long upper = landmarks.upperBound(s, t);
+			if (path == null) {
+				assertEquals(LandmarkIndex.UNREACHABLE, upper);
+			} else {
+				assertTrue(lower <= path.getTotalWeight());
+				assertTrue(upper >= path.getTotalWeight());
+			}
+		}
+	}
+
+	@Test
+	public void test_boundsFarthest() {
+		checkBounds(LandmarkIndex.build(sp.getIndexedGraph(), 8, LandmarkIndex.Strategy.FARTHEST, 1L));
+	}
+
+	@Test
+	public void test_boundsAvoid() {
+		LandmarkIndex landmarks = LandmarkIndex.build(sp.getIndexedGraph(), 8, LandmarkIndex.Strategy.AVOID, 1L);
+		assertEquals(8, landmarks.getNumbersOfLandmarks());
+		assertEquals(8, landmarks.getLandmarks().length);
+		checkBounds(landmarks);
+	}
+
+	@Test
+	public void test_landmarkSearchMatchesDijkstra() {
+		LandmarkIndex landmarks = LandmarkIndex.build(sp.getIndexedGraph());
+		IndexedGraph graph = sp.getIndexedGraph();
+		Random random = new Random(9);
+		for(int i = 0; i < 100; i++) {
+			String from = graph.getName(random.nextInt(graph.getNumbersOfVertices()));
+			String dest = graph.getName(random.nextInt(graph.getNumbersOfVertices()));
+			Path expected = sp.findPath(from, dest);
+			Path found = sp.findPath(from, dest, landmarks);
+			if (expected == null) {
+				assertNull(found);
+			} else {
+				assertEquals(expected.getTotalWeight(), found.getTotalWeight());
+			}
+		}
+	}
+
+	@Test
+	public void test_saveNextToGraph() throws IOException {
+		File graphFile = folder.newFile("graph.ser");
+		try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(graphFile))) {
+			oos.writeObject(sp);
+		}
+		LandmarkIndex landmarks = LandmarkIndex.build(sp.getIndexedGraph(), 4, LandmarkIndex.Strategy.AVOID, 2L);
+		File landmarkFile = LandmarkIndex.landmarkFile(graphFile);
+		landmarks.save(landmarkFile);
+
+		assertEquals(new File(folder.getRoot(), "graph.ser.landmarks"), landmarkFile);
+		// a snapshot rebuilt with the same content is accepted
+		ShortestPathGraph copy = new ShortestPathGraph(sp.getEdges());
+		LandmarkIndex loaded = LandmarkIndex.load(landmarkFile, copy.getIndexedGraph());
+		IndexedGraph graph = copy.getIndexedGraph();
+		for(int s = 0; s < 20; s++) {
+			for(int t = 0; t < 20; t++) {
+				assertEquals(landmarks.lowerBound(s, t), loaded.lowerBound(s, t));
+				assertEquals(landmarks.upperBound(s, t), loaded.upperBound(s, t));
+			}
+		}
+		assertTrue(loaded.isValidFor(graph));
+	}
+
+	@Test(expected = IOException.class)
+	public void test_loadForDifferentGraph() throws IOException {
+		File landmarkFile = folder.newFile("graph.ser.landmarks");
+		LandmarkIndex.build(sp.getIndexedGraph(), 4, LandmarkIndex.Strategy.FARTHEST, 2L).save(landmarkFile);
+
+		sp.addEdge(new Edge("Edge new", "Node_1", "Node_2", 1));
+		LandmarkIndex.load(landmarkFile, sp.getIndexedGraph());
+	}
+
+	@Test
+	public void test_sameCountsDifferentWeight() throws IOException {
+		File landmarkFile = folder.newFile("graph.ser.landmarks");
+		LandmarkIndex landmarks = LandmarkIndex.build(sp.getIndexedGraph(), 4, LandmarkIndex.Strategy.FARTHEST, 2L);
+		landmarks.save(landmarkFile);
+
+		// one weight changed, the vertices and the number of edges are the same
+		Set<Edge> edges = new HashSet<>(sp.getEdges());
+		Edge changed = edges.iterator().next();
+		edges.remove(changed);
+		edges.add(new Edge(changed.getName(), changed.getFromVertex(), changed.getToVertex(), changed.getWeight() + 1));
+		IndexedGraph graph = new ShortestPathGraph(edges).getIndexedGraph();
+		assertEquals(sp.getIndexedGraph().getNumbersOfEdges(), graph.getNumbersOfEdges());
+		assertFalse(landmarks.isValidFor(graph));
+		try {
+			LandmarkIndex.load(landmarkFile, graph);
+			fail("the index should be rejected");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("different graph"));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void test_staleIndexRejected() {
+		LandmarkIndex landmarks = LandmarkIndex.build(sp.getIndexedGraph());
+		sp.addEdge(new Edge("Edge new", "Node_1", "Node_2", 1));
+		sp.findPath("Node_1", "Node_3", landmarks);
+	}
+
+	@Test
+	public void test_longAndDoubleWeights() {
+		for(Edge.WeightType type: new Edge.WeightType[] {Edge.WeightType.LONG, Edge.WeightType.DOUBLE}) {
+			ShortestPathGraph typed = new ShortestPathGraph(GraphFixtures.randomEdges(150, 600, type, 13L));
+			IndexedGraph graph = typed.getIndexedGraph();
+			LandmarkIndex landmarks = LandmarkIndex.build(graph, 6, LandmarkIndex.Strategy.AVOID, 3L);
+			assertTrue(landmarks.isValidFor(graph));
+
+			Random random = new Random(14);
+			for(int i = 0; i < 60; i++) {
+				int s = random.nextInt(graph.getNumbersOfVertices());
+				int t = random.nextInt(graph.getNumbersOfVertices());
+				Path expected = typed.findPath(graph.getName(s), graph.getName(t));
+				Path found = typed.findPath(graph.getName(s), graph.getName(t), landmarks);
+				if (expected == null) {
+					assertNull(found);
+					continue;
+				}
+				double distance = expected.getTotalDoubleWeight();
+				assertEquals(distance, found.getTotalDoubleWeight(), distance * 1e-12);
+				assertTrue(landmarks.getDoubleLowerBound(s, t) <= distance * (1 + 1e-12));
+				assertTrue(landmarks.getDoubleUpperBound(s, t) >= distance * (1 - 1e-12));
+				assertTrue(landmarks.lowerBound(s, t) <= expected.getTotalWeight());
+			}
+		}
+	}
+}
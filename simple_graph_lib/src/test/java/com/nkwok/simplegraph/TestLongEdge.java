@@ -0,0 +1,97 @@
+/**
+ * Name: TestLongEdge
+ * Description: JUnit test for LongEdge class and the shortest path search over long weights
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+public class TestLongEdge {
+
+	private static final long BIG = 5_000_000_000L;
+
+	@Test
+	public void test_create() {
+		LongEdge edge = new LongEdge("Edge A_B", "Node_A", "Node_B", BIG);
+
+		assertEquals("Node_A", edge.getFromVertex());
+		assertEquals("Node_B", edge.getToVertex());
+		assertEquals(BIG, edge.getLongWeight());
+		assertEquals(BIG, edge.getDoubleWeight(), 0.0);
+		assertEquals(Edge.WeightType.LONG, edge.getWeightType());
+		assertEquals(7, new LongEdge("Edge A_B", "Node_A", "Node_B", 7).getWeight());
+		assertTrue(edge.equals(new LongEdge("Edge A_B", "Node_A", "Node_B", BIG)));
+		assertFalse(edge.equals(new LongEdge("Edge A_B", "Node_A", "Node_B", BIG + 1)));
+		assertFalse(new LongEdge("Edge A_B", "Node_A", "Node_B", 7).equals(new Edge("Edge A_B", "Node_A", "Node_B", 7)));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void test_intWeightOverflow() {
+		new LongEdge("Edge A_B", "Node_A", "Node_B", BIG).getWeight();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_negativeWeight() {
+		new LongEdge("Edge A_B", "Node_A", "Node_B", -1);
+	}
+
+	@Test
+	public void test_findPath() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new LongEdge("Edge A_B", "Node_A", "Node_B", BIG));
+		edges.add(new LongEdge("Edge B_C", "Node_B", "Node_C", BIG));
+		edges.add(new Edge("Edge A_C", "Node_A", "Node_C", 1));
+		edges.add(new LongEdge("Edge C_D", "Node_C", "Node_D", 3 * BIG));
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+		assertEquals(Edge.WeightType.LONG, sp.getIndexedGraph().getWeightType());
+
+		Path path = sp.findPath("Node_A", "Node_D");
+		assertEquals("Node_A (0) -> Node_C (1) -> Node_D (15000000001)", path.toString());
+		assertEquals(3 * BIG + 1, path.getTotalWeight());
+		assertEquals(new LongEdge("Edge C_D", "Node_C", "Node_D", 3 * BIG), path.getEdge(1));
+		assertEquals(4 * BIG, sp.findPath("Node_B", "Node_D").getTotalWeight());
+		assertNull(sp.findPath("Node_D", "Node_A"));
+	}
+
+	@Test
+	public void test_overflow() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new LongEdge("Edge A_B", "Node_A", "Node_B", Long.MAX_VALUE / 2 + 1));
+		edges.add(new LongEdge("Edge B_C", "Node_B", "Node_C", Long.MAX_VALUE / 2 + 1));
+		edges.add(new LongEdge("Edge A_D", "Node_A", "Node_D", Long.MAX_VALUE - 2));
+		edges.add(new LongEdge("Edge D_C", "Node_D", "Node_C", 1));
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+		assertEquals(Long.MAX_VALUE - 1, sp.findPath("Node_A", "Node_C").getTotalWeight());
+
+		sp.removeEdge(new LongEdge("Edge D_C", "Node_D", "Node_C", 1));
+		try {
+			sp.findPath("Node_A", "Node_C");
+			assertTrue("overflow not reported", false);
+		} catch (ArithmeticException e) {
+			// the only path weighs more than a long holds
+		}
+	}
+
+	@Test
+	public void test_kShortestPaths() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new LongEdge("Edge A_B", "Node_A", "Node_B", BIG));
+		edges.add(new LongEdge("Edge A_C", "Node_A", "Node_C", 1));
+		edges.add(new LongEdge("Edge C_B", "Node_C", "Node_B", BIG));
+		List<Path> found = new ShortestPathGraph(edges).findKShortestPaths("Node_A", "Node_B", 2);
+		assertEquals(2, found.size());
+		assertEquals(BIG, found.get(0).getTotalWeight());
+		assertEquals(BIG + 1, found.get(1).getTotalWeight());
+	}
+}
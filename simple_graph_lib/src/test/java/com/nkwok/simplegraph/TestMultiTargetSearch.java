@@ -0,0 +1,106 @@
+/**
+ * Name: TestMultiTargetSearch
+ * Description: JUnit test for MultiTargetSearch class and the multi target methods of ShortestPathGraph
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestMultiTargetSearch {
+
+	@Test
+	public void test_sameAsSingleSearches() {
+		for(Edge.WeightType type: Edge.WeightType.values()) {
+			ShortestPathGraph graph = new ShortestPathGraph(GraphFixtures.randomEdges(300, 700, type, 11L));
+			Random random = new Random(12);
+			for(int query = 0; query < 20; query++) {
+				String from = "Node_" + random.nextInt(300);
+				Set<String> targets = new HashSet<>();
+				for(int i = 0; i < 15; i++) {
+					targets.add("Node_" + random.nextInt(300));
+				}
+
+				Map<String, Path> found = graph.findShortestPaths(from, targets);
+				double previous = 0;
+				for(String target: targets) {
+					Path expected = graph.findPath(from, target);
+					Path path = found.get(target);
+					if (expected == null) {
+						assertNull(path);
+						continue;
+					}
+					assertEquals(type.name(), expected.getTotalDoubleWeight(), path.getTotalDoubleWeight(), 1e-9);
+					assertEquals(from, path.getSource());
+				}
+				for(Path path: found.values()) {
+					assertTrue(path.getTotalDoubleWeight() >= previous);
+					previous = path.getTotalDoubleWeight();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void test_findNearest() {
+		ShortestPathGraph graph = new ShortestPathGraph(GraphFixtures.randomEdges(200, 600, Edge.WeightType.INT, 13L));
+		Set<String> targets = new HashSet<>();
+		for(int i = 0; i < 200; i += 4) {
+			targets.add("Node_" + i);
+		}
+		String from = "Node_1";
+		List<Long> weights = new ArrayList<>();
+		for(String target: targets) {
+			Path path = graph.findPath(from, target);
+			if (path != null) {
+				weights.add(path.getTotalWeight());
+			}
+		}
+		weights.sort(null);
+
+		List<Path> nearest = graph.findNearest(from, targets, 5);
+		assertEquals(5, nearest.size());
+		for(int i = 0; i < 5; i++) {
+			assertEquals(weights.get(i).longValue(), nearest.get(i).getTotalWeight());
+			assertTrue(targets.contains(nearest.get(i).getDestination()));
+		}
+		assertEquals(weights.size(), graph.findNearest(from, targets, 1000).size());
+		assertEquals(0, graph.findNearest(from, targets, 0).size());
+	}
+
+	@Test
+	public void test_edgeCases() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge A_B", "Node_A", "Node_B", 3));
+		edges.add(new Edge("Edge B_C", "Node_B", "Node_C", 4));
+		edges.add(new Edge("Edge D_A", "Node_D", "Node_A", 1));
+		ShortestPathGraph graph = new ShortestPathGraph(edges);
+
+		Map<String, Path> found = graph.findShortestPaths("Node_A",
+				new HashSet<>(Arrays.asList("Node_C", "Node_A", "Node_D", "Node_X")));
+		assertEquals(Arrays.asList("Node_A", "Node_C"), new ArrayList<>(found.keySet()));
+		assertEquals(0, found.get("Node_A").getTotalWeight());
+		assertEquals(7, found.get("Node_C").getTotalWeight());
+
+		assertEquals(0, graph.findShortestPaths("Node_X", new HashSet<>(Arrays.asList("Node_A"))).size());
+		assertEquals(0, graph.findNearest("Node_C", new HashSet<>(Arrays.asList("Node_A", "Node_D")), 2).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_negativeK() {
+		new ShortestPathGraph(GraphFixtures.randomEdges(10, 20, Edge.WeightType.INT, 1L))
+				.findNearest("Node_1", new HashSet<>(), -1);
+	}
+}
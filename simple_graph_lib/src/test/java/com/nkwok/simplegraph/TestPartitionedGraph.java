@@ -0,0 +1,74 @@
+/**
+ * Name: TestPartitionedGraph
+ * Description: JUnit test for PartitionedGraph class and the partitioners
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPartitionedGraph {
+
+	private Graph graph;
+
+	/**
+	 * Two chains of 20 nodes connected by one edge
+	 */
+	@Before
+	public void setUp() throws Exception {
+		Set<Edge> edges = new HashSet<>();
+		for(int i = 0; i < 19; i++) {
+			edges.add(new Edge("Edge A" + i, "A_" + i, "A_" + (i + 1), 1));
+			edges.add(new Edge("Edge B" + i, "B_" + i, "B_" + (i + 1), 1));
+		}
+		edges.add(new Edge("Edge A_B", "A_19", "B_0", 1));
+		graph = new Graph(edges, true);
+	}
+
+	@Test
+	public void test_hashPartition() {
+		PartitionedGraph partitioned = new PartitionedGraph(graph, 3);
+
+		assertEquals(3, partitioned.getShardCount());
+		int vertices = 0;
+		int edges = 0;
+		for(GraphShard shard: partitioned.getShards()) {
+			vertices += shard.getNumbersOfVertices();
+			edges += shard.getNumbersOfEdges();
+		}
+		assertEquals(graph.getNumbersOfVertices(), vertices);
+		assertEquals(graph.getNumbersOfEdges(), edges);
+		assertEquals(-1, partitioned.getShardOf("Node_X"));
+
+		for(Edge edge: graph.getEdges()) {
+			boolean cut = partitioned.getShardOf(edge.getFromVertex()) != partitioned.getShardOf(edge.getToVertex());
+			if (cut) {
+				assertTrue(partitioned.isBoundaryVertex(edge.getFromVertex()));
+				assertTrue(partitioned.isBoundaryVertex(edge.getToVertex()));
+			}
+		}
+	}
+
+	@Test
+	public void test_labelPropagationCutsFewerEdges() {
+		PartitionedGraph hashed = new PartitionedGraph(graph, 2, new HashPartitioner());
+		PartitionedGraph propagated = new PartitionedGraph(graph, 2, new LabelPropagationPartitioner());
+
+		assertTrue(propagated.getNumbersOfCutEdges() < hashed.getNumbersOfCutEdges());
+
+		// the shards stay within the allowed imbalance
+		Map<String, Integer> assignment = new LabelPropagationPartitioner().partition(graph, 2);
+		long first = assignment.values().stream().filter(s -> s == 0).count();
+		assertTrue(first <= 22 && first >= 18);
+		assertFalse(propagated.getBoundaryVertices().isEmpty());
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * Name: TestPath
+ * Description: JUnit test for Path class
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPath {
+
+	private ShortestPathGraph sp;
+	private Path path;
+
+	@Before
+	public void setUp() throws Exception {
+		sp = new ShortestPathGraph(new HashSet<>(Arrays.asList(
+				new Edge("Edge A_B", "Node_A", "Node_B", 3),
+				new Edge("Edge A_B slow", "Node_A", "Node_B", 9),
+				new Edge("Edge B_C", "Node_B", "Node_C", 4),
+				new Edge("Edge A_C", "Node_A", "Node_C", 10))));
+		path = sp.findPath("Node_A", "Node_C");
+	}
+
+	@Test
+	public void test_accessors() {
+		assertEquals(3, path.size());
+		assertEquals(2, path.getNumbersOfEdges());
+		assertEquals("Node_A", path.getSource());
+		assertEquals("Node_C", path.getDestination());
+		assertEquals(new Vertex("Node_B"), path.getVertex(1));
+		assertEquals(3, path.getWeight(1));
+		assertEquals(7, path.getTotalWeight());
+		assertEquals(Arrays.asList(new Vertex("Node_A"), new Vertex("Node_B"), new Vertex("Node_C")), path.getVertices());
+	}
+
+	@Test
+	public void test_edges() {
+		assertEquals(Arrays.asList(new Edge("Edge A_B", "Node_A", "Node_B", 3), new Edge("Edge B_C", "Node_B", "Node_C", 4)),
+				path.getEdges());
+	}
+
+	@Test
+	public void test_toList() {
+		LinkedList<Map<Vertex, Integer>> list = path.toList();
+
+		assertEquals(3, list.size());
+		assertEquals(Integer.valueOf(7), list.getLast().get(new Vertex("Node_C")));
+		assertEquals(path.toString(), sp.pathToString(list));
+		assertEquals("Node_A (0) -> Node_B (3) -> Node_C (7)", path.toString());
+	}
+
+	@Test
+	public void test_equals() {
+		assertEquals(path, sp.findPath("Node_A", "Node_C"));
+		assertEquals(path.hashCode(), sp.findPath("Node_A", "Node_C").hashCode());
+	}
+
+	@Test
+	public void test_independentOfSnapshot() {
+		IndexedGraph before = sp.getIndexedGraph();
+		sp.addEdge(new Edge("Edge C_D", "Node_C", "Node_D", 1));
+		// the path keeps its names and edges after the graph is changed and compiled again
+		assertTrue(before != sp.getIndexedGraph());
+		assertEquals("Node_A (0) -> Node_B (3) -> Node_C (7)", path.toString());
+		assertEquals(new Edge("Edge B_C", "Node_B", "Node_C", 4), path.getEdge(1));
+		assertEquals(path, sp.findPath("Node_A", "Node_C"));
+	}
+}
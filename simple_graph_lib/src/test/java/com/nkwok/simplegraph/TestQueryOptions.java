@@ -0,0 +1,113 @@
+/**
+ * Name: TestQueryOptions
+ * Description: JUnit test for QueryOptions class and the queries run with a budget
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class TestQueryOptions {
+
+	/**
+	 * layers of width nodes, every node linked to every node of the next layer: width ^ layers paths
+	 */
+	private static Graph layers(int layerCount, int width) {
+		Set<Edge> edges = new HashSet<>();
+		for(int i = 0; i < width; i++) {
+			edges.add(new Edge("Edge S_" + i, "Node_S", "Node_0_" + i, 1));
+			edges.add(new Edge("Edge " + i + "_T", "Node_" + (layerCount - 1) + "_" + i, "Node_T", 1));
+			for(int layer = 1; layer < layerCount; layer++) {
+				for(int j = 0; j < width; j++) {
+					edges.add(new Edge("Edge " + layer + "_" + i + "_" + j, "Node_" + (layer - 1) + "_" + i,
+							"Node_" + layer + "_" + j, 1));
+				}
+			}
+		}
+		return new Graph(edges);
+	}
+
+	@Test
+	public void test_findPathWithinBudget() {
+		ShortestPathGraph graph = new ShortestPathGraph(GraphFixtures.chainEdges(1000));
+		QueryResult<Path> result = graph.findPath("Node_0", "Node_999", new QueryOptions()
+				.setTimeout(1, TimeUnit.MINUTES)
+				.setMaxSettled(5000));
+		assertTrue(result.isComplete());
+		assertEquals(999, result.getValue().getTotalWeight());
+		assertEquals(999, result.getSettled());
+
+		QueryResult<?> legacy = graph.findShortestPath("Node_0", "Node_999", new QueryOptions());
+		assertTrue(legacy.isComplete());
+		assertEquals(graph.findShortestPath("Node_0", "Node_999"), legacy.getValue());
+	}
+
+	@Test
+	public void test_findPathLimits() {
+		ShortestPathGraph graph = new ShortestPathGraph(GraphFixtures.chainEdges(1000));
+		QueryResult<Path> result = graph.findPath("Node_0", "Node_999", new QueryOptions().setMaxSettled(100));
+		assertEquals(QueryResult.Status.SETTLED_LIMIT, result.getStatus());
+		assertNull(result.getValue());
+		assertEquals(100, result.getSettled());
+
+		AtomicBoolean cancelled = new AtomicBoolean(true);
+		result = graph.findPath("Node_0", "Node_999", new QueryOptions().setCancellation(cancelled::get));
+		assertEquals(QueryResult.Status.CANCELLED, result.getStatus());
+		assertEquals(QueryOptions.CHECK_INTERVAL, result.getSettled());
+		cancelled.set(false);
+		result = graph.findPath("Node_0", "Node_999", new QueryOptions().setCancellation(cancelled::get));
+		assertTrue(result.isComplete());
+
+		result = graph.findPath("Node_0", "Node_999", new QueryOptions().setTimeout(0, TimeUnit.NANOSECONDS));
+		assertEquals(QueryResult.Status.TIMED_OUT, result.getStatus());
+
+		// the destination settled on the last step allowed is still found
+		result = graph.findPath("Node_0", "Node_10", new QueryOptions().setMaxSettled(10));
+		assertTrue(result.isComplete());
+		assertEquals(10, result.getValue().getTotalWeight());
+	}
+
+	@Test
+	public void test_showConnectivityLimits() {
+		Graph graph = layers(4, 3);
+		List<List<String>> all = graph.showConnectivity("Node_S", "Node_T");
+		assertEquals(81, all.size());
+
+		QueryResult<List<List<String>>> result = graph.showConnectivity("Node_S", "Node_T", new QueryOptions());
+		assertTrue(result.isComplete());
+		assertEquals(all, result.getValue());
+
+		result = graph.showConnectivity("Node_S", "Node_T", new QueryOptions().setMaxResults(5));
+		assertEquals(QueryResult.Status.RESULT_LIMIT, result.getStatus());
+		assertEquals(all.subList(0, 5), result.getValue());
+
+		result = graph.showConnectivity("Node_S", "Node_T", new QueryOptions().setMaxSettled(30));
+		assertEquals(QueryResult.Status.SETTLED_LIMIT, result.getStatus());
+		assertTrue(result.getValue().size() > 0 && result.getValue().size() < all.size());
+		assertEquals(all.subList(0, result.getValue().size()), result.getValue());
+
+		result = graph.showConnectivity("Node_S", "Node_X", new QueryOptions());
+		assertTrue(result.isComplete());
+		assertEquals(0, result.getValue().size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_badMaxSettled() {
+		new QueryOptions().setMaxSettled(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_nullOptions() {
+		new ShortestPathGraph(GraphFixtures.chainEdges(3)).findPath("Node_0", "Node_2", (QueryOptions) null);
+	}
+}
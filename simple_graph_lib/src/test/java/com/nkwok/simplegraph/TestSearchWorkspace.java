@@ -0,0 +1,109 @@
+/**
+ * Name: TestSearchWorkspace
+ * Description: JUnit test for SearchWorkspace class and its reuse by the searches
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestSearchWorkspace {
+
+	@Test
+	public void test_generations() {
+		IndexedGraph graph = GraphFixtures.indexed(10, GraphFixtures.chainEdges(10));
+		int first;
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(graph)) {
+			first = workspace.generation();
+			workspace.reach(3, 7L, 2);
+			assertTrue(workspace.reached(3));
+			assertEquals(7, workspace.distance(3));
+			assertEquals(Long.MAX_VALUE, workspace.distance(4));
+		}
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(graph)) {
+			assertEquals(first + 1, workspace.generation());
+			// the entries of the last search are gone without clearing the arrays
+			assertTrue(! workspace.reached(3));
+			assertEquals(Double.POSITIVE_INFINITY, workspace.doubleDistance(3), 0.0);
+		}
+	}
+
+	@Test
+	public void test_nestedAcquire() {
+		IndexedGraph small = GraphFixtures.indexed(10, GraphFixtures.chainEdges(10));
+		IndexedGraph large = GraphFixtures.indexed(1000, GraphFixtures.chainEdges(1000));
+		try (SearchWorkspace outer = SearchWorkspace.acquire(small)) {
+			outer.reach(5, 1L, 4);
+			try (SearchWorkspace inner = SearchWorkspace.acquire(large)) {
+				assertTrue(inner != outer);
+				inner.reach(999, 2L, 998);
+			}
+			assertEquals(1, outer.distance(5));
+		}
+		// the thread's workspace grows to the larger graph
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(large)) {
+			workspace.reach(999, 3L, 998);
+			assertEquals(3, workspace.distance(999));
+		}
+	}
+
+	@Test
+	public void test_repeatedQueries() {
+		Random random = new Random(21);
+		Set<Edge> edges = new HashSet<>();
+		for(int i = 0; i < 800; i++) {
+			edges.add(new Edge("Edge " + i, "Node_" + random.nextInt(300), "Node_" + random.nextInt(300),
+					1 + random.nextInt(50)));
+		}
+		ShortestPathGraph graph = new ShortestPathGraph(edges);
+		IndexedGraph indexed = graph.getIndexedGraph();
+
+		for(int query = 0; query < 200; query++) {
+			int from = random.nextInt(indexed.getNumbersOfVertices());
+			int dest = random.nextInt(indexed.getNumbersOfVertices());
+			long[] expected = dijkstra(indexed, from);
+			Path path = graph.findPath(indexed.getName(from), indexed.getName(dest));
+			if (expected[dest] == Long.MAX_VALUE) {
+				assertNull(path);
+			} else {
+				assertNotNull(path);
+				assertEquals(expected[dest], path.getTotalWeight());
+			}
+		}
+	}
+
+	/**
+	 * plain Dijkstra with fresh arrays used as the reference
+	 */
+	private static long[] dijkstra(IndexedGraph graph, int from) {
+		long[] distance = new long[graph.getNumbersOfVertices()];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		DistanceHeap heap = new DistanceHeap(16);
+		distance[from] = 0;
+		heap.add(0, from);
+		while (! heap.isEmpty()) {
+			int node = heap.poll();
+			if (heap.lastKey() > distance[node]) {
+				continue;
+			}
+			for(int slot = graph.firstEdge(node); slot < graph.endEdge(node); slot++) {
+				long calcweight = distance[node] + graph.weight(slot);
+				if (calcweight < distance[graph.target(slot)]) {
+					distance[graph.target(slot)] = calcweight;
+					heap.add(calcweight, graph.target(slot));
+				}
+			}
+		}
+		return distance;
+	}
+}
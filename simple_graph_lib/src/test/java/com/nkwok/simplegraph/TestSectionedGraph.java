@@ -0,0 +1,170 @@
+/**
+ * Name: TestSectionedGraph
+ * Description: JUnit test for SectionedGraph class
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestSectionedGraph {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void test_sameAsGraph() throws IOException {
+		ShortestPathGraph graph = new ShortestPathGraph(GraphFixtures.randomEdges(300, 1200, 100, 3L));
+		File file = new File(folder.getRoot(), "graph.sections");
+		SectionedGraph.write(graph, file, 16);
+
+		try (SectionedGraph sectioned = SectionedGraph.open(file, 8)) {
+			assertEquals(graph.getIndexedGraph().getNumbersOfVertices(), sectioned.getNumbersOfVertices());
+			assertEquals(graph.getIndexedGraph().getNumbersOfEdges(), sectioned.getNumbersOfEdges());
+			assertEquals(Edge.WeightType.INT, sectioned.getWeightType());
+			assertEquals(-1, sectioned.getId("Missing"));
+			assertEquals(-1, sectioned.getId("A"));
+
+			SubgraphView all = new SubgraphView(graph);
+			Random random = new Random(7L);
+			for(int i = 0; i < 200; i++) {
+				String from = "Node_" + random.nextInt(300);
+				String dest = "Node_" + random.nextInt(300);
+				assertEquals(from + " " + dest, graph.findShortestPath(from, dest),
+						sectioned.findShortestPath(from, dest));
+				assertEquals(all.getHopDistance(from, dest), sectioned.getHopDistance(from, dest));
+			}
+			// the cache never holds more than its bound
+			assertTrue(sectioned.getCachedSections() <= 8);
+			assertTrue(sectioned.getCacheHits() > 0);
+		}
+	}
+
+	@Test
+	public void test_lazyLoading() throws IOException {
+		ShortestPathGraph graph = new ShortestPathGraph(GraphFixtures.randomEdges(1000, 3000, 100, 5L));
+		File file = new File(folder.getRoot(), "graph.sections");
+		SectionedGraph.write(graph, file, 50);
+
+		try (SectionedGraph sectioned = SectionedGraph.open(file, 100)) {
+			assertEquals(20, sectioned.getPartitionCount());
+			// opening reads no section
+			assertEquals(0, sectioned.getSectionLoads());
+			assertEquals(0, sectioned.getCachedSections());
+
+			String name = sectioned.getName(0);
+			assertEquals(0, sectioned.getId(name));
+			assertEquals(1, sectioned.getSectionLoads());
+			assertEquals(graph.getIndexedGraph().outDegree(graph.getIndexedGraph().getId(name)),
+					sectioned.outDegree(0));
+			assertEquals(2, sectioned.getSectionLoads());
+			assertTrue(sectioned.getBytesRead() < file.length() / 10);
+
+			Set<Edge> expected = new HashSet<>();
+			for(Edge edge: graph.getEdges()) {
+				if (edge.getFromVertex().equals(name)) {
+					expected.add(edge);
+				}
+			}
+			assertEquals(expected, new HashSet<>(sectioned.getEdges(name)));
+			assertTrue(sectioned.getEdges("Missing").isEmpty());
+		}
+	}
+
+	@Test
+	public void test_toGraph() throws IOException {
+		Graph graph = new Graph(true);
+		graph.addEdge(new Edge("Edge A_B", "Node_A", "Node_B", 4));
+		graph.addEdge(new Edge(null, "Node_B", "Node_C", 2));
+		graph.addEdge(new Edge("Edge C_D", "Node_C", "Node_D", 1));
+		File file = new File(folder.getRoot(), "graph.sections");
+		SectionedGraph.write(graph, file, 2);
+
+		try (SectionedGraph sectioned = SectionedGraph.open(file, 1)) {
+			assertTrue(sectioned.isBiDirection());
+			Graph loaded = sectioned.toGraph();
+			assertTrue(loaded.isBiDirection());
+			assertEquals(graph.getEdges(), loaded.getEdges());
+			assertEquals(graph.getVertices(), loaded.getVertices());
+			// one section in memory at a time
+			assertEquals(1, sectioned.getCachedSections());
+			assertEquals(3, sectioned.getHopDistance("Node_D", "Node_A"));
+			assertNull(sectioned.findShortestPath("Node_A", "Node_A"));
+		}
+	}
+
+	@Test
+	public void test_longAndDoubleWeights() throws IOException {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new LongEdge("Edge A_B", "Node_A", "Node_B", 1L << 40));
+		File file = new File(folder.getRoot(), "long.sections");
+		SectionedGraph.write(new Graph(edges), file, 4);
+		try (SectionedGraph sectioned = SectionedGraph.open(file, 4)) {
+			assertEquals(Edge.WeightType.LONG, sectioned.getWeightType());
+			assertEquals(1L << 40, ((LongEdge) sectioned.getEdges("Node_A").get(0)).getLongWeight());
+		}
+
+		edges.clear();
+		edges.add(new DoubleEdge("Edge A_B", "Node_A", "Node_B", 0.25));
+		file = new File(folder.getRoot(), "double.sections");
+		SectionedGraph.write(new Graph(edges), file, 4);
+		try (SectionedGraph sectioned = SectionedGraph.open(file, 4)) {
+			assertEquals(edges, new HashSet<>(sectioned.getEdges("Node_A")));
+			assertEquals(1, sectioned.getHopDistance("Node_A", "Node_B"));
+			assertFalse(sectioned.getEdges("Node_B").iterator().hasNext());
+		}
+	}
+
+	@Test
+	public void test_longAndDoublePaths() throws IOException {
+		for(Edge.WeightType type: new Edge.WeightType[] {Edge.WeightType.LONG, Edge.WeightType.DOUBLE}) {
+			ShortestPathGraph graph = new ShortestPathGraph(GraphFixtures.randomEdges(200, 800, type, 4L));
+			File file = new File(folder.getRoot(), type + ".sections");
+			SectionedGraph.write(graph, file, 16);
+
+			try (SectionedGraph sectioned = SectionedGraph.open(file, 4)) {
+				assertEquals(type, sectioned.getWeightType());
+				Random random = new Random(5L);
+				for(int i = 0; i < 50; i++) {
+					String from = "Node_" + random.nextInt(200);
+					String dest = "Node_" + random.nextInt(200);
+					Path expected = graph.findPath(from, dest);
+					Path found = sectioned.findPath(from, dest);
+					if (expected == null) {
+						assertNull(found);
+					} else {
+						assertEquals(expected.getTotalWeight(), found.getTotalWeight());
+						assertEquals(expected.getTotalDoubleWeight(), found.getTotalDoubleWeight(),
+								expected.getTotalDoubleWeight() * 1e-12);
+						assertEquals(dest, found.getDestination());
+					}
+				}
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void test_notSectioned() throws IOException {
+		File file = folder.newFile("other");
+		java.nio.file.Files.write(file.toPath(), new byte[64]);
+		SectionedGraph.open(file, 4);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_badPartitionSize() throws IOException {
+		SectionedGraph.write(new Graph(), new File(folder.getRoot(), "empty"), 0);
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * Name: TestShardedShortestPathCoordinator
+ * Description: JUnit test for ShardedShortestPathCoordinator class
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestShardedShortestPathCoordinator {
+
+	private final Set<Edge> edges = GraphFixtures.sampleEdges();
+
+	@Test
+	public void test_shortestPathAcrossShards() {
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+
+		for(int shards = 1; shards <= 4; shards++) {
+			PartitionedGraph partitioned = new PartitionedGraph(sp, shards);
+			try (ShardedShortestPathCoordinator coordinator = new ShardedShortestPathCoordinator(partitioned)) {
+				assertEquals(GraphFixtures.SAMPLE_SHORTEST_PATH,
+						sp.pathToString(coordinator.findShortestPath("Node_0", "Node_10")));
+				assertNull(coordinator.findShortestPath("Node_10", "Node_0"));
+				assertNull(coordinator.findShortestPath("Node_0", "Node_X"));
+			}
+		}
+	}
+
+	@Test
+	public void test_matchesShortestPathGraph() {
+		ShortestPathGraph sp = new ShortestPathGraph(GraphFixtures.randomEdges(100, 400, 50, 7L));
+		PartitionedGraph partitioned = new PartitionedGraph(sp, 4, new LabelPropagationPartitioner());
+
+		Random random = new Random(8);
+		try (ShardedShortestPathCoordinator coordinator = new ShardedShortestPathCoordinator(partitioned)) {
+			for(int i = 0; i < 30; i++) {
+				String from = "Node_" + random.nextInt(100);
+				String dest = "Node_" + random.nextInt(100);
+				LinkedList<Map<Vertex, Integer>> expected = sp.findShortestPath(from, dest);
+				LinkedList<Map<Vertex, Integer>> found = coordinator.findShortestPath(from, dest);
+				if (expected == null) {
+					assertNull(found);
+				} else {
+					assertEquals(expected.getLast().values().iterator().next(), found.getLast().values().iterator().next());
+					assertEquals(from, found.getFirst().keySet().iterator().next().getName());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void test_longAndDoubleWeights() {
+		for(Edge.WeightType type: new Edge.WeightType[] {Edge.WeightType.LONG, Edge.WeightType.DOUBLE}) {
+			ShortestPathGraph sp = new ShortestPathGraph(GraphFixtures.randomEdges(80, 320, type, 9L));
+			PartitionedGraph partitioned = new PartitionedGraph(sp, 3);
+			assertEquals(type, partitioned.getWeightType());
+
+			Random random = new Random(10);
+			try (ShardedShortestPathCoordinator coordinator = new ShardedShortestPathCoordinator(partitioned)) {
+				for(int i = 0; i < 30; i++) {
+					String from = "Node_" + random.nextInt(80);
+					String dest = "Node_" + random.nextInt(80);
+					Path expected = sp.findPath(from, dest);
+					Path found = coordinator.findPath(from, dest);
+					if (expected == null) {
+						assertNull(found);
+					} else {
+						assertEquals(expected.getTotalWeight(), found.getTotalWeight());
+						assertEquals(expected.getTotalDoubleWeight(), found.getTotalDoubleWeight(), 0);
+						assertEquals(from, found.getSource());
+						assertEquals(dest, found.getDestination());
+					}
+				}
+			}
+		}
+	}
+}
@@ -11,6 +11,7 @@
 package com.nkwok.simplegraph;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -92,5 +93,31 @@ public class TestShortestPathGraph {
 
         assertEquals(expectedShortestPath, result);
 	}
+
+	@Test
+	public void test_findPath() {
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+
+		Path foundPath = sp.findPath("Node_0", "Node_10");
+		assertEquals(expectedShortestPath, sp.pathToString(foundPath));
+		assertEquals(expectedShortestPath, sp.pathToString(sp.findShortestPath("Node_0", "Node_10")));
+		assertEquals(4, foundPath.getTotalWeight());
+
+		assertNull(sp.findPath("Node_10", "Node_0"));
+		assertNull(sp.findPath("Node_0", "Node_X"));
+		assertNull(sp.findShortestPath("Node_0", "Node_0"));
+	}
+
+	@Test
+	public void test_findPathAfterChange() {
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+		assertEquals(expectedShortestPath, sp.pathToString(sp.findPath("Node_0", "Node_10")));
+
+		sp.removeEdge(new Edge("Edge 9_10", "Node_9", "Node_10", 1));
+		assertEquals("Node_0 (0) -> Node_1 (1) -> Node_10 (6)", sp.pathToString(sp.findPath("Node_0", "Node_10")));
+
+		sp.addEdge(new Edge("Edge 4_10", "Node_4", "Node_10", 1));
+		assertEquals("Node_0 (0) -> Node_4 (1) -> Node_10 (2)", sp.pathToString(sp.findPath("Node_0", "Node_10")));
+	}
 	
 }
@@ -0,0 +1,198 @@
+/**
+ * Name: TestStrongComponents
+ * Description: JUnit test for StrongComponents class and the component pruning of the searches
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestStrongComponents {
+
+	/**
+	 * reachability of every vertex from every vertex by plain searches
+	 */
+	private static boolean[][] reachability(IndexedGraph graph) {
+		int n = graph.getNumbersOfVertices();
+		boolean[][] reach = new boolean[n][n];
+		for(int source = 0; source < n; source++) {
+			ArrayDeque<Integer> queue = new ArrayDeque<>();
+			reach[source][source] = true;
+			queue.add(source);
+			while (! queue.isEmpty()) {
+				int node = queue.poll();
+				for(int slot = graph.firstEdge(node); slot < graph.endEdge(node); slot++) {
+					int neighbor = graph.target(slot);
+					if (! reach[source][neighbor]) {
+						reach[source][neighbor] = true;
+						queue.add(neighbor);
+					}
+				}
+			}
+		}
+		return reach;
+	}
+
+	@Test
+	public void test_sameAsReachability() {
+		IndexedGraph graph = GraphFixtures.indexed(200, GraphFixtures.randomEdges(200, 260, 100, 5L));
+		boolean[][] reach = reachability(graph);
+		StrongComponents components = graph.getStrongComponents();
+		int n = graph.getNumbersOfVertices();
+
+		for(int a = 0; a < n; a++) {
+			for(int b = 0; b < n; b++) {
+				boolean same = components.getComponent(a) == components.getComponent(b);
+				assertEquals(reach[a][b] && reach[b][a], same);
+				assertEquals(reach[a][b], components.canReach(a, b));
+			}
+		}
+		for(int c = 0; c < components.getComponentCount(); c++) {
+			for(int pos = components.firstSuccessor(c); pos < components.endSuccessor(c); pos++) {
+				int next = components.successor(pos);
+				assertTrue(next < c);
+				assertTrue(components.getLevel(next) > components.getLevel(c));
+			}
+		}
+	}
+
+	@Test
+	public void test_between() {
+		IndexedGraph graph = GraphFixtures.indexed(150, GraphFixtures.randomEdges(150, 180, 100, 6L));
+		boolean[][] reach = reachability(graph);
+		StrongComponents components = graph.getStrongComponents();
+		int n = graph.getNumbersOfVertices();
+
+		for(int from = 0; from < n; from += 7) {
+			for(int dest = 0; dest < n; dest += 5) {
+				boolean[] keep = components.between(from, dest);
+				if (! reach[from][dest]) {
+					assertNull(keep);
+					continue;
+				}
+				for(int node = 0; node < n; node++) {
+					assertEquals(reach[from][node] && reach[node][dest], keep[components.getComponent(node)]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void test_condensation() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge A_B", "Node_A", "Node_B", 1));
+		edges.add(new Edge("Edge B_A", "Node_B", "Node_A", 1));
+		edges.add(new Edge("Edge A_C", "Node_A", "Node_C", 1));
+		edges.add(new Edge("Edge B_C", "Node_B", "Node_C", 1));
+		edges.add(new Edge("Edge C_D", "Node_C", "Node_D", 1));
+		edges.add(new Edge("Edge D_C", "Node_D", "Node_C", 1));
+		edges.add(new Edge("Edge D_E", "Node_D", "Node_E", 1));
+		edges.add(new Edge("Edge A_E", "Node_A", "Node_E", 1));
+		Graph graph = new Graph(edges);
+		IndexedGraph indexed = graph.getIndexedGraph();
+		StrongComponents components = graph.getStrongComponents();
+
+		assertEquals(3, components.getComponentCount());
+		assertEquals(3, components.getNumbersOfDagEdges());
+		assertEquals(3, components.getLevelCount());
+		int ab = components.getComponent(indexed.getId("Node_A"));
+		int cd = components.getComponent(indexed.getId("Node_C"));
+		int e = components.getComponent(indexed.getId("Node_E"));
+		assertEquals(0, components.getLevel(ab));
+		assertEquals(1, components.getLevel(cd));
+		assertEquals(2, components.getLevel(e));
+		assertArrayEquals(new int[] {indexed.getId("Node_C"), indexed.getId("Node_D")}, components.getMembers(cd));
+
+		assertTrue(graph.isReachable("Node_A", "Node_E"));
+		assertTrue(! graph.isReachable("Node_E", "Node_A"));
+		assertTrue(! graph.isReachable("Node_A", "Node_X"));
+		assertNull(new ShortestPathGraph(edges).findPath("Node_D", "Node_A"));
+	}
+
+	@Test
+	public void test_longChain() {
+		// a recursive search would overflow the call stack
+		int n = 200000;
+		List<Vertex> vertices = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for(int i = 0; i < n; i++) {
+			vertices.add(new Vertex("Node_" + i));
+			edges.add(new Edge("Edge " + i, "Node_" + i, "Node_" + ((i + 1) % n), 1));
+		}
+		IndexedGraph cycle = new IndexedGraph(vertices, edges);
+		assertEquals(1, cycle.getStrongComponents().getComponentCount());
+
+		IndexedGraph chain = new IndexedGraph(vertices, edges.subList(0, n - 1));
+		StrongComponents components = chain.getStrongComponents();
+		assertEquals(n, components.getComponentCount());
+		assertEquals(n, components.getLevelCount());
+		assertTrue(components.canReach(chain.getId("Node_0"), chain.getId("Node_" + (n - 1))));
+		assertTrue(! components.canReach(chain.getId("Node_" + (n - 1)), chain.getId("Node_0")));
+	}
+
+	@Test
+	public void test_prunedSearches() {
+		// a large component the source reaches but which cannot reach the destination
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge S_T", "Node_S", "Node_T", 5));
+		edges.add(new Edge("Edge S_T2", "Node_S", "NODE_T", 1));
+		edges.add(new Edge("Edge S_X0", "Node_S", "Node_X0", 1));
+		for(int i = 0; i < 20; i++) {
+			edges.add(new Edge("Edge X" + i, "Node_X" + i, "Node_X" + ((i + 1) % 20), 1));
+		}
+		ShortestPathGraph graph = new ShortestPathGraph(edges);
+
+		Path path = graph.findPath("Node_S", "Node_T");
+		assertNotNull(path);
+		assertEquals(5, path.getTotalWeight());
+		assertNull(graph.findPath("Node_X3", "Node_T"));
+		assertEquals(0, graph.findKShortestPaths("Node_X3", "Node_S", 2).size());
+		assertEquals(-1, graph.getHopDistance("Node_T", "Node_S"));
+		// the end node is matched ignoring case
+		assertEquals(2, graph.showConnectivity("Node_S", "Node_T").size());
+		assertEquals(0, graph.showConnectivity("Node_X1", "Node_T").size());
+	}
+
+	@Test
+	public void test_pruningBudget() {
+		// every vertex is its own component, so the pruning of a search from one end scans the whole chain
+		int n = StrongComponents.PRUNE_BUDGET * 2;
+		IndexedGraph chain = GraphFixtures.indexed(n, GraphFixtures.chainEdges(n));
+		StrongComponents components = chain.getStrongComponents();
+		int last = chain.getId("Node_" + (n - 1));
+		int middle = chain.getId("Node_" + (n / 2));
+		int first = chain.getId("Node_0");
+
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(chain)) {
+			workspace.single[0] = last;
+			assertTrue(components.between(first, workspace.single, 1, workspace));
+			// past the budget the search may enter every component
+			assertEquals(0, workspace.allowedStamp);
+			assertEquals(0, workspace.allowed[components.getComponent(middle)]);
+		}
+		try (SearchWorkspace workspace = SearchWorkspace.acquire(chain)) {
+			workspace.single[0] = first;
+			assertTrue(components.between(first, workspace.single, 1, workspace));
+			// a destination in the component of the source needs no other component
+			assertEquals(workspace.generation(), workspace.allowed[components.getComponent(first)]);
+			assertTrue(workspace.allowed[components.getComponent(middle)] != workspace.allowedStamp);
+		}
+		// the public queries are exact whatever the budget
+		assertTrue(components.canReach(first, last));
+		assertTrue(components.between(first, last)[components.getComponent(middle)]);
+		assertNull(components.between(last, first));
+		assertEquals(n - 1, MultiTargetSearch.search(chain, first, new int[] {last}, 1).get(0).getTotalWeight());
+	}
+}
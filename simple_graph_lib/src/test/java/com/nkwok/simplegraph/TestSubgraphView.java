@@ -0,0 +1,92 @@
+/**
+ * Name: TestSubgraphView
+ * Description: JUnit test for SubgraphView class and the searches of a view
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class TestSubgraphView {
+
+	@Test
+	public void test_sameAsFilteredCopy() {
+		Set<Edge> edges = GraphFixtures.randomEdges(200, 900, 20, 3L);
+		ShortestPathGraph graph = new ShortestPathGraph(edges);
+		Set<String> closed = new HashSet<>();
+		for(int i = 0; i < 200; i += 13) {
+			closed.add("Node_" + i);
+		}
+
+		SubgraphView view = new SubgraphView(graph)
+				.filterEdges(SubgraphView.EdgeFilter.weightBelow(15));
+		closed.forEach(view::removeVertex);
+		ShortestPathGraph copy = new ShortestPathGraph(edges.stream()
+				.filter(edge -> edge.getWeight() < 15)
+				.filter(edge -> ! closed.contains(edge.getFromVertex()) && ! closed.contains(edge.getToVertex()))
+				.collect(Collectors.toSet()));
+		assertEquals(copy.getNumbersOfEdges(), view.getNumbersOfEdges());
+
+		Random random = new Random(4);
+		for(int query = 0; query < 100; query++) {
+			String from = "Node_" + random.nextInt(200);
+			String dest = "Node_" + random.nextInt(200);
+			Path expected = copy.findPath(from, dest);
+			Path path = graph.findPath(from, dest, view);
+			if (expected == null) {
+				assertNull(from + " " + dest, path);
+			} else {
+				assertEquals(expected.getTotalWeight(), path.getTotalWeight());
+			}
+			assertEquals(copy.getHopDistance(from, dest), view.getHopDistance(from, dest));
+			assertEquals(copy.isReachable(from, dest), view.isReachable(from, dest));
+		}
+		// the view leaves the graph as it was
+		assertEquals(edges.size(), graph.getNumbersOfEdges());
+	}
+
+	@Test
+	public void test_removeEdgeAndConnectivity() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge A_B", "Node_A", "Node_B", 1));
+		edges.add(new Edge("Edge B_D", "Node_B", "Node_D", 1));
+		edges.add(new Edge("Edge A_C", "Node_A", "Node_C", 5));
+		edges.add(new Edge("Edge C_D", "Node_C", "Node_D", 5));
+		ShortestPathGraph graph = new ShortestPathGraph(edges);
+		assertEquals(2, graph.showConnectivity("Node_A", "Node_D").size());
+
+		SubgraphView view = new SubgraphView(graph).removeEdge(new Edge("Edge B_D", "Node_B", "Node_D", 1));
+		assertEquals(10, graph.findPath("Node_A", "Node_D", view).getTotalWeight());
+		assertEquals(3, graph.findShortestPath("Node_A", "Node_D", view).size());
+		assertEquals(1, graph.showConnectivity("Node_A", "Node_D", view).size());
+		assertEquals(3, view.getNumbersOfEdges());
+
+		view.removeVertex("Node_C");
+		assertNull(graph.findPath("Node_A", "Node_D", view));
+		assertEquals(0, graph.showConnectivity("Node_A", "Node_D", view).size());
+		assertEquals(3, view.getNumbersOfVertices());
+		assertTrue(graph.isReachable("Node_A", "Node_D"));
+
+		// a removed end vertex has no paths
+		SubgraphView noSource = new SubgraphView(graph).removeVertex("Node_A");
+		assertNull(graph.findPath("Node_A", "Node_B", noSource));
+		assertEquals(-1, noSource.getHopDistance("Node_A", "Node_B"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void test_staleView() {
+		ShortestPathGraph graph = new ShortestPathGraph(GraphFixtures.randomEdges(10, 20, 20, 1L));
+		SubgraphView view = new SubgraphView(graph);
+		graph.addEdge(new Edge("Edge X", "Node_1", "Node_X", 1));
+		graph.findPath("Node_1", "Node_X", view);
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Name: TestVertexOrdering
+ * Description: JUnit test for VertexOrdering class and the reordered IndexedGraph layouts
+ */
+
+package com.nkwok.simplegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestVertexOrdering {
+
+	/**
+	 * two way grid of size x size with the names shuffled, so that name order has no locality
+	 */
+	private static IndexedGraph grid(int size, VertexOrdering.Strategy strategy) {
+		List<Integer> labels = new ArrayList<>();
+		for(int i = 0; i < size * size; i++) {
+			labels.add(i);
+		}
+		Collections.shuffle(labels, new Random(1));
+		List<Vertex> vertices = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for(int i = 0; i < size * size; i++) {
+			vertices.add(new Vertex("Node_" + labels.get(i)));
+			int right = i + 1;
+			int down = i + size;
+			if (right % size != 0) {
+				edges.add(new Edge("Edge r" + i, "Node_" + labels.get(i), "Node_" + labels.get(right), 1 + i % 7));
+				edges.add(new Edge("Edge l" + i, "Node_" + labels.get(right), "Node_" + labels.get(i), 1 + i % 7));
+			}
+			if (down < size * size) {
+				edges.add(new Edge("Edge d" + i, "Node_" + labels.get(i), "Node_" + labels.get(down), 1 + i % 5));
+				edges.add(new Edge("Edge u" + i, "Node_" + labels.get(down), "Node_" + labels.get(i), 1 + i % 5));
+			}
+		}
+		return new IndexedGraph(vertices, edges, strategy);
+	}
+
+	@Test
+	public void test_permutation() {
+		IndexedGraph graph = grid(20, VertexOrdering.Strategy.NAME);
+		for(VertexOrdering.Strategy strategy: VertexOrdering.Strategy.values()) {
+			int[] order = VertexOrdering.order(graph, strategy);
+			int[] sorted = order.clone();
+			Arrays.sort(sorted);
+			for(int i = 0; i < sorted.length; i++) {
+				assertEquals(i, sorted[i]);
+			}
+		}
+	}
+
+	@Test
+	public void test_sameDistances() {
+		IndexedGraph base = grid(15, VertexOrdering.Strategy.NAME);
+		for(VertexOrdering.Strategy strategy: VertexOrdering.Strategy.values()) {
+			IndexedGraph graph = grid(15, strategy);
+			assertEquals(strategy, graph.getStrategy());
+			assertEquals(base.getNumbersOfEdges(), graph.getNumbersOfEdges());
+			for(int source = 0; source < base.getNumbersOfVertices(); source += 23) {
+				long[] expected = LandmarkIndex.distances(base, source, false, null, null);
+				long[] actual = LandmarkIndex.distances(graph, graph.getId(base.getName(source)), false, null, null);
+				for(int node = 0; node < base.getNumbersOfVertices(); node++) {
+					assertEquals(expected[node], actual[graph.getId(base.getName(node))]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void test_locality() {
+		double nameGap = VertexOrdering.averageGap(grid(30, VertexOrdering.Strategy.NAME));
+		assertTrue(VertexOrdering.averageGap(grid(30, VertexOrdering.Strategy.BFS)) < nameGap / 4);
+		assertTrue(VertexOrdering.averageGap(grid(30, VertexOrdering.Strategy.REVERSE_CUTHILL_MCKEE)) < nameGap / 4);
+		assertTrue(VertexOrdering.averageGap(grid(30, VertexOrdering.Strategy.GORDER)) < nameGap / 4);
+	}
+
+	@Test
+	public void test_graphVertexOrder() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge 0_1", "Node_0", "Node_1", 1));
+		edges.add(new Edge("Edge 1_2", "Node_1", "Node_2", 1));
+		edges.add(new Edge("Edge 0_2", "Node_0", "Node_2", 5));
+		edges.add(new Edge("Edge 2_3", "Node_2", "Node_3", 1));
+		ShortestPathGraph sp = new ShortestPathGraph(edges);
+		assertEquals(VertexOrdering.Strategy.NAME, sp.getVertexOrder());
+		String expected = sp.findPath("Node_0", "Node_3").toString();
+
+		IndexedGraph before = sp.getIndexedGraph();
+		sp.setVertexOrder(VertexOrdering.Strategy.NAME);
+		assertSame(before, sp.getIndexedGraph());
+		sp.setVertexOrder(VertexOrdering.Strategy.REVERSE_CUTHILL_MCKEE);
+		assertNotSame(before, sp.getIndexedGraph());
+		assertEquals(VertexOrdering.Strategy.REVERSE_CUTHILL_MCKEE, sp.getIndexedGraph().getStrategy());
+		assertEquals(expected, sp.findPath("Node_0", "Node_3").toString());
+		assertEquals(2, sp.getHopDistance("Node_0", "Node_3"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_nullStrategy() {
+		new Graph().setVertexOrder(null);
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Name: VertexOrderingBenchmark
+ * Description: Compare the VertexOrdering strategies on a road style graph (two way grid) and a social style graph
+ * 				(preferential attachment).  For every strategy it prints the layout build time, the mean id gap of
+ * 				an edge and the mean time of a full Dijkstra's search and a full breadth first search.
+ * 				The vertex names are shuffled so that NAME order is a random layout, as with real vertex names.
+ * 				Java cannot read the hardware counters; to see the cache misses run it under perf, e.g.
+ * 				  perf stat -e cache-references,cache-misses java -cp target/classes:target/test-classes
+ * 				      com.nkwok.simplegraph.VertexOrderingBenchmark road GORDER
+ *
+ * 				Arguments: [road|social|all] [strategy], default all graphs and all strategies.
+ */
+
+package com.nkwok.simplegraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class VertexOrderingBenchmark {
+
+	private static final int SEARCHES = 20;
+
+	private static List<String> shuffledNames(int n, Random random) {
+		List<String> names = new ArrayList<>(n);
+		for(int i = 0; i < n; i++) {
+			names.add("Node_" + i);
+		}
+		Collections.shuffle(names, random);
+		return names;
+	}
+
+	private static List<Vertex> vertices(List<String> names) {
+		List<Vertex> vertices = new ArrayList<>(names.size());
+		for(String name: names) {
+			vertices.add(new Vertex(name));
+		}
+		return vertices;
+	}
+
+	/**
+	 * road - two way grid of size x size
+	 */
+	private static void road(int size, List<Vertex> vertices, List<Edge> edges) {
+		Random random = new Random(1);
+		List<String> names = shuffledNames(size * size, random);
+		vertices.addAll(vertices(names));
+		for(int i = 0; i < size * size; i++) {
+			int weight = 1 + random.nextInt(20);
+			if ((i + 1) % size != 0) {
+				edges.add(new Edge("Edge r" + i, names.get(i), names.get(i + 1), weight));
+				edges.add(new Edge("Edge l" + i, names.get(i + 1), names.get(i), weight));
+			}
+			if (i + size < size * size) {
+				edges.add(new Edge("Edge d" + i, names.get(i), names.get(i + size), weight));
+				edges.add(new Edge("Edge u" + i, names.get(i + size), names.get(i), weight));
+			}
+		}
+	}
+
+	/**
+	 * social - preferential attachment, every new vertex follows and is followed by links existing vertices
+	 */
+	private static void social(int n, int links, List<Vertex> vertices, List<Edge> edges) {
+		Random random = new Random(2);
+		List<String> names = shuffledNames(n, random);
+		vertices.addAll(vertices(names));
+		int[] ends = new int[2 * n * links];
+		int size = 0;
+		int e = 0;
+		for(int i = 1; i < n; i++) {
+			for(int j = 0; j < Math.min(i, links); j++) {
+				int other = size == 0 ? 0 : ends[random.nextInt(size)];
+				edges.add(new Edge("Edge " + e++, names.get(i), names.get(other), 1 + random.nextInt(20)));
+				edges.add(new Edge("Edge " + e++, names.get(other), names.get(i), 1 + random.nextInt(20)));
+				ends[size++] = i;
+				ends[size++] = other;
+			}
+		}
+	}
+
+	private static void run(String shape, List<Vertex> vertices, List<Edge> edges, List<VertexOrdering.Strategy> strategies) {
+		System.out.println(shape + ": " + vertices.size() + " vertices, " + edges.size() + " edges");
+		System.out.println(String.format("%-22s %10s %10s %14s %12s", "strategy", "build ms", "mean gap",
+				"dijkstra ms", "bfs ms"));
+		for(VertexOrdering.Strategy strategy: strategies) {
+			long start = System.nanoTime();
+			IndexedGraph graph = new IndexedGraph(vertices, edges, strategy);
+			long build = System.nanoTime() - start;
+
+			// the same source vertices by name in every layout, after a warm up round
+			Random random = new Random(3);
+			int[] sources = new int[SEARCHES];
+			for(int i = 0; i < SEARCHES; i++) {
+				sources[i] = graph.getId(vertices.get(random.nextInt(vertices.size())).getName());
+			}
+			BreadthFirstSearch bfs = new BreadthFirstSearch(graph, false);
+			long dijkstra = 0;
+			long breadth = 0;
+			for(int round = 0; round < 2; round++) {
+				dijkstra = 0;
+				breadth = 0;
+				for(int source: sources) {
+					start = System.nanoTime();
+					LandmarkIndex.distances(graph, source, false, null, null);
+					dijkstra += System.nanoTime() - start;
+					start = System.nanoTime();
+					bfs.hopDistances(source);
+					breadth += System.nanoTime() - start;
+				}
+			}
+			System.out.println(String.format("%-22s %10.1f %10.1f %14.2f %12.2f", strategy, build / 1e6,
+					VertexOrdering.averageGap(graph), dijkstra / 1e6 / SEARCHES, breadth / 1e6 / SEARCHES));
+		}
+		System.out.println();
+	}
+
+	public static void main(String[] args) {
+		String shape = args.length > 0 ? args[0] : "all";
+		List<VertexOrdering.Strategy> strategies = new ArrayList<>();
+		if (args.length > 1) {
+			strategies.add(VertexOrdering.Strategy.valueOf(args[1]));
+		} else {
+			Collections.addAll(strategies, VertexOrdering.Strategy.values());
+		}
+
+		if (shape.equals("road") || shape.equals("all")) {
+			List<Vertex> vertices = new ArrayList<>();
+			List<Edge> edges = new ArrayList<>();
+			road(400, vertices, edges);
+			run("road", vertices, edges, strategies);
+		}
+		if (shape.equals("social") || shape.equals("all")) {
+			List<Vertex> vertices = new ArrayList<>();
+			List<Edge> edges = new ArrayList<>();
+			social(100000, 5, vertices, edges);
+			run("social", vertices, edges, strategies);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * Name: TestBetweennessCentrality
+ * Description: JUnit test for BetweennessCentrality class
+ */
+
+package com.nkwok.simplegraph.analytics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.nkwok.simplegraph.Edge;
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.GraphFixtures;
+import com.nkwok.simplegraph.IndexedGraph;
+
+public class TestBetweennessCentrality {
+
+	/**
+	 * hop distances and shortest path counts from every vertex
+	 */
+	private static void allPairs(IndexedGraph graph, int[][] distance, double[][] count) {
+		int n = graph.getNumbersOfVertices();
+		for(int s = 0; s < n; s++) {
+			Arrays.fill(distance[s], -1);
+			distance[s][s] = 0;
+			count[s][s] = 1;
+			ArrayDeque<Integer> queue = new ArrayDeque<>();
+			queue.add(s);
+			while (! queue.isEmpty()) {
+				int node = queue.poll();
+				for(int slot = graph.firstEdge(node); slot < graph.endEdge(node); slot++) {
+					int neighbor = graph.target(slot);
+					if (distance[s][neighbor] < 0) {
+						distance[s][neighbor] = distance[s][node] + 1;
+						queue.add(neighbor);
+					}
+					if (distance[s][neighbor] == distance[s][node] + 1) {
+						count[s][neighbor] += count[s][node];
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * betweenness from its definition: sum over pairs s, t of the share of shortest s-t paths through v
+	 */
+	private static double[] expected(IndexedGraph graph) {
+		int n = graph.getNumbersOfVertices();
+		int[][] distance = new int[n][n];
+		double[][] count = new double[n][n];
+		allPairs(graph, distance, count);
+		double[] scores = new double[n];
+		for(int v = 0; v < n; v++) {
+			for(int s = 0; s < n; s++) {
+				for(int t = 0; t < n; t++) {
+					if (s == v || t == v || s == t || distance[s][t] < 0 || distance[s][v] < 0 || distance[v][t] < 0) {
+						continue;
+					}
+					if (distance[s][v] + distance[v][t] == distance[s][t]) {
+						scores[v] += count[s][v] * count[v][t] / count[s][t];
+					}
+				}
+			}
+		}
+		return scores;
+	}
+
+	@Test
+	public void test_chain() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge A_B", "Node_A", "Node_B", 1));
+		edges.add(new Edge("Edge B_C", "Node_B", "Node_C", 1));
+		edges.add(new Edge("Edge C_D", "Node_C", "Node_D", 1));
+		CentralityResult result = new BetweennessCentrality(new Graph(edges)).run();
+
+		assertEquals(0.0, result.getScore("Node_A"), 0.0);
+		assertEquals(2.0, result.getScore("Node_B"), 0.0);
+		assertEquals(2.0, result.getScore("Node_C"), 0.0);
+		assertEquals(0.0, result.getScore("Node_D"), 0.0);
+		assertEquals(1, result.getIterations());
+	}
+
+	@Test
+	public void test_sameAsDefinition() {
+		IndexedGraph graph = new Graph(GraphFixtures.randomEdges(60, 300, 1, 3L)).getIndexedGraph();
+		double[] expected = expected(graph);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			CentralityResult result = new BetweennessCentrality(graph).setPool(pool).setRoundSize(7).run();
+			assertEquals((graph.getNumbersOfVertices() + 6) / 7, result.getIterations());
+			for(int node = 0; node < expected.length; node++) {
+				assertEquals(expected[node], result.getScore(node), 1e-9);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
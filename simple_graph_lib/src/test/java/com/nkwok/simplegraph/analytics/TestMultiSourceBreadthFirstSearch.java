@@ -0,0 +1,117 @@
+/**
+ * Name: TestMultiSourceBreadthFirstSearch
+ * Description: JUnit test for MultiSourceBreadthFirstSearch class
+ */
+
+package com.nkwok.simplegraph.analytics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.nkwok.simplegraph.BreadthFirstSearch;
+import com.nkwok.simplegraph.Edge;
+import com.nkwok.simplegraph.GraphFixtures;
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.IndexedGraph;
+
+public class TestMultiSourceBreadthFirstSearch {
+
+	private static int[] randomSources(int count, int n, long seed) {
+		Random random = new Random(seed);
+		int[] sources = new int[count];
+		for(int i = 0; i < count; i++) {
+			sources[i] = random.nextInt(n);
+		}
+		return sources;
+	}
+
+	@Test
+	public void test_sameAsSingleSearches() {
+		// a sparse graph expands top-down, a dense one switches to bottom-up levels
+		int[][] shapes = {{400, 600}, {400, 6000}};
+		for(int[] shape: shapes) {
+			IndexedGraph graph = new Graph(GraphFixtures.randomEdges(shape[0], shape[1], 1, shape[1]))
+					.getIndexedGraph();
+			int n = graph.getNumbersOfVertices();
+			int[] sources = randomSources(150, n, 5L);
+			BreadthFirstSearch single = new BreadthFirstSearch(graph, false);
+
+			for(int words = 1; words <= 3; words++) {
+				int[][] distances = new MultiSourceBreadthFirstSearch(graph).setBatchWords(words)
+						.hopDistances(sources);
+				int[] counts = new MultiSourceBreadthFirstSearch(graph).setBatchWords(words)
+						.reachableCounts(sources);
+				for(int s = 0; s < sources.length; s++) {
+					int[] expected = single.hopDistances(sources[s]);
+					assertArrayEquals("source " + s + " words " + words, expected, distances[s]);
+					int reached = 0;
+					for(int hops: expected) {
+						if (hops != BreadthFirstSearch.UNREACHED) {
+							reached++;
+						}
+					}
+					assertEquals(reached, counts[s]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void test_pairs() {
+		IndexedGraph graph = new Graph(GraphFixtures.randomEdges(200, 500, 1, 3L)).getIndexedGraph();
+		int n = graph.getNumbersOfVertices();
+		int[] sources = randomSources(70, n, 8L);
+		int[] dests = randomSources(30, n, 9L);
+		dests[1] = dests[0];
+		int[][] pairs = new MultiSourceBreadthFirstSearch(graph).setPool(new ForkJoinPool(3))
+				.hopDistances(sources, dests);
+		BreadthFirstSearch single = new BreadthFirstSearch(graph, false);
+		for(int s = 0; s < sources.length; s++) {
+			for(int d = 0; d < dests.length; d++) {
+				assertEquals(single.hopDistance(sources[s], dests[d]), pairs[s][d]);
+			}
+		}
+	}
+
+	@Test
+	public void test_visitor() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge A_B", "Node_A", "Node_B", 1));
+		edges.add(new Edge("Edge B_C", "Node_B", "Node_C", 1));
+		Graph graph = new Graph(edges);
+		IndexedGraph indexed = graph.getIndexedGraph();
+		int a = indexed.getId("Node_A");
+		int c = indexed.getId("Node_C");
+
+		AtomicInteger visits = new AtomicInteger();
+		new MultiSourceBreadthFirstSearch(graph).run(new int[] {a, a, c}, (source, vertex, hops) -> {
+			visits.incrementAndGet();
+			if (source == 2) {
+				assertEquals(c, vertex);
+				assertEquals(0, hops);
+			}
+		});
+		assertEquals(3 + 3 + 1, visits.get());
+		assertEquals(0, new MultiSourceBreadthFirstSearch(graph).hopDistances().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_badSource() {
+		IndexedGraph graph = new Graph(GraphFixtures.randomEdges(10, 20, 1, 1L)).getIndexedGraph();
+		new MultiSourceBreadthFirstSearch(graph).hopDistances(graph.getNumbersOfVertices());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_badBatchWords() {
+		new MultiSourceBreadthFirstSearch(new Graph(GraphFixtures.randomEdges(10, 20, 1, 1L)).getIndexedGraph())
+				.setBatchWords(0);
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Name: TestPageRank
+ * Description: JUnit test for PageRank class
+ */
+
+package com.nkwok.simplegraph.analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.nkwok.simplegraph.Edge;
+import com.nkwok.simplegraph.GraphFixtures;
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.IndexedGraph;
+
+public class TestPageRank {
+
+	/**
+	 * push based power iteration used as the reference
+	 */
+	private static double[] expected(IndexedGraph graph, double damping, int iterations) {
+		int n = graph.getNumbersOfVertices();
+		double[] rank = new double[n];
+		Arrays.fill(rank, 1.0 / n);
+		for(int i = 0; i < iterations; i++) {
+			double[] next = new double[n];
+			double dangling = 0;
+			for(int node = 0; node < n; node++) {
+				int degree = graph.endEdge(node) - graph.firstEdge(node);
+				if (degree == 0) {
+					dangling += rank[node];
+				}
+				for(int slot = graph.firstEdge(node); slot < graph.endEdge(node); slot++) {
+					next[graph.target(slot)] += damping * rank[node] / degree;
+				}
+			}
+			for(int node = 0; node < n; node++) {
+				next[node] += (1 - damping) / n + damping * dangling / n;
+			}
+			rank = next;
+		}
+		return rank;
+	}
+
+	@Test
+	public void test_cycle() {
+		Set<Edge> edges = new HashSet<>();
+		edges.add(new Edge("Edge A_B", "Node_A", "Node_B", 1));
+		edges.add(new Edge("Edge B_C", "Node_B", "Node_C", 1));
+		edges.add(new Edge("Edge C_A", "Node_C", "Node_A", 1));
+		edges.add(new Edge("Edge C_D", "Node_D", "Node_C", 1));
+		CentralityResult result = new PageRank(new Graph(edges)).run();
+
+		assertTrue(result.isConverged());
+		assertEquals(result.getIterations(), result.getIterationNanos().length);
+		assertEquals(1.0, Arrays.stream(result.getScores()).sum(), 1e-9);
+		assertEquals(0.15 / 4, result.getScore("Node_D"), 1e-9);
+		assertEquals("Node_C", result.getTop(1).get(0));
+		assertTrue(Double.isNaN(result.getScore("Node_X")));
+	}
+
+	@Test
+	public void test_sameAsPowerIteration() {
+		IndexedGraph graph = new Graph(GraphFixtures.randomEdges(300, 1200, 1, 1L)).getIndexedGraph();
+		double[] expected = expected(graph, 0.85, 200);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			CentralityResult result = new PageRank(graph).setTolerance(1e-12).setMaxIterations(200).setPool(pool).run();
+			assertTrue(result.isConverged());
+			for(int node = 0; node < expected.length; node++) {
+				assertEquals(expected[node], result.getScore(node), 1e-10);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void test_iterationLimit() {
+		CentralityResult result = new PageRank(new Graph(GraphFixtures.randomEdges(100, 400, 1, 2L)))
+				.setTolerance(0).setMaxIterations(5).run();
+		assertEquals(5, result.getIterations());
+		assertTrue(! result.isConverged());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_invalidDamping() {
+		new PageRank(new Graph()).setDampingFactor(1.5);
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * Name: TestLatencyHistogram
+ * Description: JUnit test for LatencyHistogram class
+ */
+
+package com.nkwok.simplegraph.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestLatencyHistogram {
+
+	@Test
+	public void test_buckets() {
+		int previous = -1;
+		for(long value = 0; value < 100000; value++) {
+			int index = LatencyHistogram.index(value);
+			assertTrue(index == previous || index == previous + 1);
+			assertTrue(LatencyHistogram.highestEquivalent(index) >= value);
+			previous = index;
+		}
+		long[] values = {Long.MAX_VALUE, 1L << 40, (1L << 40) - 1, 123456789012L};
+		for(long value: values) {
+			long high = LatencyHistogram.highestEquivalent(LatencyHistogram.index(value));
+			assertTrue(high >= value);
+			assertTrue(high - value <= value / 100);
+		}
+	}
+
+	@Test
+	public void test_percentiles() {
+		Random random = new Random(2);
+		long[] values = new long[10000];
+		LatencyHistogram first = new LatencyHistogram();
+		LatencyHistogram second = new LatencyHistogram();
+		for(int i = 0; i < values.length; i++) {
+			values[i] = (long) Math.exp(random.nextDouble() * 20);
+			(i % 2 == 0 ? first : second).record(values[i]);
+		}
+		first.add(second);
+		Arrays.sort(values);
+
+		assertEquals(values.length, first.getCount());
+		assertEquals(values[0], first.getMin());
+		assertEquals(values[values.length - 1], first.getMax());
+		assertEquals(values[values.length - 1], first.getValueAtPercentile(100));
+		double[] percentiles = {1, 50, 90, 99, 99.9};
+		for(double percentile: percentiles) {
+			long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+			long reported = first.getValueAtPercentile(percentile);
+			assertTrue(reported >= exact);
+			assertTrue(reported - exact <= exact / 100);
+		}
+	}
+
+	@Test
+	public void test_empty() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(99));
+		assertEquals(0, histogram.getMin());
+		assertEquals(0.0, histogram.getMean(), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_invalidPercentile() {
+		new LatencyHistogram().getValueAtPercentile(101);
+	}
+}
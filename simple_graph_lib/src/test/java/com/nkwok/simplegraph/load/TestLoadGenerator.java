@@ -0,0 +1,80 @@
+/**
+ * Name: TestLoadGenerator
+ * Description: JUnit test for LoadGenerator and GraphGenerator classes
+ */
+
+package com.nkwok.simplegraph.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.nkwok.simplegraph.Edge;
+import com.nkwok.simplegraph.Graph;
+
+public class TestLoadGenerator {
+
+	@Test
+	public void test_generators() {
+		for(GraphGenerator generator: GraphGenerator.values()) {
+			Set<Edge> edges = generator.generate(100, 3, 7L);
+			Graph graph = new Graph(edges);
+			assertEquals(generator.name(), 100, graph.getNumbersOfVertices());
+			assertTrue(generator.name(), graph.isReachable("Node_99", "Node_0"));
+			assertEquals(edges, generator.generate(100, 3, 7L));
+		}
+	}
+
+	@Test
+	public void test_mixedLoad() throws InterruptedException {
+		for(LoadGenerator.ReadMode mode: LoadGenerator.ReadMode.values()) {
+			LoadReport report = new LoadGenerator()
+					.setVertices(200)
+					.setThreads(8)
+					.setWriteRatio(0.3)
+					.setSkew(1.1)
+					.setOperationsPerThread(300)
+					.setReadMode(mode)
+					.run();
+
+			assertTrue(report.toString(), report.isClean());
+			assertEquals(mode, report.getReadMode());
+			assertEquals(8 * 300, report.getOperations());
+			assertEquals(8 * 300, Arrays.stream(report.getIntervalOperations()).sum());
+			assertTrue(report.getWrites().getCount() > 0);
+			assertTrue(report.getReads().getValueAtPercentile(99) <= report.getReads().getMax());
+		}
+	}
+
+	@Test
+	public void test_writeOnlyLoad() throws InterruptedException {
+		LoadReport report = new LoadGenerator()
+				.setGenerator(GraphGenerator.GRID)
+				.setVertices(100)
+				.setThreads(16)
+				.setWriteRatio(1)
+				.setOperationsPerThread(500)
+				.run();
+		assertTrue(report.toString(), report.isClean());
+		assertEquals(0, report.getReads().getCount());
+	}
+
+	@Test
+	public void test_checkInvariants() {
+		Set<Edge> edges = GraphGenerator.RANDOM.generate(20, 2, 3L);
+		Graph graph = new Graph(edges);
+		assertEquals(0, LoadGenerator.checkInvariants(graph, edges).size());
+
+		Set<Edge> expected = new HashSet<>(edges);
+		expected.add(new Edge("Edge X", "Node_1", "Node_2", 1));
+		List<String> violations = LoadGenerator.checkInvariants(graph, expected);
+		assertEquals(1, violations.size());
+		assertTrue(violations.get(0).startsWith("1 expected edges are missing"));
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Name: TestReplication
+ * Description: JUnit test for ReplicationPrimary and ReplicationFollower classes on localhost
+ */
+
+package com.nkwok.simplegraph.replication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.nkwok.simplegraph.DoubleEdge;
+import com.nkwok.simplegraph.Edge;
+import com.nkwok.simplegraph.Graph;
+import com.nkwok.simplegraph.LongEdge;
+import com.nkwok.simplegraph.ShortestPathGraph;
+import com.nkwok.simplegraph.load.GraphGenerator;
+
+public class TestReplication {
+
+	private static void awaitCaughtUp(ReplicationPrimary primary, ReplicationFollower follower)
+			throws InterruptedException {
+		assertTrue("follower at " + follower.getAppliedSequence() + " of " + primary.getSequence(),
+				follower.awaitSequence(primary.getSequence(), 10, TimeUnit.SECONDS));
+		assertEquals(primary.getGraph().getEdges(), follower.getGraph().getEdges());
+		assertEquals(primary.getGraph().getVertices(), follower.getGraph().getVertices());
+	}
+
+	@Test
+	public void test_snapshotThenChanges() throws IOException, InterruptedException {
+		ShortestPathGraph graph = new ShortestPathGraph(GraphGenerator.RANDOM.generate(50, 2, 1L));
+		try (ReplicationPrimary primary = new ReplicationPrimary(graph, 0);
+				ReplicationFollower follower = new ReplicationFollower("localhost", primary.getPort())) {
+			assertTrue(primary.getAddress().isLoopbackAddress());
+			awaitCaughtUp(primary, follower);
+			assertEquals(1, follower.getSnapshotCount());
+			assertTrue(follower.getGraph() instanceof ShortestPathGraph);
+
+			graph.addEdge(new Edge("Edge X", "Node_1", "Node_X", 5));
+			graph.removeEdge(graph.getEdges().iterator().next());
+			awaitCaughtUp(primary, follower);
+			assertEquals(2, primary.getSequence());
+			assertEquals(0, follower.getLag());
+			assertEquals(1, follower.getSnapshotCount());
+			assertEquals(5, ((ShortestPathGraph) follower.getGraph()).findPath("Node_1", "Node_X")
+					.getTotalWeight());
+		}
+	}
+
+	@Test
+	public void test_lateJoinersAndConcurrentWriters() throws IOException, InterruptedException {
+		Graph graph = new Graph(GraphGenerator.SCALE_FREE.generate(100, 2, 2L));
+		try (ReplicationPrimary primary = new ReplicationPrimary(graph, 0, 64).setMaxBatch(16)) {
+			List<ReplicationFollower> followers = new ArrayList<>();
+			followers.add(new ReplicationFollower("localhost", primary.getPort(), 20));
+
+			List<Thread> writers = new ArrayList<>();
+			for(int t = 0; t < 4; t++) {
+				int seed = t;
+				Thread writer = new Thread(() -> {
+					Random random = new Random(seed);
+					List<Edge> added = new ArrayList<>();
+					for(int i = 0; i < 500; i++) {
+						if (! added.isEmpty() && random.nextInt(3) == 0) {
+							graph.removeEdge(added.remove(random.nextInt(added.size())));
+						} else {
+							Edge edge = new Edge("Edge " + seed + "_" + i, "Node_" + random.nextInt(100),
+									"Node_" + random.nextInt(100), 1 + random.nextInt(9));
+							graph.addEdge(edge);
+							added.add(edge);
+						}
+					}
+				});
+				writers.add(writer);
+				writer.start();
+			}
+			Thread.sleep(20);
+			// a follower joining while the writers run starts from a snapshot
+			followers.add(new ReplicationFollower("localhost", primary.getPort(), 20));
+			for(Thread writer: writers) {
+				writer.join();
+			}
+			followers.add(new ReplicationFollower("localhost", primary.getPort(), 20));
+
+			for(ReplicationFollower follower: followers) {
+				awaitCaughtUp(primary, follower);
+				assertTrue(follower.getSnapshotCount() >= 1);
+				follower.close();
+			}
+		}
+	}
+
+	@Test
+	public void test_resumeAfterDisconnect() throws IOException, InterruptedException {
+		Graph graph = new Graph(GraphGenerator.GRID.generate(25, 1, 3L));
+		try (ReplicationPrimary primary = new ReplicationPrimary(graph, 0);
+				ReplicationFollower follower = new ReplicationFollower("localhost", primary.getPort(), 20)) {
+			awaitCaughtUp(primary, follower);
+			Graph replica = follower.getGraph();
+
+			primary.disconnectFollowers();
+			for(int i = 0; i < 10; i++) {
+				graph.addEdge(new Edge("Edge R" + i, "Node_" + i, "Node_" + (i + 3), 2));
+			}
+			awaitCaughtUp(primary, follower);
+			// the follower resumed from the backlog, without a new snapshot
+			assertEquals(1, follower.getSnapshotCount());
+			assertTrue(follower.getConnectCount() >= 2);
+			assertTrue(replica == follower.getGraph());
+		}
+	}
+
+	@Test
+	public void test_resnapshotPastBacklog() throws IOException, InterruptedException {
+		Graph graph = new Graph(GraphGenerator.RANDOM.generate(30, 2, 4L));
+		try (ReplicationPrimary primary = new ReplicationPrimary(graph, 0, 4);
+				ReplicationFollower follower = new ReplicationFollower("localhost", primary.getPort(), 20)) {
+			awaitCaughtUp(primary, follower);
+			// while the follower is away, more changes than the backlog holds are made
+			synchronized(graph) {
+				primary.disconnectFollowers();
+				for(int i = 0; i < 10; i++) {
+					graph.addEdge(new Edge("Edge B" + i, "Node_" + i, "Node_B", 1));
+				}
+			}
+			awaitCaughtUp(primary, follower);
+			assertEquals(2, follower.getSnapshotCount());
+		}
+	}
+
+	private static byte[] serialize(Object object) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+			oos.writeObject(object);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Test
+	public void test_snapshotClasses() throws IOException, ClassNotFoundException {
+		Graph graph = new Graph(true);
+		graph.addEdge(new Edge("Edge A_B", "Node_A", "Node_B", 1));
+		graph.addEdge(new LongEdge("Edge B_C", "Node_B", "Node_C", 1L << 40));
+		graph.addEdge(new DoubleEdge(null, "Node_C", "Node_D", 0.5));
+		try (ReplicationFollower.SnapshotInputStream in = new ReplicationFollower.SnapshotInputStream(
+				new ByteArrayInputStream(serialize(graph)))) {
+			Graph read = (Graph) in.readObject();
+			assertEquals(graph.getEdges(), read.getEdges());
+			assertEquals(graph.getVertices(), read.getVertices());
+		}
+	}
+
+	@Test(expected = InvalidClassException.class)
+	public void test_snapshotRejectsOtherClasses() throws IOException, ClassNotFoundException {
+		List<Object> other = new ArrayList<>();
+		other.add(new Edge("Edge A_B", "Node_A", "Node_B", 1));
+		try (ReplicationFollower.SnapshotInputStream in = new ReplicationFollower.SnapshotInputStream(
+				new ByteArrayInputStream(serialize(other)))) {
+			in.readObject();
+		}
+	}
+
+	@Test
+	public void test_acceptFailureRecorded() throws IOException, InterruptedException {
+		ServerSocket server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+		try (ReplicationPrimary primary = new ReplicationPrimary(new Graph(), server, 16)) {
+			assertNull(primary.getLastAcceptFailure());
+			// the socket closed under the primary stops its acceptor instead of failing in a loop
+			server.close();
+			for(int i = 0; i < 500 && primary.getLastAcceptFailure() == null; i++) {
+				Thread.sleep(10);
+			}
+			assertNotNull(primary.getLastAcceptFailure());
+		}
+	}
+}